@@ -0,0 +1,47 @@
+package com.simulacion.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Acepta las mismas opciones que JMH; si no se indica otro formato, los
+// resultados quedan en results/jmh-<fecha>.json para compararlos entre versiones
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException, IOException {
+        CommandLineOptions commandLine;
+        try {
+            commandLine = new CommandLineOptions(args);
+        } catch (CommandLineOptionException e) {
+            System.err.println("Opciones inválidas: " + e.getMessage());
+            return;
+        }
+
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+            return;
+        }
+        if (commandLine.shouldList()) {
+            new Runner(commandLine).list();
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        ResultFormatType format = commandLine.getResultFormat().orElse(ResultFormatType.JSON);
+        options.resultFormat(format);
+        if (!commandLine.getResult().hasValue()) {
+            String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            new File("results").mkdirs();
+            options.result("results/jmh-" + stamp + "." + format.name().toLowerCase());
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,70 @@
+package com.simulacion.benchmarks;
+
+import com.simulacion.core.Event;
+import com.simulacion.core.EventListType;
+import com.simulacion.core.EventScheduler;
+import com.simulacion.core.SimulationClock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Modelo "hold": con la lista en un tamaño fijo, cada operación extrae el
+// próximo evento y programa otro a una distancia exponencial del actual
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EventSchedulerBenchmark {
+    private static final int INCREMENTS = 1 << 16;
+
+    @Param({"16", "1024", "65536"})
+    public int queueSize;
+
+    @Param({"BINARY_HEAP", "QUATERNARY_HEAP", "CALENDAR_QUEUE", "LADDER_QUEUE"})
+    public EventListType eventListType;
+
+    private EventScheduler scheduler;
+    private int handlerId;
+    private double[] increments;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scheduler = new EventScheduler(new SimulationClock(), eventListType);
+        handlerId = scheduler.registerHandler("HOLD", event -> { });
+
+        Random random = new Random(12345);
+        increments = new double[INCREMENTS];
+        for (int i = 0; i < INCREMENTS; i++) {
+            increments[i] = -Math.log(1.0 - random.nextDouble());
+        }
+        for (int i = 0; i < queueSize; i++) {
+            scheduler.scheduleEvent(handlerId, increments[i], 0, -1, -1, -1, 0);
+        }
+        next = queueSize;
+    }
+
+    @Benchmark
+    public double hold() {
+        Event event = scheduler.getNextEvent();
+        double time = event.getScheduledTime();
+        scheduler.recycle(event);
+        scheduler.scheduleEvent(handlerId, time + increments[next++ & (INCREMENTS - 1)], 0, -1, -1, -1, 0);
+        return time;
+    }
+}
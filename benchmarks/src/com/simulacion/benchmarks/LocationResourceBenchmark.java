@@ -0,0 +1,73 @@
+package com.simulacion.benchmarks;
+
+import com.simulacion.entities.EntityStore;
+import com.simulacion.locations.Location;
+import com.simulacion.locations.LocationType;
+import com.simulacion.resources.Resource;
+import com.simulacion.resources.ResourceType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Entradas y salidas de una locación llena (cada entrada queda en cola y tras
+// cada salida se admite a la primera de la cola, como hace OperationHandler) y
+// ciclos de toma y liberación de un recurso
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LocationResourceBenchmark {
+    @Param({"1", "16", "1024"})
+    public int capacity;
+
+    private Location location;
+    private Resource resource;
+    private int outside;
+    private double time;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        location = new Location(new LocationType("LOCACION", capacity, 1));
+        resource = new Resource(new ResourceType("RECURSO", capacity, 50.0));
+
+        EntityStore entities = new EntityStore();
+        for (int i = 0; i < capacity; i++) {
+            location.enter(entities.allocate(0, i + 1), 0.0);
+        }
+        outside = entities.allocate(0, capacity + 1);
+        time = 0.0;
+    }
+
+    @Benchmark
+    public int locationEnterExit() {
+        time += 1.0;
+        location.enter(outside, time);
+        // La entidad que sale es la que vuelve a entrar en la próxima operación
+        outside = location.exit(0, time);
+        location.enter(location.removeFromQueue(), time);
+        return outside;
+    }
+
+    @Benchmark
+    public int resourceAcquireRelease() {
+        time += 1.0;
+        resource.acquire(time);
+        int available = resource.getAvailableUnits();
+        resource.release(time);
+        return available;
+    }
+}
@@ -0,0 +1,61 @@
+package com.simulacion.benchmarks;
+
+import com.simulacion.locations.Location;
+import com.simulacion.locations.LocationType;
+import com.simulacion.locations.UnitSelection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Locación de units unidades casi llena: cada operación libera una unidad al
+// azar y hace entrar una entidad, que debe encontrar la unidad libre
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LocationUnitBenchmark {
+    @Param({"FIRST_AVAILABLE", "BY_TURN"})
+    public String selection;
+
+    @Param({"4", "256", "4096"})
+    public int units;
+
+    private Location location;
+    private SplittableRandom random;
+    private double time;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        location = new Location(new LocationType("TANQUES", 1, units));
+        location.setUnitSelection(UnitSelection.valueOf(selection));
+        for (int i = 0; i < units; i++) {
+            location.enter(i, 0.0);
+        }
+        random = new SplittableRandom(42);
+        time = 0.0;
+        next = units;
+    }
+
+    @Benchmark
+    public int exitEnter() {
+        time += 1.0;
+        location.exit(random.nextInt(units), time);
+        return location.enter(next++, time);
+    }
+}
@@ -0,0 +1,56 @@
+package com.simulacion.benchmarks;
+
+import com.simulacion.Main;
+import com.simulacion.core.EventListType;
+import com.simulacion.core.SimulationEngine;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Corrida completa del modelo de la cervecería; además de corridas por segundo
+// se informa el contador "events" en eventos ejecutados por segundo
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(2)
+public class ModelBenchmark {
+    @Param({"BINARY_HEAP", "QUATERNARY_HEAP", "CALENDAR_QUEUE", "LADDER_QUEUE"})
+    public EventListType eventListType;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class EventCounter {
+        public long events;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            events = 0;
+        }
+    }
+
+    @Benchmark
+    public SimulationEngine run(EventCounter counter) {
+        SimulationEngine engine = new SimulationEngine(eventListType);
+        Main.configureModel(engine);
+        engine.setRandomSeed(42);
+        engine.run(Main.SIMULATION_TIME);
+        // Contados al final: un sink de traza mediría otro ciclo de eventos
+        counter.events += engine.getExecutedEventCount();
+        return engine;
+    }
+}
@@ -0,0 +1,68 @@
+package com.simulacion.benchmarks;
+
+import com.simulacion.routing.PathNetwork;
+import com.simulacion.routing.PathNode;
+import com.simulacion.routing.PathSegment;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Camino más corto entre esquinas opuestas de una grilla de lado gridSide
+// con tramos bidireccionales entre nodos vecinos
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PathNetworkBenchmark {
+    @Param({"4", "8", "16", "32"})
+    public int gridSide;
+
+    private PathNetwork network;
+    private PathNode start;
+    private PathNode end;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PathNode[][] grid = new PathNode[gridSide][gridSide];
+        for (int row = 0; row < gridSide; row++) {
+            for (int column = 0; column < gridSide; column++) {
+                grid[row][column] = new PathNode("N" + row + "_" + column, null, column * 10.0, row * 10.0);
+            }
+        }
+
+        start = grid[0][0];
+        end = grid[gridSide - 1][gridSide - 1];
+        network = new PathNetwork("GRILLA", "Sobrepasar", start);
+        for (int row = 0; row < gridSide; row++) {
+            for (int column = 0; column < gridSide; column++) {
+                network.addNode(grid[row][column]);
+                if (column + 1 < gridSide) {
+                    network.addSegment(new PathSegment(grid[row][column], grid[row][column + 1], true));
+                }
+                if (row + 1 < gridSide) {
+                    network.addSegment(new PathSegment(grid[row][column], grid[row + 1][column], true));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public List<PathNode> findShortestPath() {
+        return network.findShortestPath(start, end);
+    }
+}
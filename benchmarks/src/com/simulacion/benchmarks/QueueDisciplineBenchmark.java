@@ -0,0 +1,66 @@
+package com.simulacion.benchmarks;
+
+import com.simulacion.entities.EntityQueue;
+import com.simulacion.entities.QueueDiscipline;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Cola de espera en sobrecarga: con depth entidades esperando, cada operación
+// encola una y atiende a la siguiente según la disciplina
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class QueueDisciplineBenchmark {
+    @Param({"FIFO", "LIFO", "SHORTEST_PROCESSING_TIME"})
+    public String discipline;
+
+    @Param({"16", "1024", "65536"})
+    public int depth;
+
+    private EntityQueue queue;
+    private double[] keys;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Claves al azar por handle, como tiempos de operación distintos
+        SplittableRandom random = new SplittableRandom(42);
+        keys = new double[depth + 1];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextDouble() * 100.0;
+        }
+        QueueDiscipline selected = "FIFO".equals(discipline) ? QueueDiscipline.FIFO
+            : "LIFO".equals(discipline) ? QueueDiscipline.LIFO
+            : QueueDiscipline.SHORTEST_PROCESSING_TIME;
+        queue = selected.createQueue(entity -> keys[entity]);
+        for (int i = 0; i < depth; i++) {
+            queue.add(i);
+        }
+        next = depth;
+    }
+
+    @Benchmark
+    public int addPoll() {
+        queue.add(next);
+        // La entidad atendida es la próxima en volver a la cola
+        next = queue.poll();
+        return next;
+    }
+}
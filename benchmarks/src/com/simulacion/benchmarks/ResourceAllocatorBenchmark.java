@@ -0,0 +1,88 @@
+package com.simulacion.benchmarks;
+
+import com.simulacion.entities.QueueDiscipline;
+import com.simulacion.resources.Resource;
+import com.simulacion.resources.ResourceAllocator;
+import com.simulacion.resources.ResourceType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Recurso en sobrecarga con depth pedidos en espera, repartidos entre un
+// reclamo de un recurso y uno de dos: cada operación encola un pedido, libera
+// el reclamo atendido antes y atiende al siguiente, como OperationHandler
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ResourceAllocatorBenchmark {
+    @Param({"FIFO", "SHORTEST_PROCESSING_TIME"})
+    public String discipline;
+
+    @Param({"16", "1024", "65536"})
+    public int depth;
+
+    private ResourceAllocator allocator;
+    private int[] claims;
+    private int grantedClaim;
+    private int next;
+    private double time;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Tiempos de movimiento al azar por handle
+        SplittableRandom random = new SplittableRandom(42);
+        double[] keys = new double[depth + 1];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextDouble() * 100.0;
+        }
+        List<Resource> resources = new ArrayList<>();
+        resources.add(new Resource(new ResourceType("OPERADOR", 1, 50.0)));
+        resources.add(new Resource(new ResourceType("CAMION", 1, 50.0)));
+        if ("SHORTEST_PROCESSING_TIME".equals(discipline)) {
+            resources.get(0).setQueueDiscipline(QueueDiscipline.SHORTEST_PROCESSING_TIME, entity -> keys[entity]);
+        }
+
+        allocator = new ResourceAllocator(resources);
+        claims = new int[] {
+            allocator.claimFor(new int[] { 0 }),
+            allocator.claimFor(new int[] { 0, 1 })
+        };
+        grantedClaim = claims[1];
+        allocator.acquire(grantedClaim, 0.0);
+        for (int i = 0; i < depth; i++) {
+            allocator.enqueue(i, claims[i % 2], 0, keys[i]);
+        }
+        next = depth;
+        time = 0.0;
+    }
+
+    @Benchmark
+    public int requestReleaseGrant() {
+        time += 1.0;
+        allocator.enqueue(next, claims[next % 2], 0, 1.0);
+        allocator.release(grantedClaim, time);
+        // La entidad atendida es la próxima en volver a pedir
+        next = allocator.nextGrant(0);
+        grantedClaim = allocator.getPendingClaim(next);
+        allocator.acquire(grantedClaim, time);
+        return next;
+    }
+}
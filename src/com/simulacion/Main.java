@@ -1,16 +1,245 @@
 package com.simulacion;
 
+import com.simulacion.arrivals.ArrivalGenerator;
+import com.simulacion.calendar.ShiftCalendar;
+import com.simulacion.checkpoint.EngineCheckpoint;
 import com.simulacion.core.SimulationEngine;
+import com.simulacion.monitor.SimulationMonitor;
 import com.simulacion.output.ReportGenerator;
+import com.simulacion.output.TableFormatter;
+import com.simulacion.parallel.ParallelSimulationEngine;
+import com.simulacion.replication.EntityMetric;
+import com.simulacion.replication.Kpi;
+import com.simulacion.replication.LocationMetric;
+import com.simulacion.replication.PrecisionTarget;
+import com.simulacion.replication.ReplicationRunner;
+import com.simulacion.replication.ReplicationSummary;
+import com.simulacion.replication.SequentialReplicationResult;
 import com.simulacion.processing.ProcessingRule;
-import com.simulacion.entities.Entity;
+import com.simulacion.steadystate.OutputSeries;
+import com.simulacion.steadystate.SteadyStateController;
+import com.simulacion.steadystate.SteadyStateResult;
+import com.simulacion.trace.MappedTraceWriter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class Main {
+    // Horizonte de la corrida (8 semanas = 56 días * 24 horas * 60 minutos) con el
+    // horario de la planta, lunes 6 PM - viernes 10 PM (ver configureModel):
+    // fuera de turno el reloj salta y los reportes miden las 100 horas
+    // semanales programadas
+    public static final double SIMULATION_TIME = 8 * ShiftCalendar.MINUTES_PER_WEEK; // minutos
+
     public static void main(String[] args) {
         System.out.println("Iniciando simulación del modelo de producción de cerveza...\n");
 
+        double simulationTime = SIMULATION_TIME;
+
+        // Con un argumento numérico se ejecutan réplicas independientes en paralelo;
+        // con "precision <max>" se replica hasta alcanzar la precisión de los KPI;
+        // con "parallel <n>" una sola corrida se reparte en hasta n procesos lógicos;
+        // con "batch <n>" los eventos simultáneos independientes usan n hilos;
+        // con "lockstep <n> <ancho>" las réplicas avanzan de a bloques sobre arreglos;
+        // con "checkpoint <tiempo> <archivo>" se guarda el estado y con "resume <archivo>" se continúa;
+        // con "whatif <tiempo>" se bifurca la corrida en ese minuto y se comparan escenarios;
+        // con "trace <base>" se guarda la traza binaria de todos los eventos ejecutados;
+        // con "metrics" se miden los eventos por tipo (y se emiten eventos de Flight Recorder);
+        // con "monitor <puerto>" el progreso se publica por HTTP y la corrida se puede pausar o detener;
+        // con "steady <máximo>" se descarta el calentamiento y se corre hasta la precisión buscada
+        Runnable mode;
+        try {
+            mode = selectMode(args, simulationTime);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            return;
+        }
+        mode.run();
+    }
+
+    // Interpreta los argumentos antes de correr nada: un modo desconocido o un
+    // valor inválido se informan junto con el uso
+    private static Runnable selectMode(String[] args, double simulationTime) {
+        if (args.length == 0) {
+            return () -> runSingle(0, null, simulationTime);
+        }
+        switch (args[0]) {
+            case "precision": {
+                int maxReplications = integer(args, 1, "El máximo de réplicas");
+                // El intervalo de confianza necesita al menos dos réplicas
+                if (maxReplications < 2) {
+                    throw new IllegalArgumentException("El máximo de réplicas debe ser al menos 2: " + args[1]);
+                }
+                return () -> runUntilPrecision(maxReplications, simulationTime);
+            }
+            case "parallel": {
+                int partitions = positiveInt(args, 1, "La cantidad de procesos");
+                return () -> runPartitioned(partitions, simulationTime);
+            }
+            case "batch": {
+                int batchParallelism = positiveInt(args, 1, "La cantidad de hilos");
+                return () -> runSingle(batchParallelism, null, simulationTime);
+            }
+            case "lockstep": {
+                int replications = positiveInt(args, 1, "La cantidad de réplicas");
+                int width = positiveInt(args, 2, "El ancho del bloque");
+                return () -> runLockstepReplications(replications, width, simulationTime);
+            }
+            case "checkpoint": {
+                double time = nonNegativeTime(args, 1, "El tiempo del checkpoint");
+                Path file = Paths.get(argument(args, 2, "el archivo del checkpoint"));
+                return () -> saveCheckpoint(time, file);
+            }
+            case "resume": {
+                Path file = Paths.get(argument(args, 1, "el archivo del checkpoint"));
+                return () -> runSingle(0, file, simulationTime);
+            }
+            case "whatif": {
+                double forkTime = nonNegativeTime(args, 1, "El tiempo de bifurcación");
+                if (forkTime <= 0 || forkTime >= simulationTime) {
+                    throw new IllegalArgumentException("El tiempo de bifurcación debe estar entre 0 y "
+                        + simulationTime + ": " + args[1]);
+                }
+                return () -> runWhatIf(forkTime, simulationTime);
+            }
+            case "trace": {
+                Path base = Paths.get(argument(args, 1, "la base de la traza"));
+                return () -> runTraced(base, simulationTime);
+            }
+            case "metrics":
+                return () -> runWithMetrics(simulationTime);
+            case "monitor": {
+                int port = integer(args, 1, "El puerto");
+                if (port < 0 || port > 65535) {
+                    throw new IllegalArgumentException("El puerto debe estar entre 0 y 65535: " + args[1]);
+                }
+                return () -> runMonitored(port, simulationTime);
+            }
+            case "steady": {
+                double maxTime = nonNegativeTime(args, 1, "El tiempo máximo");
+                if (maxTime == 0) {
+                    throw new IllegalArgumentException("El tiempo máximo debe ser positivo: " + args[1]);
+                }
+                return () -> runSteadyState(maxTime);
+            }
+            default: {
+                // Un número solo: réplicas independientes en paralelo
+                int replications;
+                try {
+                    replications = Integer.parseInt(args[0]);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Modo desconocido: " + args[0]);
+                }
+                if (replications <= 0) {
+                    throw new IllegalArgumentException("La cantidad de réplicas debe ser positiva: " + args[0]);
+                }
+                return () -> runReplications(replications, simulationTime);
+            }
+        }
+    }
+
+    private static String argument(String[] args, int index, String name) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Falta " + name + " del modo " + args[0]);
+        }
+        return args[index];
+    }
+
+    private static int integer(String[] args, int index, String name) {
+        String value = argument(args, index, name.toLowerCase());
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " debe ser un número entero: " + value);
+        }
+    }
+
+    private static int positiveInt(String[] args, int index, String name) {
+        int value = integer(args, index, name);
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " debe ser mayor que cero: " + args[index]);
+        }
+        return value;
+    }
+
+    private static double nonNegativeTime(String[] args, int index, String name) {
+        String value = argument(args, index, name.toLowerCase());
+        double time;
+        try {
+            time = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " debe ser un número: " + value);
+        }
+        if (!(time >= 0) || Double.isInfinite(time)) {
+            throw new IllegalArgumentException(name + " debe ser un minuto no negativo: " + value);
+        }
+        return time;
+    }
+
+    private static void printUsage() {
+        System.err.println("Uso: Main [modo]");
+        System.err.println("  (sin argumentos)               una corrida con el reporte completo");
+        System.err.println("  <n>                            n réplicas independientes en paralelo");
+        System.err.println("  precision <máximo>             réplicas hasta la precisión de los KPI");
+        System.err.println("  parallel <n>                   una corrida repartida en hasta n procesos lógicos");
+        System.err.println("  batch <n>                      eventos simultáneos independientes en n hilos");
+        System.err.println("  lockstep <n> <ancho>           n réplicas en bloques de ancho réplicas");
+        System.err.println("  checkpoint <tiempo> <archivo>  guarda el estado en ese minuto");
+        System.err.println("  resume <archivo>               continúa desde un checkpoint");
+        System.err.println("  whatif <tiempo>                bifurca la corrida y compara escenarios");
+        System.err.println("  trace <base>                   guarda la traza binaria de los eventos");
+        System.err.println("  metrics                        mide los eventos por tipo");
+        System.err.println("  monitor <puerto>               progreso por HTTP, con pausa y detención");
+        System.err.println("  steady <máximo>                corre hasta el estado estable");
+    }
+
+    // Corrida única con el reporte completo, opcionalmente por lotes concurrentes
+    // o a partir de un checkpoint (resumeFile != null)
+    private static void runSingle(int batchParallelism, Path resumeFile, double simulationTime) {
         // Crear motor de simulación
         SimulationEngine engine = new SimulationEngine();
+        configureModel(engine);
+        engine.setBatchParallelism(batchParallelism);
+        if (resumeFile != null) {
+            try {
+                EngineCheckpoint.restore(engine, resumeFile);
+            } catch (IOException e) {
+                System.err.println("Error al restaurar checkpoint: " + e.getMessage());
+                return;
+            }
+            System.out.println("Checkpoint restaurado en el minuto " + engine.getClock().getCurrentTime() + "\n");
+        }
+        
+        System.out.println("Ejecutando simulación por " + simulationTime + " minutos...\n");
+        engine.run(simulationTime);
+        if (batchParallelism > 0) {
+            System.out.println("Lotes: " + engine.getBatchExecutor().getBatchCount()
+                + ", lotes concurrentes: " + engine.getBatchExecutor().getConcurrentSegmentCount()
+                + ", grupos: " + engine.getBatchExecutor().getConcurrentGroupCount() + "\n");
+        }
+
+        // Generar reportes
+        ReportGenerator reportGenerator = new ReportGenerator(engine.getStatistics());
+        reportGenerator.generateConsoleReport();
+        reportGenerator.generateFileReport("reporte_simulacion.txt");
+        reportGenerator.generateCSVReport("entidades_reporte.csv", "locaciones_reporte.csv");
+
+        System.out.println("\n¡Simulación completada exitosamente!");
+    }
+
+    public static void configureModel(SimulationEngine engine) {
+        // Horario de la planta, antes de las locaciones para que todas lo tomen
+        engine.setShiftCalendar(plantCalendar());
 
         // Configurar tipos de entidades
         setupEntityTypes(engine);
@@ -26,22 +255,180 @@ public class Main {
 
         // Configurar arribos
         setupArrivals(engine);
+    }
 
-        // Ejecutar simulación (8 semanas = 56 días * 24 horas * 60 minutos)
-        // Pero considerando horario: Lunes 6 PM - Viernes 10 PM
-        // Aproximadamente 70 horas semanales * 8 semanas * 60 min = 33,600 minutos
-        double simulationTime = 33600.0; // minutos
-        
-        System.out.println("Ejecutando simulación por " + simulationTime + " minutos...\n");
+    // Semana desde el lunes 0:00: turno corrido de lunes 18:00 a viernes 22:00
+    private static ShiftCalendar plantCalendar() {
+        return ShiftCalendar.weekly()
+            .addShift(18 * 60, 4 * ShiftCalendar.MINUTES_PER_DAY + 22 * 60);
+    }
+
+    private static void runReplications(int replications, double simulationTime) {
+        System.out.println("Ejecutando " + replications + " réplicas de " + simulationTime + " minutos...\n");
+
+        ReplicationRunner runner = new ReplicationRunner(Main::configureModel, simulationTime);
+        ReplicationSummary summary = runner.run(replications);
+        System.out.println(TableFormatter.formatReplicationSummary(summary));
+    }
+
+    private static void runLockstepReplications(int replications, int width, double simulationTime) {
+        System.out.println("Ejecutando " + replications + " réplicas en bloques de " + width + "...\n");
+
+        ReplicationRunner runner = new ReplicationRunner(Main::configureModel, simulationTime);
+        runner.setLockstepWidth(width);
+        ReplicationSummary summary = runner.run(replications);
+        System.out.println(TableFormatter.formatReplicationSummary(summary));
+    }
+
+    private static void runUntilPrecision(int maxReplications, double simulationTime) {
+        System.out.println("Ejecutando réplicas hasta alcanzar la precisión (máximo " + maxReplications + ")...\n");
+
+        // El producto terminado sería CAJA_CON_CERVEZAS, pero el modelo no tiene
+        // arribos ni conversiones que la creen: su tiempo en sistema sería
+        // siempre 0. Se usa el de GRANOS_DE_CEBADA, que recorre la línea completa.
+        List<PrecisionTarget> targets = new ArrayList<>();
+        targets.add(PrecisionTarget.relative(
+            Kpi.entity("GRANOS_DE_CEBADA", EntityMetric.AVERAGE_SYSTEM_TIME), 0.05));
+        targets.add(PrecisionTarget.absolute(
+            Kpi.location("EMPACADO", LocationMetric.UTILIZATION_PERCENT), 1.0));
+
+        ReplicationRunner runner = new ReplicationRunner(Main::configureModel, simulationTime);
+        SequentialReplicationResult result = runner.runUntilPrecision(targets, maxReplications);
+        System.out.println(TableFormatter.formatSequentialResult(result));
+    }
+
+    private static void saveCheckpoint(double time, Path file) {
+        SimulationEngine engine = new SimulationEngine();
+        configureModel(engine);
+        try {
+            EngineCheckpoint.saveAt(engine, time, file);
+            System.out.println("Checkpoint del minuto " + time + " guardado en: " + file);
+        } catch (IOException e) {
+            System.err.println("Error al guardar checkpoint: " + e.getMessage());
+        }
+    }
+
+    private static void runWithMetrics(double simulationTime) {
+        SimulationEngine engine = new SimulationEngine();
+        configureModel(engine);
+        engine.setMetricsEnabled(true);
+        engine.setFlightRecorderEvents(true);
         engine.run(simulationTime);
+        System.out.println(TableFormatter.formatEngineMetrics(engine.getMetrics()));
+    }
+
+    private static void runSteadyState(double maxTime) {
+        SimulationEngine engine = new SimulationEngine();
+        configureModel(engine);
+
+        // Muestras de una hora; las series se eligen como en el modo "precision"
+        SteadyStateController controller = new SteadyStateController(engine, 60.0, maxTime);
+        controller.addSeries(OutputSeries.entitySystemTime("GRANOS_DE_CEBADA"), 0.05);
+        controller.addSeries(OutputSeries.locationContents("EMPACADO"), 0.05);
+        System.out.println("Ejecutando hasta el estado estable (máximo " + maxTime + " minutos)...\n");
+        SteadyStateResult result = controller.run();
+        System.out.println(TableFormatter.formatSteadyStateResult(result));
+        if (!result.isWarmupDetected()) {
+            System.out.println("Reporte de la corrida completa, con el calentamiento incluido:");
+        }
 
-        // Generar reportes
         ReportGenerator reportGenerator = new ReportGenerator(engine.getStatistics());
         reportGenerator.generateConsoleReport();
-        reportGenerator.generateFileReport("reporte_simulacion.txt");
-        reportGenerator.generateCSVReport("entidades_reporte.csv", "locaciones_reporte.csv");
+    }
 
-        System.out.println("\n¡Simulación completada exitosamente!");
+    private static void runMonitored(int port, double simulationTime) {
+        SimulationEngine engine = new SimulationEngine();
+        configureModel(engine);
+        try (SimulationMonitor monitor = new SimulationMonitor(engine, port, 1000)) {
+            System.out.println("Progreso en http://localhost:" + monitor.getPort() + "/metrics "
+                + "(POST /pause, /resume, /stop)\n");
+            engine.run(simulationTime);
+            monitor.finished();
+        } catch (IOException e) {
+            System.err.println("Error al iniciar el monitor: " + e.getMessage());
+            return;
+        }
+        if (engine.isStopped()) {
+            System.out.println("Corrida detenida en el minuto " + engine.getClock().getCurrentTime() + "\n");
+        }
+
+        ReportGenerator reportGenerator = new ReportGenerator(engine.getStatistics());
+        reportGenerator.generateConsoleReport();
+    }
+
+    private static void runTraced(Path base, double simulationTime) {
+        SimulationEngine engine = new SimulationEngine();
+        configureModel(engine);
+        try (MappedTraceWriter writer = new MappedTraceWriter(base, engine)) {
+            engine.setTraceSink(writer);
+            engine.run(simulationTime);
+            System.out.println("Traza de " + writer.getRecordCount() + " eventos guardada en: " + base);
+        } catch (IOException e) {
+            System.err.println("Error al escribir la traza: " + e.getMessage());
+            return;
+        }
+
+        ReportGenerator reportGenerator = new ReportGenerator(engine.getStatistics());
+        reportGenerator.generateConsoleReport();
+    }
+
+    // Simula una sola vez el tramo común y corre las ramas en paralelo desde el punto de decisión
+    private static void runWhatIf(double forkTime, double simulationTime) {
+        System.out.println("Simulando tramo común hasta el minuto " + forkTime + "...\n");
+        SimulationEngine engine = new SimulationEngine();
+        configureModel(engine);
+        engine.executeEvents(forkTime, true);
+
+        // Cada rama mide solo desde la bifurcación: la utilización se calcula con
+        // la capacidad final, que en el tramo común era otra
+        Map<String, SimulationEngine> branches = new LinkedHashMap<>();
+        branches.put("BASE", branchFrom(engine));
+        SimulationEngine extraCapacity = branchFrom(engine);
+        extraCapacity.setLocationCapacity("EMPACADO", 2);
+        branches.put("EMPACADO capacidad 2", extraCapacity);
+        SimulationEngine extraOperator = branchFrom(engine);
+        extraOperator.setResourceUnits("OPERADOR_EMPACADO", 2);
+        branches.put("OPERADOR_EMPACADO 2 unidades", extraOperator);
+
+        ExecutorService pool = Executors.newFixedThreadPool(branches.size());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (SimulationEngine branch : branches.values()) {
+                futures.add(pool.submit(() -> branch.run(simulationTime)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            System.err.println("Error al ejecutar las ramas: " + e.getMessage());
+            return;
+        } finally {
+            pool.shutdown();
+        }
+
+        System.out.println("Estadísticas desde el minuto " + forkTime + " hasta el " + simulationTime);
+        for (Map.Entry<String, SimulationEngine> branch : branches.entrySet()) {
+            System.out.println("\n##### RAMA: " + branch.getKey() + " #####");
+            System.out.println(TableFormatter.formatLocationTable(branch.getValue().getStatistics().getLocationStats()));
+        }
+    }
+
+    private static SimulationEngine branchFrom(SimulationEngine engine) {
+        SimulationEngine branch = engine.fork();
+        branch.resetStatistics();
+        return branch;
+    }
+
+    private static void runPartitioned(int partitions, double simulationTime) {
+        System.out.println("Ejecutando simulación particionada en hasta " + partitions + " procesos...\n");
+
+        ParallelSimulationEngine engine = new ParallelSimulationEngine(Main::configureModel, partitions);
+        engine.run(simulationTime);
+        System.out.println("Particiones: " + engine.getPartitions().size()
+            + ", ventanas: " + engine.getWindowCount() + ", mensajes: " + engine.getMessageCount());
+
+        ReportGenerator reportGenerator = new ReportGenerator(engine.getStatistics());
+        reportGenerator.generateConsoleReport();
     }
 
     private static void setupEntityTypes(SimulationEngine engine) {
@@ -120,16 +507,16 @@ public class Main {
 
     private static void setupArrivals(SimulationEngine engine) {
         // GRANOS_DE_CEBADA: Primera vez = 0, INF ocurrencias, cada 25 minutos
-        engine.scheduleArrival("GRANOS_DE_CEBADA", "SILO_GRANDE", 0, 1345, 25);
+        engine.scheduleArrival("GRANOS_DE_CEBADA", "SILO_GRANDE", 0, ArrivalGenerator.INFINITE, 25);
         
         // LUPULO: Primera vez = 0, INF ocurrencias, cada 10 minutos
-        engine.scheduleArrival("LUPULO", "SILO_LUPULO", 0, 3360, 10);
+        engine.scheduleArrival("LUPULO", "SILO_LUPULO", 0, ArrivalGenerator.INFINITE, 10);
         
         // LEVADURA: Primera vez = 0, INF ocurrencias, cada 20 minutos
-        engine.scheduleArrival("LEVADURA", "SILO_LEVADURA", 0, 1680, 20);
+        engine.scheduleArrival("LEVADURA", "SILO_LEVADURA", 0, ArrivalGenerator.INFINITE, 20);
         
         // CAJA_VACIA: Primera vez = 0, INF ocurrencias, cada 30 minutos
-        engine.scheduleArrival("CAJA_VACIA", "ALMACEN_CAJAS", 0, 1120, 30);
+        engine.scheduleArrival("CAJA_VACIA", "ALMACEN_CAJAS", 0, ArrivalGenerator.INFINITE, 30);
     }
 
     // Clase interna para reglas de procesamiento simples
@@ -137,10 +524,5 @@ public class Main {
         public SimpleProcessingRule(String locationName, String entityTypeName, double processingTime) {
             super(locationName, entityTypeName, processingTime);
         }
-
-        @Override
-        public void process(Entity entity, SimulationEngine engine) {
-            // Implementación básica - se puede extender según necesidades
-        }
     }
 }
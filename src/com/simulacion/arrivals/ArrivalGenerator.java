@@ -1,42 +1,111 @@
 package com.simulacion.arrivals;
 
-import com.simulacion.core.Event;
+import com.simulacion.calendar.ShiftCalendar;
+import com.simulacion.core.EventFootprint;
+import com.simulacion.core.EventHandler;
 import com.simulacion.core.SimulationEngine;
-import com.simulacion.entities.Entity;
-import com.simulacion.entities.EntityType;
+import com.simulacion.core.TypedEvent;
+import com.simulacion.entities.EntityStore;
 import com.simulacion.processing.OperationHandler;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class ArrivalGenerator {
+    public static final int INFINITE = -1;
+
     private final SimulationEngine engine;
     private final OperationHandler operationHandler;
+    private final List<ArrivalStream> streams;
+    private final int arrivalHandler;
 
     public ArrivalGenerator(SimulationEngine engine) {
         this.engine = engine;
-        this.operationHandler = new OperationHandler(engine);
+        this.operationHandler = engine.getOperationHandler();
+        this.streams = new ArrayList<>();
+        this.arrivalHandler = engine.getScheduler().registerHandler("STREAM_ARRIVAL", new EventHandler() {
+            @Override
+            public void handle(TypedEvent event) {
+                handleArrival(event.getArgument());
+            }
+
+            @Override
+            public String describe(TypedEvent event) {
+                ArrivalStream stream = streams.get(event.getArgument());
+                return "Arrival of " + engine.getEntityType(stream.getEntityTypeIndex()).getName() + " at "
+                    + engine.getLocation(stream.getLocationIndex()).getType().getName();
+            }
+
+            @Override
+            public void footprint(TypedEvent event, EventFootprint footprint) {
+                // La numeración y el almacén de entidades son compartidos por todos los flujos
+                footprint.addShared(EventFootprint.ENTITY_CREATION);
+                footprint.addShared(EventFootprint.ENTITY_STORE);
+                footprint.addLocation(event.getLocationIndex());
+                operationHandler.blockingFootprint(event.getLocationIndex(), footprint);
+            }
+        });
     }
 
     public void scheduleArrivals(String entityTypeName, String locationName, 
                                 double firstTime, int occurrences, double frequency) {
-        EntityType entityType = engine.getEntityType(entityTypeName);
+        scheduleArrivals(entityTypeName, locationName, firstTime, occurrences, frequency, null);
+    }
+
+    // calendar null = arribos en todo momento
+    public void scheduleArrivals(String entityTypeName, String locationName, double firstTime,
+                                 int occurrences, double frequency, ShiftCalendar calendar) {
+        int entityTypeIndex = engine.getEntityTypeIndex(entityTypeName);
         
-        if (entityType == null) {
+        if (entityTypeIndex < 0) {
             System.err.println("Tipo de entidad no encontrado: " + entityTypeName);
             return;
         }
 
-        for (int i = 0; i < occurrences; i++) {
-            double arrivalTime = firstTime + (i * frequency);
-            
-            Event arrivalEvent = new Event(arrivalTime, 0, 
-                "Arrival of " + entityTypeName + " at " + locationName) {
-                @Override
-                public void execute() {
-                    Entity entity = new Entity(entityType);
-                    operationHandler.handleArrival(entity, locationName);
-                }
-            };
-            
-            engine.getScheduler().scheduleEvent(arrivalEvent);
+        int locationIndex = engine.getLocationIndex(locationName);
+
+        if (locationIndex < 0) {
+            System.err.println("Locación no encontrada: " + locationName);
+            return;
+        }
+
+        if (occurrences == INFINITE && frequency <= 0) {
+            System.err.println("Un arribo infinito requiere frecuencia positiva: " + entityTypeName);
+            return;
         }
+
+        // En una ejecución particionada cada flujo vive en la partición de su locación
+        if (!engine.isLocalLocation(locationIndex)) {
+            return;
+        }
+
+        ArrivalStream stream = new ArrivalStream(entityTypeIndex, locationIndex, firstTime,
+            occurrences, frequency, calendar);
+        streams.add(stream);
+        scheduleNext(streams.size() - 1);
+    }
+
+    // Cada flujo mantiene en la lista de eventos solo su próxima ocurrencia
+    private void scheduleNext(int streamIndex) {
+        ArrivalStream stream = streams.get(streamIndex);
+        if (stream.hasNext()) {
+            engine.getScheduler().scheduleEvent(arrivalHandler, stream.getNextTime(), 0,
+                EntityStore.NONE, stream.getLocationIndex(), -1, streamIndex);
+        }
+    }
+
+    private void handleArrival(int streamIndex) {
+        ArrivalStream stream = streams.get(streamIndex);
+        stream.advance();
+        scheduleNext(streamIndex);
+
+        int entity = engine.createEntity(stream.getEntityTypeIndex());
+        // El tiempo en sistema se mide desde el arribo, no desde cada locación
+        engine.getEntityStore().setEntryTime(entity, engine.getClock().getCurrentTime());
+        operationHandler.handleArrival(entity, stream.getLocationIndex());
+    }
+
+    public List<ArrivalStream> getStreams() {
+        return streams;
     }
 }
@@ -0,0 +1,83 @@
+package com.simulacion.arrivals;
+
+import com.simulacion.calendar.ShiftCalendar;
+
+// Con calendario, el primer arribo y la frecuencia se cuentan en tiempo de
+// turno: los arribos se detienen fuera de turno y siguen al empezar el próximo,
+// sin acumularse
+public class ArrivalStream {
+    private final int entityTypeIndex;
+    private final int locationIndex;
+    private final double firstTime;
+    private final int occurrences;
+    private final double frequency;
+    private final ShiftCalendar calendar;
+    private long generated;
+
+    public ArrivalStream(int entityTypeIndex, int locationIndex, double firstTime,
+                         int occurrences, double frequency) {
+        this(entityTypeIndex, locationIndex, firstTime, occurrences, frequency, null);
+    }
+
+    public ArrivalStream(int entityTypeIndex, int locationIndex, double firstTime,
+                         int occurrences, double frequency, ShiftCalendar calendar) {
+        this.entityTypeIndex = entityTypeIndex;
+        this.locationIndex = locationIndex;
+        this.firstTime = firstTime;
+        this.occurrences = occurrences;
+        this.frequency = frequency;
+        this.calendar = calendar;
+        this.generated = 0;
+    }
+
+    public boolean isInfinite() {
+        return occurrences == ArrivalGenerator.INFINITE;
+    }
+
+    public boolean hasNext() {
+        return isInfinite() || generated < occurrences;
+    }
+
+    // Se calcula desde el primer arribo para no acumular error de redondeo
+    public double getNextTime() {
+        double time = firstTime + generated * frequency;
+        return calendar == null ? time : calendar.getShiftTime(time);
+    }
+
+    public void advance() {
+        generated++;
+    }
+
+    public void restoreGenerated(long generated) {
+        this.generated = generated;
+    }
+
+    public int getEntityTypeIndex() {
+        return entityTypeIndex;
+    }
+
+    public int getLocationIndex() {
+        return locationIndex;
+    }
+
+    public double getFirstTime() {
+        return firstTime;
+    }
+
+    public int getOccurrences() {
+        return occurrences;
+    }
+
+    public double getFrequency() {
+        return frequency;
+    }
+
+    // null si el flujo no sigue un calendario
+    public ShiftCalendar getCalendar() {
+        return calendar;
+    }
+
+    public long getGenerated() {
+        return generated;
+    }
+}
@@ -0,0 +1,258 @@
+package com.simulacion.calendar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Calendario de turnos que se repite cada period minutos (p. ej. una semana que
+// empieza el lunes a las 0:00). El tiempo de turno son los turnos menos los
+// descansos. Las consultas trabajan con el tiempo programado acumulado desde el
+// minuto 0: pasar de una hora del reloj a minutos de turno, y volver, cuesta una
+// búsqueda binaria sobre los tramos de un período.
+//
+// Los cambios de turno no son eventos: quien programa algo avanza su fin en
+// tiempo de turno y el reloj salta los tramos fuera de turno. Se arma antes de
+// la corrida; después solo se consulta, también desde varios hilos.
+public class ShiftCalendar {
+    public static final double MINUTES_PER_DAY = 1440.0;
+    public static final double MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    private final double period;
+    private final List<double[]> shifts;
+    private final List<double[]> breaks;
+    // Tramos de turno de un período, ordenados y disjuntos: [starts[k], ends[k])
+    // con cumulative[k] minutos de turno antes de starts[k]
+    private double[] starts;
+    private double[] ends;
+    private double[] cumulative;
+    private double scheduledPerPeriod;
+
+    public ShiftCalendar(double period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("El período del calendario debe ser positivo: " + period);
+        }
+        this.period = period;
+        this.shifts = new ArrayList<>();
+        this.breaks = new ArrayList<>();
+        compile();
+    }
+
+    // Semana que empieza el lunes a las 0:00
+    public static ShiftCalendar weekly() {
+        return new ShiftCalendar(MINUTES_PER_WEEK);
+    }
+
+    // Minutos desde el inicio del período. Con end < start el turno cruza el
+    // fin del período y sigue desde el minuto 0 (p. ej. la noche del domingo
+    // al lunes): se guarda como [start, period) y [0, end)
+    public ShiftCalendar addShift(double start, double end) {
+        addInterval(shifts, start, end);
+        compile();
+        return this;
+    }
+
+    public ShiftCalendar addBreak(double start, double end) {
+        addInterval(breaks, start, end);
+        compile();
+        return this;
+    }
+
+    // El mismo turno todos los días del período, en minutos desde la
+    // medianoche; con end < start es un turno noche que termina al día
+    // siguiente (el del último día sigue al comienzo del período)
+    public ShiftCalendar addDailyShift(double start, double end) {
+        addDaily(shifts, start, end);
+        compile();
+        return this;
+    }
+
+    public ShiftCalendar addDailyBreak(double start, double end) {
+        addDaily(breaks, start, end);
+        compile();
+        return this;
+    }
+
+    private void addInterval(List<double[]> intervals, double start, double end) {
+        if (start < 0 || start >= period || end <= 0 || end > period || start == end) {
+            throw new IllegalArgumentException("Tramo fuera del período del calendario: " + start + " - " + end);
+        }
+        if (start < end) {
+            intervals.add(new double[] { start, end });
+        } else {
+            intervals.add(new double[] { start, period });
+            intervals.add(new double[] { 0, end });
+        }
+    }
+
+    private void addDaily(List<double[]> intervals, double start, double end) {
+        if (start < 0 || start >= MINUTES_PER_DAY || end <= 0 || end > MINUTES_PER_DAY || start == end) {
+            throw new IllegalArgumentException("Tramo diario inválido: " + start + " - " + end);
+        }
+        boolean overnight = end < start;
+        double length = overnight ? MINUTES_PER_DAY - start + end : end - start;
+        for (double day = 0; day < period; day += MINUTES_PER_DAY) {
+            double from = day + start;
+            double to = from + length;
+            if (to <= period) {
+                addInterval(intervals, from, to);
+            } else if (overnight) {
+                // Cruza el fin del período
+                addInterval(intervals, from, to - period);
+            } else {
+                // Período que no es de días enteros: el tramo se corta en el fin
+                addInterval(intervals, from, period);
+            }
+        }
+    }
+
+    // Unión de los turnos menos la unión de los descansos
+    private void compile() {
+        double[][] on = merge(shifts);
+        double[][] off = merge(breaks);
+        List<double[]> working = new ArrayList<>();
+        int b = 0;
+        for (double[] shift : on) {
+            double start = shift[0];
+            while (b < off.length && off[b][1] <= start) {
+                b++;
+            }
+            int k = b;
+            while (k < off.length && off[k][0] < shift[1]) {
+                if (off[k][0] > start) {
+                    working.add(new double[] { start, off[k][0] });
+                }
+                start = Math.max(start, off[k][1]);
+                k++;
+            }
+            if (start < shift[1]) {
+                working.add(new double[] { start, shift[1] });
+            }
+        }
+
+        starts = new double[working.size()];
+        ends = new double[working.size()];
+        cumulative = new double[working.size()];
+        double total = 0;
+        for (int k = 0; k < working.size(); k++) {
+            starts[k] = working.get(k)[0];
+            ends[k] = working.get(k)[1];
+            cumulative[k] = total;
+            total += ends[k] - starts[k];
+        }
+        scheduledPerPeriod = total;
+    }
+
+    private static double[][] merge(List<double[]> intervals) {
+        double[][] sorted = intervals.toArray(new double[0][]);
+        Arrays.sort(sorted, (x, y) -> Double.compare(x[0], y[0]));
+        List<double[]> merged = new ArrayList<>();
+        for (double[] interval : sorted) {
+            double[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && interval[0] <= last[1]) {
+                last[1] = Math.max(last[1], interval[1]);
+            } else {
+                merged.add(interval.clone());
+            }
+        }
+        return merged.toArray(new double[0][]);
+    }
+
+    public double getPeriod() {
+        return period;
+    }
+
+    // Minutos de turno en cada período
+    public double getScheduledTimePerPeriod() {
+        return scheduledPerPeriod;
+    }
+
+    public boolean isOnShift(double time) {
+        double offset = time - Math.floor(time / period) * period;
+        int k = segmentAtOrBefore(offset);
+        return k >= 0 && offset < ends[k];
+    }
+
+    // Minutos de turno entre el minuto 0 y time
+    public double getScheduledTime(double time) {
+        double cycles = Math.floor(time / period);
+        double offset = time - cycles * period;
+        int k = segmentAtOrBefore(offset);
+        double within = k < 0 ? 0 : cumulative[k] + Math.min(offset, ends[k]) - starts[k];
+        return cycles * scheduledPerPeriod + within;
+    }
+
+    // Minutos de turno entre from y to
+    public double getScheduledTime(double from, double to) {
+        return getScheduledTime(to) - getScheduledTime(from);
+    }
+
+    // Primer instante en turno en que se completan scheduled minutos de turno
+    // desde el minuto 0; un valor que cae justo en el fin de un turno pasa al
+    // comienzo del siguiente
+    public double getShiftTime(double scheduled) {
+        requireShifts();
+        double cycles = Math.floor(scheduled / scheduledPerPeriod);
+        double within = scheduled - cycles * scheduledPerPeriod;
+        int k = segmentContaining(within);
+        return cycles * period + starts[k] + (within - cumulative[k]);
+    }
+
+    // Instante en que termina un trabajo de duration minutos de turno que empieza
+    // en time. Si termina en el mismo turno el resultado es exactamente
+    // time + duration, igual que sin calendario; un trabajo sin duración fuera de
+    // turno espera al próximo turno
+    public double advance(double time, double duration) {
+        requireShifts();
+        double cycles = Math.floor(time / period);
+        double offset = time - cycles * period;
+        int k = segmentAtOrBefore(offset);
+        if (k >= 0 && offset < ends[k] && offset + duration <= ends[k]) {
+            return time + duration;
+        }
+        if (duration <= 0) {
+            return getShiftTime(getScheduledTime(time));
+        }
+        // Termina en otro turno: se busca el tramo donde se completa
+        double target = getScheduledTime(time) + duration;
+        double targetCycles = Math.floor(target / scheduledPerPeriod);
+        double within = target - targetCycles * scheduledPerPeriod;
+        if (within == 0 && targetCycles > 0) {
+            // Completa justo al fin del último turno del período anterior
+            return (targetCycles - 1) * period + ends[ends.length - 1];
+        }
+        int j = segmentEndingAtOrAfter(within);
+        return targetCycles * period + starts[j] + (within - cumulative[j]);
+    }
+
+    // Comienzo del próximo turno, o time si ya está en turno
+    public double nextShiftStart(double time) {
+        return advance(time, 0);
+    }
+
+    private void requireShifts() {
+        if (scheduledPerPeriod <= 0) {
+            throw new IllegalStateException("El calendario no tiene tiempo de turno");
+        }
+    }
+
+    // Último tramo que empieza en offset o antes; -1 si ninguno
+    private int segmentAtOrBefore(double offset) {
+        int index = Arrays.binarySearch(starts, offset);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    // Tramo con cumulative[k] <= within < cumulative[k] + largo
+    private int segmentContaining(double within) {
+        int index = Arrays.binarySearch(cumulative, within);
+        int k = index >= 0 ? index : -index - 2;
+        // Tramos de largo cero no existen, pero el redondeo puede dejar within al final
+        return Math.min(Math.max(k, 0), starts.length - 1);
+    }
+
+    // Tramo con cumulative[k] < within <= cumulative[k] + largo
+    private int segmentEndingAtOrAfter(double within) {
+        int index = Arrays.binarySearch(cumulative, within);
+        int k = index >= 0 ? index - 1 : -index - 2;
+        return Math.min(Math.max(k, 0), starts.length - 1);
+    }
+}
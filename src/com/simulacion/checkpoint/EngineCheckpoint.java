@@ -0,0 +1,623 @@
+package com.simulacion.checkpoint;
+
+import com.simulacion.arrivals.ArrivalStream;
+import com.simulacion.core.Event;
+import com.simulacion.core.EventScheduler;
+import com.simulacion.core.SimulationEngine;
+import com.simulacion.core.TypedEvent;
+import com.simulacion.entities.EntityStore;
+import com.simulacion.entities.EntityStatistics;
+import com.simulacion.locations.Location;
+import com.simulacion.resources.Resource;
+import com.simulacion.resources.ResourceAllocator;
+import com.simulacion.statistics.QuantileSketch;
+import com.simulacion.statistics.StatisticsCollector;
+import com.simulacion.statistics.TimeWeightedStatistics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+// Checkpoint binario del estado dinámico de un SimulationEngine: reloj, eventos
+// pendientes, entidades, locaciones, recursos, flujos de arribo, acumuladores
+// estadísticos, pedidos de recursos en espera y generador aleatorio. La estructura del modelo (reglas, rutas)
+// no se guarda: se restaura sobre un motor recién construido con el mismo
+// modelo, que continúa exactamente igual que la corrida original.
+public final class EngineCheckpoint {
+    private static final int MAGIC = 0x53494D43; // "SIMC"
+    private static final int VERSION = 12;
+    private static final ObjectInputFilter RANDOM_FILTER =
+        ObjectInputFilter.Config.createFilter("java.util.Random;!*");
+
+    private EngineCheckpoint() {
+    }
+
+    // Ejecuta hasta el tiempo indicado (inclusive) y guarda el checkpoint
+    public static void saveAt(SimulationEngine engine, double time, Path file) throws IOException {
+        engine.executeEvents(time, true);
+        save(engine, file);
+    }
+
+    // Ejecuta la corrida completa guardando un checkpoint cada interval minutos.
+    // Los archivos se numeran por orden (checkpoint_1.bin, checkpoint_2.bin...):
+    // un nombre con el tiempo redondeado repetiría nombres con intervalos fraccionarios
+    public static List<Path> runWithCheckpoints(SimulationEngine engine, double endTime, double interval,
+                                                Path directory) throws IOException {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("El intervalo de checkpoint debe ser positivo: " + interval);
+        }
+        Files.createDirectories(directory);
+
+        List<Path> written = new ArrayList<>();
+        double start = engine.getClock().getCurrentTime();
+        for (long k = 1; start + k * interval < endTime; k++) {
+            double time = start + k * interval;
+            Path file = directory.resolve("checkpoint_" + k + ".bin");
+            saveAt(engine, time, file);
+            written.add(file);
+        }
+        engine.run(endTime);
+        return written;
+    }
+
+    // Escribe primero a un temporal para no dejar un checkpoint truncado si la corrida cae
+    public static void save(SimulationEngine engine, Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            write(engine, out);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static void restore(SimulationEngine engine, Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            read(engine, in);
+        }
+    }
+
+    public static void write(SimulationEngine engine, OutputStream output) throws IOException {
+        DataOutputStream out = output instanceof DataOutputStream
+            ? (DataOutputStream) output : new DataOutputStream(output);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        writeStructure(engine, out);
+
+        EventScheduler scheduler = engine.getScheduler();
+        out.writeDouble(engine.getClock().getCurrentTime());
+        out.writeInt(engine.getNextEntityId());
+        out.writeInt(engine.getEntityIdStride());
+        out.writeLong(scheduler.getNextSequence());
+        writeRandom(engine.getRandom(), out);
+        out.writeDouble(engine.getStatisticsStartTime());
+
+        List<Event> pending = scheduler.getPendingEvents();
+        for (Event event : pending) {
+            if (!(event instanceof TypedEvent)) {
+                throw new IllegalStateException("Evento no serializable en el checkpoint: " + event.getDescription());
+            }
+        }
+        writeEntities(engine.getEntityStore(), out);
+
+        out.writeInt(pending.size());
+        for (Event event : pending) {
+            TypedEvent typed = (TypedEvent) event;
+            out.writeInt(typed.getHandlerId());
+            out.writeDouble(typed.getScheduledTime());
+            out.writeInt(typed.getPriority());
+            out.writeInt(typed.getEntity());
+            out.writeInt(typed.getLocationIndex());
+            out.writeInt(typed.getResourceIndex());
+            out.writeInt(typed.getArgument());
+            out.writeLong(typed.getSequence());
+        }
+
+        for (int i = 0; i < engine.getLocationCount(); i++) {
+            Location location = engine.getLocation(i);
+            writeTimeWeighted(location.getContentsStatistics(), out);
+            for (int unit = 0; unit < location.getUnitCount(); unit++) {
+                // Con una sola unidad sus estadísticas son las de la locación
+                if (location.getUnitCount() > 1) {
+                    writeTimeWeighted(location.getUnitContentsStatistics(unit), out);
+                }
+                out.writeInt(location.getUnitEntries(unit));
+                writeHandles(location.getUnitContents(unit), out);
+            }
+            out.writeInt(location.getNextUnit());
+            out.writeInt(location.getBlockedCount());
+            out.writeInt(location.getReservedCount());
+            writeHandles(location.getQueuedEntities(), out);
+            // Claves de orden guardadas al encolar, para no recalcularlas
+            double[] keys = location.getQueuedKeys();
+            out.writeBoolean(keys != null);
+            if (keys != null) {
+                for (double key : keys) {
+                    out.writeDouble(key);
+                }
+            }
+        }
+        for (int i = 0; i < engine.getResourceCount(); i++) {
+            Resource resource = engine.getResource(i);
+            out.writeInt(resource.getAvailableUnits());
+            writeTimeWeighted(resource.getBusyStatistics(), out);
+        }
+        writeAllocator(engine.getResourceAllocator(), out);
+        for (ArrivalStream stream : engine.getArrivalGenerator().getStreams()) {
+            out.writeLong(stream.getGenerated());
+        }
+        writeStatistics(engine.getStatistics(), out);
+        out.flush();
+    }
+
+    // El motor debe estar recién construido con el mismo modelo y sin ejecutar
+    public static void read(SimulationEngine engine, InputStream input) throws IOException {
+        DataInputStream in = input instanceof DataInputStream ? (DataInputStream) input : new DataInputStream(input);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("El archivo no es un checkpoint de simulación");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Versión de checkpoint no soportada: " + version);
+        }
+        if (engine.getClock().getCurrentTime() != 0.0) {
+            throw new IllegalStateException("El checkpoint debe restaurarse sobre un motor sin ejecutar");
+        }
+        readStructure(engine, in);
+
+        EventScheduler scheduler = engine.getScheduler();
+        scheduler.clear();
+        engine.getClock().advanceTo(in.readDouble());
+        int nextEntityId = in.readInt();
+        engine.setEntityIdSequence(nextEntityId, in.readInt());
+        scheduler.setNextSequence(in.readLong());
+        engine.setRandom(readRandom(in));
+        engine.setStatisticsStartTime(in.readDouble());
+
+        readEntities(engine, in);
+        EntityStore store = engine.getEntityStore();
+
+        int pendingCount = in.readInt();
+        for (int i = 0; i < pendingCount; i++) {
+            int handlerId = in.readInt();
+            double time = in.readDouble();
+            int priority = in.readInt();
+            int entity = checkHandle(store, in.readInt());
+            int locationIndex = in.readInt();
+            int resourceIndex = in.readInt();
+            int argument = in.readInt();
+            long sequence = in.readLong();
+            scheduler.restoreEvent(handlerId, time, priority, entity, locationIndex, resourceIndex, argument, sequence);
+        }
+
+        for (int i = 0; i < engine.getLocationCount(); i++) {
+            Location location = engine.getLocation(i);
+            readTimeWeighted(location.getContentsStatistics(), in);
+            int units = location.getUnitCount();
+            int[][] contents = new int[units][];
+            int[] entries = new int[units];
+            for (int unit = 0; unit < units; unit++) {
+                if (units > 1) {
+                    readTimeWeighted(location.getUnitContentsStatistics(unit), in);
+                }
+                entries[unit] = in.readInt();
+                contents[unit] = readHandles(store, in);
+            }
+            int nextUnit = in.readInt();
+            if (nextUnit < 0 || nextUnit >= units) {
+                throw new IOException("Unidad inválida en el checkpoint: " + nextUnit);
+            }
+            int blockedCount = in.readInt();
+            int reservedCount = in.readInt();
+            int[] queued = readHandles(store, in);
+            double[] queuedKeys = null;
+            if (in.readBoolean()) {
+                queuedKeys = new double[queued.length];
+                for (int k = 0; k < queuedKeys.length; k++) {
+                    queuedKeys[k] = in.readDouble();
+                }
+            }
+            if ((queuedKeys != null) != (location.getQueuedKeys() != null)) {
+                throw new IOException("La disciplina de la cola de " + location.getType().getName()
+                    + " no coincide con el checkpoint");
+            }
+            location.restoreState(contents, entries, nextUnit, blockedCount, reservedCount, queued, queuedKeys);
+        }
+        for (int i = 0; i < engine.getResourceCount(); i++) {
+            Resource resource = engine.getResource(i);
+            int availableUnits = in.readInt();
+            readTimeWeighted(resource.getBusyStatistics(), in);
+            resource.restoreState(availableUnits);
+        }
+        readAllocator(engine, in);
+        for (ArrivalStream stream : engine.getArrivalGenerator().getStreams()) {
+            stream.restoreGenerated(in.readLong());
+        }
+        readStatistics(engine.getStatistics(), in);
+    }
+
+    // Estructura: basta para detectar que el checkpoint es de otro modelo
+
+    private static void writeStructure(SimulationEngine engine, DataOutputStream out) throws IOException {
+        out.writeInt(engine.getEntityTypeCount());
+        for (int i = 0; i < engine.getEntityTypeCount(); i++) {
+            out.writeUTF(engine.getEntityType(i).getName());
+        }
+        out.writeInt(engine.getLocationCount());
+        for (int i = 0; i < engine.getLocationCount(); i++) {
+            out.writeUTF(engine.getLocation(i).getType().getName());
+            out.writeInt(engine.getLocation(i).getType().getCapacity());
+            out.writeInt(engine.getLocation(i).getUnitCount());
+        }
+        out.writeInt(engine.getResourceCount());
+        for (int i = 0; i < engine.getResourceCount(); i++) {
+            out.writeUTF(engine.getResource(i).getType().getName());
+            out.writeInt(engine.getResource(i).getType().getUnits());
+        }
+        List<ArrivalStream> streams = engine.getArrivalGenerator().getStreams();
+        out.writeInt(streams.size());
+        for (ArrivalStream stream : streams) {
+            out.writeInt(stream.getEntityTypeIndex());
+            out.writeInt(stream.getLocationIndex());
+        }
+        out.writeInt(engine.getScheduler().getHandlerCount());
+    }
+
+    private static void readStructure(SimulationEngine engine, DataInputStream in) throws IOException {
+        expect("tipos de entidad", engine.getEntityTypeCount(), in.readInt());
+        for (int i = 0; i < engine.getEntityTypeCount(); i++) {
+            expect("tipo de entidad " + i, engine.getEntityType(i).getName(), in.readUTF());
+        }
+        expect("locaciones", engine.getLocationCount(), in.readInt());
+        for (int i = 0; i < engine.getLocationCount(); i++) {
+            expect("locación " + i, engine.getLocation(i).getType().getName(), in.readUTF());
+            expect("capacidad de locación " + i, engine.getLocation(i).getType().getCapacity(), in.readInt());
+            expect("unidades de locación " + i, engine.getLocation(i).getUnitCount(), in.readInt());
+        }
+        expect("recursos", engine.getResourceCount(), in.readInt());
+        for (int i = 0; i < engine.getResourceCount(); i++) {
+            expect("recurso " + i, engine.getResource(i).getType().getName(), in.readUTF());
+            expect("unidades de recurso " + i, engine.getResource(i).getType().getUnits(), in.readInt());
+        }
+        List<ArrivalStream> streams = engine.getArrivalGenerator().getStreams();
+        expect("flujos de arribo", streams.size(), in.readInt());
+        for (ArrivalStream stream : streams) {
+            expect("tipo del flujo", stream.getEntityTypeIndex(), in.readInt());
+            expect("locación del flujo", stream.getLocationIndex(), in.readInt());
+        }
+        expect("manejadores de eventos", engine.getScheduler().getHandlerCount(), in.readInt());
+    }
+
+    private static void expect(String what, Object expected, Object actual) {
+        if (!expected.equals(actual)) {
+            throw new IllegalArgumentException("El checkpoint no corresponde al modelo (" + what + "): se esperaba "
+                + expected + " y se encontró " + actual);
+        }
+    }
+
+    // Pedidos de recursos: los reclamos en el orden en que se registraron, para
+    // que el reclamo que llevan los movimientos pendientes siga siendo el mismo,
+    // y la cola de cada uno con el pedido de cada entidad y sus claves
+
+    private static void writeAllocator(ResourceAllocator allocator, DataOutputStream out) throws IOException {
+        out.writeLong(allocator.getNextSequence());
+        out.writeInt(allocator.getClaimCount());
+        for (int claim = 0; claim < allocator.getClaimCount(); claim++) {
+            int[] resources = allocator.getClaimResources(claim);
+            out.writeInt(resources.length);
+            for (int resourceIndex : resources) {
+                out.writeInt(resourceIndex);
+            }
+            int[] waiting = allocator.getWaitingEntities(claim);
+            out.writeInt(waiting.length);
+            for (int entity : waiting) {
+                out.writeInt(entity);
+                out.writeInt(allocator.getPendingDestination(entity));
+                out.writeDouble(allocator.getPendingMoveTime(entity));
+                out.writeLong(allocator.getPendingSequence(entity));
+                for (double key : allocator.getPendingKeys(entity)) {
+                    out.writeDouble(key);
+                }
+            }
+        }
+    }
+
+    private static void readAllocator(SimulationEngine engine, DataInputStream in) throws IOException {
+        ResourceAllocator allocator = engine.getResourceAllocator();
+        EntityStore store = engine.getEntityStore();
+        allocator.clearWaiting();
+        long nextSequence = in.readLong();
+        int claimCount = in.readInt();
+        for (int claim = 0; claim < claimCount; claim++) {
+            int[] resources = new int[in.readInt()];
+            for (int i = 0; i < resources.length; i++) {
+                resources[i] = in.readInt();
+            }
+            if (allocator.claimFor(resources) != claim) {
+                throw new IOException("Los reclamos de recursos del checkpoint no coinciden con el motor");
+            }
+            int waiting = in.readInt();
+            for (int i = 0; i < waiting; i++) {
+                int entity = checkHandle(store, in.readInt());
+                int destination = in.readInt();
+                if (entity == EntityStore.NONE || destination < 0 || destination >= engine.getLocationCount()) {
+                    throw new IOException("Pedido de recurso inválido en el checkpoint: " + entity);
+                }
+                double moveTime = in.readDouble();
+                long sequence = in.readLong();
+                double[] keys = new double[resources.length];
+                for (int k = 0; k < keys.length; k++) {
+                    keys[k] = in.readDouble();
+                }
+                allocator.restoreRequest(entity, claim, destination, moveTime, sequence, keys);
+            }
+        }
+        allocator.setNextSequence(nextSequence);
+    }
+
+    // Entidades: el almacén completo, así los handles de eventos y colas se
+    // guardan tal cual y la lista libre se reusa en el mismo orden
+
+    private static void writeEntities(EntityStore store, DataOutputStream out) throws IOException {
+        int handleLimit = store.getHandleLimit();
+        out.writeInt(store.getIntWidth());
+        out.writeInt(store.getLongWidth());
+        out.writeInt(store.getDoubleWidth());
+        out.writeInt(handleLimit);
+        for (int handle = 0; handle < handleLimit; handle++) {
+            if (!store.isLive(handle)) {
+                out.writeInt(-1);
+                continue;
+            }
+            out.writeInt(store.getType(handle));
+            out.writeInt(store.getId(handle));
+            out.writeInt(store.getLocation(handle));
+            out.writeInt(store.getUnit(handle));
+            out.writeDouble(store.getEntryTime(handle));
+            out.writeDouble(store.getTotalSystemTime(handle));
+            out.writeDouble(store.getTotalValueAddedTime(handle));
+            out.writeDouble(store.getTotalNonValueAddedTime(handle));
+            out.writeDouble(store.getTotalWaitTime(handle));
+            out.writeDouble(store.getTotalBlockedTime(handle));
+            out.writeDouble(store.getWaitStart(handle));
+            out.writeInt(store.getRoute(handle));
+            for (int slot = 0; slot < store.getIntWidth(); slot++) {
+                out.writeInt(store.getIntSlot(handle, slot));
+            }
+            for (int slot = 0; slot < store.getLongWidth(); slot++) {
+                out.writeLong(store.getLongSlot(handle, slot));
+            }
+            for (int slot = 0; slot < store.getDoubleWidth(); slot++) {
+                out.writeDouble(store.getDoubleSlot(handle, slot));
+            }
+        }
+        writeHandles(store.getFreeHandles(), out);
+    }
+
+    private static void readEntities(SimulationEngine engine, DataInputStream in) throws IOException {
+        EntityStore store = engine.getEntityStore();
+        store.clear();
+        // Los atributos se declaran con el modelo: el ancho debe coincidir
+        expect("atributos int", store.getIntWidth(), in.readInt());
+        expect("atributos long", store.getLongWidth(), in.readInt());
+        expect("atributos double", store.getDoubleWidth(), in.readInt());
+        int handleLimit = in.readInt();
+        for (int handle = 0; handle < handleLimit; handle++) {
+            int type = in.readInt();
+            if (type == -1) {
+                continue;
+            }
+            if (type < 0 || type >= engine.getEntityTypeCount()) {
+                throw new IOException("Tipo de entidad inválido en el checkpoint: " + type);
+            }
+            store.restore(handle, in.readInt(), type, in.readInt(), in.readInt(), in.readDouble(),
+                in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(),
+                in.readDouble());
+            store.setRoute(handle, in.readInt());
+            for (int slot = 0; slot < store.getIntWidth(); slot++) {
+                store.setIntSlot(handle, slot, in.readInt());
+            }
+            for (int slot = 0; slot < store.getLongWidth(); slot++) {
+                store.setLongSlot(handle, slot, in.readLong());
+            }
+            for (int slot = 0; slot < store.getDoubleWidth(); slot++) {
+                store.setDoubleSlot(handle, slot, in.readDouble());
+            }
+        }
+        try {
+            store.restoreFreeHandles(handleLimit, readHandles(null, in));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private static void writeHandles(int[] handles, DataOutputStream out) throws IOException {
+        out.writeInt(handles.length);
+        for (int handle : handles) {
+            out.writeInt(handle);
+        }
+    }
+
+    // Con store se verifica que cada handle sea de una entidad viva
+    private static int[] readHandles(EntityStore store, DataInputStream in) throws IOException {
+        int[] handles = new int[in.readInt()];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = checkHandle(store, in.readInt());
+        }
+        return handles;
+    }
+
+    private static int checkHandle(EntityStore store, int handle) throws IOException {
+        if (store != null && handle != EntityStore.NONE && !store.isLive(handle)) {
+            throw new IOException("Referencia de entidad inválida en el checkpoint: " + handle);
+        }
+        return handle;
+    }
+
+    // Generador aleatorio: java.util.Random solo expone su estado por serialización
+
+    private static void writeRandom(Random random, DataOutputStream out) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream objects = new ObjectOutputStream(bytes)) {
+            objects.writeObject(random);
+        }
+        out.writeInt(bytes.size());
+        bytes.writeTo(out);
+    }
+
+    private static Random readRandom(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        try (ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            // Solo el generador: un checkpoint alterado no puede instanciar otras clases
+            objects.setObjectInputFilter(RANDOM_FILTER);
+            return (Random) objects.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Estado del generador aleatorio inválido en el checkpoint", e);
+        }
+    }
+
+    // Acumuladores estadísticos; las estadísticas de locación y recurso se recalculan al terminar
+
+    private static void writeStatistics(StatisticsCollector statistics, DataOutputStream out) throws IOException {
+        Map<String, EntityStatistics> entityStats = new TreeMap<>(statistics.getEntityStats());
+        out.writeInt(entityStats.size());
+        for (EntityStatistics stats : entityStats.values()) {
+            out.writeUTF(stats.getEntityName());
+            out.writeInt(stats.getTotalExits());
+            out.writeDouble(stats.getTotalSystemTime());
+            out.writeDouble(stats.getTotalValueAddedTime());
+            out.writeDouble(stats.getTotalNonValueAddedTime());
+            out.writeDouble(stats.getTotalWaitTime());
+            out.writeDouble(stats.getTotalBlockedTime());
+            out.writeDouble(stats.getMinSystemTime());
+            out.writeDouble(stats.getMaxSystemTime());
+            writeSketch(stats.getSystemTimeDistribution(), out);
+        }
+
+        Map<String, Integer> entries = new TreeMap<>(statistics.getLocationEntryCounts());
+        Map<String, Double> processingTimes = statistics.getLocationProcessingTimes();
+        Map<String, QuantileSketch> distributions = statistics.getLocationTimeDistributions();
+        out.writeInt(entries.size());
+        for (Map.Entry<String, Integer> entry : entries.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue());
+            out.writeDouble(processingTimes.getOrDefault(entry.getKey(), 0.0));
+            writeSketch(distributions.getOrDefault(entry.getKey(), new QuantileSketch()), out);
+        }
+
+        Map<String, Integer> trips = new TreeMap<>(statistics.getResourceTripCounts());
+        Map<String, Double> tripTimes = statistics.getResourceTripTimes();
+        out.writeInt(trips.size());
+        for (Map.Entry<String, Integer> entry : trips.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue());
+            out.writeDouble(tripTimes.getOrDefault(entry.getKey(), 0.0));
+        }
+    }
+
+    private static void readStatistics(StatisticsCollector statistics, DataInputStream in) throws IOException {
+        statistics.reset();
+        int entityCount = in.readInt();
+        for (int i = 0; i < entityCount; i++) {
+            EntityStatistics stats = new EntityStatistics(in.readUTF());
+            stats.recordExits(in.readInt(), in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(),
+                in.readDouble(), in.readDouble(), in.readDouble(), readSketch(in));
+            statistics.addEntityStatistics(stats);
+        }
+        int locationCount = in.readInt();
+        for (int i = 0; i < locationCount; i++) {
+            statistics.restoreLocationCounters(in.readUTF(), in.readInt(), in.readDouble(), readSketch(in));
+        }
+        int resourceCount = in.readInt();
+        for (int i = 0; i < resourceCount; i++) {
+            statistics.restoreResourceCounters(in.readUTF(), in.readInt(), in.readDouble());
+        }
+    }
+
+    private static void writeTimeWeighted(TimeWeightedStatistics statistics, DataOutputStream out)
+            throws IOException {
+        out.writeInt(statistics.getLevel());
+        out.writeDouble(statistics.getStartTime());
+        out.writeDouble(statistics.getLastUpdateTime());
+        out.writeDouble(statistics.getArea());
+        out.writeDouble(statistics.getSquareArea());
+        out.writeInt(statistics.getMin());
+        out.writeInt(statistics.getMax());
+        int levels = statistics.getLevelCount();
+        out.writeInt(levels);
+        for (int level = 0; level < levels; level++) {
+            out.writeDouble(statistics.getTimeAtLevel(level));
+        }
+    }
+
+    private static void readTimeWeighted(TimeWeightedStatistics statistics, DataInputStream in) throws IOException {
+        int level = in.readInt();
+        double startTime = in.readDouble();
+        double lastUpdateTime = in.readDouble();
+        double area = in.readDouble();
+        double squareArea = in.readDouble();
+        int min = in.readInt();
+        int max = in.readInt();
+        int levels = in.readInt();
+        // El histograma llega hasta el máximo observado
+        if (levels < 0 || levels > Math.max(max, 0) + 1) {
+            throw new IOException("Histograma de niveles inválido en el checkpoint: " + levels);
+        }
+        double[] timeAtLevel = new double[levels];
+        for (int i = 0; i < levels; i++) {
+            timeAtLevel[i] = in.readDouble();
+        }
+        statistics.restore(level, startTime, lastUpdateTime, area, squareArea, min, max, timeAtLevel);
+    }
+
+    private static void writeSketch(QuantileSketch sketch, DataOutputStream out) throws IOException {
+        long[] buckets = sketch.getBucketCounts();
+        out.writeLong(sketch.getCount());
+        out.writeDouble(sketch.getMin());
+        out.writeDouble(sketch.getMax());
+        out.writeLong(sketch.getZeroCount());
+        out.writeInt(sketch.getFirstIndex());
+        out.writeInt(buckets.length);
+        for (long bucket : buckets) {
+            out.writeLong(bucket);
+        }
+    }
+
+    private static QuantileSketch readSketch(DataInputStream in) throws IOException {
+        long count = in.readLong();
+        double min = in.readDouble();
+        double max = in.readDouble();
+        long zeroCount = in.readLong();
+        int firstIndex = in.readInt();
+        int length = in.readInt();
+        if (length < 0 || length > QuantileSketch.MAX_BUCKETS) {
+            throw new IOException("Cantidad de cubetas inválida en el checkpoint: " + length);
+        }
+        long[] buckets = new long[length];
+        for (int i = 0; i < length; i++) {
+            buckets[i] = in.readLong();
+        }
+        QuantileSketch sketch = new QuantileSketch();
+        // Un bosquejo vacío guarda mínimo 0; se restaura como vacío
+        if (count > 0) {
+            sketch.restore(count, min, max, zeroCount, firstIndex, buckets);
+        }
+        return sketch;
+    }
+}
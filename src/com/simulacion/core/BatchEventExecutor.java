@@ -0,0 +1,237 @@
+package com.simulacion.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+// Ejecución por lotes: se extraen juntos todos los eventos con el mismo
+// (tiempo, prioridad), se agrupan por huellas que se cruzan y los grupos
+// independientes se ejecutan en paralelo. Dentro de un grupo se respeta el
+// orden de la lista de eventos y los eventos que programan se insertan al final
+// del lote en ese mismo orden, así que las secuencias (y el resultado) son las
+// mismas que en la ejecución de a un evento.
+public class BatchEventExecutor {
+    private final EventScheduler scheduler;
+    private final SimulationClock clock;
+    private final List<Event> batch;
+    private final List<EventFootprint> footprints;
+    private final List<List<Event>> staged;
+    private final Map<Integer, Integer> owners;
+    private int[] parent;
+    private long batchCount;
+    private long executedEventCount;
+    private long concurrentSegmentCount;
+    private long concurrentGroupCount;
+
+    BatchEventExecutor(EventScheduler scheduler, SimulationClock clock) {
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.batch = new ArrayList<>();
+        this.footprints = new ArrayList<>();
+        this.staged = new ArrayList<>();
+        this.owners = new HashMap<>();
+        this.parent = new int[16];
+    }
+
+    // Ejecuta el próximo lote si su tiempo no pasa el límite; devuelve cuántos
+    // eventos tenía (0 si no quedaba ninguno), para que el motor atienda el
+    // progreso y los pedidos de pausa o detención entre lotes
+    int executeNext(double limit, boolean inclusive, ExecutorService pool, EventTraceSink sink) {
+        if (!scheduler.hasEvents()) {
+            return 0;
+        }
+        Event first = scheduler.peekNextEvent();
+        double time = first.getScheduledTime();
+        if (time > limit || (time == limit && !inclusive)) {
+            return 0;
+        }
+        int priority = first.getPriority();
+        while (scheduler.hasEvents() && scheduler.peekNextEvent().getScheduledTime() == time
+                && scheduler.peekNextEvent().getPriority() == priority) {
+            batch.add(scheduler.getNextEvent());
+        }
+        clock.advanceTo(time);
+        batchCount++;
+        int size = batch.size();
+        executedEventCount += size;
+
+        // La traza conserva el orden secuencial del lote
+        if (sink != null) {
+            for (Event event : batch) {
+                sink.record(event);
+            }
+        }
+        executeBatch(pool, time, priority);
+        batch.clear();
+        return size;
+    }
+
+    private void executeBatch(ExecutorService pool, double time, int priority) {
+        // Los eventos sin huella conocida actúan como barrera dentro del lote
+        int segmentStart = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            EventFootprint footprint = footprintAt(i);
+            footprint.clear();
+            scheduler.footprint(batch.get(i), footprint);
+            if (footprint.isGlobal()) {
+                executeSegment(pool, segmentStart, i, time, priority);
+                executeSequential(i, i + 1);
+                segmentStart = i + 1;
+            }
+        }
+        executeSegment(pool, segmentStart, batch.size(), time, priority);
+    }
+
+    private void executeSegment(ExecutorService pool, int from, int to, double time, int priority) {
+        if (pool == null || to - from < 2) {
+            executeSequential(from, to);
+            return;
+        }
+
+        List<List<Integer>> groups = groupByConflicts(from, to);
+        if (groups.size() < 2) {
+            executeSequential(from, to);
+            return;
+        }
+
+        for (int i = from; i < to; i++) {
+            stagedAt(i).clear();
+        }
+
+        scheduler.setStaging(true);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int g = 1; g < groups.size(); g++) {
+                List<Integer> group = groups.get(g);
+                futures.add(pool.submit(() -> executeGroup(group)));
+            }
+            executeGroup(groups.get(0));
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ejecución concurrente interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló un evento del lote: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            scheduler.setStaging(false);
+        }
+        concurrentSegmentCount++;
+        concurrentGroupCount += groups.size();
+
+        // Se programan en el orden en que los habría creado la ejecución secuencial
+        for (int i = from; i < to; i++) {
+            for (Event event : stagedAt(i)) {
+                if (event.getScheduledTime() == time && event.getPriority() < priority) {
+                    throw new IllegalStateException("Un evento del lote programó otro en el mismo instante "
+                        + "con mayor prioridad; no es compatible con la ejecución concurrente");
+                }
+                scheduler.scheduleEvent(event);
+            }
+            stagedAt(i).clear();
+            scheduler.recycle(batch.get(i));
+        }
+    }
+
+    private void executeGroup(List<Integer> group) {
+        try {
+            for (int index : group) {
+                scheduler.stageInto(staged.get(index));
+                batch.get(index).execute();
+            }
+        } finally {
+            scheduler.stageInto(null);
+        }
+    }
+
+    private void executeSequential(int from, int to) {
+        for (int i = from; i < to; i++) {
+            Event event = batch.get(i);
+            event.execute();
+            scheduler.recycle(event);
+        }
+    }
+
+    // Une los eventos que comparten alguna clave; cada grupo conserva el orden del lote
+    private List<List<Integer>> groupByConflicts(int from, int to) {
+        if (parent.length < to) {
+            parent = new int[Math.max(to, parent.length * 2)];
+        }
+        owners.clear();
+        for (int i = from; i < to; i++) {
+            parent[i] = i;
+            EventFootprint footprint = footprints.get(i);
+            for (int k = 0; k < footprint.size(); k++) {
+                Integer owner = owners.putIfAbsent(footprint.getKey(k), i);
+                if (owner != null) {
+                    union(owner, i);
+                }
+            }
+        }
+
+        Map<Integer, List<Integer>> byRoot = new HashMap<>();
+        List<List<Integer>> groups = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            List<Integer> group = byRoot.get(find(i));
+            if (group == null) {
+                group = new ArrayList<>();
+                byRoot.put(find(i), group);
+                groups.add(group);
+            }
+            group.add(i);
+        }
+        return groups;
+    }
+
+    private int find(int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA != rootB) {
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+
+    private EventFootprint footprintAt(int index) {
+        while (footprints.size() <= index) {
+            footprints.add(new EventFootprint());
+        }
+        return footprints.get(index);
+    }
+
+    private List<Event> stagedAt(int index) {
+        while (staged.size() <= index) {
+            staged.add(new ArrayList<>());
+        }
+        return staged.get(index);
+    }
+
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    public long getExecutedEventCount() {
+        return executedEventCount;
+    }
+
+    // Segmentos de lote que se repartieron en al menos dos grupos independientes
+    public long getConcurrentSegmentCount() {
+        return concurrentSegmentCount;
+    }
+
+    public long getConcurrentGroupCount() {
+        return concurrentGroupCount;
+    }
+}
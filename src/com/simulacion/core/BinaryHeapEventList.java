@@ -0,0 +1,41 @@
+package com.simulacion.core;
+
+import java.util.PriorityQueue;
+
+public class BinaryHeapEventList implements FutureEventList {
+    private final PriorityQueue<Event> heap;
+
+    public BinaryHeapEventList() {
+        this.heap = new PriorityQueue<>();
+    }
+
+    @Override
+    public void add(Event event) {
+        heap.add(event);
+    }
+
+    @Override
+    public Event poll() {
+        return heap.poll();
+    }
+
+    @Override
+    public Event peek() {
+        return heap.peek();
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        heap.clear();
+    }
+}
@@ -0,0 +1,221 @@
+package com.simulacion.core;
+
+import java.util.Arrays;
+
+// Cola calendario (Brown, 1988). Cada cubeta guarda sus eventos ordenados y
+// cubre un "día" de ancho fijo; el calendario se redimensiona al duplicarse o
+// reducirse a la mitad la cantidad de eventos, recalculando el ancho de día a
+// partir de la separación media de los eventos más próximos.
+public class CalendarQueue implements FutureEventList {
+    private static final int MIN_BUCKETS = 2;
+    private static final int INITIAL_BUCKET_CAPACITY = 4;
+    private static final int SAMPLE_SIZE = 25;
+
+    private Event[][] buckets;
+    private int[] heads;
+    private int[] tails;
+    private int bucketCount;
+    private double width;
+    private int size;
+    // Día virtual (tiempo / ancho) donde empieza la búsqueda del siguiente evento
+    private long currentDay;
+    private int topThreshold;
+    private int bottomThreshold;
+
+    public CalendarQueue() {
+        this(MIN_BUCKETS, 1.0);
+    }
+
+    public CalendarQueue(int initialBuckets, double initialWidth) {
+        if (initialBuckets < MIN_BUCKETS || initialWidth <= 0) {
+            throw new IllegalArgumentException("Configuración de calendario inválida");
+        }
+        this.size = 0;
+        initCalendar(initialBuckets, initialWidth, 0.0);
+    }
+
+    private void initCalendar(int newBucketCount, double newWidth, double startTime) {
+        this.buckets = new Event[newBucketCount][];
+        this.heads = new int[newBucketCount];
+        this.tails = new int[newBucketCount];
+        this.bucketCount = newBucketCount;
+        this.width = newWidth;
+        this.currentDay = dayOf(startTime);
+        this.topThreshold = 2 * newBucketCount;
+        this.bottomThreshold = newBucketCount / 2 - 2;
+    }
+
+    private long dayOf(double time) {
+        return (long) Math.floor(time / width);
+    }
+
+    @Override
+    public void add(Event event) {
+        insert(event);
+        size++;
+        if (size > topThreshold) {
+            resize(bucketCount * 2);
+        }
+    }
+
+    @Override
+    public Event poll() {
+        if (size == 0) {
+            return null;
+        }
+        int bucket = locateMinimum();
+        Event event = buckets[bucket][heads[bucket]];
+        buckets[bucket][heads[bucket]] = null;
+        heads[bucket]++;
+        if (heads[bucket] == tails[bucket]) {
+            heads[bucket] = 0;
+            tails[bucket] = 0;
+        }
+        size--;
+        if (size < bottomThreshold && bucketCount > MIN_BUCKETS) {
+            resize(bucketCount / 2);
+        }
+        return event;
+    }
+
+    @Override
+    public Event peek() {
+        if (size == 0) {
+            return null;
+        }
+        int bucket = locateMinimum();
+        return buckets[bucket][heads[bucket]];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < bucketCount; i++) {
+            if (buckets[i] != null) {
+                Arrays.fill(buckets[i], null);
+            }
+            heads[i] = 0;
+            tails[i] = 0;
+        }
+        size = 0;
+        currentDay = 0;
+    }
+
+    private void insert(Event event) {
+        long day = dayOf(event.getScheduledTime());
+        if (day < currentDay) {
+            currentDay = day;
+        }
+        int bucket = (int) Math.floorMod(day, (long) bucketCount);
+        insertSorted(bucket, event);
+    }
+
+    private void insertSorted(int bucket, Event event) {
+        Event[] items = buckets[bucket];
+        if (items == null) {
+            items = new Event[INITIAL_BUCKET_CAPACITY];
+            buckets[bucket] = items;
+        }
+        if (tails[bucket] == items.length) {
+            int count = tails[bucket] - heads[bucket];
+            if (heads[bucket] > 0) {
+                System.arraycopy(items, heads[bucket], items, 0, count);
+                Arrays.fill(items, count, tails[bucket], null);
+            } else {
+                items = Arrays.copyOf(items, items.length * 2);
+                buckets[bucket] = items;
+            }
+            heads[bucket] = 0;
+            tails[bucket] = count;
+        }
+
+        // Búsqueda binaria del primer evento mayor (los empates quedan en orden FIFO)
+        int low = heads[bucket];
+        int high = tails[bucket];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (items[mid].compareTo(event) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        System.arraycopy(items, low, items, low + 1, tails[bucket] - low);
+        items[low] = event;
+        tails[bucket]++;
+    }
+
+    private int locateMinimum() {
+        long day = currentDay;
+        for (int n = 0; n < bucketCount; n++, day++) {
+            int bucket = (int) Math.floorMod(day, (long) bucketCount);
+            if (heads[bucket] < tails[bucket]
+                    && dayOf(buckets[bucket][heads[bucket]].getScheduledTime()) <= day) {
+                currentDay = day;
+                return bucket;
+            }
+        }
+
+        // Ningún evento en el año actual: búsqueda directa del mínimo
+        int best = -1;
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            if (heads[bucket] < tails[bucket] && (best < 0
+                    || buckets[bucket][heads[bucket]].compareTo(buckets[best][heads[best]]) < 0)) {
+                best = bucket;
+            }
+        }
+        currentDay = dayOf(buckets[best][heads[best]].getScheduledTime());
+        return best;
+    }
+
+    private void resize(int newBucketCount) {
+        Event[] all = new Event[size];
+        int count = 0;
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            for (int i = heads[bucket]; i < tails[bucket]; i++) {
+                all[count++] = buckets[bucket][i];
+            }
+        }
+        Arrays.sort(all);
+
+        double startTime = count > 0 ? all[0].getScheduledTime() : 0.0;
+        initCalendar(newBucketCount, estimateWidth(all), startTime);
+        for (Event event : all) {
+            insert(event);
+        }
+    }
+
+    private double estimateWidth(Event[] sorted) {
+        int samples = Math.min(sorted.length, SAMPLE_SIZE);
+        if (samples < 2) {
+            return width;
+        }
+        double span = sorted[samples - 1].getScheduledTime() - sorted[0].getScheduledTime();
+        double averageGap = span / (samples - 1);
+        if (averageGap <= 0) {
+            return width;
+        }
+
+        // Se descartan separaciones atípicas antes de promediar
+        double gapSum = 0;
+        int gapCount = 0;
+        for (int i = 1; i < samples; i++) {
+            double gap = sorted[i].getScheduledTime() - sorted[i - 1].getScheduledTime();
+            if (gap <= 2 * averageGap) {
+                gapSum += gap;
+                gapCount++;
+            }
+        }
+        double newWidth = gapCount > 0 ? 3.0 * gapSum / gapCount : width;
+        return newWidth > 0 ? newWidth : width;
+    }
+}
@@ -0,0 +1,28 @@
+package com.simulacion.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Evento de Flight Recorder por cada evento de simulación ejecutado
+@Name("com.simulacion.EventDispatch")
+@Label("Ejecución de evento")
+@Category({"Simulación"})
+@Description("Ejecución de un evento de la lista de eventos futuros")
+class DispatchFlightEvent extends jdk.jfr.Event {
+    @Label("Tipo")
+    String kind;
+
+    @Label("Tiempo simulado")
+    double simulatedTime;
+
+    @Label("Entidad")
+    int entityId;
+
+    @Label("Locación")
+    int locationIndex;
+
+    @Label("Eventos pendientes")
+    int pendingEvents;
+}
@@ -0,0 +1,133 @@
+package com.simulacion.core;
+
+import com.simulacion.locations.Location;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Métricas del ciclo de eventos; solo se registran si el motor las tiene
+// activadas. Los tipos de evento son los manejadores del scheduler; el índice 0
+// agrupa los eventos no tipados. En la ejecución por lotes se cuentan los
+// eventos pero no su tiempo, porque los grupos corren en paralelo: esos eventos
+// quedan como no medidos y no entran en el promedio por evento.
+public class EngineMetrics {
+    private final EventScheduler scheduler;
+    private final List<Location> locations;
+    private long[] eventCounts;
+    private long[] eventNanos;
+    private long[] untimedEventCounts;
+    private int eventListHighWater;
+    private long wallNanos;
+    private double simulatedTime;
+
+    EngineMetrics(EventScheduler scheduler, List<Location> locations) {
+        this.scheduler = scheduler;
+        this.locations = locations;
+        this.eventCounts = new long[scheduler.getHandlerCount() + 1];
+        this.eventNanos = new long[scheduler.getHandlerCount() + 1];
+        this.untimedEventCounts = new long[scheduler.getHandlerCount() + 1];
+        this.eventListHighWater = scheduler.getEventCount();
+        this.wallNanos = 0;
+        this.simulatedTime = 0.0;
+    }
+
+    void recordEvent(int handlerId, long nanos, int eventListSize) {
+        int slot = slotOf(handlerId);
+        eventCounts[slot]++;
+        eventNanos[slot] += nanos;
+        if (eventListSize > eventListHighWater) {
+            eventListHighWater = eventListSize;
+        }
+    }
+
+    // Evento ejecutado sin medir su tiempo (ejecución por lotes)
+    void recordUntimedEvent(int handlerId, int eventListSize) {
+        int slot = slotOf(handlerId);
+        eventCounts[slot]++;
+        untimedEventCounts[slot]++;
+        if (eventListSize > eventListHighWater) {
+            eventListHighWater = eventListSize;
+        }
+    }
+
+    private int slotOf(int handlerId) {
+        int slot = handlerId + 1;
+        if (slot >= eventCounts.length) {
+            eventCounts = Arrays.copyOf(eventCounts, scheduler.getHandlerCount() + 1);
+            eventNanos = Arrays.copyOf(eventNanos, scheduler.getHandlerCount() + 1);
+            untimedEventCounts = Arrays.copyOf(untimedEventCounts, scheduler.getHandlerCount() + 1);
+        }
+        return slot;
+    }
+
+    void recordRun(long wallNanos, double simulatedTime) {
+        this.wallNanos += wallNanos;
+        this.simulatedTime += simulatedTime;
+    }
+
+    // Cantidad de tipos de evento, incluido el de los no tipados (índice 0)
+    public int getKindCount() {
+        return eventCounts.length;
+    }
+
+    public String getKindName(int kind) {
+        return kind == 0 ? "SIN_TIPO" : scheduler.getHandlerName(kind - 1);
+    }
+
+    public long getEventCount(int kind) {
+        return eventCounts[kind];
+    }
+
+    public long getEventNanos(int kind) {
+        return eventNanos[kind];
+    }
+
+    // Eventos del tipo cuyo tiempo no se midió
+    public long getUntimedEventCount(int kind) {
+        return untimedEventCounts[kind];
+    }
+
+    public long getTotalUntimedEventCount() {
+        long total = 0;
+        for (long count : untimedEventCounts) {
+            total += count;
+        }
+        return total;
+    }
+
+    public long getTotalEventCount() {
+        long total = 0;
+        for (long count : eventCounts) {
+            total += count;
+        }
+        return total;
+    }
+
+    public int getEventListHighWater() {
+        return eventListHighWater;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    public double getSimulatedTime() {
+        return simulatedTime;
+    }
+
+    // Minutos simulados por segundo de reloj
+    public double getSimulatedTimePerWallSecond() {
+        return wallNanos > 0 ? simulatedTime / (wallNanos / 1e9) : 0.0;
+    }
+
+    // Mayor largo de cola de cada locación, en orden de declaración
+    public Map<String, Integer> getLocationQueueMaxima() {
+        Map<String, Integer> maxima = new LinkedHashMap<>();
+        for (Location location : locations) {
+            maxima.put(location.getType().getName(), location.getMaxQueueSize());
+        }
+        return maxima;
+    }
+}
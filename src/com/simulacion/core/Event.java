@@ -4,6 +4,7 @@ public abstract class Event implements Comparable<Event> {
     protected double scheduledTime;
     protected int priority;
     protected String description;
+    long sequence;
 
     public Event(double scheduledTime, int priority, String description) {
         this.scheduledTime = scheduledTime;
@@ -21,12 +22,25 @@ public abstract class Event implements Comparable<Event> {
         return priority;
     }
 
+    public long getSequence() {
+        return sequence;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
     @Override
     public int compareTo(Event other) {
         int timeComparison = Double.compare(this.scheduledTime, other.scheduledTime);
         if (timeComparison != 0) {
             return timeComparison;
         }
-        return Integer.compare(this.priority, other.priority);
+        int priorityComparison = Integer.compare(this.priority, other.priority);
+        if (priorityComparison != 0) {
+            return priorityComparison;
+        }
+        // Desempate FIFO por orden de programación
+        return Long.compare(this.sequence, other.sequence);
     }
 }
@@ -0,0 +1,79 @@
+package com.simulacion.core;
+
+import java.util.Arrays;
+
+// Estado del modelo que un evento puede leer o modificar. Dos eventos del mismo
+// instante cuyas huellas no se cruzan pueden ejecutarse en paralelo.
+public final class EventFootprint {
+    // Estado compartido que no pertenece a una locación ni a un recurso
+    public static final int ENTITY_CREATION = 0;
+    public static final int ENTITY_EXIT = 1;
+    public static final int REMOTE_ARRIVALS = 2;
+    public static final int RANDOM = 3;
+    // Altas y bajas del EntityStore (lista libre y crecimiento)
+    public static final int ENTITY_STORE = 4;
+    // Listas de espera entre locaciones: liberar lugar puede mover entidades
+    // bloqueadas en locaciones que no figuran en la huella
+    public static final int BLOCKING = 5;
+    // Colas de pedidos de recursos y su numeración (ResourceAllocator)
+    public static final int RESOURCE_REQUESTS = 6;
+
+    private static final int LOCATION = 0;
+    private static final int RESOURCE = 1;
+    private static final int SHARED = 2;
+
+    private int[] keys;
+    private int size;
+    private boolean global;
+
+    public EventFootprint() {
+        this.keys = new int[4];
+        this.size = 0;
+        this.global = false;
+    }
+
+    public void addLocation(int locationIndex) {
+        if (locationIndex >= 0) {
+            add(locationIndex << 2 | LOCATION);
+        }
+    }
+
+    public void addResource(int resourceIndex) {
+        if (resourceIndex >= 0) {
+            add(resourceIndex << 2 | RESOURCE);
+        }
+    }
+
+    public void addShared(int token) {
+        add(token << 2 | SHARED);
+    }
+
+    // El evento entra en conflicto con todos los demás
+    public void markGlobal() {
+        this.global = true;
+    }
+
+    public boolean isGlobal() {
+        return global;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int getKey(int index) {
+        return keys[index];
+    }
+
+    void clear() {
+        size = 0;
+        global = false;
+    }
+
+    private void add(int key) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        keys[size++] = key;
+    }
+}
@@ -0,0 +1,17 @@
+package com.simulacion.core;
+
+public interface EventHandler {
+    void handle(TypedEvent event);
+
+    // Solo se invoca con la traza activada
+    default String describe(TypedEvent event) {
+        return "Evento " + event.getHandlerId();
+    }
+
+    // Declara el estado que toca el evento para la ejecución concurrente por lotes.
+    // Solo puede depender de la carga del evento y de la estructura del modelo;
+    // por omisión el evento entra en conflicto con todos los demás.
+    default void footprint(TypedEvent event, EventFootprint footprint) {
+        footprint.markGlobal();
+    }
+}
@@ -0,0 +1,22 @@
+package com.simulacion.core;
+
+public enum EventListType {
+    BINARY_HEAP,
+    CALENDAR_QUEUE,
+    LADDER_QUEUE,
+    QUATERNARY_HEAP;
+
+    public FutureEventList create() {
+        switch (this) {
+            case CALENDAR_QUEUE:
+                return new CalendarQueue();
+            case LADDER_QUEUE:
+                return new LadderQueue();
+            case QUATERNARY_HEAP:
+                return new QuaternaryHeapEventList();
+            case BINARY_HEAP:
+            default:
+                return new BinaryHeapEventList();
+        }
+    }
+}
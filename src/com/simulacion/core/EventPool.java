@@ -0,0 +1,35 @@
+package com.simulacion.core;
+
+import java.util.Arrays;
+
+public class EventPool {
+    private final EventScheduler scheduler;
+    private TypedEvent[] free;
+    private int freeCount;
+
+    public EventPool(EventScheduler scheduler) {
+        this.scheduler = scheduler;
+        this.free = new TypedEvent[64];
+        this.freeCount = 0;
+    }
+
+    public TypedEvent acquire() {
+        if (freeCount == 0) {
+            return new TypedEvent(scheduler);
+        }
+        TypedEvent event = free[--freeCount];
+        free[freeCount] = null;
+        return event;
+    }
+
+    public void release(TypedEvent event) {
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, freeCount * 2);
+        }
+        free[freeCount++] = event;
+    }
+
+    public int getFreeCount() {
+        return freeCount;
+    }
+}
@@ -1,24 +1,269 @@
 package com.simulacion.core;
 
-import java.util.PriorityQueue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class EventScheduler {
-    private final PriorityQueue<Event> eventList;
+    private final FutureEventList eventList;
     private final SimulationClock clock;
+    private final EventPool pool;
+    private EventHandler[] handlers;
+    private String[] handlerNames;
+    private int handlerCount;
+    private long nextSequence;
+    // Durante un lote concurrente cada hilo acumula aquí los eventos que programa
+    private boolean staging;
+    private final ThreadLocal<List<Event>> stagedEvents;
+    // Motor de una partición: las secuencias locales avanzan de a sequenceStep
+    // para intercalar llegadas remotas, y el registro guarda la primera
+    // secuencia usada en cada instante del reloj
+    private long sequenceStep;
+    private double[] sequenceLogTimes;
+    private long[] sequenceLogValues;
+    private int sequenceLogStart;
+    private int sequenceLogSize;
+    private long lastRemoteSequence;
 
     public EventScheduler(SimulationClock clock) {
-        this.eventList = new PriorityQueue<>();
+        this(clock, EventListType.BINARY_HEAP);
+    }
+
+    public EventScheduler(SimulationClock clock, EventListType eventListType) {
+        this.eventList = eventListType.create();
         this.clock = clock;
+        this.pool = new EventPool(this);
+        this.handlers = new EventHandler[8];
+        this.handlerNames = new String[8];
+        this.handlerCount = 0;
+        this.nextSequence = 0;
+        this.staging = false;
+        this.stagedEvents = new ThreadLocal<>();
+        this.sequenceStep = 1;
+        this.sequenceLogTimes = null;
+        this.sequenceLogValues = null;
+        this.sequenceLogStart = 0;
+        this.sequenceLogSize = 0;
+        this.lastRemoteSequence = -1;
+    }
+
+    public int registerHandler(EventHandler handler) {
+        return registerHandler("EVENTO_" + handlerCount, handler);
+    }
+
+    // El nombre identifica el tipo de evento en las trazas
+    public int registerHandler(String name, EventHandler handler) {
+        if (handlerCount == handlers.length) {
+            handlers = Arrays.copyOf(handlers, handlerCount * 2);
+            handlerNames = Arrays.copyOf(handlerNames, handlerCount * 2);
+        }
+        handlers[handlerCount] = handler;
+        handlerNames[handlerCount] = name;
+        return handlerCount++;
+    }
+
+    public String getHandlerName(int handlerId) {
+        return handlerNames[handlerId];
     }
 
     public void scheduleEvent(Event event) {
+        if (staging) {
+            stagedEvents.get().add(event);
+            return;
+        }
+        if (sequenceStep != 1) {
+            logSequence();
+            event.sequence = nextSequence;
+            nextSequence += sequenceStep;
+        } else {
+            event.sequence = nextSequence++;
+        }
+        eventList.add(event);
+    }
+
+    // Deja lugar entre secuencias locales consecutivas para las llegadas de
+    // otras particiones; debe llamarse antes de programar eventos
+    public void enableRemoteOrdering(int step) {
+        if (step < 2) {
+            throw new IllegalArgumentException("El paso de secuencia debe ser al menos 2: " + step);
+        }
+        this.sequenceStep = step;
+        this.nextSequence = (nextSequence + 1) * step;
+        this.sequenceLogTimes = new double[64];
+        this.sequenceLogValues = new long[64];
+        this.sequenceLogStart = 0;
+        this.sequenceLogSize = 0;
+    }
+
+    private void logSequence() {
+        double now = clock.getCurrentTime();
+        int end = sequenceLogStart + sequenceLogSize;
+        if (sequenceLogSize > 0 && sequenceLogTimes[end - 1] == now) {
+            return;
+        }
+        if (end == sequenceLogTimes.length) {
+            if (sequenceLogStart > 0) {
+                System.arraycopy(sequenceLogTimes, sequenceLogStart, sequenceLogTimes, 0, sequenceLogSize);
+                System.arraycopy(sequenceLogValues, sequenceLogStart, sequenceLogValues, 0, sequenceLogSize);
+                sequenceLogStart = 0;
+            } else {
+                sequenceLogTimes = Arrays.copyOf(sequenceLogTimes, sequenceLogTimes.length * 2);
+                sequenceLogValues = Arrays.copyOf(sequenceLogValues, sequenceLogValues.length * 2);
+            }
+            end = sequenceLogSize;
+        }
+        sequenceLogTimes[end] = now;
+        sequenceLogValues[end] = nextSequence;
+        sequenceLogSize++;
+    }
+
+    // Evento creado por otra partición en sentTime: va detrás de los eventos
+    // locales programados hasta sentTime inclusive y delante de los
+    // programados después, como en el motor secuencial. Las llegadas con el
+    // mismo tiempo y prioridad deben entregarse en orden de sentTime
+    public TypedEvent scheduleRemoteEvent(int handlerId, double time, int priority, int entity,
+                                          int locationIndex, int resourceIndex, int argument, double sentTime) {
+        if (sequenceStep == 1) {
+            throw new IllegalStateException("Llegada remota sin orden de particiones habilitado");
+        }
+        long following = nextSequence;
+        int end = sequenceLogStart + sequenceLogSize;
+        int low = sequenceLogStart;
+        int high = end;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sequenceLogTimes[mid] <= sentTime) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low < end) {
+            following = sequenceLogValues[low];
+        }
+
+        long sequence;
+        if (following == nextSequence) {
+            // Ningún evento local posterior: la llegada va al final
+            logSequence();
+            sequence = nextSequence;
+            nextSequence += sequenceStep;
+        } else {
+            // Detrás de las llegadas que ya ocupan el mismo hueco
+            long previous = following - sequenceStep;
+            if (lastRemoteSequence > previous && lastRemoteSequence < following) {
+                previous = lastRemoteSequence;
+            }
+            sequence = previous + 1;
+            if (sequence >= following) {
+                throw new IllegalStateException("Demasiadas llegadas remotas entre dos eventos locales en "
+                    + sentTime);
+            }
+        }
+        lastRemoteSequence = sequence;
+
+        TypedEvent event = pool.acquire();
+        event.reset(handlerId, time, priority, entity, locationIndex, resourceIndex, argument);
+        event.sequence = sequence;
         eventList.add(event);
+        return event;
+    }
+
+    // Olvida los instantes anteriores a time: ninguna llegada remota futura
+    // puede haberse creado antes
+    public void trimSequenceLog(double time) {
+        while (sequenceLogSize > 0 && sequenceLogTimes[sequenceLogStart] <= time) {
+            sequenceLogStart++;
+            sequenceLogSize--;
+        }
+    }
+
+    public TypedEvent scheduleEvent(int handlerId, double time, int priority, int entity,
+                                    int locationIndex, int resourceIndex, int argument) {
+        // El pool no es seguro entre hilos
+        TypedEvent event = staging ? new TypedEvent(this) : pool.acquire();
+        event.reset(handlerId, time, priority, entity, locationIndex, resourceIndex, argument);
+        scheduleEvent(event);
+        return event;
+    }
+
+    void dispatch(TypedEvent event) {
+        handlers[event.getHandlerId()].handle(event);
+    }
+
+    String describe(TypedEvent event) {
+        return handlers[event.getHandlerId()].describe(event);
+    }
+
+    void footprint(Event event, EventFootprint footprint) {
+        if (event instanceof TypedEvent) {
+            TypedEvent typed = (TypedEvent) event;
+            handlers[typed.getHandlerId()].footprint(typed, footprint);
+        } else {
+            footprint.markGlobal();
+        }
+    }
+
+    // Solo el hilo principal, sin tareas del lote en curso
+    void setStaging(boolean staging) {
+        this.staging = staging;
+    }
+
+    // Destino de los eventos programados por el hilo actual mientras dura el lote
+    void stageInto(List<Event> target) {
+        stagedEvents.set(target);
+    }
+
+    // Devuelve al pool un evento ya ejecutado
+    public void recycle(Event event) {
+        if (event instanceof TypedEvent) {
+            pool.release((TypedEvent) event);
+        }
+    }
+
+    // Eventos pendientes en orden de ejecución; la lista queda intacta
+    public List<Event> getPendingEvents() {
+        List<Event> pending = new ArrayList<>(eventList.size());
+        while (!eventList.isEmpty()) {
+            pending.add(eventList.poll());
+        }
+        for (Event event : pending) {
+            eventList.add(event);
+        }
+        return pending;
+    }
+
+    // Reinserta un evento guardado conservando su secuencia original
+    public TypedEvent restoreEvent(int handlerId, double time, int priority, int entity,
+                                   int locationIndex, int resourceIndex, int argument, long sequence) {
+        TypedEvent event = pool.acquire();
+        event.reset(handlerId, time, priority, entity, locationIndex, resourceIndex, argument);
+        event.sequence = sequence;
+        eventList.add(event);
+        return event;
+    }
+
+    public long getNextSequence() {
+        return nextSequence;
+    }
+
+    public void setNextSequence(long nextSequence) {
+        this.nextSequence = nextSequence;
+    }
+
+    public int getHandlerCount() {
+        return handlerCount;
     }
 
     public Event getNextEvent() {
         return eventList.poll();
     }
 
+    public Event peekNextEvent() {
+        return eventList.peek();
+    }
+
     public boolean hasEvents() {
         return !eventList.isEmpty();
     }
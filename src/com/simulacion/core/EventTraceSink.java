@@ -0,0 +1,6 @@
+package com.simulacion.core;
+
+// Recibe cada evento justo antes de ejecutarse, en orden de ejecución
+public interface EventTraceSink {
+    void record(Event event);
+}
@@ -0,0 +1,19 @@
+package com.simulacion.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Evento de Flight Recorder para el cierre de estadísticas de una corrida
+@Name("com.simulacion.StatisticsFinalization")
+@Label("Cierre de estadísticas")
+@Category({"Simulación"})
+@Description("Cálculo de las estadísticas finales de las locaciones")
+class FinalizationFlightEvent extends jdk.jfr.Event {
+    @Label("Tiempo simulado")
+    double simulatedTime;
+
+    @Label("Locaciones")
+    int locationCount;
+}
@@ -0,0 +1,16 @@
+package com.simulacion.core;
+
+// Lista de eventos futuros ordenada por (tiempo, prioridad, secuencia)
+public interface FutureEventList {
+    void add(Event event);
+
+    Event poll();
+
+    Event peek();
+
+    int size();
+
+    boolean isEmpty();
+
+    void clear();
+}
@@ -0,0 +1,270 @@
+package com.simulacion.core;
+
+import java.util.Arrays;
+
+// Ladder queue (Tang, Goh y Thng, 2005). Los eventos lejanos se acumulan sin
+// ordenar en Top; al vaciarse Bottom se reparten en peldaños (rungs) de cubetas
+// cada vez más finas y solo la cubeta más próxima se ordena dentro de Bottom.
+public class LadderQueue implements FutureEventList {
+    private static final int MAX_RUNGS = 8;
+    private static final int BUCKET_THRESHOLD = 50;
+
+    // Top: eventos con tiempo > topStart, sin ordenar
+    private final EventBag top;
+    private double topMin;
+    private double topMax;
+    private double topStart;
+
+    // Peldaños
+    private final Rung[] rungs;
+    private int rungCount;
+
+    // Bottom: ordenado de forma descendente para extraer el mínimo del final
+    private Event[] bottom;
+    private int bottomSize;
+
+    private int size;
+
+    public LadderQueue() {
+        this.top = new EventBag();
+        this.rungs = new Rung[MAX_RUNGS];
+        for (int i = 0; i < MAX_RUNGS; i++) {
+            rungs[i] = new Rung();
+        }
+        this.bottom = new Event[BUCKET_THRESHOLD];
+        clear();
+    }
+
+    @Override
+    public void add(Event event) {
+        double time = event.getScheduledTime();
+        size++;
+
+        if (time > topStart) {
+            if (top.size == 0) {
+                topMin = time;
+                topMax = time;
+            } else {
+                topMin = Math.min(topMin, time);
+                topMax = Math.max(topMax, time);
+            }
+            top.add(event);
+            return;
+        }
+
+        for (int r = 0; r < rungCount; r++) {
+            Rung rung = rungs[r];
+            int bucket = rung.bucketFor(time);
+            if (bucket >= rung.current) {
+                rung.buckets[bucket].add(event);
+                return;
+            }
+        }
+
+        insertBottom(event);
+    }
+
+    @Override
+    public Event poll() {
+        if (!prepareBottom()) {
+            return null;
+        }
+        size--;
+        Event event = bottom[--bottomSize];
+        bottom[bottomSize] = null;
+        return event;
+    }
+
+    @Override
+    public Event peek() {
+        return prepareBottom() ? bottom[bottomSize - 1] : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        top.clear();
+        topMin = 0;
+        topMax = 0;
+        topStart = Double.NEGATIVE_INFINITY;
+        for (int r = 0; r < rungCount; r++) {
+            rungs[r].clear();
+        }
+        rungCount = 0;
+        Arrays.fill(bottom, 0, bottomSize, null);
+        bottomSize = 0;
+        size = 0;
+    }
+
+    private boolean prepareBottom() {
+        while (bottomSize == 0) {
+            if (rungCount == 0) {
+                if (top.size == 0) {
+                    return false;
+                }
+                transferTop();
+                continue;
+            }
+
+            Rung rung = rungs[rungCount - 1];
+            while (rung.current < rung.bucketCount && rung.buckets[rung.current].size == 0) {
+                rung.current++;
+            }
+            if (rung.current >= rung.bucketCount) {
+                rung.clear();
+                rungCount--;
+                continue;
+            }
+
+            EventBag bucket = rung.buckets[rung.current];
+            double bucketStart = rung.start + rung.current * rung.width;
+            rung.current++;
+
+            if (bucket.size > BUCKET_THRESHOLD && rungCount < MAX_RUNGS && bucket.hasDistinctTimes()) {
+                spawnRung(bucket, bucketStart, rung.width / bucket.size);
+            } else {
+                sortIntoBottom(bucket);
+            }
+        }
+        return true;
+    }
+
+    private void transferTop() {
+        if (topMax == topMin || top.size <= BUCKET_THRESHOLD) {
+            // Todos los eventos comparten tiempo o son pocos: se ordenan directamente
+            topStart = topMax;
+            sortIntoBottom(top);
+            return;
+        }
+        topStart = topMax;
+        Rung rung = rungs[0];
+        rung.reset(topMin, (topMax - topMin) / top.size, top.size + 1);
+        rungCount = 1;
+        distribute(top, rung);
+    }
+
+    private void spawnRung(EventBag bucket, double start, double width) {
+        Rung rung = rungs[rungCount];
+        rung.reset(start, width, bucket.size + 1);
+        rungCount++;
+        distribute(bucket, rung);
+    }
+
+    private static void distribute(EventBag source, Rung rung) {
+        for (int i = 0; i < source.size; i++) {
+            Event event = source.items[i];
+            rung.buckets[rung.bucketFor(event.getScheduledTime())].add(event);
+        }
+        source.clear();
+    }
+
+    private void sortIntoBottom(EventBag source) {
+        ensureBottomCapacity(bottomSize + source.size);
+        Arrays.sort(source.items, 0, source.size);
+        // Bottom está vacío cuando se llama: se copia invertido
+        for (int i = source.size - 1; i >= 0; i--) {
+            bottom[bottomSize++] = source.items[i];
+        }
+        source.clear();
+    }
+
+    private void insertBottom(Event event) {
+        ensureBottomCapacity(bottomSize + 1);
+        // Búsqueda binaria sobre el orden descendente
+        int low = 0;
+        int high = bottomSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bottom[mid].compareTo(event) > 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        System.arraycopy(bottom, low, bottom, low + 1, bottomSize - low);
+        bottom[low] = event;
+        bottomSize++;
+    }
+
+    private void ensureBottomCapacity(int capacity) {
+        if (capacity > bottom.length) {
+            bottom = Arrays.copyOf(bottom, Math.max(capacity, bottom.length * 2));
+        }
+    }
+
+    private static final class Rung {
+        EventBag[] buckets = new EventBag[0];
+        int bucketCount;
+        double start;
+        double width;
+        int current;
+
+        void reset(double newStart, double newWidth, int newBucketCount) {
+            if (buckets.length < newBucketCount) {
+                EventBag[] grown = Arrays.copyOf(buckets, newBucketCount);
+                for (int i = buckets.length; i < newBucketCount; i++) {
+                    grown[i] = new EventBag();
+                }
+                buckets = grown;
+            }
+            start = newStart;
+            width = newWidth;
+            bucketCount = newBucketCount;
+            current = 0;
+        }
+
+        // start + i * width se redondea: un tiempo asignado a la cubeta i del
+        // peldaño padre puede quedar apenas por debajo del inicio del hijo, así
+        // que el índice se acota a [0, bucketCount - 1]
+        int bucketFor(double time) {
+            if (time <= start) {
+                return 0;
+            }
+            return (int) Math.min((time - start) / width, bucketCount - 1);
+        }
+
+        void clear() {
+            for (int i = current; i < bucketCount; i++) {
+                buckets[i].clear();
+            }
+            bucketCount = 0;
+            current = 0;
+        }
+    }
+
+    private static final class EventBag {
+        Event[] items = new Event[8];
+        int size;
+
+        void add(Event event) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = event;
+        }
+
+        boolean hasDistinctTimes() {
+            double first = items[0].getScheduledTime();
+            for (int i = 1; i < size; i++) {
+                if (items[i].getScheduledTime() != first) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void clear() {
+            Arrays.fill(items, 0, size, null);
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.simulacion.core;
+
+// Se invoca desde el hilo de la simulación cada cierta cantidad de eventos;
+// puede leer el estado del motor sin sincronizar y bloquear para pausar.
+// Devuelve false para detener la corrida en el evento actual.
+public interface ProgressListener {
+    boolean onProgress(SimulationEngine engine);
+}
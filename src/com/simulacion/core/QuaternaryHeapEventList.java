@@ -0,0 +1,139 @@
+package com.simulacion.core;
+
+import java.util.Arrays;
+
+// Montículo 4-ario sobre arreglos primitivos. La clave de orden es el tiempo
+// (double) más un rango empaquetado en un long: prioridad en los bits altos y
+// secuencia en los bajos, de modo que el desempate es una sola comparación.
+public class QuaternaryHeapEventList implements FutureEventList {
+    private static final int ARITY = 4;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int SEQUENCE_BITS = 43;
+    private static final int PRIORITY_BITS = 20;
+    private static final int PRIORITY_OFFSET = 1 << (PRIORITY_BITS - 1);
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+    private double[] times;
+    private long[] ranks;
+    private Event[] events;
+    private int size;
+
+    public QuaternaryHeapEventList() {
+        this.times = new double[INITIAL_CAPACITY];
+        this.ranks = new long[INITIAL_CAPACITY];
+        this.events = new Event[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    static long packRank(int priority, long sequence) {
+        int biasedPriority = priority + PRIORITY_OFFSET;
+        if (biasedPriority < 0 || biasedPriority >= (1 << PRIORITY_BITS)) {
+            throw new IllegalArgumentException("Prioridad fuera de rango: " + priority);
+        }
+        if (sequence < 0 || sequence > MAX_SEQUENCE) {
+            throw new IllegalArgumentException("Secuencia fuera de rango: " + sequence);
+        }
+        return ((long) biasedPriority << SEQUENCE_BITS) | sequence;
+    }
+
+    @Override
+    public void add(Event event) {
+        if (size == times.length) {
+            grow();
+        }
+        siftUp(size, event.getScheduledTime(), packRank(event.getPriority(), event.getSequence()), event);
+        size++;
+    }
+
+    @Override
+    public Event poll() {
+        if (size == 0) {
+            return null;
+        }
+        Event result = events[0];
+        size--;
+        if (size > 0) {
+            siftDown(0, times[size], ranks[size], events[size]);
+        }
+        events[size] = null;
+        return result;
+    }
+
+    @Override
+    public Event peek() {
+        return size == 0 ? null : events[0];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(events, 0, size, null);
+        size = 0;
+    }
+
+    private void siftUp(int index, double time, long rank, Event event) {
+        while (index > 0) {
+            int parent = (index - 1) / ARITY;
+            if (!less(time, rank, times[parent], ranks[parent])) {
+                break;
+            }
+            move(parent, index);
+            index = parent;
+        }
+        set(index, time, rank, event);
+    }
+
+    private void siftDown(int index, double time, long rank, Event event) {
+        while (true) {
+            int firstChild = index * ARITY + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int lastChild = Math.min(firstChild + ARITY, size);
+            int best = firstChild;
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                if (less(times[child], ranks[child], times[best], ranks[best])) {
+                    best = child;
+                }
+            }
+            if (!less(times[best], ranks[best], time, rank)) {
+                break;
+            }
+            move(best, index);
+            index = best;
+        }
+        set(index, time, rank, event);
+    }
+
+    private static boolean less(double timeA, long rankA, double timeB, long rankB) {
+        return timeA < timeB || (timeA == timeB && rankA < rankB);
+    }
+
+    private void move(int from, int to) {
+        times[to] = times[from];
+        ranks[to] = ranks[from];
+        events[to] = events[from];
+    }
+
+    private void set(int index, double time, long rank, Event event) {
+        times[index] = time;
+        ranks[index] = rank;
+        events[index] = event;
+    }
+
+    private void grow() {
+        int newCapacity = times.length * 2;
+        times = Arrays.copyOf(times, newCapacity);
+        ranks = Arrays.copyOf(ranks, newCapacity);
+        events = Arrays.copyOf(events, newCapacity);
+    }
+}
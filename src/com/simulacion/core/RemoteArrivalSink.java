@@ -0,0 +1,13 @@
+package com.simulacion.core;
+
+import com.simulacion.entities.EntityStore;
+
+// Destino de las llegadas a locaciones que pertenecen a otra partición. El
+// handle es del almacén del motor que envía: el sink copia el estado de la
+// entidad en el momento y el motor libera el handle al volver. La prioridad
+// y la secuencia son las del evento que en el motor secuencial completaría
+// la llegada, para ordenarla igual entre los eventos del destino
+public interface RemoteArrivalSink {
+    void sendArrival(EntityStore store, int entity, int locationIndex, double arrivalTime,
+                     int priority, long sequence);
+}
@@ -6,11 +6,34 @@ import com.simulacion.resources.*;
 import com.simulacion.statistics.StatisticsCollector;
 import com.simulacion.processing.*;
 import com.simulacion.arrivals.ArrivalGenerator;
+import com.simulacion.arrivals.ArrivalStream;
+import com.simulacion.calendar.ShiftCalendar;
+import com.simulacion.checkpoint.EngineCheckpoint;
+import com.simulacion.routing.PathNetwork;
+import com.simulacion.trace.ConsoleTraceSink;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 public class SimulationEngine {
+    private static final long BATCH_THREAD_IDLE_SECONDS = 30;
+    // Lugar entre secuencias locales para las llegadas de otras particiones
+    private static final int REMOTE_SEQUENCE_STEP = 1 << 12;
+
+    private final EventListType eventListType;
     private final SimulationClock clock;
     private final EventScheduler scheduler;
     private final StatisticsCollector statistics;
@@ -18,62 +41,790 @@ public class SimulationEngine {
     private final Map<String, Location> locations;
     private final Map<String, Resource> resources;
     private final Map<String, ProcessingRule> processingRules;
+    // Rutas declaradas por locación de origen; sin entrada se usan las del modelo ProModel
+    private final Map<String, List<RoutingRule>> routingRules;
+    private PathNetwork pathNetwork;
+    // Calendario de la planta: el de las locaciones, recursos y arribos que no
+    // tienen uno propio y la base de los tiempos de las entidades (null = siempre en turno)
+    private ShiftCalendar shiftCalendar;
+    // Índices densos usados por los eventos tipados
+    private final Map<String, Integer> entityTypeIndices;
+    private final Map<String, Integer> locationIndices;
+    private final Map<String, Integer> resourceIndices;
+    private final List<EntityType> entityTypeList;
+    private final List<Location> locationList;
+    private final List<Resource> resourceList;
+    private final ResourceAllocator resourceAllocator;
+    private final List<ProcessingRule> processingRuleList;
+    private final OperationHandler operationHandler;
     private final ArrivalGenerator arrivalGenerator;
+    private Random random;
+    private final EntityStore entityStore;
+    private int nextEntityId;
+    private int entityIdStride;
+    // Partición: locaciones propias y destino de las llegadas a las ajenas
+    private Set<String> ownedLocationNames;
+    private final BitSet localLocations;
+    private RemoteArrivalSink remoteArrivalSink;
     private double simulationEndTime;
+    private double statisticsStartTime;
+    private boolean traceEnabled;
+    private EventTraceSink traceSink;
+    private long executedEventCount;
+    // Instrumentación opcional; desactivada el ciclo de eventos no la paga
+    private EngineMetrics metrics;
+    private boolean flightRecorderEvents;
+    // Avisos de progreso cada progressInterval eventos; detenida la corrida, las
+    // estadísticas se cierran en el tiempo alcanzado
+    private ProgressListener progressListener;
+    private long progressInterval;
+    private long progressCountdown;
+    private boolean stopped;
+    // Ejecución concurrente de eventos simultáneos (0 = desactivada)
+    private final BatchEventExecutor batchExecutor;
+    private int batchParallelism;
+    private ExecutorService batchPool;
+    // Hilos propios para los lotes: se crean una vez por motor y se reusan en
+    // cada executeEvents; terminan solos cuando quedan ociosos
+    private ThreadPoolExecutor ownBatchPool;
 
     public SimulationEngine() {
+        this(EventListType.BINARY_HEAP);
+    }
+
+    public SimulationEngine(EventListType eventListType) {
+        this.eventListType = eventListType;
         this.clock = new SimulationClock();
-        this.scheduler = new EventScheduler(clock);
+        this.scheduler = new EventScheduler(clock, eventListType);
         this.statistics = new StatisticsCollector();
         this.entityTypes = new HashMap<>();
-        this.locations = new HashMap<>();
+        // Orden de declaración: el de las filas del reporte de locaciones
+        this.locations = new LinkedHashMap<>();
         this.resources = new HashMap<>();
         this.processingRules = new HashMap<>();
+        this.routingRules = new LinkedHashMap<>();
+        this.pathNetwork = null;
+        this.shiftCalendar = null;
+        this.entityTypeIndices = new HashMap<>();
+        this.locationIndices = new HashMap<>();
+        this.resourceIndices = new HashMap<>();
+        this.entityTypeList = new ArrayList<>();
+        this.locationList = new ArrayList<>();
+        this.resourceList = new ArrayList<>();
+        this.resourceAllocator = new ResourceAllocator(resourceList);
+        this.processingRuleList = new ArrayList<>();
+        this.random = new Random();
+        this.entityStore = new EntityStore();
+        this.nextEntityId = 1;
+        this.entityIdStride = 1;
+        this.ownedLocationNames = null;
+        this.localLocations = new BitSet();
+        this.remoteArrivalSink = null;
+        this.operationHandler = new OperationHandler(this);
         this.arrivalGenerator = new ArrivalGenerator(this);
+        this.traceEnabled = false;
+        this.traceSink = null;
+        this.executedEventCount = 0;
+        this.metrics = null;
+        this.flightRecorderEvents = false;
+        this.progressListener = null;
+        this.progressInterval = Long.MAX_VALUE;
+        this.progressCountdown = Long.MAX_VALUE;
+        this.stopped = false;
+        this.batchExecutor = new BatchEventExecutor(scheduler, clock);
+        this.batchParallelism = 0;
+        this.batchPool = null;
+        this.ownBatchPool = null;
     }
 
     public void addEntityType(String name, double speed) {
-        entityTypes.put(name, new EntityType(name, speed));
+        EntityType entityType = new EntityType(name, speed);
+        entityTypes.put(name, entityType);
+        entityTypeIndices.put(name, entityTypeList.size());
+        entityTypeList.add(entityType);
     }
 
     public void addLocation(String name, int capacity, int units) {
-        locations.put(name, new Location(new LocationType(name, capacity, units)));
+        Location location = new Location(new LocationType(name, capacity, units));
+        location.setCalendar(shiftCalendar);
+        locations.put(name, location);
+        locationIndices.put(name, locationList.size());
+        localLocations.set(locationList.size(), ownedLocationNames == null || ownedLocationNames.contains(name));
+        locationList.add(location);
+        processingRuleList.add(processingRules.get(name));
     }
 
     public void addResource(String name, int units, double speed) {
-        resources.put(name, new Resource(new ResourceType(name, units, speed)));
+        Resource resource = new Resource(new ResourceType(name, units, speed));
+        resource.setCalendar(shiftCalendar);
+        resources.put(name, resource);
+        resourceIndices.put(name, resourceList.size());
+        resourceList.add(resource);
     }
 
     public void addProcessingRule(ProcessingRule rule) {
         processingRules.put(rule.getLocationName(), rule);
+        Integer index = locationIndices.get(rule.getLocationName());
+        if (index != null) {
+            processingRuleList.set(index, rule);
+        }
+    }
+
+    // Con varias rutas desde la misma locación el destino se sortea según sus
+    // probabilidades. Deben declararse antes de ejecutar eventos.
+    public void addRoutingRule(String fromLocation, RoutingRule rule) {
+        routingRules.computeIfAbsent(fromLocation, name -> new ArrayList<>()).add(rule);
+    }
+
+    public List<RoutingRule> getRoutingRules(String fromLocation) {
+        return routingRules.get(fromLocation);
+    }
+
+    // Red de caminos con nodos asociados a locaciones: los movimientos con
+    // recurso duran lo que tarda el recurso en recorrer el camino más corto
+    public void setPathNetwork(PathNetwork pathNetwork) {
+        this.pathNetwork = pathNetwork;
+    }
+
+    public PathNetwork getPathNetwork() {
+        return pathNetwork;
     }
 
-    public void scheduleArrival(String entityTypeName, String locationName, 
+    // Con calendario de planta, el primer arribo y la frecuencia se cuentan en tiempo de turno
+    public void scheduleArrival(String entityTypeName, String locationName,
                                double firstTime, int occurrences, double frequency) {
-        arrivalGenerator.scheduleArrivals(entityTypeName, locationName, 
-                                         firstTime, occurrences, frequency);
+        arrivalGenerator.scheduleArrivals(entityTypeName, locationName,
+                                         firstTime, occurrences, frequency, shiftCalendar);
+    }
+
+    // Flujo con su propio calendario (null = arribos en todo momento)
+    public void scheduleArrival(String entityTypeName, String locationName, double firstTime,
+                                int occurrences, double frequency, ShiftCalendar calendar) {
+        requireShiftTime(calendar);
+        arrivalGenerator.scheduleArrivals(entityTypeName, locationName,
+                                         firstTime, occurrences, frequency, calendar);
+    }
+
+    // Turnos y descansos de toda la planta. Debe definirse antes de construir el
+    // modelo, como la partición. Los cambios de turno no generan eventos: los
+    // trabajos en curso avanzan solo en turno y, con toda la planta fuera de
+    // turno, no queda nada programado hasta el próximo turno y el reloj salta
+    // directo a él. Los reportes miden contra el tiempo programado.
+    public void setShiftCalendar(ShiftCalendar shiftCalendar) {
+        if (!locationList.isEmpty() || !resourceList.isEmpty()) {
+            throw new IllegalStateException("El calendario de planta debe definirse antes de agregar locaciones");
+        }
+        requireShiftTime(shiftCalendar);
+        this.shiftCalendar = shiftCalendar;
+    }
+
+    public ShiftCalendar getShiftCalendar() {
+        return shiftCalendar;
+    }
+
+    // Calendario propio de una locación o un recurso, en lugar del de la planta;
+    // debe definirse antes de ejecutar eventos
+    public void setLocationCalendar(String locationName, ShiftCalendar calendar) {
+        Location location = locations.get(locationName);
+        if (location == null) {
+            throw new IllegalArgumentException("Locación no encontrada: " + locationName);
+        }
+        requireNotStarted();
+        requireShiftTime(calendar);
+        location.setCalendar(calendar);
+    }
+
+    public void setResourceCalendar(String resourceName, ShiftCalendar calendar) {
+        Resource resource = resources.get(resourceName);
+        if (resource == null) {
+            throw new IllegalArgumentException("Recurso no encontrado: " + resourceName);
+        }
+        requireNotStarted();
+        requireShiftTime(calendar);
+        resource.setCalendar(calendar);
+    }
+
+    private void requireNotStarted() {
+        if (getExecutedEventCount() > 0) {
+            throw new IllegalStateException("Los calendarios deben definirse antes de ejecutar eventos");
+        }
+    }
+
+    private static void requireShiftTime(ShiftCalendar calendar) {
+        if (calendar != null && calendar.getScheduledTimePerPeriod() <= 0) {
+            throw new IllegalArgumentException("El calendario no tiene tiempo de turno");
+        }
+    }
+
+    // Minutos de turno de la planta entre dos horas del reloj: la base de los
+    // tiempos en sistema, de espera y de bloqueo
+    public double getScheduledTime(double from, double to) {
+        return shiftCalendar == null ? to - from : shiftCalendar.getScheduledTime(from, to);
+    }
+
+    // Atributos de usuario del tipo de entidad; deben declararse antes de crear entidades
+    public IntAttribute addIntAttribute(String entityTypeName, String attributeName) {
+        return reserve(requireEntityType(entityTypeName).addIntAttribute(attributeName), entityTypeName);
+    }
+
+    public LongAttribute addLongAttribute(String entityTypeName, String attributeName) {
+        return reserve(requireEntityType(entityTypeName).addLongAttribute(attributeName), entityTypeName);
+    }
+
+    public DoubleAttribute addDoubleAttribute(String entityTypeName, String attributeName) {
+        return reserve(requireEntityType(entityTypeName).addDoubleAttribute(attributeName), entityTypeName);
+    }
+
+    public BooleanAttribute addBooleanAttribute(String entityTypeName, String attributeName) {
+        return reserve(requireEntityType(entityTypeName).addBooleanAttribute(attributeName), entityTypeName);
+    }
+
+    private EntityType requireEntityType(String entityTypeName) {
+        EntityType entityType = entityTypes.get(entityTypeName);
+        if (entityType == null) {
+            throw new IllegalArgumentException("Tipo de entidad no encontrado: " + entityTypeName);
+        }
+        return entityType;
+    }
+
+    private <A extends Attribute> A reserve(A attribute, String entityTypeName) {
+        EntityType entityType = entityTypes.get(entityTypeName);
+        entityStore.reserveAttributes(entityType.getIntSlotCount(), entityType.getLongSlotCount(),
+            entityType.getDoubleSlotCount());
+        return attribute;
+    }
+
+    // Cada motor numera sus propias entidades; devuelve el handle en el EntityStore
+    public int createEntity(int entityTypeIndex) {
+        int entity = entityStore.allocate(entityTypeIndex, nextEntityId);
+        nextEntityId += entityIdStride;
+        return entity;
+    }
+
+    // Divide una entidad: la nueva copia atributos y acumulados y recibe otro id.
+    // Sale sin locación; se ubica con getOperationHandler().handleArrival
+    public int splitEntity(int entity) {
+        int copy = entityStore.copy(entity, nextEntityId);
+        nextEntityId += entityIdStride;
+        return copy;
+    }
+
+    // Libera el handle de una entidad que salió del sistema (o pasó a otra partición)
+    public void destroyEntity(int entity) {
+        entityStore.free(entity);
+    }
+
+    // Espacio de ids intercalado para que varios motores no repitan ids
+    public void setEntityIdSequence(int firstId, int stride) {
+        this.nextEntityId = firstId;
+        this.entityIdStride = stride;
+    }
+
+    // Debe llamarse antes de construir el modelo: solo las locaciones indicadas
+    // son locales y sus flujos de arribo los únicos que se programan
+    public void setPartition(Set<String> ownedLocationNames, RemoteArrivalSink remoteArrivalSink) {
+        if (!locationList.isEmpty()) {
+            throw new IllegalStateException("La partición debe definirse antes de agregar locaciones");
+        }
+        this.ownedLocationNames = ownedLocationNames;
+        this.remoteArrivalSink = remoteArrivalSink;
+        scheduler.enableRemoteOrdering(REMOTE_SEQUENCE_STEP);
+    }
+
+    public boolean isLocalLocation(int locationIndex) {
+        return localLocations.get(locationIndex);
+    }
+
+    public RemoteArrivalSink getRemoteArrivalSink() {
+        if (remoteArrivalSink == null) {
+            throw new IllegalStateException("Llegada a una locación remota sin partición configurada");
+        }
+        return remoteArrivalSink;
+    }
+
+    // Cambios de parámetros en medio de la corrida (p. ej. en una rama de fork)
+    public void setLocationCapacity(String locationName, int capacity) {
+        Location location = locations.get(locationName);
+        if (location == null) {
+            throw new IllegalArgumentException("Locación no encontrada: " + locationName);
+        }
+        location.setCapacity(capacity, clock.getCurrentTime());
+        // Si creció, entran las entidades que esperaban lugar
+        operationHandler.wakeWaiting(locationIndices.get(locationName));
+    }
+
+    public void setResourceUnits(String resourceName, int units) {
+        Resource resource = resources.get(resourceName);
+        if (resource == null) {
+            throw new IllegalArgumentException("Recurso no encontrado: " + resourceName);
+        }
+        resource.setUnits(units, clock.getCurrentTime());
+        // Si creció, se atienden los pedidos que esperaban el recurso
+        operationHandler.serveWaiting(resourceIndices.get(resourceName));
+    }
+
+    // Disciplina de la cola de espera de una locación o de un recurso; la clave
+    // de cada entidad se calcula al encolarla
+    public void setLocationQueueDiscipline(String locationName, QueueDiscipline discipline) {
+        Location location = locations.get(locationName);
+        if (location == null) {
+            throw new IllegalArgumentException("Locación no encontrada: " + locationName);
+        }
+        int locationIndex = locationIndices.get(locationName);
+        location.setQueueDiscipline(discipline, queueKey(discipline,
+            entity -> operationHandler.getProcessingTime(entity, locationIndex)));
+    }
+
+    // Regla para elegir la unidad en una locación de varias unidades
+    public void setLocationUnitSelection(String locationName, UnitSelection unitSelection) {
+        Location location = locations.get(locationName);
+        if (location == null) {
+            throw new IllegalArgumentException("Locación no encontrada: " + locationName);
+        }
+        location.setUnitSelection(unitSelection);
+    }
+
+    public void setResourceQueueDiscipline(String resourceName, QueueDiscipline discipline) {
+        Resource resource = resources.get(resourceName);
+        if (resource == null) {
+            throw new IllegalArgumentException("Recurso no encontrado: " + resourceName);
+        }
+        int resourceIndex = resourceIndices.get(resourceName);
+        resource.setQueueDiscipline(discipline, queueKey(discipline,
+            entity -> operationHandler.getMoveTime(entity, resourceIndex)));
+        resourceAllocator.reorder(resourceIndex);
+    }
+
+    private EntityKey queueKey(QueueDiscipline discipline, EntityKey operationTime) {
+        switch (discipline.getKind()) {
+            case PRIORITY:
+                Attribute attribute = discipline.getAttribute();
+                requireEntityType(attribute.getEntityTypeName());
+                int entityTypeIndex = entityTypeIndices.get(attribute.getEntityTypeName());
+                return entity -> entityStore.getType(entity) == entityTypeIndex
+                    ? entityStore.getValue(entity, attribute)
+                    : 0.0;
+            case SHORTEST_PROCESSING_TIME:
+                return operationTime;
+            default:
+                return null;
+        }
+    }
+
+    // Motor independiente con el estado actual completo. La estructura se vuelve
+    // a declarar (las reglas de procesamiento se comparten porque no guardan
+    // estado) y el estado dinámico se copia con un checkpoint en memoria, así que
+    // la rama continúa igual que este motor, incluido el generador aleatorio.
+    public SimulationEngine fork() {
+        if (ownedLocationNames != null) {
+            throw new IllegalStateException("No se puede bifurcar un motor particionado");
+        }
+
+        SimulationEngine copy = new SimulationEngine(eventListType);
+        copy.shiftCalendar = shiftCalendar;
+        for (EntityType entityType : entityTypeList) {
+            copy.addEntityType(entityType.getName(), entityType.getSpeedMetersPerMinute());
+            // Mismo orden de declaración: mismos lugares en el almacén
+            for (Attribute attribute : entityType.getAttributes()) {
+                copy.redeclareAttribute(attribute);
+            }
+        }
+        // Los calendarios no guardan estado de la corrida y se comparten
+        for (Location location : locationList) {
+            LocationType type = location.getType();
+            copy.addLocation(type.getName(), type.getCapacity(), type.getUnits());
+            copy.getLocation(type.getName()).setCalendar(location.getCalendar());
+        }
+        for (Resource resource : resourceList) {
+            ResourceType type = resource.getType();
+            copy.addResource(type.getName(), type.getUnits(), type.getSpeedMetersPerMinute());
+            copy.getResource(type.getName()).setCalendar(resource.getCalendar());
+        }
+        for (ProcessingRule rule : processingRules.values()) {
+            copy.addProcessingRule(rule);
+        }
+        for (Map.Entry<String, List<RoutingRule>> entry : routingRules.entrySet()) {
+            for (RoutingRule rule : entry.getValue()) {
+                copy.addRoutingRule(entry.getKey(), rule);
+            }
+        }
+        // Antes de restaurar las colas, para que se armen con la misma disciplina
+        for (Location location : locationList) {
+            copy.setLocationQueueDiscipline(location.getType().getName(), location.getQueueDiscipline());
+            copy.setLocationUnitSelection(location.getType().getName(), location.getUnitSelection());
+        }
+        for (Resource resource : resourceList) {
+            copy.setResourceQueueDiscipline(resource.getType().getName(), resource.getQueueDiscipline());
+        }
+        // La red no guarda estado de la corrida; sus nodos se asocian por nombre de locación
+        copy.pathNetwork = pathNetwork;
+        for (ArrivalStream stream : arrivalGenerator.getStreams()) {
+            copy.scheduleArrival(entityTypeList.get(stream.getEntityTypeIndex()).getName(),
+                locationList.get(stream.getLocationIndex()).getType().getName(),
+                stream.getFirstTime(), stream.getOccurrences(), stream.getFrequency(), stream.getCalendar());
+        }
+        copy.traceEnabled = traceEnabled;
+        copy.flightRecorderEvents = flightRecorderEvents;
+        copy.batchParallelism = batchParallelism;
+        copy.batchPool = batchPool;
+
+        try {
+            ByteArrayOutputStream state = new ByteArrayOutputStream();
+            EngineCheckpoint.write(this, state);
+            EngineCheckpoint.read(copy, new ByteArrayInputStream(state.toByteArray()));
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo copiar el estado del motor", e);
+        }
+        return copy;
+    }
+
+    private void redeclareAttribute(Attribute attribute) {
+        String entityTypeName = attribute.getEntityTypeName();
+        if (attribute instanceof IntAttribute) {
+            addIntAttribute(entityTypeName, attribute.getName());
+        } else if (attribute instanceof LongAttribute) {
+            addLongAttribute(entityTypeName, attribute.getName());
+        } else if (attribute instanceof DoubleAttribute) {
+            addDoubleAttribute(entityTypeName, attribute.getName());
+        } else {
+            addBooleanAttribute(entityTypeName, attribute.getName());
+        }
+    }
+
+    public void setRandomSeed(long seed) {
+        random.setSeed(seed);
+    }
+
+    // Reemplaza el generador (p. ej. por uno restaurado de un checkpoint); nadie
+    // debe conservar la referencia anterior
+    public void setRandom(Random random) {
+        this.random = random;
+    }
+
+    public int getNextEntityId() {
+        return nextEntityId;
+    }
+
+    public int getEntityIdStride() {
+        return entityIdStride;
     }
 
     public void run(double endTime) {
         this.simulationEndTime = endTime;
-        
-        while (scheduler.hasEvents() && clock.getCurrentTime() < endTime) {
+
+        // Se ejecutan los eventos con tiempo <= endTime; los posteriores quedan
+        // pendientes para una llamada siguiente a run
+        executeEvents(endTime, true);
+        finish(stopped ? clock.getCurrentTime() : endTime);
+    }
+
+    // Ejecuta los eventos con tiempo < limit (<= limit si inclusive) sin cerrar estadísticas
+    public void executeEvents(double limit, boolean inclusive) {
+        // La detención vale solo para la llamada en curso: la siguiente retoma
+        stopped = false;
+        if (batchParallelism > 0 || batchPool != null) {
+            executeBatches(limit, inclusive);
+            return;
+        }
+        if (metrics != null || flightRecorderEvents) {
+            executeInstrumented(limit, inclusive);
+            return;
+        }
+        EventTraceSink sink = activeTraceSink();
+        while (!stopped && scheduler.hasEvents()) {
+            double nextTime = scheduler.peekNextEvent().getScheduledTime();
+            if (nextTime > limit || (nextTime == limit && !inclusive)) {
+                break;
+            }
             Event event = scheduler.getNextEvent();
             clock.advanceTo(event.getScheduledTime());
+            if (sink != null) {
+                sink.record(event);
+            }
             event.execute();
+            scheduler.recycle(event);
+            executedEventCount++;
+            if (--progressCountdown == 0) {
+                notifyProgress();
+            }
+        }
+    }
+
+    // La traza de consola es un sink más; con ambas trazas activas se encadenan
+    private EventTraceSink activeTraceSink() {
+        if (!traceEnabled) {
+            return traceSink;
+        }
+        EventTraceSink console = new ConsoleTraceSink();
+        if (traceSink == null) {
+            return console;
+        }
+        EventTraceSink next = traceSink;
+        return event -> {
+            console.record(event);
+            next.record(event);
+        };
+    }
+
+    private void notifyProgress() {
+        progressCountdown = progressInterval;
+        if (!progressListener.onProgress(this)) {
+            stopped = true;
+        }
+    }
+
+    // Mismo ciclo que executeEvents, midiendo cada evento
+    private void executeInstrumented(double limit, boolean inclusive) {
+        long wallStart = System.nanoTime();
+        double simulatedStart = clock.getCurrentTime();
+        EventTraceSink sink = activeTraceSink();
+        while (!stopped && scheduler.hasEvents()) {
+            double nextTime = scheduler.peekNextEvent().getScheduledTime();
+            if (nextTime > limit || (nextTime == limit && !inclusive)) {
+                break;
+            }
+            Event event = scheduler.getNextEvent();
+            clock.advanceTo(event.getScheduledTime());
+            if (sink != null) {
+                sink.record(event);
+            }
+
+            TypedEvent typed = event instanceof TypedEvent ? (TypedEvent) event : null;
+            int handlerId = typed != null ? typed.getHandlerId() : -1;
+            DispatchFlightEvent dispatch = null;
+            if (flightRecorderEvents) {
+                dispatch = new DispatchFlightEvent();
+                if (dispatch.isEnabled()) {
+                    dispatch.kind = handlerId >= 0 ? scheduler.getHandlerName(handlerId) : event.getDescription();
+                    dispatch.simulatedTime = clock.getCurrentTime();
+                    dispatch.entityId = typed != null && typed.getEntity() >= 0 ? entityStore.getId(typed.getEntity()) : -1;
+                    dispatch.locationIndex = typed != null ? typed.getLocationIndex() : -1;
+                }
+                dispatch.begin();
+            }
+            long start = System.nanoTime();
+            event.execute();
+            long elapsed = System.nanoTime() - start;
+            if (dispatch != null && dispatch.shouldCommit()) {
+                dispatch.pendingEvents = scheduler.getEventCount();
+                dispatch.commit();
+            }
+            if (metrics != null) {
+                metrics.recordEvent(handlerId, elapsed, scheduler.getEventCount());
+            }
+            scheduler.recycle(event);
+            executedEventCount++;
+            if (--progressCountdown == 0) {
+                notifyProgress();
+            }
+        }
+        if (metrics != null) {
+            metrics.recordRun(System.nanoTime() - wallStart, clock.getCurrentTime() - simulatedStart);
+        }
+    }
+
+    // Lote por lote; entre lotes se descuentan sus eventos del aviso de
+    // progreso, así la pausa, la detención y las instantáneas funcionan igual
+    // que en la ejecución de a un evento
+    private void executeBatches(double limit, boolean inclusive) {
+        ExecutorService pool = batchPool != null ? batchPool : getOwnBatchPool();
+        EventTraceSink sink = activeTraceSink();
+        if (metrics != null) {
+            // Los grupos corren en paralelo: se cuentan los eventos, no su tiempo
+            EngineMetrics batchMetrics = metrics;
+            EventTraceSink next = sink;
+            sink = event -> {
+                batchMetrics.recordUntimedEvent(event instanceof TypedEvent ? ((TypedEvent) event).getHandlerId() : -1,
+                    scheduler.getEventCount());
+                if (next != null) {
+                    next.record(event);
+                }
+            };
+        }
+        long wallStart = System.nanoTime();
+        double simulatedStart = clock.getCurrentTime();
+        while (!stopped) {
+            int executed = batchExecutor.executeNext(limit, inclusive, pool, sink);
+            if (executed == 0) {
+                break;
+            }
+            progressCountdown -= executed;
+            if (progressCountdown <= 0) {
+                notifyProgress();
+            }
+        }
+        if (metrics != null) {
+            metrics.recordRun(System.nanoTime() - wallStart, clock.getCurrentTime() - simulatedStart);
+        }
+    }
+
+    // Eventos ejecutados por este motor, también los de la ejecución por lotes
+    public long getExecutedEventCount() {
+        return executedEventCount + batchExecutor.getExecutedEventCount();
+    }
+
+    public double getNextEventTime() {
+        return scheduler.hasEvents() ? scheduler.peekNextEvent().getScheduledTime() : Double.POSITIVE_INFINITY;
+    }
+
+    public void finish(double endTime) {
+        if (clock.getCurrentTime() < endTime) {
+            clock.advanceTo(endTime);
         }
-        
+
         // Finalizar estadísticas
-        statistics.calculateLocationStatistics(locations, clock.getCurrentTime());
+        FinalizationFlightEvent finalization = null;
+        if (flightRecorderEvents) {
+            finalization = new FinalizationFlightEvent();
+            finalization.begin();
+        }
+        statistics.calculateLocationStatistics(locations, statisticsStartTime, clock.getCurrentTime());
+        statistics.calculateResourceStatistics(resources, statisticsStartTime, clock.getCurrentTime());
+        if (finalization != null && finalization.shouldCommit()) {
+            finalization.simulatedTime = clock.getCurrentTime();
+            finalization.locationCount = locationList.size();
+            finalization.commit();
+        }
+    }
+
+    // Descarta lo acumulado hasta ahora (p. ej. el período de calentamiento): las
+    // estadísticas que cierra finish cubren desde este instante. Las entidades en
+    // el sistema siguen su curso y se cuentan completas cuando salen.
+    public void resetStatistics() {
+        double now = clock.getCurrentTime();
+        statistics.reset();
+        for (Location location : locationList) {
+            location.resetStatistics(now);
+        }
+        for (Resource resource : resourceList) {
+            resource.resetStatistics(now);
+        }
+        this.statisticsStartTime = now;
+    }
+
+    public double getStatisticsStartTime() {
+        return statisticsStartTime;
+    }
+
+    // Para checkpoints
+    public void setStatisticsStartTime(double statisticsStartTime) {
+        this.statisticsStartTime = statisticsStartTime;
+    }
+
+    // En la ejecución por lotes el aviso llega al terminar el lote que cruza el
+    // intervalo; null para quitar el aviso
+    public void setProgressListener(ProgressListener progressListener, long eventInterval) {
+        if (progressListener != null && eventInterval < 1) {
+            throw new IllegalArgumentException("El intervalo de progreso debe ser de al menos un evento");
+        }
+        this.progressListener = progressListener;
+        this.progressInterval = progressListener != null ? eventInterval : Long.MAX_VALUE;
+        this.progressCountdown = progressInterval;
+    }
+
+    // La última llamada a run o executeEvents se detuvo por pedido del ProgressListener
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    // Activa las métricas del ciclo de eventos desde este momento (null si se desactivan)
+    public void setMetricsEnabled(boolean enabled) {
+        this.metrics = enabled ? new EngineMetrics(scheduler, locationList) : null;
+    }
+
+    public EngineMetrics getMetrics() {
+        return metrics;
+    }
+
+    // Eventos de Flight Recorder por cada evento ejecutado y por el cierre de
+    // estadísticas; solo se graban si hay una grabación que los habilite
+    public void setFlightRecorderEvents(boolean flightRecorderEvents) {
+        this.flightRecorderEvents = flightRecorderEvents;
+    }
+
+    // Traza de texto por consola (ConsoleTraceSink), además del sink si lo hay
+    public void setTraceEnabled(boolean traceEnabled) {
+        this.traceEnabled = traceEnabled;
+    }
+
+    public boolean isTraceEnabled() {
+        return traceEnabled;
+    }
+
+    // Traza opcional, p. ej. la binaria de MappedTraceWriter (null la desactiva)
+    public void setTraceSink(EventTraceSink traceSink) {
+        this.traceSink = traceSink;
+    }
+
+    public EventTraceSink getTraceSink() {
+        return traceSink;
+    }
+
+    // Agrupa los eventos de igual (tiempo, prioridad) y ejecuta en paralelo los
+    // que no comparten locaciones ni recursos; 0 vuelve a la ejecución de a uno
+    public void setBatchParallelism(int parallelism) {
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("El paralelismo no puede ser negativo");
+        }
+        this.batchParallelism = parallelism;
+        if (ownBatchPool != null && ownBatchPool.getCorePoolSize() != parallelism - 1) {
+            ownBatchPool.shutdown();
+            ownBatchPool = null;
+        }
+    }
+
+    // El hilo principal ejecuta uno de los grupos de cada lote; null si no hay
+    // otros hilos
+    private ExecutorService getOwnBatchPool() {
+        if (batchParallelism < 2) {
+            return null;
+        }
+        if (ownBatchPool == null) {
+            int threads = batchParallelism - 1;
+            ownBatchPool = new ThreadPoolExecutor(threads, threads, BATCH_THREAD_IDLE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "simulacion-lotes");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            ownBatchPool.allowCoreThreadTimeOut(true);
+        }
+        return ownBatchPool;
+    }
+
+    // Ejecutor externo opcional para los lotes; el llamador es responsable de cerrarlo
+    public void setBatchExecutor(ExecutorService batchPool) {
+        this.batchPool = batchPool;
+    }
+
+    public BatchEventExecutor getBatchExecutor() {
+        return batchExecutor;
     }
 
     // Getters
     public SimulationClock getClock() { return clock; }
     public EventScheduler getScheduler() { return scheduler; }
     public StatisticsCollector getStatistics() { return statistics; }
+    public EntityStore getEntityStore() { return entityStore; }
+    public Random getRandom() { return random; }
+    public OperationHandler getOperationHandler() { return operationHandler; }
+    public ResourceAllocator getResourceAllocator() { return resourceAllocator; }
+    public ArrivalGenerator getArrivalGenerator() { return arrivalGenerator; }
     public EntityType getEntityType(String name) { return entityTypes.get(name); }
     public Location getLocation(String name) { return locations.get(name); }
     public Resource getResource(String name) { return resources.get(name); }
     public ProcessingRule getProcessingRule(String location) { return processingRules.get(location); }
     public Map<String, Location> getAllLocations() { return locations; }
+
+    // Acceso por índice
+    public int getEntityTypeIndex(String name) { return entityTypeIndices.getOrDefault(name, -1); }
+    public int getLocationIndex(String name) { return locationIndices.getOrDefault(name, -1); }
+    public int getResourceIndex(String name) { return resourceIndices.getOrDefault(name, -1); }
+    public EntityType getEntityType(int index) { return entityTypeList.get(index); }
+    public Location getLocation(int index) { return locationList.get(index); }
+    public Resource getResource(int index) { return resourceList.get(index); }
+    public ProcessingRule getProcessingRule(int locationIndex) { return processingRuleList.get(locationIndex); }
+    public int getEntityTypeCount() { return entityTypeList.size(); }
+    public int getLocationCount() { return locationList.size(); }
+    public int getResourceCount() { return resourceList.size(); }
 }
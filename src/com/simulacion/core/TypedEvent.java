@@ -0,0 +1,58 @@
+package com.simulacion.core;
+
+// Evento reutilizable: el comportamiento lo decide el manejador registrado
+// y la carga útil es primitiva (la entidad es un handle del EntityStore, -1 si no hay)
+public final class TypedEvent extends Event {
+    private final EventScheduler scheduler;
+    private int handlerId;
+    private int entity;
+    private int locationIndex;
+    private int resourceIndex;
+    private int argument;
+
+    TypedEvent(EventScheduler scheduler) {
+        super(0.0, 0, null);
+        this.scheduler = scheduler;
+    }
+
+    void reset(int handlerId, double scheduledTime, int priority, int entity,
+               int locationIndex, int resourceIndex, int argument) {
+        this.handlerId = handlerId;
+        this.scheduledTime = scheduledTime;
+        this.priority = priority;
+        this.entity = entity;
+        this.locationIndex = locationIndex;
+        this.resourceIndex = resourceIndex;
+        this.argument = argument;
+    }
+
+    @Override
+    public void execute() {
+        scheduler.dispatch(this);
+    }
+
+    @Override
+    public String getDescription() {
+        return scheduler.describe(this);
+    }
+
+    public int getHandlerId() {
+        return handlerId;
+    }
+
+    public int getEntity() {
+        return entity;
+    }
+
+    public int getLocationIndex() {
+        return locationIndex;
+    }
+
+    public int getResourceIndex() {
+        return resourceIndex;
+    }
+
+    public int getArgument() {
+        return argument;
+    }
+}
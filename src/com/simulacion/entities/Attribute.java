@@ -0,0 +1,30 @@
+package com.simulacion.entities;
+
+// Atributo declarado en un tipo de entidad. El lugar en los arreglos del
+// EntityStore se resuelve al declararlo, así que leerlo o escribirlo es un
+// acceso indexado sin buscar por nombre. Cada subclase corresponde a un carril
+// del almacén y sus accesos en EntityStore están tipados.
+public abstract class Attribute {
+    private final String entityTypeName;
+    private final String name;
+    final int slot;
+
+    Attribute(String entityTypeName, String name, int slot) {
+        this.entityTypeName = entityTypeName;
+        this.name = name;
+        this.slot = slot;
+    }
+
+    public String getEntityTypeName() {
+        return entityTypeName;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return entityTypeName + "." + name;
+    }
+}
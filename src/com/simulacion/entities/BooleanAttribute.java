@@ -0,0 +1,11 @@
+package com.simulacion.entities;
+
+// Los booleanos se empaquetan de a 64 en una palabra del carril long
+public final class BooleanAttribute extends Attribute {
+    final long mask;
+
+    BooleanAttribute(String entityTypeName, String name, int slot, int bit) {
+        super(entityTypeName, name, slot);
+        this.mask = 1L << bit;
+    }
+}
@@ -0,0 +1,7 @@
+package com.simulacion.entities;
+
+public final class DoubleAttribute extends Attribute {
+    DoubleAttribute(String entityTypeName, String name, int slot) {
+        super(entityTypeName, name, slot);
+    }
+}
@@ -0,0 +1,7 @@
+package com.simulacion.entities;
+
+// Clave de orden de una entidad en una cola con prioridad
+@FunctionalInterface
+public interface EntityKey {
+    double keyOf(int entity);
+}
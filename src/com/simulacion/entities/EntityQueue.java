@@ -0,0 +1,32 @@
+package com.simulacion.entities;
+
+// Cola de espera de handles de entidad. La disciplina decide qué handle sale
+// primero; todas las implementaciones son arreglos sin objetos por elemento.
+public interface EntityQueue {
+    void add(int entity);
+
+    // Próximo handle según la disciplina; EntityStore.NONE si está vacía
+    int poll();
+
+    int peek();
+
+    int size();
+
+    boolean isEmpty();
+
+    void clear();
+
+    // Copia en un orden que addAll reproduce (el de atención, salvo en LIFO,
+    // que se copia desde el fondo de la pila)
+    int[] toArray();
+
+    void addAll(int[] entities);
+
+    // Claves calculadas al encolar, en el orden de toArray; null si la
+    // disciplina no ordena por clave
+    double[] keysToArray();
+
+    // Como addAll, pero con las claves de keysToArray en lugar de recalcularlas:
+    // el orden no cambia aunque los atributos hayan cambiado desde el encolado
+    void addAll(int[] entities, double[] keys);
+}
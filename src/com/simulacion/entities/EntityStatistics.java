@@ -1,5 +1,7 @@
 package com.simulacion.entities;
 
+import com.simulacion.statistics.QuantileSketch;
+
 public class EntityStatistics {
     private final String entityName;
     private int totalExits;
@@ -7,8 +9,10 @@ public class EntityStatistics {
     private double totalValueAddedTime;
     private double totalNonValueAddedTime;
     private double totalWaitTime;
+    private double totalBlockedTime;
     private double minSystemTime;
     private double maxSystemTime;
+    private final QuantileSketch systemTimeDistribution;
 
     public EntityStatistics(String entityName) {
         this.entityName = entityName;
@@ -17,17 +21,21 @@ public class EntityStatistics {
         this.totalValueAddedTime = 0;
         this.totalNonValueAddedTime = 0;
         this.totalWaitTime = 0;
+        this.totalBlockedTime = 0;
         this.minSystemTime = Double.MAX_VALUE;
         this.maxSystemTime = 0;
+        this.systemTimeDistribution = new QuantileSketch();
     }
 
-    public void recordExit(Entity entity) {
+    public void recordExit(EntityStore entities, int entity) {
         totalExits++;
-        double systemTime = entity.getTotalSystemTime();
+        double systemTime = entities.getTotalSystemTime(entity);
         totalSystemTime += systemTime;
-        totalValueAddedTime += entity.getTotalValueAddedTime();
-        totalNonValueAddedTime += entity.getTotalNonValueAddedTime();
-        totalWaitTime += entity.getTotalWaitTime();
+        totalValueAddedTime += entities.getTotalValueAddedTime(entity);
+        totalNonValueAddedTime += entities.getTotalNonValueAddedTime(entity);
+        totalWaitTime += entities.getTotalWaitTime(entity);
+        totalBlockedTime += entities.getTotalBlockedTime(entity);
+        systemTimeDistribution.add(systemTime);
         
         if (systemTime < minSystemTime) {
             minSystemTime = systemTime;
@@ -37,6 +45,28 @@ public class EntityStatistics {
         }
     }
 
+    // Combina las salidas registradas por otro colector (otra partición o réplica)
+    public void merge(EntityStatistics other) {
+        recordExits(other.totalExits, other.totalSystemTime, other.totalValueAddedTime,
+            other.totalNonValueAddedTime, other.totalWaitTime, other.totalBlockedTime, other.minSystemTime,
+            other.maxSystemTime, other.systemTimeDistribution);
+    }
+
+    // Agrega salidas ya acumuladas por un motor que no usa EntityStore
+    public void recordExits(int exits, double systemTime, double valueAddedTime, double nonValueAddedTime,
+                            double waitTime, double blockedTime, double minSystem, double maxSystem,
+                            QuantileSketch systemTimes) {
+        totalExits += exits;
+        totalSystemTime += systemTime;
+        totalValueAddedTime += valueAddedTime;
+        totalNonValueAddedTime += nonValueAddedTime;
+        totalWaitTime += waitTime;
+        totalBlockedTime += blockedTime;
+        minSystemTime = Math.min(minSystemTime, minSystem);
+        maxSystemTime = Math.max(maxSystemTime, maxSystem);
+        systemTimeDistribution.merge(systemTimes);
+    }
+
     public String getEntityName() {
         return entityName;
     }
@@ -61,6 +91,32 @@ public class EntityStatistics {
         return totalExits > 0 ? totalWaitTime / totalExits : 0;
     }
 
+    // Tiempo esperando lugar en el destino mientras ocupa la locación anterior
+    public double getAverageBlockedTime() {
+        return totalExits > 0 ? totalBlockedTime / totalExits : 0;
+    }
+
+    // Totales acumulados, para checkpoints
+    public double getTotalSystemTime() {
+        return totalSystemTime;
+    }
+
+    public double getTotalValueAddedTime() {
+        return totalValueAddedTime;
+    }
+
+    public double getTotalNonValueAddedTime() {
+        return totalNonValueAddedTime;
+    }
+
+    public double getTotalWaitTime() {
+        return totalWaitTime;
+    }
+
+    public double getTotalBlockedTime() {
+        return totalBlockedTime;
+    }
+
     public double getMinSystemTime() {
         return minSystemTime == Double.MAX_VALUE ? 0 : minSystemTime;
     }
@@ -68,4 +124,13 @@ public class EntityStatistics {
     public double getMaxSystemTime() {
         return maxSystemTime;
     }
+
+    // Percentil q (0 a 1) del tiempo en sistema, con error relativo de QuantileSketch
+    public double getSystemTimePercentile(double q) {
+        return systemTimeDistribution.getQuantile(q);
+    }
+
+    public QuantileSketch getSystemTimeDistribution() {
+        return systemTimeDistribution;
+    }
 }
@@ -0,0 +1,464 @@
+package com.simulacion.entities;
+
+import java.util.Arrays;
+
+// Estado de las entidades en arreglos primitivos indexados por un handle denso.
+// Los handles de las entidades que salen del sistema vuelven a una lista libre
+// y se reusan, así que la memoria sigue a las entidades vivas y no al total
+// creado. Los arreglos se parten en bloques fijos: crecer agrega un bloque sin
+// mover los existentes, de modo que los eventos de un lote que escriben otras
+// entidades mientras un hilo da de alta no pierden escrituras.
+// Los atributos de usuario ocupan tres carriles (int, long y double) con un
+// ancho fijo por entidad: el mayor entre los tipos declarados. Los booleanos se
+// empaquetan en palabras del carril long.
+public class EntityStore {
+    public static final int NONE = -1;
+
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int FREE = -1;
+
+    private int[][] ids;
+    private int[][] types;
+    private int[][] locations;
+    private int[][] units;
+    private int[][] routes;
+    private double[][] entryTimes;
+    private double[][] systemTimes;
+    private double[][] valueAddedTimes;
+    private double[][] nonValueAddedTimes;
+    private double[][] waitTimes;
+    private double[][] blockedTimes;
+    private double[][] waitStartTimes;
+    private int[][] intAttributes;
+    private long[][] longAttributes;
+    private double[][] doubleAttributes;
+    private int intWidth;
+    private int longWidth;
+    private int doubleWidth;
+    private int chunkCount;
+    private int handleLimit;
+    private int[] freeHandles;
+    private int freeCount;
+    private int liveCount;
+
+    public EntityStore() {
+        this.intWidth = 0;
+        this.longWidth = 0;
+        this.doubleWidth = 0;
+        clear();
+    }
+
+    // Ancho de atributos que necesita un tipo; solo puede crecer antes de crear entidades
+    public void reserveAttributes(int ints, int longs, int doubles) {
+        if (ints <= intWidth && longs <= longWidth && doubles <= doubleWidth) {
+            return;
+        }
+        if (handleLimit > 0) {
+            throw new IllegalStateException("Los atributos deben declararse antes de crear entidades");
+        }
+        this.intWidth = Math.max(intWidth, ints);
+        this.longWidth = Math.max(longWidth, longs);
+        this.doubleWidth = Math.max(doubleWidth, doubles);
+    }
+
+    // Alta de una entidad; reusa el último handle liberado si hay
+    public int allocate(int type, int id) {
+        int handle;
+        if (freeCount > 0) {
+            handle = freeHandles[--freeCount];
+        } else {
+            handle = handleLimit++;
+            ensureChunk(handle);
+        }
+        int chunk = handle >>> CHUNK_BITS;
+        int slot = handle & CHUNK_MASK;
+        ids[chunk][slot] = id;
+        types[chunk][slot] = type;
+        locations[chunk][slot] = -1;
+        units[chunk][slot] = -1;
+        routes[chunk][slot] = -1;
+        entryTimes[chunk][slot] = 0;
+        systemTimes[chunk][slot] = 0;
+        valueAddedTimes[chunk][slot] = 0;
+        nonValueAddedTimes[chunk][slot] = 0;
+        waitTimes[chunk][slot] = 0;
+        blockedTimes[chunk][slot] = 0;
+        waitStartTimes[chunk][slot] = 0;
+        clearAttributes(chunk, slot);
+        liveCount++;
+        return handle;
+    }
+
+    // Copia completa (acumulados y atributos) con otro id, p. ej. al dividir una
+    // entidad. La copia no queda en ninguna locación: quien la crea la ubica, por
+    // ejemplo con OperationHandler.handleArrival
+    public int copy(int source, int id) {
+        if (!isLive(source)) {
+            throw new IllegalStateException("Handle de entidad no asignado: " + source);
+        }
+        int handle = allocate(getType(source), id);
+        int sourceChunk = source >>> CHUNK_BITS;
+        int sourceSlot = source & CHUNK_MASK;
+        int chunk = handle >>> CHUNK_BITS;
+        int slot = handle & CHUNK_MASK;
+        entryTimes[chunk][slot] = entryTimes[sourceChunk][sourceSlot];
+        systemTimes[chunk][slot] = systemTimes[sourceChunk][sourceSlot];
+        valueAddedTimes[chunk][slot] = valueAddedTimes[sourceChunk][sourceSlot];
+        nonValueAddedTimes[chunk][slot] = nonValueAddedTimes[sourceChunk][sourceSlot];
+        waitTimes[chunk][slot] = waitTimes[sourceChunk][sourceSlot];
+        blockedTimes[chunk][slot] = blockedTimes[sourceChunk][sourceSlot];
+        if (intWidth > 0) {
+            System.arraycopy(intAttributes[sourceChunk], sourceSlot * intWidth,
+                intAttributes[chunk], slot * intWidth, intWidth);
+        }
+        if (longWidth > 0) {
+            System.arraycopy(longAttributes[sourceChunk], sourceSlot * longWidth,
+                longAttributes[chunk], slot * longWidth, longWidth);
+        }
+        if (doubleWidth > 0) {
+            System.arraycopy(doubleAttributes[sourceChunk], sourceSlot * doubleWidth,
+                doubleAttributes[chunk], slot * doubleWidth, doubleWidth);
+        }
+        return handle;
+    }
+
+    private void clearAttributes(int chunk, int slot) {
+        if (intWidth > 0) {
+            Arrays.fill(intAttributes[chunk], slot * intWidth, (slot + 1) * intWidth, 0);
+        }
+        if (longWidth > 0) {
+            Arrays.fill(longAttributes[chunk], slot * longWidth, (slot + 1) * longWidth, 0L);
+        }
+        if (doubleWidth > 0) {
+            Arrays.fill(doubleAttributes[chunk], slot * doubleWidth, (slot + 1) * doubleWidth, 0.0);
+        }
+    }
+
+    public void free(int handle) {
+        if (!isLive(handle)) {
+            throw new IllegalStateException("Handle de entidad no asignado: " + handle);
+        }
+        types[handle >>> CHUNK_BITS][handle & CHUNK_MASK] = FREE;
+        if (freeCount == freeHandles.length) {
+            freeHandles = Arrays.copyOf(freeHandles, freeCount * 2);
+        }
+        freeHandles[freeCount++] = handle;
+        liveCount--;
+    }
+
+    private void ensureChunk(int handle) {
+        int chunk = handle >>> CHUNK_BITS;
+        if (chunk < chunkCount) {
+            return;
+        }
+        if (chunk == ids.length) {
+            // Solo se copia el directorio; los bloques existentes no se mueven
+            int directory = ids.length * 2;
+            ids = Arrays.copyOf(ids, directory);
+            types = Arrays.copyOf(types, directory);
+            locations = Arrays.copyOf(locations, directory);
+            units = Arrays.copyOf(units, directory);
+            routes = Arrays.copyOf(routes, directory);
+            entryTimes = Arrays.copyOf(entryTimes, directory);
+            systemTimes = Arrays.copyOf(systemTimes, directory);
+            valueAddedTimes = Arrays.copyOf(valueAddedTimes, directory);
+            nonValueAddedTimes = Arrays.copyOf(nonValueAddedTimes, directory);
+            waitTimes = Arrays.copyOf(waitTimes, directory);
+            blockedTimes = Arrays.copyOf(blockedTimes, directory);
+            waitStartTimes = Arrays.copyOf(waitStartTimes, directory);
+            intAttributes = Arrays.copyOf(intAttributes, directory);
+            longAttributes = Arrays.copyOf(longAttributes, directory);
+            doubleAttributes = Arrays.copyOf(doubleAttributes, directory);
+        }
+        ids[chunk] = new int[CHUNK_SIZE];
+        types[chunk] = new int[CHUNK_SIZE];
+        Arrays.fill(types[chunk], FREE);
+        locations[chunk] = new int[CHUNK_SIZE];
+        units[chunk] = new int[CHUNK_SIZE];
+        routes[chunk] = new int[CHUNK_SIZE];
+        entryTimes[chunk] = new double[CHUNK_SIZE];
+        systemTimes[chunk] = new double[CHUNK_SIZE];
+        valueAddedTimes[chunk] = new double[CHUNK_SIZE];
+        nonValueAddedTimes[chunk] = new double[CHUNK_SIZE];
+        waitTimes[chunk] = new double[CHUNK_SIZE];
+        blockedTimes[chunk] = new double[CHUNK_SIZE];
+        waitStartTimes[chunk] = new double[CHUNK_SIZE];
+        intAttributes[chunk] = new int[CHUNK_SIZE * intWidth];
+        longAttributes[chunk] = new long[CHUNK_SIZE * longWidth];
+        doubleAttributes[chunk] = new double[CHUNK_SIZE * doubleWidth];
+        chunkCount = chunk + 1;
+    }
+
+    public boolean isLive(int handle) {
+        return handle >= 0 && handle < handleLimit && types[handle >>> CHUNK_BITS][handle & CHUNK_MASK] != FREE;
+    }
+
+    public int getId(int handle) {
+        return ids[handle >>> CHUNK_BITS][handle & CHUNK_MASK];
+    }
+
+    // Índice del tipo de entidad en el motor
+    public int getType(int handle) {
+        return types[handle >>> CHUNK_BITS][handle & CHUNK_MASK];
+    }
+
+    // Locación en la que está la entidad (procesándose o en su cola); -1 si ninguna
+    public int getLocation(int handle) {
+        return locations[handle >>> CHUNK_BITS][handle & CHUNK_MASK];
+    }
+
+    public void setLocation(int handle, int locationIndex) {
+        locations[handle >>> CHUNK_BITS][handle & CHUNK_MASK] = locationIndex;
+    }
+
+    // Unidad de la locación que ocupa la entidad; -1 si está en la cola de
+    // entrada o fuera de toda locación. Una entidad bloqueada conserva la suya
+    public int getUnit(int handle) {
+        return units[handle >>> CHUNK_BITS][handle & CHUNK_MASK];
+    }
+
+    public void setUnit(int handle, int unit) {
+        units[handle >>> CHUNK_BITS][handle & CHUNK_MASK] = unit;
+    }
+
+    // Ruta de su locación por la que la entidad espera salir (bloqueada o
+    // esperando recursos); -1 si no espera salir
+    public int getRoute(int handle) {
+        return routes[handle >>> CHUNK_BITS][handle & CHUNK_MASK];
+    }
+
+    public void setRoute(int handle, int route) {
+        routes[handle >>> CHUNK_BITS][handle & CHUNK_MASK] = route;
+    }
+
+    // Instante en que la entidad empezó a esperar lugar (en cola o bloqueada)
+    public double getWaitStart(int handle) {
+        return waitStartTimes[handle >>> CHUNK_BITS][handle & CHUNK_MASK];
+    }
+
+    public void setWaitStart(int handle, double time) {
+        waitStartTimes[handle >>> CHUNK_BITS][handle & CHUNK_MASK] = time;
+    }
+
+    public double getEntryTime(int handle) {
+        return entryTimes[handle >>> CHUNK_BITS][handle & CHUNK_MASK];
+    }
+
+    public void setEntryTime(int handle, double time) {
+        entryTimes[handle >>> CHUNK_BITS][handle & CHUNK_MASK] = time;
+    }
+
+    public void addSystemTime(int handle, double time) {
+        systemTimes[handle >>> CHUNK_BITS][handle & CHUNK_MASK] += time;
+    }
+
+    public void addValueAddedTime(int handle, double time) {
+        valueAddedTimes[handle >>> CHUNK_BITS][handle & CHUNK_MASK] += time;
+    }
+
+    public void addNonValueAddedTime(int handle, double time) {
+        nonValueAddedTimes[handle >>> CHUNK_BITS][handle & CHUNK_MASK] += time;
+    }
+
+    public void addWaitTime(int handle, double time) {
+        waitTimes[handle >>> CHUNK_BITS][handle & CHUNK_MASK] += time;
+    }
+
+    public void addBlockedTime(int handle, double time) {
+        blockedTimes[handle >>> CHUNK_BITS][handle & CHUNK_MASK] += time;
+    }
+
+    public double getTotalSystemTime(int handle) {
+        return systemTimes[handle >>> CHUNK_BITS][handle & CHUNK_MASK];
+    }
+
+    public double getTotalValueAddedTime(int handle) {
+        return valueAddedTimes[handle >>> CHUNK_BITS][handle & CHUNK_MASK];
+    }
+
+    public double getTotalNonValueAddedTime(int handle) {
+        return nonValueAddedTimes[handle >>> CHUNK_BITS][handle & CHUNK_MASK];
+    }
+
+    public double getTotalWaitTime(int handle) {
+        return waitTimes[handle >>> CHUNK_BITS][handle & CHUNK_MASK];
+    }
+
+    public double getTotalBlockedTime(int handle) {
+        return blockedTimes[handle >>> CHUNK_BITS][handle & CHUNK_MASK];
+    }
+
+    // Atributos: el atributo debe ser del tipo de la entidad (no se verifica)
+
+    public int getInt(int handle, IntAttribute attribute) {
+        return intAttributes[handle >>> CHUNK_BITS][(handle & CHUNK_MASK) * intWidth + attribute.slot];
+    }
+
+    public void setInt(int handle, IntAttribute attribute, int value) {
+        intAttributes[handle >>> CHUNK_BITS][(handle & CHUNK_MASK) * intWidth + attribute.slot] = value;
+    }
+
+    public long getLong(int handle, LongAttribute attribute) {
+        return longAttributes[handle >>> CHUNK_BITS][(handle & CHUNK_MASK) * longWidth + attribute.slot];
+    }
+
+    public void setLong(int handle, LongAttribute attribute, long value) {
+        longAttributes[handle >>> CHUNK_BITS][(handle & CHUNK_MASK) * longWidth + attribute.slot] = value;
+    }
+
+    public double getDouble(int handle, DoubleAttribute attribute) {
+        return doubleAttributes[handle >>> CHUNK_BITS][(handle & CHUNK_MASK) * doubleWidth + attribute.slot];
+    }
+
+    public void setDouble(int handle, DoubleAttribute attribute, double value) {
+        doubleAttributes[handle >>> CHUNK_BITS][(handle & CHUNK_MASK) * doubleWidth + attribute.slot] = value;
+    }
+
+    public boolean getBoolean(int handle, BooleanAttribute attribute) {
+        long word = longAttributes[handle >>> CHUNK_BITS][(handle & CHUNK_MASK) * longWidth + attribute.slot];
+        return (word & attribute.mask) != 0;
+    }
+
+    // Valor numérico de cualquier atributo (un booleano vale 1 o 0), p. ej. para ordenar colas
+    public double getValue(int handle, Attribute attribute) {
+        if (attribute instanceof IntAttribute) {
+            return getInt(handle, (IntAttribute) attribute);
+        }
+        if (attribute instanceof LongAttribute) {
+            return getLong(handle, (LongAttribute) attribute);
+        }
+        if (attribute instanceof DoubleAttribute) {
+            return getDouble(handle, (DoubleAttribute) attribute);
+        }
+        return getBoolean(handle, (BooleanAttribute) attribute) ? 1.0 : 0.0;
+    }
+
+    public void setBoolean(int handle, BooleanAttribute attribute, boolean value) {
+        long[] lane = longAttributes[handle >>> CHUNK_BITS];
+        int index = (handle & CHUNK_MASK) * longWidth + attribute.slot;
+        lane[index] = value ? lane[index] | attribute.mask : lane[index] & ~attribute.mask;
+    }
+
+    // Acceso crudo por posición en el carril, para checkpoints y mensajes entre particiones
+
+    public int getIntWidth() {
+        return intWidth;
+    }
+
+    public int getLongWidth() {
+        return longWidth;
+    }
+
+    public int getDoubleWidth() {
+        return doubleWidth;
+    }
+
+    public int getIntSlot(int handle, int slot) {
+        return intAttributes[handle >>> CHUNK_BITS][(handle & CHUNK_MASK) * intWidth + slot];
+    }
+
+    public void setIntSlot(int handle, int slot, int value) {
+        intAttributes[handle >>> CHUNK_BITS][(handle & CHUNK_MASK) * intWidth + slot] = value;
+    }
+
+    public long getLongSlot(int handle, int slot) {
+        return longAttributes[handle >>> CHUNK_BITS][(handle & CHUNK_MASK) * longWidth + slot];
+    }
+
+    public void setLongSlot(int handle, int slot, long value) {
+        longAttributes[handle >>> CHUNK_BITS][(handle & CHUNK_MASK) * longWidth + slot] = value;
+    }
+
+    public double getDoubleSlot(int handle, int slot) {
+        return doubleAttributes[handle >>> CHUNK_BITS][(handle & CHUNK_MASK) * doubleWidth + slot];
+    }
+
+    public void setDoubleSlot(int handle, int slot, double value) {
+        doubleAttributes[handle >>> CHUNK_BITS][(handle & CHUNK_MASK) * doubleWidth + slot] = value;
+    }
+
+    public int getLiveCount() {
+        return liveCount;
+    }
+
+    // Handles usados alguna vez: los vivos son los menores que este límite que no están libres
+    public int getHandleLimit() {
+        return handleLimit;
+    }
+
+    // Copia de la lista libre en orden de reuso inverso (el último sale primero)
+    public int[] getFreeHandles() {
+        return Arrays.copyOf(freeHandles, freeCount);
+    }
+
+    // Vacía el almacén; conserva el ancho de los atributos declarados
+    public void clear() {
+        this.ids = new int[4][];
+        this.types = new int[4][];
+        this.locations = new int[4][];
+        this.units = new int[4][];
+        this.routes = new int[4][];
+        this.entryTimes = new double[4][];
+        this.systemTimes = new double[4][];
+        this.valueAddedTimes = new double[4][];
+        this.nonValueAddedTimes = new double[4][];
+        this.waitTimes = new double[4][];
+        this.blockedTimes = new double[4][];
+        this.waitStartTimes = new double[4][];
+        this.intAttributes = new int[4][];
+        this.longAttributes = new long[4][];
+        this.doubleAttributes = new double[4][];
+        this.chunkCount = 0;
+        this.handleLimit = 0;
+        this.freeHandles = new int[64];
+        this.freeCount = 0;
+        this.liveCount = 0;
+    }
+
+    // Para checkpoints: recrea una entidad con su handle original
+    public void restore(int handle, int id, int type, int locationIndex, int unit, double entryTime,
+                        double systemTime, double valueAddedTime, double nonValueAddedTime, double waitTime,
+                        double blockedTime, double waitStart) {
+        if (handle < 0 || type < 0 || isLive(handle)) {
+            throw new IllegalArgumentException("Entidad inválida al restaurar: " + handle);
+        }
+        while (handleLimit <= handle) {
+            ensureChunk(handleLimit++);
+        }
+        int chunk = handle >>> CHUNK_BITS;
+        int slot = handle & CHUNK_MASK;
+        ids[chunk][slot] = id;
+        types[chunk][slot] = type;
+        locations[chunk][slot] = locationIndex;
+        units[chunk][slot] = unit;
+        routes[chunk][slot] = -1;
+        entryTimes[chunk][slot] = entryTime;
+        systemTimes[chunk][slot] = systemTime;
+        valueAddedTimes[chunk][slot] = valueAddedTime;
+        nonValueAddedTimes[chunk][slot] = nonValueAddedTime;
+        waitTimes[chunk][slot] = waitTime;
+        blockedTimes[chunk][slot] = blockedTime;
+        waitStartTimes[chunk][slot] = waitStart;
+        clearAttributes(chunk, slot);
+        liveCount++;
+    }
+
+    // Para checkpoints: la lista libre debe cubrir todos los handles no vivos
+    public void restoreFreeHandles(int handleLimit, int[] handles) {
+        while (this.handleLimit < handleLimit) {
+            ensureChunk(this.handleLimit++);
+        }
+        if (handles.length != this.handleLimit - liveCount) {
+            throw new IllegalArgumentException("La lista libre no coincide con las entidades vivas");
+        }
+        for (int handle : handles) {
+            if (handle < 0 || handle >= this.handleLimit || isLive(handle)) {
+                throw new IllegalArgumentException("Handle libre inválido al restaurar: " + handle);
+            }
+        }
+        this.freeHandles = Arrays.copyOf(handles, Math.max(64, handles.length));
+        this.freeCount = handles.length;
+    }
+}
@@ -1,12 +1,84 @@
 package com.simulacion.entities;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 public class EntityType {
     private final String name;
     private final double speedMetersPerMinute;
+    // Atributos en orden de declaración y lugares ocupados en cada carril del almacén
+    private final List<Attribute> attributes;
+    private int intSlots;
+    private int longSlots;
+    private int doubleSlots;
+    private int booleanWord;
+    private int booleanBits;
 
     public EntityType(String name, double speedMetersPerMinute) {
         this.name = name;
         this.speedMetersPerMinute = speedMetersPerMinute;
+        this.attributes = new ArrayList<>();
+        this.intSlots = 0;
+        this.longSlots = 0;
+        this.doubleSlots = 0;
+        this.booleanWord = -1;
+        this.booleanBits = 0;
+    }
+
+    // Se declaran a través de SimulationEngine.addXxxAttribute, que además
+    // reserva el lugar en el almacén de entidades
+    public IntAttribute addIntAttribute(String attributeName) {
+        return register(new IntAttribute(name, attributeName, intSlots++));
+    }
+
+    public LongAttribute addLongAttribute(String attributeName) {
+        return register(new LongAttribute(name, attributeName, longSlots++));
+    }
+
+    public DoubleAttribute addDoubleAttribute(String attributeName) {
+        return register(new DoubleAttribute(name, attributeName, doubleSlots++));
+    }
+
+    // Una palabra long nueva cada 64 booleanos; los longs declarados después no la mueven
+    public BooleanAttribute addBooleanAttribute(String attributeName) {
+        if (booleanBits % 64 == 0) {
+            booleanWord = longSlots++;
+        }
+        return register(new BooleanAttribute(name, attributeName, booleanWord, booleanBits++ % 64));
+    }
+
+    private <A extends Attribute> A register(A attribute) {
+        if (getAttribute(attribute.getName()) != null) {
+            throw new IllegalArgumentException("Atributo duplicado en " + name + ": " + attribute.getName());
+        }
+        attributes.add(attribute);
+        return attribute;
+    }
+
+    public Attribute getAttribute(String attributeName) {
+        for (Attribute attribute : attributes) {
+            if (attribute.getName().equals(attributeName)) {
+                return attribute;
+            }
+        }
+        return null;
+    }
+
+    public List<Attribute> getAttributes() {
+        return Collections.unmodifiableList(attributes);
+    }
+
+    public int getIntSlotCount() {
+        return intSlots;
+    }
+
+    public int getLongSlotCount() {
+        return longSlots;
+    }
+
+    public int getDoubleSlotCount() {
+        return doubleSlots;
     }
 
     public String getName() {
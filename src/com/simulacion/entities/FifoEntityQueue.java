@@ -0,0 +1,115 @@
+package com.simulacion.entities;
+
+import java.util.Arrays;
+
+// Cola FIFO de handles de entidad sobre un arreglo circular; no crea objetos
+// por elemento como LinkedList
+public final class FifoEntityQueue implements EntityQueue {
+    private int[] elements;
+    private int head;
+    private int size;
+
+    public FifoEntityQueue() {
+        this.elements = new int[8];
+        this.head = 0;
+        this.size = 0;
+    }
+
+    @Override
+    public void add(int entity) {
+        if (size == elements.length) {
+            int[] grown = new int[elements.length * 2];
+            int firstPart = elements.length - head;
+            System.arraycopy(elements, head, grown, 0, firstPart);
+            System.arraycopy(elements, 0, grown, firstPart, head);
+            elements = grown;
+            head = 0;
+        }
+        elements[(head + size) & (elements.length - 1)] = entity;
+        size++;
+    }
+
+    @Override
+    public int poll() {
+        if (size == 0) {
+            return EntityStore.NONE;
+        }
+        int entity = elements[head];
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        return entity;
+    }
+
+    // Quita una entidad cualquiera conservando el orden de las demás; si es la
+    // primera cuesta lo mismo que poll. Devuelve false si no estaba
+    public boolean remove(int entity) {
+        int mask = elements.length - 1;
+        for (int i = 0; i < size; i++) {
+            if (elements[(head + i) & mask] == entity) {
+                if (i == 0) {
+                    poll();
+                    return true;
+                }
+                for (int j = i; j < size - 1; j++) {
+                    elements[(head + j) & mask] = elements[(head + j + 1) & mask];
+                }
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int peek() {
+        return size == 0 ? EntityStore.NONE : elements[head];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    // Copia en orden de llegada
+    @Override
+    public int[] toArray() {
+        int[] copy = new int[size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = elements[(head + i) & (elements.length - 1)];
+        }
+        return copy;
+    }
+
+    @Override
+    public void addAll(int[] entities) {
+        for (int entity : entities) {
+            add(entity);
+        }
+    }
+
+    @Override
+    public double[] keysToArray() {
+        return null;
+    }
+
+    @Override
+    public void addAll(int[] entities, double[] keys) {
+        addAll(entities);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,7 @@
+package com.simulacion.entities;
+
+public final class IntAttribute extends Attribute {
+    IntAttribute(String entityTypeName, String name, int slot) {
+        super(entityTypeName, name, slot);
+    }
+}
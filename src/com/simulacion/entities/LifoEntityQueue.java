@@ -0,0 +1,75 @@
+package com.simulacion.entities;
+
+import java.util.Arrays;
+
+// Pila de handles de entidad: sale primero el último en llegar
+public final class LifoEntityQueue implements EntityQueue {
+    private int[] elements;
+    private int size;
+
+    public LifoEntityQueue() {
+        this.elements = new int[8];
+        this.size = 0;
+    }
+
+    @Override
+    public void add(int entity) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, elements.length * 2);
+        }
+        elements[size++] = entity;
+    }
+
+    @Override
+    public int poll() {
+        return size == 0 ? EntityStore.NONE : elements[--size];
+    }
+
+    @Override
+    public int peek() {
+        return size == 0 ? EntityStore.NONE : elements[size - 1];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+    }
+
+    // Copia desde el fondo de la pila, en orden de llegada
+    @Override
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    @Override
+    public void addAll(int[] entities) {
+        for (int entity : entities) {
+            add(entity);
+        }
+    }
+
+    @Override
+    public double[] keysToArray() {
+        return null;
+    }
+
+    @Override
+    public void addAll(int[] entities, double[] keys) {
+        addAll(entities);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
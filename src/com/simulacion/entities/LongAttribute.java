@@ -0,0 +1,7 @@
+package com.simulacion.entities;
+
+public final class LongAttribute extends Attribute {
+    LongAttribute(String entityTypeName, String name, int slot) {
+        super(entityTypeName, name, slot);
+    }
+}
@@ -0,0 +1,172 @@
+package com.simulacion.entities;
+
+import java.util.Arrays;
+
+// Montículo binario de handles: sale primero la menor clave y, entre claves
+// iguales, el primero en llegar. La clave se calcula una sola vez al encolar,
+// así que add y poll son O(log n) y cambiar el atributo después no reordena.
+public final class PriorityEntityQueue implements EntityQueue {
+    private final EntityKey key;
+    private int[] entities;
+    private double[] keys;
+    private long[] sequences;
+    private int size;
+    private long nextSequence;
+
+    public PriorityEntityQueue(EntityKey key) {
+        this.key = key;
+        this.entities = new int[8];
+        this.keys = new double[8];
+        this.sequences = new long[8];
+        this.size = 0;
+        this.nextSequence = 0;
+    }
+
+    @Override
+    public void add(int entity) {
+        add(entity, key.keyOf(entity));
+    }
+
+    private void add(int entity, double entityKey) {
+        if (size == entities.length) {
+            entities = Arrays.copyOf(entities, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+            sequences = Arrays.copyOf(sequences, size * 2);
+        }
+        long sequence = nextSequence++;
+
+        // Sube el hueco hasta donde entra el nuevo elemento
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(entityKey, sequence, keys[parent], sequences[parent])) {
+                break;
+            }
+            move(parent, i);
+            i = parent;
+        }
+        set(i, entity, entityKey, sequence);
+    }
+
+    @Override
+    public int poll() {
+        if (size == 0) {
+            return EntityStore.NONE;
+        }
+        int first = entities[0];
+        size--;
+        if (size > 0) {
+            int lastEntity = entities[size];
+            double lastKey = keys[size];
+            long lastSequence = sequences[size];
+
+            // Baja el hueco de la raíz hasta donde entra el último elemento
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int right = child + 1;
+                if (right < size && before(keys[right], sequences[right], keys[child], sequences[child])) {
+                    child = right;
+                }
+                if (!before(keys[child], sequences[child], lastKey, lastSequence)) {
+                    break;
+                }
+                move(child, i);
+                i = child;
+            }
+            set(i, lastEntity, lastKey, lastSequence);
+        }
+        return first;
+    }
+
+    @Override
+    public int peek() {
+        return size == 0 ? EntityStore.NONE : entities[0];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        nextSequence = 0;
+    }
+
+    // Copia en orden de atención: volver a encolarla conserva el desempate por llegada
+    @Override
+    public int[] toArray() {
+        Integer[] order = order();
+        int[] copy = new int[size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = entities[order[i]];
+        }
+        return copy;
+    }
+
+    @Override
+    public void addAll(int[] entities) {
+        for (int entity : entities) {
+            add(entity);
+        }
+    }
+
+    @Override
+    public double[] keysToArray() {
+        Integer[] order = order();
+        double[] copy = new double[size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = keys[order[i]];
+        }
+        return copy;
+    }
+
+    @Override
+    public void addAll(int[] entities, double[] keys) {
+        if (keys == null || keys.length != entities.length) {
+            throw new IllegalArgumentException("Se requiere una clave por entidad");
+        }
+        for (int i = 0; i < entities.length; i++) {
+            add(entities[i], keys[i]);
+        }
+    }
+
+    // Posiciones del montículo en orden de atención
+    private Integer[] order() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> keys[a] != keys[b]
+            ? Double.compare(keys[a], keys[b])
+            : Long.compare(sequences[a], sequences[b]));
+        return order;
+    }
+
+    private static boolean before(double key, long sequence, double otherKey, long otherSequence) {
+        return key < otherKey || (key == otherKey && sequence < otherSequence);
+    }
+
+    private void move(int from, int to) {
+        set(to, entities[from], keys[from], sequences[from]);
+    }
+
+    private void set(int i, int entity, double entityKey, long sequence) {
+        entities[i] = entity;
+        keys[i] = entityKey;
+        sequences[i] = sequence;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,73 @@
+package com.simulacion.entities;
+
+// Regla de atención de una cola de espera. Es solo la descripción: cada motor
+// la enlaza con sus propias claves al asignarla a una locación o recurso, así
+// que la misma disciplina sirve a motores bifurcados y particiones.
+public final class QueueDiscipline {
+    public enum Kind {
+        FIFO,
+        LIFO,
+        // Mayor valor del atributo primero
+        PRIORITY,
+        // Menor tiempo de operación primero: procesamiento en una locación,
+        // movimiento en un recurso
+        SHORTEST_PROCESSING_TIME
+    }
+
+    public static final QueueDiscipline FIFO = new QueueDiscipline(Kind.FIFO, null);
+    public static final QueueDiscipline LIFO = new QueueDiscipline(Kind.LIFO, null);
+    public static final QueueDiscipline SHORTEST_PROCESSING_TIME =
+        new QueueDiscipline(Kind.SHORTEST_PROCESSING_TIME, null);
+
+    private final Kind kind;
+    private final Attribute attribute;
+
+    private QueueDiscipline(Kind kind, Attribute attribute) {
+        this.kind = kind;
+        this.attribute = attribute;
+    }
+
+    // Las entidades de otros tipos no tienen el atributo y cuentan como 0
+    public static QueueDiscipline priority(Attribute attribute) {
+        if (attribute == null) {
+            throw new IllegalArgumentException("La prioridad requiere un atributo");
+        }
+        return new QueueDiscipline(Kind.PRIORITY, attribute);
+    }
+
+    // key da el valor del atributo o el tiempo de operación según la disciplina
+    public EntityQueue createQueue(EntityKey key) {
+        switch (kind) {
+            case LIFO:
+                return new LifoEntityQueue();
+            case PRIORITY:
+                return new PriorityEntityQueue(entity -> -requireKey(key).keyOf(entity));
+            case SHORTEST_PROCESSING_TIME:
+                return new PriorityEntityQueue(requireKey(key));
+            case FIFO:
+            default:
+                return new FifoEntityQueue();
+        }
+    }
+
+    private EntityKey requireKey(EntityKey key) {
+        if (key == null) {
+            throw new IllegalArgumentException("La disciplina " + this + " requiere una clave");
+        }
+        return key;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    // Solo en PRIORITY
+    public Attribute getAttribute() {
+        return attribute;
+    }
+
+    @Override
+    public String toString() {
+        return attribute != null ? kind + "(" + attribute.getName() + ")" : kind.name();
+    }
+}
@@ -1,89 +1,406 @@
 package com.simulacion.locations;
 
-import com.simulacion.entities.Entity;
-import java.util.LinkedList;
-import java.util.Queue;
+import com.simulacion.calendar.ShiftCalendar;
+import com.simulacion.entities.EntityKey;
+import com.simulacion.entities.EntityQueue;
+import com.simulacion.entities.EntityStore;
+import com.simulacion.entities.FifoEntityQueue;
+import com.simulacion.entities.QueueDiscipline;
+import com.simulacion.statistics.TimeWeightedStatistics;
 
+// Locación con una o más unidades idénticas; la capacidad es por unidad. Cada
+// unidad tiene su contenido y sus estadísticas, y la cola de espera es común.
+// Las unidades con lugar y las ocupadas se llevan en conjuntos de bits, así que
+// elegir una unidad no recorre las demás.
+//
+// La cola de espera es la lista de entidades que esperan lugar: las que
+// llegaron sin locación anterior y las bloqueadas en otra locación. La
+// locación no las admite sola; OperationHandler las llama cuando se libera
+// lugar, porque admitir una bloqueada libera también su locación anterior.
+// Una entidad que sale hacia acá con un recurso reserva su lugar al partir:
+// mientras viaja el lugar no cuenta como libre.
+//
+// Con calendario de turnos, las estadísticas de contenido corren en tiempo de
+// turno de la locación: lo que pasa fuera de turno no pesa en los promedios.
 public class Location {
-    private final LocationType type;
-    private final Queue<Entity> queue;
-    private final Queue<Entity> contentQueue;
+    private LocationType type;
+    private EntityQueue queue;
+    private QueueDiscipline queueDiscipline;
+    private UnitSelection unitSelection;
+    private final FifoEntityQueue[] unitContents;
+    private final int[] unitOccupancy;
+    private final int[] unitEntries;
+    private final UnitSet availableUnits;
+    private final UnitSet busyUnits;
+    // Unidad siguiente a la última elegida, para la selección por turno
+    private int nextUnit;
     private int currentOccupancy;
-    private double totalOccupancyTime;
-    private double lastUpdateTime;
+    // Entidades de esta locación bloqueadas en la cola de otra
+    private int blockedCount;
+    // Lugares reservados por entidades que vienen en camino
+    private int reservedCount;
+    // Lugares libres en todas las unidades, sin descontar reservas
+    private long freeSpace;
+    private int maxQueueSize;
+    // null = siempre en turno
+    private ShiftCalendar calendar;
+    // Contenido en el tiempo: ocupación acumulada, extremos e histograma por nivel
+    private final TimeWeightedStatistics contentsStatistics;
+    // Con una sola unidad es el mismo objeto que contentsStatistics
+    private final TimeWeightedStatistics[] unitStatistics;
 
     public Location(LocationType type) {
+        if (type.getUnits() < 1) {
+            throw new IllegalArgumentException("La locación " + type.getName() + " necesita al menos una unidad");
+        }
         this.type = type;
-        this.queue = new LinkedList<>();
-        this.contentQueue = new LinkedList<>();
+        this.queue = new FifoEntityQueue();
+        this.queueDiscipline = QueueDiscipline.FIFO;
+        this.unitSelection = UnitSelection.FIRST_AVAILABLE;
+        int units = type.getUnits();
+        this.unitContents = new FifoEntityQueue[units];
+        this.unitOccupancy = new int[units];
+        this.unitEntries = new int[units];
+        this.availableUnits = new UnitSet(units);
+        this.busyUnits = new UnitSet(units);
+        this.nextUnit = 0;
         this.currentOccupancy = 0;
-        this.totalOccupancyTime = 0;
-        this.lastUpdateTime = 0;
+        this.blockedCount = 0;
+        this.reservedCount = 0;
+        this.freeSpace = (long) Math.max(0, type.getCapacity()) * units;
+        this.maxQueueSize = 0;
+        this.calendar = null;
+        this.contentsStatistics = new TimeWeightedStatistics();
+        this.unitStatistics = new TimeWeightedStatistics[units];
+        for (int unit = 0; unit < units; unit++) {
+            unitContents[unit] = new FifoEntityQueue();
+            unitStatistics[unit] = units == 1 ? contentsStatistics : new TimeWeightedStatistics();
+            if (type.getCapacity() > 0) {
+                availableUnits.add(unit);
+            }
+        }
     }
 
     public boolean canAccept() {
-        return currentOccupancy < type.getCapacity();
+        return reservedCount < freeSpace;
+    }
+
+    // Solo para cambios de capacidad y restauraciones: recorre todas las unidades
+    private void recountFreeSpace() {
+        long free = 0;
+        for (int unit = 0; unit < unitOccupancy.length; unit++) {
+            free += Math.max(0, type.getCapacity() - unitOccupancy[unit]);
+        }
+        freeSpace = free;
+    }
+
+    // Una entidad en camino se asegura un lugar; al llegar lo libera con
+    // cancelReservation justo antes de entrar
+    public void reserve() {
+        reservedCount++;
+    }
+
+    public void cancelReservation() {
+        if (reservedCount == 0) {
+            throw new IllegalStateException("No hay lugares reservados en " + type.getName());
+        }
+        reservedCount--;
+    }
+
+    public int getReservedCount() {
+        return reservedCount;
     }
 
-    public void enter(Entity entity, double currentTime) {
-        updateOccupancyTime(currentTime);
+    // Unidad que recibe a la entidad, o -1 si quedó en la cola de espera
+    public int enter(int entity, double currentTime) {
         if (canAccept()) {
-            contentQueue.add(entity);
-            currentOccupancy++;
-            entity.setCurrentLocation(this);
-        } else {
-            queue.add(entity);
-        }
-    }
-
-    public Entity exit(double currentTime) {
-        updateOccupancyTime(currentTime);
-        Entity entity = contentQueue.poll();
-        if (entity != null) {
-            currentOccupancy--;
-            
-            // Procesar siguiente en cola si hay espacio
-            if (!queue.isEmpty() && canAccept()) {
-                Entity nextEntity = queue.poll();
-                contentQueue.add(nextEntity);
-                currentOccupancy++;
-                nextEntity.setCurrentLocation(this);
-            }
+            int unit = selectUnit();
+            admit(entity, unit);
+            recordContents(unit, scheduled(currentTime));
+            return unit;
+        }
+        queue.add(entity);
+        updateMaxQueueSize();
+        return -1;
+    }
+
+    // Handle de la entidad más antigua de la unidad, que sale;
+    // EntityStore.NONE si estaba vacía
+    public int exit(int unit, double currentTime) {
+        int entity = unitContents[unit].peek();
+        if (entity != EntityStore.NONE) {
+            leave(entity, unit, currentTime);
         }
         return entity;
     }
 
-    public void addToQueue(Entity entity) {
+    // Sale una entidad determinada de su unidad
+    public void leave(int entity, int unit, double currentTime) {
+        if (!unitContents[unit].remove(entity)) {
+            throw new IllegalStateException("La entidad " + entity + " no está en " + type.getName()
+                + " (unidad " + unit + ")");
+        }
+        unitOccupancy[unit]--;
+        currentOccupancy--;
+        if (unitOccupancy[unit] < type.getCapacity()) {
+            availableUnits.add(unit);
+            freeSpace++;
+        }
+        if (unitOccupancy[unit] == 0) {
+            busyUnits.remove(unit);
+        }
+        recordContents(unit, scheduled(currentTime));
+    }
+
+    // Una entidad de la locación queda bloqueada esperando lugar en otra, o deja de estarlo
+    public void block() {
+        blockedCount++;
+    }
+
+    public void unblock() {
+        blockedCount--;
+    }
+
+    public int getBlockedCount() {
+        return blockedCount;
+    }
+
+    // La locación participa de alguna relación de bloqueo: liberar lugar en
+    // ella puede mover entidades de otras locaciones
+    public boolean hasBlocking() {
+        return blockedCount > 0 || !queue.isEmpty();
+    }
+
+    // Cambia la capacidad por unidad en medio de la corrida; si crece, las
+    // entidades en cola entran cuando OperationHandler las llama
+    public void setCapacity(int capacity, double currentTime) {
+        this.type = new LocationType(type.getName(), capacity, type.getUnits());
+        for (int unit = 0; unit < unitOccupancy.length; unit++) {
+            if (unitOccupancy[unit] < capacity) {
+                availableUnits.add(unit);
+            } else {
+                availableUnits.remove(unit);
+            }
+        }
+        recountFreeSpace();
+        contentsStatistics.update(scheduled(currentTime), currentOccupancy);
+    }
+
+    // Debe definirse antes de la corrida: las estadísticas ya acumuladas quedarían
+    // en otra escala de tiempo
+    public void setCalendar(ShiftCalendar calendar) {
+        this.calendar = calendar;
+    }
+
+    public ShiftCalendar getCalendar() {
+        return calendar;
+    }
+
+    // Minutos de turno de la locación entre dos horas del reloj
+    public double getScheduledTime(double from, double to) {
+        return calendar == null ? to - from : calendar.getScheduledTime(from, to);
+    }
+
+    // Fin de un trabajo de duration minutos que empieza en startTime: fuera de
+    // turno de la locación el trabajo no avanza
+    public double getCompletionTime(double startTime, double duration) {
+        return calendar == null ? startTime + duration : calendar.advance(startTime, duration);
+    }
+
+    private double scheduled(double time) {
+        return calendar == null ? time : calendar.getScheduledTime(time);
+    }
+
+    private int selectUnit() {
+        if (unitSelection == UnitSelection.BY_TURN) {
+            int unit = availableUnits.nextCyclic(nextUnit);
+            nextUnit = unit + 1 < unitOccupancy.length ? unit + 1 : 0;
+            return unit;
+        }
+        return availableUnits.next(0);
+    }
+
+    private void admit(int entity, int unit) {
+        unitContents[unit].add(entity);
+        unitOccupancy[unit]++;
+        unitEntries[unit]++;
+        currentOccupancy++;
+        freeSpace--;
+        busyUnits.add(unit);
+        if (unitOccupancy[unit] >= type.getCapacity()) {
+            availableUnits.remove(unit);
+        }
+    }
+
+    private void recordContents(int unit, double currentTime) {
+        if (unitStatistics[unit] != contentsStatistics) {
+            unitStatistics[unit].update(currentTime, unitOccupancy[unit]);
+        }
+        contentsStatistics.update(currentTime, currentOccupancy);
+    }
+
+    public void setUnitSelection(UnitSelection unitSelection) {
+        this.unitSelection = unitSelection;
+    }
+
+    public UnitSelection getUnitSelection() {
+        return unitSelection;
+    }
+
+    // Cambia la disciplina de la cola de espera; las entidades en cola se
+    // reordenan según la nueva. key es la del motor (ver SimulationEngine)
+    public void setQueueDiscipline(QueueDiscipline discipline, EntityKey key) {
+        EntityQueue replacement = discipline.createQueue(key);
+        replacement.addAll(queue.toArray());
+        this.queue = replacement;
+        this.queueDiscipline = discipline;
+    }
+
+    public QueueDiscipline getQueueDiscipline() {
+        return queueDiscipline;
+    }
+
+    public void addToQueue(int entity) {
         queue.add(entity);
+        updateMaxQueueSize();
     }
 
-    public Entity removeFromQueue() {
-        return queue.poll();
+    private void updateMaxQueueSize() {
+        if (queue.size() > maxQueueSize) {
+            maxQueueSize = queue.size();
+        }
     }
 
-    private void updateOccupancyTime(double currentTime) {
-        double timeDelta = currentTime - lastUpdateTime;
-        totalOccupancyTime += currentOccupancy * timeDelta;
-        lastUpdateTime = currentTime;
+    public int removeFromQueue() {
+        return queue.poll();
     }
 
     public LocationType getType() {
         return type;
     }
 
+    // Capacidad de todas las unidades juntas
+    public int getTotalCapacity() {
+        return (int) Math.min(Integer.MAX_VALUE, (long) type.getCapacity() * unitOccupancy.length);
+    }
+
     public int getCurrentOccupancy() {
         return currentOccupancy;
     }
 
+    public int getUnitCount() {
+        return unitOccupancy.length;
+    }
+
+    public int getUnitOccupancy(int unit) {
+        return unitOccupancy[unit];
+    }
+
+    // Entradas a la unidad desde el último reinicio de estadísticas
+    public int getUnitEntries(int unit) {
+        return unitEntries[unit];
+    }
+
+    public TimeWeightedStatistics getUnitContentsStatistics(int unit) {
+        return unitStatistics[unit];
+    }
+
     public int getQueueSize() {
         return queue.size();
     }
 
+    // Mayor largo de cola visto en la corrida (desde la restauración, si hubo checkpoint)
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
     public double getTotalOccupancyTime() {
-        return totalOccupancyTime;
+        return contentsStatistics.getArea();
+    }
+
+    // Ocupación acumulada hasta currentTime, no solo hasta el último cambio
+    public double getOccupancyTimeUntil(double currentTime) {
+        return contentsStatistics.getArea()
+            + currentOccupancy * (scheduled(currentTime) - contentsStatistics.getLastUpdateTime());
+    }
+
+    // Acumulado hasta el último cambio de contenido, en tiempo de turno
+    public TimeWeightedStatistics getContentsStatistics() {
+        return contentsStatistics;
+    }
+
+    // Reinicia los acumulados sin tocar el contenido ni la cola
+    public void resetStatistics(double currentTime) {
+        double time = scheduled(currentTime);
+        contentsStatistics.advance(time);
+        contentsStatistics.reset(time);
+        for (int unit = 0; unit < unitStatistics.length; unit++) {
+            if (unitStatistics[unit] != contentsStatistics) {
+                unitStatistics[unit].advance(time);
+                unitStatistics[unit].reset(time);
+            }
+            unitEntries[unit] = 0;
+        }
+        this.maxQueueSize = queue.size();
+    }
+
+    // Copias para checkpoints: el contenido de cada unidad en orden de llegada y
+    // la cola en un orden que restoreState reproduce
+    public int[] getUnitContents(int unit) {
+        return unitContents[unit].toArray();
+    }
+
+    public int[] getQueuedEntities() {
+        return queue.toArray();
+    }
+
+    // Claves de la cola en el mismo orden; null si la disciplina no usa claves
+    public double[] getQueuedKeys() {
+        return queue.keysToArray();
+    }
+
+    // Reemplaza el estado dinámico por el guardado en un checkpoint (las
+    // estadísticas de contenido se restauran aparte, con getContentsStatistics
+    // y getUnitContentsStatistics)
+    public void restoreState(int[][] contents, int[] entries, int nextUnit, int blockedCount, int reservedCount,
+                             int[] queued, double[] queuedKeys) {
+        if (contents.length != unitContents.length || entries.length != unitEntries.length) {
+            throw new IllegalArgumentException("Cantidad de unidades distinta en " + type.getName()
+                + ": " + contents.length);
+        }
+        currentOccupancy = 0;
+        for (int unit = 0; unit < unitContents.length; unit++) {
+            unitContents[unit].clear();
+            unitContents[unit].addAll(contents[unit]);
+            unitOccupancy[unit] = contents[unit].length;
+            unitEntries[unit] = entries[unit];
+            currentOccupancy += contents[unit].length;
+            if (unitOccupancy[unit] > 0) {
+                busyUnits.add(unit);
+            } else {
+                busyUnits.remove(unit);
+            }
+            if (unitOccupancy[unit] < type.getCapacity()) {
+                availableUnits.add(unit);
+            } else {
+                availableUnits.remove(unit);
+            }
+        }
+        recountFreeSpace();
+        this.nextUnit = nextUnit;
+        this.blockedCount = blockedCount;
+        this.reservedCount = reservedCount;
+        queue.clear();
+        if (queuedKeys != null) {
+            queue.addAll(queued, queuedKeys);
+        } else {
+            queue.addAll(queued);
+        }
+        this.maxQueueSize = queued.length;
     }
 
-    public double getLastUpdateTime() {
-        return lastUpdateTime;
+    // Para checkpoints: punto de partida de la próxima selección por turno
+    public int getNextUnit() {
+        return nextUnit;
     }
 }
@@ -1,5 +1,8 @@
 package com.simulacion.locations;
 
+import com.simulacion.statistics.QuantileSketch;
+import com.simulacion.statistics.TimeWeightedStatistics;
+
 public class LocationStatistics {
     private final String locationName;
     private double scheduledTime;
@@ -8,25 +11,62 @@ public class LocationStatistics {
     private double averageTimePerEntry;
     private double averageContents;
     private double maxContents;
+    private double minContents;
+    private TimeWeightedStatistics contentsDistribution;
     private double currentContents;
     private double utilizationPercent;
+    private QuantileSketch timePerEntryDistribution;
+    // Desglose por unidad; vacío si la locación tiene una sola unidad
+    private int unitCapacity;
+    private int[] unitEntries;
+    private int[] unitCurrentContents;
+    private TimeWeightedStatistics[] unitContentsDistributions;
 
     public LocationStatistics(String locationName) {
         this.locationName = locationName;
+        this.timePerEntryDistribution = new QuantileSketch();
+        this.contentsDistribution = new TimeWeightedStatistics();
+        this.unitEntries = new int[0];
+        this.unitCurrentContents = new int[0];
+        this.unitContentsDistributions = new TimeWeightedStatistics[0];
     }
 
     public void calculate(Location location, double totalSimulationTime, int entries, double totalProcessingTime) {
+        calculate(location.getTotalCapacity(), location.getCurrentOccupancy(),
+            location.getContentsStatistics(), totalSimulationTime, entries, totalProcessingTime);
+
+        int units = location.getUnitCount();
+        if (units > 1) {
+            this.unitCapacity = location.getType().getCapacity();
+            this.unitEntries = new int[units];
+            this.unitCurrentContents = new int[units];
+            this.unitContentsDistributions = new TimeWeightedStatistics[units];
+            for (int unit = 0; unit < units; unit++) {
+                TimeWeightedStatistics contents = location.getUnitContentsStatistics(unit);
+                unitEntries[unit] = location.getUnitEntries(unit);
+                unitCurrentContents[unit] = location.getUnitOccupancy(unit);
+                unitContentsDistributions[unit] = contents.copyUntil(contents.getStartTime() + totalSimulationTime);
+            }
+        }
+    }
+
+    // Variante para motores que no usan objetos Location
+    public void calculate(int capacity, int currentOccupancy, TimeWeightedStatistics contents,
+                          double totalSimulationTime, int entries, double totalProcessingTime) {
         this.scheduledTime = totalSimulationTime;
-        this.capacity = location.getType().getCapacity();
+        this.capacity = capacity;
         this.totalEntries = entries;
         
         if (entries > 0) {
             this.averageTimePerEntry = totalProcessingTime / entries;
         }
         
-        this.averageContents = location.getTotalOccupancyTime() / totalSimulationTime;
-        this.maxContents = capacity;
-        this.currentContents = location.getCurrentOccupancy();
+        // Cerrado al final de la corrida, incluido el tramo desde el último cambio
+        this.contentsDistribution = contents.copyUntil(contents.getStartTime() + totalSimulationTime);
+        this.averageContents = contentsDistribution.getArea() / totalSimulationTime;
+        this.maxContents = contentsDistribution.getMax();
+        this.minContents = contentsDistribution.getMin();
+        this.currentContents = currentOccupancy;
         
         if (capacity > 0) {
             this.utilizationPercent = (averageContents / capacity) * 100.0;
@@ -41,6 +81,40 @@ public class LocationStatistics {
     public double getAverageTimePerEntry() { return averageTimePerEntry; }
     public double getAverageContents() { return averageContents; }
     public double getMaxContents() { return maxContents; }
+    public double getMinContents() { return minContents; }
+    public double getContentsStandardDeviation() { return contentsDistribution.getStandardDeviation(); }
+    // Tiempo en cada nivel de contenido durante el período medido
+    public TimeWeightedStatistics getContentsDistribution() { return contentsDistribution; }
     public double getCurrentContents() { return currentContents; }
     public double getUtilizationPercent() { return utilizationPercent; }
+
+    // Distribución del tiempo por entrada; el colector la asigna al calcular
+    public void setTimePerEntryDistribution(QuantileSketch distribution) {
+        this.timePerEntryDistribution = distribution;
+    }
+
+    public QuantileSketch getTimePerEntryDistribution() { return timePerEntryDistribution; }
+
+    public double getTimePerEntryPercentile(double q) { return timePerEntryDistribution.getQuantile(q); }
+
+    // Unidades con desglose: 0 si la locación tiene una sola
+    public int getUnitCount() { return unitContentsDistributions.length; }
+    public int getUnitCapacity() { return unitCapacity; }
+    public String getUnitName(int unit) { return locationName + "." + (unit + 1); }
+    public int getUnitEntries(int unit) { return unitEntries[unit]; }
+    public int getUnitCurrentContents(int unit) { return unitCurrentContents[unit]; }
+    public TimeWeightedStatistics getUnitContentsDistribution(int unit) { return unitContentsDistributions[unit]; }
+
+    public double getUnitAverageContents(int unit) {
+        return scheduledTime > 0 ? unitContentsDistributions[unit].getArea() / scheduledTime : 0.0;
+    }
+
+    // Tiempo ocupado por entrada: la unidad no distingue procesamiento de espera
+    public double getUnitAverageTimePerEntry(int unit) {
+        return unitEntries[unit] > 0 ? unitContentsDistributions[unit].getArea() / unitEntries[unit] : 0.0;
+    }
+
+    public double getUnitUtilizationPercent(int unit) {
+        return unitCapacity > 0 ? getUnitAverageContents(unit) / unitCapacity * 100.0 : 0.0;
+    }
 }
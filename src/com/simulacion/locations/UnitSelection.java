@@ -0,0 +1,10 @@
+package com.simulacion.locations;
+
+// Regla para elegir la unidad que recibe una entidad en una locación de varias
+// unidades; ambas cuestan O(1) sobre el conjunto de unidades con lugar
+public enum UnitSelection {
+    // La unidad libre de menor número: concentra el trabajo en las primeras
+    FIRST_AVAILABLE,
+    // Por turno: la próxima unidad libre después de la última elegida
+    BY_TURN
+}
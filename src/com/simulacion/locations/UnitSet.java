@@ -0,0 +1,77 @@
+package com.simulacion.locations;
+
+// Conjunto de unidades de una locación en dos niveles de palabras: summary marca
+// las palabras no vacías, así que buscar la próxima unidad desde una posición
+// revisa a lo sumo una palabra de cada nivel aunque haya miles de unidades
+final class UnitSet {
+    private final long[] words;
+    private final long[] summary;
+    private int size;
+
+    UnitSet(int capacity) {
+        this.words = new long[Math.max(1, (capacity + 63) >>> 6)];
+        this.summary = new long[(words.length + 63) >>> 6];
+        this.size = 0;
+    }
+
+    void add(int unit) {
+        int word = unit >>> 6;
+        if ((words[word] & (1L << unit)) == 0) {
+            words[word] |= 1L << unit;
+            summary[word >>> 6] |= 1L << word;
+            size++;
+        }
+    }
+
+    void remove(int unit) {
+        int word = unit >>> 6;
+        if ((words[word] & (1L << unit)) != 0) {
+            words[word] &= ~(1L << unit);
+            if (words[word] == 0) {
+                summary[word >>> 6] &= ~(1L << word);
+            }
+            size--;
+        }
+    }
+
+    boolean contains(int unit) {
+        return (words[unit >>> 6] & (1L << unit)) != 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Primera unidad del conjunto en from o después; -1 si no hay
+    int next(int from) {
+        int word = from >>> 6;
+        if (word >= words.length) {
+            return -1;
+        }
+        long bits = words[word] & (-1L << from);
+        if (bits != 0) {
+            return (word << 6) + Long.numberOfTrailingZeros(bits);
+        }
+        // Los corrimientos de long usan los 6 bits bajos: -1L << (word + 1)
+        // descarta las palabras ya revisadas dentro de summary[group]
+        int group = (word + 1) >>> 6;
+        if (group >= summary.length) {
+            return -1;
+        }
+        long groups = summary[group] & (-1L << (word + 1));
+        while (groups == 0) {
+            if (++group >= summary.length) {
+                return -1;
+            }
+            groups = summary[group];
+        }
+        int found = (group << 6) + Long.numberOfTrailingZeros(groups);
+        return (found << 6) + Long.numberOfTrailingZeros(words[found]);
+    }
+
+    // Primera unidad desde from, volviendo al principio si no hay más adelante
+    int nextCyclic(int from) {
+        int unit = next(from);
+        return unit >= 0 ? unit : next(0);
+    }
+}
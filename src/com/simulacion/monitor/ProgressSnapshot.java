@@ -0,0 +1,150 @@
+package com.simulacion.monitor;
+
+import com.simulacion.core.SimulationEngine;
+import com.simulacion.locations.Location;
+import com.simulacion.resources.Resource;
+
+import java.util.Locale;
+import java.util.Map;
+
+// Foto inmutable del estado de una corrida. Se toma en el hilo de la
+// simulación y los pedidos HTTP solo leen la última publicada.
+public final class ProgressSnapshot {
+    private final String state;
+    private final double clockTime;
+    private final long executedEvents;
+    private final double eventsPerSecond;
+    private final int pendingEvents;
+    private final String[] locationNames;
+    private final int[] locationContents;
+    private final int[] locationQueues;
+    private final int[] locationEntries;
+    private final double[] locationUtilizations;
+    private final String[] resourceNames;
+    private final double[] resourceBusyTimes;
+    private final double[] resourceUtilizations;
+
+    ProgressSnapshot(SimulationEngine engine, String state, double eventsPerSecond) {
+        this.state = state;
+        this.clockTime = engine.getClock().getCurrentTime();
+        this.executedEvents = engine.getExecutedEventCount();
+        this.eventsPerSecond = eventsPerSecond;
+        this.pendingEvents = engine.getScheduler().getEventCount();
+
+        Map<String, Integer> entries = engine.getStatistics().getLocationEntryCounts();
+        int locationCount = engine.getLocationCount();
+        locationNames = new String[locationCount];
+        locationContents = new int[locationCount];
+        locationQueues = new int[locationCount];
+        locationEntries = new int[locationCount];
+        locationUtilizations = new double[locationCount];
+        for (int i = 0; i < locationCount; i++) {
+            Location location = engine.getLocation(i);
+            String name = location.getType().getName();
+            // Ocupación acumulada hasta el reloj actual, sobre el tiempo de turno de la locación
+            double occupancyTime = location.getOccupancyTimeUntil(clockTime);
+            double scheduledTime = location.getScheduledTime(0, clockTime);
+            int capacity = location.getTotalCapacity();
+            locationNames[i] = name;
+            locationContents[i] = location.getCurrentOccupancy();
+            locationQueues[i] = location.getQueueSize();
+            locationEntries[i] = entries.getOrDefault(name, 0);
+            locationUtilizations[i] = scheduledTime > 0 && capacity > 0
+                ? occupancyTime / scheduledTime / capacity * 100.0
+                : 0.0;
+        }
+
+        int resourceCount = engine.getResourceCount();
+        resourceNames = new String[resourceCount];
+        resourceBusyTimes = new double[resourceCount];
+        resourceUtilizations = new double[resourceCount];
+        for (int i = 0; i < resourceCount; i++) {
+            Resource resource = engine.getResource(i);
+            int units = resource.getType().getUnits();
+            double busyTime = resource.getBusyTimeUntil(clockTime);
+            double scheduledTime = resource.getScheduledTime(0, clockTime);
+            resourceNames[i] = resource.getType().getName();
+            resourceBusyTimes[i] = busyTime;
+            resourceUtilizations[i] = scheduledTime > 0 && units > 0
+                ? busyTime / scheduledTime / units * 100.0
+                : 0.0;
+        }
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public double getClockTime() {
+        return clockTime;
+    }
+
+    public long getExecutedEvents() {
+        return executedEvents;
+    }
+
+    public double getEventsPerSecond() {
+        return eventsPerSecond;
+    }
+
+    // Formato de texto de Prometheus
+    public String toPrometheus() {
+        StringBuilder sb = new StringBuilder();
+        gauge(sb, "simulacion_running", "1 mientras la corrida avanza", "RUNNING".equals(state) ? 1 : 0);
+        gauge(sb, "simulacion_paused", "1 si la corrida está en pausa", "PAUSED".equals(state) ? 1 : 0);
+        gauge(sb, "simulacion_clock_minutes", "Reloj de simulación", clockTime);
+        header(sb, "simulacion_events_total", "Eventos ejecutados", "counter");
+        sb.append("simulacion_events_total ").append(executedEvents).append('\n');
+        gauge(sb, "simulacion_events_per_second", "Eventos ejecutados por segundo de reloj", eventsPerSecond);
+        gauge(sb, "simulacion_pending_events", "Eventos en la lista de eventos futuros", pendingEvents);
+
+        header(sb, "simulacion_location_contents", "Entidades en la locación", "gauge");
+        for (int i = 0; i < locationNames.length; i++) {
+            sample(sb, "simulacion_location_contents", "location", locationNames[i], locationContents[i]);
+        }
+        header(sb, "simulacion_location_queue", "Entidades en cola de la locación", "gauge");
+        for (int i = 0; i < locationNames.length; i++) {
+            sample(sb, "simulacion_location_queue", "location", locationNames[i], locationQueues[i]);
+        }
+        header(sb, "simulacion_location_entries_total", "Entradas a la locación", "counter");
+        for (int i = 0; i < locationNames.length; i++) {
+            sample(sb, "simulacion_location_entries_total", "location", locationNames[i], locationEntries[i]);
+        }
+        header(sb, "simulacion_location_utilization_percent", "Utilización de la locación hasta el reloj actual", "gauge");
+        for (int i = 0; i < locationNames.length; i++) {
+            sample(sb, "simulacion_location_utilization_percent", "location", locationNames[i], locationUtilizations[i]);
+        }
+
+        header(sb, "simulacion_resource_busy_minutes", "Tiempo ocupado acumulado del recurso", "counter");
+        for (int i = 0; i < resourceNames.length; i++) {
+            sample(sb, "simulacion_resource_busy_minutes", "resource", resourceNames[i], resourceBusyTimes[i]);
+        }
+        header(sb, "simulacion_resource_utilization_percent", "Utilización del recurso hasta el reloj actual", "gauge");
+        for (int i = 0; i < resourceNames.length; i++) {
+            sample(sb, "simulacion_resource_utilization_percent", "resource", resourceNames[i], resourceUtilizations[i]);
+        }
+        return sb.toString();
+    }
+
+    private static void header(StringBuilder sb, String name, String help, String type) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void gauge(StringBuilder sb, String name, String help, double value) {
+        header(sb, name, help, "gauge");
+        sb.append(name).append(' ').append(format(value)).append('\n');
+    }
+
+    private static void sample(StringBuilder sb, String name, String label, String labelValue, double value) {
+        sb.append(name).append('{').append(label).append("=\"")
+          .append(labelValue.replace("\\", "\\\\").replace("\"", "\\\"")).append("\"} ")
+          .append(format(value)).append('\n');
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15
+            ? String.valueOf((long) value)
+            : String.format(Locale.ROOT, "%.6f", value);
+    }
+}
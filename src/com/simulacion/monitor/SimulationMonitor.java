@@ -0,0 +1,141 @@
+package com.simulacion.monitor;
+
+import com.simulacion.core.ProgressListener;
+import com.simulacion.core.SimulationEngine;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+// Endpoint HTTP local para seguir y controlar una corrida larga:
+//   GET  /metrics  progreso en formato de Prometheus
+//   POST /pause    pausa la simulación en el próximo aviso de progreso
+//   POST /resume   la reanuda
+//   POST /stop     la detiene; run() cierra las estadísticas en el tiempo alcanzado
+// El hilo de la simulación publica una foto cada publishIntervalMillis y los
+// pedidos solo leen la última, así que nunca lo frenan.
+public class SimulationMonitor implements ProgressListener, AutoCloseable {
+    // Eventos entre consultas del reloj; a ~100 ns por evento son décimas de milisegundo
+    public static final long EVENT_INTERVAL = 1000;
+
+    private final SimulationEngine engine;
+    private final HttpServer server;
+    private final long publishIntervalNanos;
+    private final Object lock;
+    private boolean pauseRequested;
+    private boolean stopRequested;
+    private volatile ProgressSnapshot snapshot;
+    private long lastPublishNanos;
+    private long lastPublishEvents;
+
+    public SimulationMonitor(SimulationEngine engine, int port, long publishIntervalMillis) throws IOException {
+        if (publishIntervalMillis < 1) {
+            throw new IllegalArgumentException("El intervalo de publicación debe ser positivo");
+        }
+        this.engine = engine;
+        this.publishIntervalNanos = publishIntervalMillis * 1_000_000L;
+        this.lock = new Object();
+        this.pauseRequested = false;
+        this.stopRequested = false;
+        this.lastPublishNanos = System.nanoTime();
+        this.lastPublishEvents = engine.getExecutedEventCount();
+        this.snapshot = new ProgressSnapshot(engine, "RUNNING", 0.0);
+
+        // Solo en la interfaz local: los comandos no tienen autenticación
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/metrics", this::handleMetrics);
+        server.createContext("/pause", exchange -> handleCommand(exchange, () -> pauseRequested = true));
+        server.createContext("/resume", exchange -> handleCommand(exchange, () -> pauseRequested = false));
+        server.createContext("/stop", exchange -> handleCommand(exchange, () -> stopRequested = true));
+        server.start();
+        engine.setProgressListener(this, EVENT_INTERVAL);
+    }
+
+    @Override
+    public boolean onProgress(SimulationEngine engine) {
+        long now = System.nanoTime();
+        if (now - lastPublishNanos >= publishIntervalNanos) {
+            publish("RUNNING", now);
+        }
+
+        synchronized (lock) {
+            if (pauseRequested && !stopRequested) {
+                publish("PAUSED", now);
+                try {
+                    while (pauseRequested && !stopRequested) {
+                        lock.wait();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    stopRequested = true;
+                }
+                // El tiempo en pausa no cuenta para los eventos por segundo
+                lastPublishNanos = System.nanoTime();
+                lastPublishEvents = engine.getExecutedEventCount();
+                snapshot = new ProgressSnapshot(engine, stopRequested ? "STOPPING" : "RUNNING", 0.0);
+            }
+            return !stopRequested;
+        }
+    }
+
+    // Publica la foto final; se llama después de run()
+    public void finished() {
+        publish(engine.isStopped() ? "STOPPED" : "FINISHED", System.nanoTime());
+    }
+
+    public ProgressSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        engine.setProgressListener(null, 0);
+        server.stop(0);
+    }
+
+    private void publish(String state, long now) {
+        long events = engine.getExecutedEventCount();
+        double elapsedSeconds = (now - lastPublishNanos) / 1e9;
+        double eventsPerSecond = elapsedSeconds > 0 ? (events - lastPublishEvents) / elapsedSeconds : 0.0;
+        snapshot = new ProgressSnapshot(engine, state, eventsPerSecond);
+        lastPublishNanos = now;
+        lastPublishEvents = events;
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, "Método no permitido\n");
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        respond(exchange, 200, snapshot.toPrometheus());
+    }
+
+    private void handleCommand(HttpExchange exchange, Runnable command) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, "Método no permitido\n");
+            return;
+        }
+        synchronized (lock) {
+            command.run();
+            lock.notifyAll();
+        }
+        respond(exchange, 200, "OK\n");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.simulacion.output;
 import com.simulacion.statistics.StatisticsCollector;
 import com.simulacion.entities.EntityStatistics;
 import com.simulacion.locations.LocationStatistics;
+import com.simulacion.statistics.QuantileSketch;
 
 import java.io.FileWriter;
 import java.io.IOException;
@@ -28,6 +29,8 @@ public class ReportGenerator {
         // Tabla de locaciones
         Map<String, LocationStatistics> locationStats = statistics.getLocationStats();
         System.out.println(TableFormatter.formatLocationTable(locationStats));
+        System.out.println(TableFormatter.formatPercentileTable(entityStats, locationStats));
+        System.out.println(TableFormatter.formatContentsTable(locationStats, statistics.getResourceStats()));
     }
 
     public void generateFileReport(String filename) {
@@ -40,6 +43,8 @@ public class ReportGenerator {
             
             Map<String, LocationStatistics> locationStats = statistics.getLocationStats();
             writer.println(TableFormatter.formatLocationTable(locationStats));
+            writer.println(TableFormatter.formatPercentileTable(entityStats, locationStats));
+            writer.println(TableFormatter.formatContentsTable(locationStats, statistics.getResourceStats()));
             
             System.out.println("Reporte generado: " + filename);
         } catch (IOException e) {
@@ -57,16 +62,18 @@ public class ReportGenerator {
             writer.println("Nombre,Total Salida,Tiempo En Sistema Promedio (Min)," +
                          "Tiempo En lógica de movimiento Promedio (Min)," +
                          "Tiempo Espera Promedio (Min)," +
-                         "Tiempo En Operación Promedio (Min)");
+                         "Tiempo En Operación Promedio (Min)" +
+                         percentileHeaders("Tiempo En Sistema"));
             
             for (EntityStatistics stat : statistics.getEntityStats().values()) {
-                writer.printf("%s,%d,%.2f,%.2f,%.2f,%.2f\n",
+                writer.printf("%s,%d,%.2f,%.2f,%.2f,%.2f%s\n",
                     stat.getEntityName(),
                     stat.getTotalExits(),
                     stat.getAverageSystemTime(),
                     stat.getAverageNonValueAddedTime(),
                     stat.getAverageWaitTime(),
-                    stat.getAverageValueAddedTime()
+                    stat.getAverageValueAddedTime(),
+                    percentileValues(stat.getSystemTimeDistribution())
                 );
             }
             
@@ -80,10 +87,12 @@ public class ReportGenerator {
         try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
             writer.println("Nombre,Tiempo Programado (Hr),Capacidad,Total Entradas," +
                          "Tiempo Por entrada Promedio (Min),Contenido Promedio," +
-                         "Contenido Máximo,Contenido Actual,% Utilización");
+                         "Contenido Máximo,Contenido Mínimo,Contenido Desv. Estándar," +
+                         "Contenido Actual,% Utilización" +
+                         percentileHeaders("Tiempo Por entrada"));
             
             for (LocationStatistics stat : statistics.getLocationStats().values()) {
-                writer.printf("%s,%.2f,%d,%d,%.2f,%.2f,%.2f,%.2f,%.2f\n",
+                writer.printf("%s,%.2f,%d,%d,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f%s\n",
                     stat.getLocationName(),
                     stat.getScheduledTime() / 60.0,
                     stat.getCapacity(),
@@ -91,8 +100,11 @@ public class ReportGenerator {
                     stat.getAverageTimePerEntry(),
                     stat.getAverageContents(),
                     stat.getMaxContents(),
+                    stat.getMinContents(),
+                    stat.getContentsStandardDeviation(),
                     stat.getCurrentContents(),
-                    stat.getUtilizationPercent()
+                    stat.getUtilizationPercent(),
+                    percentileValues(stat.getTimePerEntryDistribution())
                 );
             }
             
@@ -101,4 +113,20 @@ public class ReportGenerator {
             System.err.println("Error al generar CSV: " + e.getMessage());
         }
     }
+
+    private static String percentileHeaders(String indicator) {
+        StringBuilder sb = new StringBuilder();
+        for (double percentile : TableFormatter.PERCENTILES) {
+            sb.append(String.format(",%s P%.0f (Min)", indicator, percentile * 100.0));
+        }
+        return sb.toString();
+    }
+
+    private static String percentileValues(QuantileSketch distribution) {
+        StringBuilder sb = new StringBuilder();
+        for (double percentile : TableFormatter.PERCENTILES) {
+            sb.append(String.format(",%.2f", distribution.getQuantile(percentile)));
+        }
+        return sb.toString();
+    }
 }
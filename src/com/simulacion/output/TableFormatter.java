@@ -1,7 +1,9 @@
 package com.simulacion.output;
 
 public class TableFormatter {
-    
+    // Percentiles que se muestran en las tablas y los CSV
+    public static final double[] PERCENTILES = {0.50, 0.90, 0.95, 0.99};
+
     public static String formatDouble(double value, int decimals) {
         return String.format("%." + decimals + "f", value);
     }
@@ -26,7 +28,7 @@ public class TableFormatter {
                 formatDouble(stat.getAverageNonValueAddedTime(), 2),
                 formatDouble(stat.getAverageWaitTime(), 2),
                 formatDouble(stat.getAverageValueAddedTime(), 2),
-                "0.00"
+                formatDouble(stat.getAverageBlockedTime(), 2)
             ));
         }
         
@@ -55,8 +57,269 @@ public class TableFormatter {
                 formatDouble(stat.getCurrentContents(), 2),
                 formatDouble(stat.getUtilizationPercent(), 2)
             ));
+            for (int unit = 0; unit < stat.getUnitCount(); unit++) {
+                sb.append(String.format("%-20s %20s %15d %20d %30s %25s %20s %20s %20s\n",
+                    "  " + stat.getUnitName(unit),
+                    formatDouble(stat.getScheduledTime() / 60.0, 2),
+                    stat.getUnitCapacity(),
+                    stat.getUnitEntries(unit),
+                    formatDouble(stat.getUnitAverageTimePerEntry(unit), 2),
+                    formatDouble(stat.getUnitAverageContents(unit), 2),
+                    formatDouble(stat.getUnitContentsDistribution(unit).getMax(), 2),
+                    formatDouble(stat.getUnitCurrentContents(unit), 2),
+                    formatDouble(stat.getUnitUtilizationPercent(unit), 2)
+                ));
+            }
         }
         
         return sb.toString();
     }
+
+    public static String formatPercentileTable(
+            java.util.Map<String, com.simulacion.entities.EntityStatistics> entityStats,
+            java.util.Map<String, com.simulacion.locations.LocationStatistics> locationStats) {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("\n=== PERCENTILES ===\n\n");
+        appendPercentileHeader(sb);
+        for (com.simulacion.entities.EntityStatistics stat : entityStats.values()) {
+            appendPercentileRow(sb, stat.getEntityName(), "Tiempo En Sistema (Min)",
+                stat.getSystemTimeDistribution());
+        }
+        for (com.simulacion.locations.LocationStatistics stat : locationStats.values()) {
+            appendPercentileRow(sb, stat.getLocationName(), "Tiempo Por entrada (Min)",
+                stat.getTimePerEntryDistribution());
+        }
+
+        return sb.toString();
+    }
+
+    private static void appendPercentileHeader(StringBuilder sb) {
+        sb.append(String.format("%-20s %-30s %15s", "Nombre", "Indicador", "Observaciones"));
+        for (double percentile : PERCENTILES) {
+            sb.append(String.format(" %12s", "P" + formatDouble(percentile * 100.0, 0)));
+        }
+        sb.append(String.format(" %12s\n", "Máximo"));
+        sb.append("-".repeat(80 + 13 * (PERCENTILES.length + 1))).append("\n");
+    }
+
+    private static void appendPercentileRow(StringBuilder sb, String name, String label,
+                                            com.simulacion.statistics.QuantileSketch distribution) {
+        sb.append(String.format("%-20s %-30s %15d", name, label, distribution.getCount()));
+        for (double percentile : PERCENTILES) {
+            sb.append(String.format(" %12s", formatDouble(distribution.getQuantile(percentile), 2)));
+        }
+        sb.append(String.format(" %12s\n", formatDouble(distribution.getMax(), 2)));
+    }
+
+    // Distribución en el tiempo del contenido de cada locación y de las unidades
+    // ocupadas de cada recurso; solo se listan los niveles con tiempo
+    public static String formatContentsTable(
+            java.util.Map<String, com.simulacion.locations.LocationStatistics> locationStats,
+            java.util.Map<String, com.simulacion.resources.ResourceStatistics> resourceStats) {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("\n=== CONTENIDO POR NIVEL ===\n\n");
+        sb.append(String.format("%-20s %-20s %10s %10s %12s %16s  %s\n",
+            "Nombre", "Indicador", "Mínimo", "Máximo", "Promedio", "Desv. Estándar",
+            "% del tiempo por nivel"));
+        sb.append("-".repeat(180)).append("\n");
+        for (com.simulacion.locations.LocationStatistics stat : locationStats.values()) {
+            appendContentsRow(sb, stat.getLocationName(), "Contenido", stat.getContentsDistribution());
+            for (int unit = 0; unit < stat.getUnitCount(); unit++) {
+                appendContentsRow(sb, "  " + stat.getUnitName(unit), "Contenido",
+                    stat.getUnitContentsDistribution(unit));
+            }
+        }
+        for (com.simulacion.resources.ResourceStatistics stat : resourceStats.values()) {
+            appendContentsRow(sb, stat.getResourceName(), "Unidades ocupadas", stat.getBusyDistribution());
+        }
+
+        return sb.toString();
+    }
+
+    private static void appendContentsRow(StringBuilder sb, String name, String label,
+                                          com.simulacion.statistics.TimeWeightedStatistics distribution) {
+        sb.append(String.format("%-20s %-20s %10d %10d %12s %16s ", name, label,
+            distribution.getMin(), distribution.getMax(),
+            formatDouble(distribution.getMean(), 2),
+            formatDouble(distribution.getStandardDeviation(), 2)));
+        for (int level = 0; level < distribution.getLevelCount(); level++) {
+            if (distribution.getTimeAtLevel(level) > 0) {
+                sb.append(' ').append(level).append(':')
+                    .append(formatDouble(distribution.getFractionAtLevel(level) * 100.0, 1));
+            }
+        }
+        sb.append("\n");
+    }
+
+    public static String formatReplicationSummary(com.simulacion.replication.ReplicationSummary summary) {
+        StringBuilder sb = new StringBuilder();
+        double confidenceLevel = summary.getConfidenceLevel();
+
+        sb.append("\n=== RÉPLICAS: ").append(summary.getReplicationCount())
+          .append(" (IC ").append(formatDouble(confidenceLevel * 100.0, 0)).append("%) ===\n\n");
+        sb.append(String.format("%-20s %-45s %15s %15s %15s %15s %15s\n",
+            "Nombre", "Indicador", "Media", "Desv. Estándar", "Semiancho IC", "Mínimo", "Máximo"));
+        sb.append("-".repeat(150)).append("\n");
+
+        for (String name : summary.getEntityNames()) {
+            for (com.simulacion.replication.EntityMetric metric : com.simulacion.replication.EntityMetric.values()) {
+                appendReplicationRow(sb, name, metric.getLabel(), summary.getEntityMetric(name, metric),
+                    confidenceLevel);
+            }
+        }
+        for (String name : summary.getLocationNames()) {
+            for (com.simulacion.replication.LocationMetric metric : com.simulacion.replication.LocationMetric.values()) {
+                appendReplicationRow(sb, name, metric.getLabel(), summary.getLocationMetric(name, metric),
+                    confidenceLevel);
+            }
+        }
+
+        // Las observaciones de todas las réplicas juntas, no el promedio de percentiles
+        sb.append("\n=== PERCENTILES COMBINADOS DE LAS RÉPLICAS ===\n\n");
+        appendPercentileHeader(sb);
+        for (String name : summary.getEntityNames()) {
+            appendPercentileRow(sb, name, "Tiempo En Sistema (Min)", summary.getPooledSystemTimeDistribution(name));
+        }
+        for (String name : summary.getLocationNames()) {
+            appendPercentileRow(sb, name, "Tiempo Por entrada (Min)",
+                summary.getPooledTimePerEntryDistribution(name));
+        }
+
+        return sb.toString();
+    }
+
+    private static void appendReplicationRow(StringBuilder sb, String name, String label,
+                                             com.simulacion.statistics.SampleStatistics sample,
+                                             double confidenceLevel) {
+        sb.append(String.format("%-20s %-45s %15s %15s %15s %15s %15s\n",
+            name,
+            label,
+            formatDouble(sample.getMean(), 2),
+            formatDouble(sample.getStandardDeviation(), 2),
+            formatDouble(sample.getHalfWidth(confidenceLevel), 2),
+            formatDouble(sample.getMin(), 2),
+            formatDouble(sample.getMax(), 2)
+        ));
+    }
+
+    public static String formatSequentialResult(com.simulacion.replication.SequentialReplicationResult result) {
+        StringBuilder sb = new StringBuilder();
+        double confidenceLevel = result.getSummary().getConfidenceLevel();
+
+        sb.append("\n=== PRECISIÓN SECUENCIAL: ").append(result.getReplicationsUsed()).append(" réplicas, ")
+          .append(result.isPrecisionMet() ? "objetivo alcanzado" : "objetivo NO alcanzado").append(" ===\n\n");
+        sb.append(String.format("%-60s %15s %15s %15s %15s %20s\n",
+            "KPI", "Media", "Semiancho IC", "Precisión", "Objetivo", "Réplicas estimadas"));
+        sb.append("-".repeat(145)).append("\n");
+
+        for (int i = 0; i < result.getTargets().size(); i++) {
+            com.simulacion.replication.PrecisionTarget target = result.getTargets().get(i);
+            com.simulacion.statistics.SampleStatistics sample = result.getSample(i);
+            long estimated = target.estimateRequiredReplications(sample, confidenceLevel);
+            sb.append(String.format("%-60s %15s %15s %15s %15s %20s\n",
+                target.getKpi().getName(),
+                formatDouble(sample.getMean(), 2),
+                formatDouble(sample.getHalfWidth(confidenceLevel), 2),
+                formatPrecision(result.getAchievedPrecision(i), target.isRelative()),
+                formatPrecision(target.getPrecision(), target.isRelative()),
+                estimated == Long.MAX_VALUE ? "-" : String.valueOf(estimated)
+            ));
+        }
+
+        return sb.toString();
+    }
+
+    public static String formatEngineMetrics(com.simulacion.core.EngineMetrics metrics) {
+        StringBuilder sb = new StringBuilder();
+        long totalEvents = metrics.getTotalEventCount();
+
+        sb.append("\n=== MÉTRICAS DEL MOTOR ===\n\n");
+        sb.append(String.format("%-25s %15s %15s %20s %15s\n",
+            "Tipo de evento", "Eventos", "% Eventos", "Tiempo total (ms)", "ns/evento"));
+        sb.append("-".repeat(95)).append("\n");
+        for (int kind = 0; kind < metrics.getKindCount(); kind++) {
+            long count = metrics.getEventCount(kind);
+            if (count == 0) {
+                continue;
+            }
+            long timed = count - metrics.getUntimedEventCount(kind);
+            sb.append(String.format("%-25s %15d %15s %20s %15s\n",
+                metrics.getKindName(kind),
+                count,
+                formatDouble(100.0 * count / totalEvents, 2),
+                timed > 0 ? formatDouble(metrics.getEventNanos(kind) / 1e6, 2) : "-",
+                timed > 0 ? formatDouble((double) metrics.getEventNanos(kind) / timed, 0) : "-"
+            ));
+        }
+        if (metrics.getTotalUntimedEventCount() > 0) {
+            sb.append(String.format("\nTiempo por tipo no medido en la ejecución por lotes: %d eventos sin medir\n",
+                metrics.getTotalUntimedEventCount()));
+        }
+
+        sb.append("\n");
+        sb.append(String.format("%-40s %15d\n", "Máximo de eventos pendientes", metrics.getEventListHighWater()));
+        sb.append(String.format("%-40s %15s\n", "Minutos simulados por segundo",
+            formatDouble(metrics.getSimulatedTimePerWallSecond(), 2)));
+
+        sb.append("\n");
+        sb.append(String.format("%-20s %20s\n", "Locación", "Cola Máxima"));
+        sb.append("-".repeat(41)).append("\n");
+        for (java.util.Map.Entry<String, Integer> entry : metrics.getLocationQueueMaxima().entrySet()) {
+            sb.append(String.format("%-20s %20d\n", entry.getKey(), entry.getValue()));
+        }
+
+        return sb.toString();
+    }
+
+    public static String formatSteadyStateResult(com.simulacion.steadystate.SteadyStateResult result) {
+        StringBuilder sb = new StringBuilder();
+        double confidenceLevel = result.getConfidenceLevel();
+
+        if (!result.isWarmupDetected()) {
+            // Sin punto de truncamiento no hay período medido ni medias por lotes
+            sb.append("\n=== ESTADO ESTABLE: no detectado ===\n\n");
+            sb.append(String.format("%-40s %15s\n", "Calentamiento (MSER-5, min)", "no detectado"));
+            sb.append(String.format("%-40s %15s\n", "Fin de la corrida (min)", formatDouble(result.getEndTime(), 2)));
+            sb.append("\nMSER-5 no encontró el fin del calentamiento antes del tiempo máximo: no se\n")
+              .append("calcularon medias por lotes y las estadísticas incluyen el transitorio inicial.\n");
+            return sb.toString();
+        }
+
+        sb.append("\n=== ESTADO ESTABLE: ")
+          .append(result.isPrecisionMet() ? "objetivo alcanzado" : "objetivo NO alcanzado").append(" ===\n\n");
+        sb.append(String.format("%-40s %15s\n", "Calentamiento (MSER-5, min)", formatDouble(result.getWarmupTime(), 2)));
+        sb.append(String.format("%-40s %15s\n", "Reinicio de estadísticas (min)",
+            formatDouble(result.getDetectionTime(), 2)));
+        sb.append(String.format("%-40s %15s\n", "Fin de la corrida (min)", formatDouble(result.getEndTime(), 2)));
+        sb.append(String.format("%-40s %15s\n", "Período medido (min)", formatDouble(result.getMeasuredTime(), 2)));
+
+        sb.append("\n");
+        sb.append(String.format("%-45s %15s %15s %15s %15s %15s %10s %12s\n",
+            "Serie", "Truncamiento", "Media", "Semiancho IC", "Precisión", "Objetivo", "Lotes", "Tam. lote"));
+        sb.append("-".repeat(150)).append("\n");
+        for (int i = 0; i < result.getSeriesCount(); i++) {
+            double mean = result.getMean(i);
+            double halfWidth = result.getHalfWidth(i);
+            double truncation = result.getTruncationTime(i);
+            sb.append(String.format("%-45s %15s %15s %15s %15s %15s %10d %12d\n",
+                result.getSeries(i).getName(),
+                Double.isNaN(truncation) ? "-" : formatDouble(truncation, 2),
+                formatDouble(mean, 2),
+                Double.isInfinite(halfWidth) ? "-" : formatDouble(halfWidth, 2),
+                Double.isInfinite(halfWidth) || mean == 0 ? "-" : formatPrecision(halfWidth / Math.abs(mean), true),
+                formatPrecision(result.getRelativePrecision(i), true),
+                result.getBatches(i),
+                result.getBatchSize(i)
+            ));
+        }
+        sb.append(String.format("\nNivel de confianza: %s%%\n", formatDouble(confidenceLevel * 100.0, 0)));
+
+        return sb.toString();
+    }
+
+    private static String formatPrecision(double precision, boolean relative) {
+        return relative ? formatDouble(precision * 100.0, 2) + "%" : formatDouble(precision, 2);
+    }
 }
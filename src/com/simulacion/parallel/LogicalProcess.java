@@ -0,0 +1,146 @@
+package com.simulacion.parallel;
+
+import com.simulacion.core.RemoteArrivalSink;
+import com.simulacion.core.SimulationEngine;
+import com.simulacion.entities.EntityStore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Proceso lógico: un motor completo que solo ejecuta las locaciones de su
+// partición y deja en su buzón de salida las llegadas destinadas a otras
+class LogicalProcess implements RemoteArrivalSink {
+    private final int index;
+    private final Partition partition;
+    private final SimulationEngine engine;
+    private final List<Message> outbox;
+
+    LogicalProcess(int index, Partition partition, SimulationEngine engine) {
+        this.index = index;
+        this.partition = partition;
+        this.engine = engine;
+        this.outbox = new ArrayList<>();
+    }
+
+    @Override
+    public void sendArrival(EntityStore store, int entity, int locationIndex, double arrivalTime,
+                            int priority, long sequence) {
+        outbox.add(new Message(arrivalTime, priority, engine.getClock().getCurrentTime(), index, sequence,
+            store, entity, locationIndex));
+    }
+
+    double getSafeBound() {
+        return engine.getNextEventTime() + partition.getLookahead();
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    Partition getPartition() {
+        return partition;
+    }
+
+    SimulationEngine getEngine() {
+        return engine;
+    }
+
+    List<Message> getOutbox() {
+        return outbox;
+    }
+
+    static final class Message implements Comparable<Message> {
+        // Clave del evento en el motor que envía: tiempo, prioridad, instante
+        // en que se programó y secuencia local
+        final double time;
+        final int priority;
+        final double sentTime;
+        final int source;
+        final long sequence;
+        final int locationIndex;
+        // Estado de la entidad: cada motor tiene su propio almacén de handles
+        private final int entityId;
+        private final int entityType;
+        private final double entryTime;
+        private final double systemTime;
+        private final double valueAddedTime;
+        private final double nonValueAddedTime;
+        private final double waitTime;
+        private final double blockedTime;
+        private final int[] intAttributes;
+        private final long[] longAttributes;
+        private final double[] doubleAttributes;
+
+        Message(double time, int priority, double sentTime, int source, long sequence,
+                EntityStore store, int entity, int locationIndex) {
+            this.time = time;
+            this.priority = priority;
+            this.sentTime = sentTime;
+            this.source = source;
+            this.sequence = sequence;
+            this.locationIndex = locationIndex;
+            this.entityId = store.getId(entity);
+            this.entityType = store.getType(entity);
+            this.entryTime = store.getEntryTime(entity);
+            this.systemTime = store.getTotalSystemTime(entity);
+            this.valueAddedTime = store.getTotalValueAddedTime(entity);
+            this.nonValueAddedTime = store.getTotalNonValueAddedTime(entity);
+            this.waitTime = store.getTotalWaitTime(entity);
+            this.blockedTime = store.getTotalBlockedTime(entity);
+            // Todas las particiones declaran el mismo modelo: los carriles tienen el mismo ancho
+            this.intAttributes = new int[store.getIntWidth()];
+            for (int slot = 0; slot < intAttributes.length; slot++) {
+                intAttributes[slot] = store.getIntSlot(entity, slot);
+            }
+            this.longAttributes = new long[store.getLongWidth()];
+            for (int slot = 0; slot < longAttributes.length; slot++) {
+                longAttributes[slot] = store.getLongSlot(entity, slot);
+            }
+            this.doubleAttributes = new double[store.getDoubleWidth()];
+            for (int slot = 0; slot < doubleAttributes.length; slot++) {
+                doubleAttributes[slot] = store.getDoubleSlot(entity, slot);
+            }
+        }
+
+        // Da de alta la entidad en el almacén del motor destino y devuelve su handle
+        int createEntity(EntityStore store) {
+            int entity = store.allocate(entityType, entityId);
+            store.setEntryTime(entity, entryTime);
+            store.addSystemTime(entity, systemTime);
+            store.addValueAddedTime(entity, valueAddedTime);
+            store.addNonValueAddedTime(entity, nonValueAddedTime);
+            store.addWaitTime(entity, waitTime);
+            store.addBlockedTime(entity, blockedTime);
+            for (int slot = 0; slot < intAttributes.length; slot++) {
+                store.setIntSlot(entity, slot, intAttributes[slot]);
+            }
+            for (int slot = 0; slot < longAttributes.length; slot++) {
+                store.setLongSlot(entity, slot, longAttributes[slot]);
+            }
+            for (int slot = 0; slot < doubleAttributes.length; slot++) {
+                store.setDoubleSlot(entity, slot, doubleAttributes[slot]);
+            }
+            return entity;
+        }
+
+        // Orden de entrega independiente del intercalado de los hilos: el de la
+        // clave del evento, y entre motores el del instante en que se programó
+        @Override
+        public int compareTo(Message other) {
+            int timeComparison = Double.compare(time, other.time);
+            if (timeComparison != 0) {
+                return timeComparison;
+            }
+            int priorityComparison = Integer.compare(priority, other.priority);
+            if (priorityComparison != 0) {
+                return priorityComparison;
+            }
+            int sentComparison = Double.compare(sentTime, other.sentTime);
+            if (sentComparison != 0) {
+                return sentComparison;
+            }
+            int sourceComparison = Integer.compare(source, other.source);
+            return sourceComparison != 0 ? sourceComparison : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.simulacion.parallel;
+
+import com.simulacion.core.SimulationEngine;
+import com.simulacion.processing.OperationHandler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Agrupa locaciones en particiones para la ejecución conservadora:
+// - las rutas con tiempo de movimiento cero unen origen y destino (lookahead nulo)
+// - las rutas hacia un destino de capacidad finita unen origen y destino: la
+//   entidad espera lugar conservando el suyo, y esa espera no cruza particiones
+// - las locaciones que mueven entidades con el mismo recurso (solo o dentro de
+//   un reclamo de varios) quedan juntas, porque el estado del recurso y su cola
+//   de pedidos viven en una sola partición
+// Los componentes resultantes se reparten con el criterio de menor carga.
+public class ModelPartitioner {
+
+    public static List<Partition> partition(SimulationEngine model, int maxPartitions) {
+        if (maxPartitions < 1) {
+            throw new IllegalArgumentException("Se requiere al menos una partición");
+        }
+        OperationHandler handler = model.getOperationHandler();
+        int locationCount = model.getLocationCount();
+
+        int[] parent = new int[locationCount];
+        for (int i = 0; i < locationCount; i++) {
+            parent[i] = i;
+        }
+        int[] resourceOwner = new int[model.getResourceCount()];
+        Arrays.fill(resourceOwner, -1);
+
+        for (int i = 0; i < locationCount; i++) {
+            for (int route = 0; route < handler.getRouteCount(i); route++) {
+                int destination = handler.getRouteDestination(i, route);
+                if (destination >= 0 && (handler.getRouteMoveTime(i, route) <= 0
+                        || model.getLocation(destination).getType().getCapacity() < Integer.MAX_VALUE)) {
+                    union(parent, i, destination);
+                }
+                for (int resource : handler.getRouteResources(i, route)) {
+                    if (resourceOwner[resource] < 0) {
+                        resourceOwner[resource] = i;
+                    } else {
+                        union(parent, i, resourceOwner[resource]);
+                    }
+                }
+            }
+        }
+
+        // Componentes en orden de su primera locación, para un reparto determinista
+        List<List<Integer>> components = new ArrayList<>();
+        int[] componentOf = new int[locationCount];
+        Arrays.fill(componentOf, -1);
+        for (int i = 0; i < locationCount; i++) {
+            int root = find(parent, i);
+            if (componentOf[root] < 0) {
+                componentOf[root] = components.size();
+                components.add(new ArrayList<>());
+            }
+            components.get(componentOf[root]).add(i);
+        }
+        components.sort(Comparator.comparingInt((List<Integer> c) -> -c.size()));
+
+        int binCount = Math.min(maxPartitions, components.size());
+        List<List<Integer>> bins = new ArrayList<>();
+        for (int b = 0; b < binCount; b++) {
+            bins.add(new ArrayList<>());
+        }
+        for (List<Integer> component : components) {
+            List<Integer> lightest = bins.get(0);
+            for (List<Integer> bin : bins) {
+                if (bin.size() < lightest.size()) {
+                    lightest = bin;
+                }
+            }
+            lightest.addAll(component);
+        }
+
+        int[] owner = new int[locationCount];
+        for (int b = 0; b < binCount; b++) {
+            for (int location : bins.get(b)) {
+                owner[location] = b;
+            }
+        }
+
+        List<Partition> partitions = new ArrayList<>();
+        for (int b = 0; b < binCount; b++) {
+            Set<String> names = new LinkedHashSet<>();
+            double lookahead = Double.POSITIVE_INFINITY;
+            bins.get(b).sort(null);
+            for (int location : bins.get(b)) {
+                names.add(model.getLocation(location).getType().getName());
+                for (int route = 0; route < handler.getRouteCount(location); route++) {
+                    int destination = handler.getRouteDestination(location, route);
+                    if (destination >= 0 && owner[destination] != b) {
+                        lookahead = Math.min(lookahead, handler.getRouteMoveTime(location, route));
+                    }
+                }
+            }
+            partitions.add(new Partition(names, lookahead));
+        }
+        return partitions;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+}
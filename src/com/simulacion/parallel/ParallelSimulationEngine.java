@@ -0,0 +1,202 @@
+package com.simulacion.parallel;
+
+import com.simulacion.core.EventListType;
+import com.simulacion.core.SimulationEngine;
+import com.simulacion.statistics.StatisticsCollector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+// Simulación paralela conservadora por ventanas sincronizadas (estilo YAWNS).
+// Cada proceso lógico tiene su propio reloj y lista de eventos. En cada ventana
+// se calcula LBTS = min(próximo evento + lookahead) sobre todos los procesos;
+// ningún mensaje futuro puede tener tiempo menor, así que todos ejecutan en
+// paralelo sus eventos con tiempo < LBTS y luego se intercambian las llegadas.
+//
+// Cada llegada remota viaja con la clave del evento que la completaría en el
+// motor secuencial (tiempo, prioridad, instante en que se programó y
+// secuencia) y el destino la ubica entre sus eventos locales según esa clave:
+// detrás de los programados hasta ese instante y delante de los posteriores.
+// Solo dos eventos programados en el mismo instante en particiones distintas
+// quedan ordenados por partición y no por el orden secuencial.
+public class ParallelSimulationEngine {
+    private final Consumer<SimulationEngine> modelBuilder;
+    private final int maxPartitions;
+    private EventListType eventListType;
+    private Long randomSeed;
+    private ExecutorService executor;
+    private List<LogicalProcess> processes;
+    private StatisticsCollector statistics;
+    private long windowCount;
+    private long messageCount;
+
+    public ParallelSimulationEngine(Consumer<SimulationEngine> modelBuilder, int maxPartitions) {
+        this.modelBuilder = modelBuilder;
+        this.maxPartitions = maxPartitions;
+        this.eventListType = EventListType.BINARY_HEAP;
+        this.randomSeed = null;
+        this.executor = null;
+    }
+
+    public StatisticsCollector run(double endTime) {
+        SimulationEngine prototype = new SimulationEngine(eventListType);
+        modelBuilder.accept(prototype);
+        List<Partition> partitions = ModelPartitioner.partition(prototype, maxPartitions);
+
+        Map<Integer, Integer> ownerByLocation = new HashMap<>();
+        processes = new ArrayList<>();
+        for (int i = 0; i < partitions.size(); i++) {
+            Partition partition = partitions.get(i);
+            SimulationEngine engine = new SimulationEngine(eventListType);
+            if (randomSeed != null) {
+                engine.setRandomSeed(randomSeed ^ (i * 0x9E3779B97F4A7C15L));
+            }
+            engine.setEntityIdSequence(i + 1, partitions.size());
+            LogicalProcess process = new LogicalProcess(i, partition, engine);
+            engine.setPartition(partition.getLocationNames(), process);
+            modelBuilder.accept(engine);
+            for (String name : partition.getLocationNames()) {
+                ownerByLocation.put(engine.getLocationIndex(name), i);
+            }
+            processes.add(process);
+        }
+
+        ExecutorService pool = executor;
+        if (pool == null && processes.size() > 1) {
+            pool = Executors.newFixedThreadPool(processes.size());
+        }
+        try {
+            simulateWindows(endTime, pool, ownerByLocation);
+        } finally {
+            if (executor == null && pool != null) {
+                pool.shutdown();
+            }
+        }
+
+        statistics = new StatisticsCollector();
+        for (LogicalProcess process : processes) {
+            process.getEngine().finish(endTime);
+            statistics.mergeFrom(process.getEngine().getStatistics(), process.getPartition().getLocationNames());
+        }
+        // Filas de locaciones en el orden de declaración, como en el motor secuencial
+        List<String> locationNames = new ArrayList<>();
+        for (int i = 0; i < prototype.getLocationCount(); i++) {
+            locationNames.add(prototype.getLocation(i).getType().getName());
+        }
+        statistics.orderLocations(locationNames);
+        return statistics;
+    }
+
+    private void simulateWindows(double endTime, ExecutorService pool, Map<Integer, Integer> ownerByLocation) {
+        windowCount = 0;
+        messageCount = 0;
+        while (true) {
+            double nextTime = Double.POSITIVE_INFINITY;
+            double lbts = Double.POSITIVE_INFINITY;
+            for (LogicalProcess process : processes) {
+                nextTime = Math.min(nextTime, process.getEngine().getNextEventTime());
+                lbts = Math.min(lbts, process.getSafeBound());
+            }
+            if (nextTime > endTime) {
+                break;
+            }
+
+            // Más allá del fin de la corrida ya no importa ningún mensaje
+            boolean lastWindow = lbts > endTime;
+            double limit = lastWindow ? endTime : lbts;
+            executeWindow(pool, limit, lastWindow);
+            windowCount++;
+
+            List<LogicalProcess.Message> messages = new ArrayList<>();
+            for (LogicalProcess process : processes) {
+                messages.addAll(process.getOutbox());
+                process.getOutbox().clear();
+            }
+            Collections.sort(messages);
+            for (LogicalProcess.Message message : messages) {
+                if (message.time < limit) {
+                    throw new IllegalStateException("Mensaje con tiempo " + message.time
+                        + " anterior al límite seguro " + limit);
+                }
+                SimulationEngine target = processes.get(ownerByLocation.get(message.locationIndex)).getEngine();
+                int entity = message.createEntity(target.getEntityStore());
+                target.getOperationHandler().scheduleRemoteArrival(entity, message.locationIndex, message.time,
+                    message.priority, message.sentTime);
+            }
+            messageCount += messages.size();
+            // Los mensajes siguientes se programan a partir del límite
+            for (LogicalProcess process : processes) {
+                process.getEngine().getScheduler().trimSequenceLog(limit);
+            }
+
+            if (lastWindow) {
+                break;
+            }
+        }
+    }
+
+    private void executeWindow(ExecutorService pool, double limit, boolean inclusive) {
+        if (pool == null) {
+            for (LogicalProcess process : processes) {
+                process.getEngine().executeEvents(limit, inclusive);
+            }
+            return;
+        }
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (LogicalProcess process : processes) {
+            futures.add(pool.submit(() -> process.getEngine().executeEvents(limit, inclusive)));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulación paralela interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló un proceso lógico: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    public void setEventListType(EventListType eventListType) {
+        this.eventListType = eventListType;
+    }
+
+    public void setRandomSeed(long randomSeed) {
+        this.randomSeed = randomSeed;
+    }
+
+    // Ejecutor externo opcional; el llamador es responsable de cerrarlo
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    public StatisticsCollector getStatistics() {
+        return statistics;
+    }
+
+    public List<Partition> getPartitions() {
+        List<Partition> partitions = new ArrayList<>();
+        for (LogicalProcess process : processes) {
+            partitions.add(process.getPartition());
+        }
+        return partitions;
+    }
+
+    public long getWindowCount() {
+        return windowCount;
+    }
+
+    public long getMessageCount() {
+        return messageCount;
+    }
+}
@@ -0,0 +1,29 @@
+package com.simulacion.parallel;
+
+import java.util.Collections;
+import java.util.Set;
+
+public class Partition {
+    private final Set<String> locationNames;
+    private final double lookahead;
+
+    public Partition(Set<String> locationNames, double lookahead) {
+        this.locationNames = Collections.unmodifiableSet(locationNames);
+        this.lookahead = lookahead;
+    }
+
+    public Set<String> getLocationNames() {
+        return locationNames;
+    }
+
+    // Tiempo mínimo entre un evento de la partición y cualquier llegada que
+    // envíe a otra partición (infinito si no tiene rutas salientes)
+    public double getLookahead() {
+        return lookahead;
+    }
+
+    @Override
+    public String toString() {
+        return "Partition{locations=" + locationNames + ", lookahead=" + lookahead + "}";
+    }
+}
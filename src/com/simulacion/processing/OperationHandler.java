@@ -1,129 +1,676 @@
 package com.simulacion.processing;
 
-import com.simulacion.core.Event;
+import com.simulacion.core.EventFootprint;
+import com.simulacion.core.EventHandler;
+import com.simulacion.core.EventScheduler;
 import com.simulacion.core.SimulationEngine;
-import com.simulacion.entities.Entity;
+import com.simulacion.core.TypedEvent;
+import com.simulacion.entities.EntityStore;
 import com.simulacion.locations.Location;
 import com.simulacion.resources.Resource;
+import com.simulacion.resources.ResourceAllocator;
+import com.simulacion.routing.PathNetwork;
+import com.simulacion.routing.PathNode;
 
-import java.util.Random;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class OperationHandler {
+    public static final double DEFAULT_MOVE_TIME = 2.0;
+
     private final SimulationEngine engine;
-    private final Random random;
+    private final EntityStore entities;
+    private final ResourceAllocator allocator;
+    private final int processCompleteHandler;
+    private final int moveCompleteHandler;
+    private final int arrivalHandler;
+    // Rutas resueltas por índice de locación (se completan de forma perezosa);
+    // con más de una ruta el destino se sortea con la probabilidad acumulada.
+    // Una ruta con recursos tiene su reclamo en ResourceAllocator y su primer
+    // recurso, que da la velocidad del movimiento, en routeResources
+    private RoutingRule[][] routes;
+    private int[][] routeDestinations;
+    private int[][] routeResources;
+    private int[][] routeClaims;
+    private double[][] routeMoveTimes;
+    private double[][] routeCumulativeProbabilities;
 
     public OperationHandler(SimulationEngine engine) {
         this.engine = engine;
-        this.random = new Random();
+        this.entities = engine.getEntityStore();
+        this.allocator = engine.getResourceAllocator();
+        this.routes = new RoutingRule[0][];
+        this.routeDestinations = new int[0][];
+        this.routeResources = new int[0][];
+        this.routeClaims = new int[0][];
+        this.routeMoveTimes = new double[0][];
+        this.routeCumulativeProbabilities = new double[0][];
+
+        EventScheduler scheduler = engine.getScheduler();
+        this.processCompleteHandler = scheduler.registerHandler("PROCESS_COMPLETE", new EventHandler() {
+            @Override
+            public void handle(TypedEvent event) {
+                completeProcessing(event.getEntity(), event.getLocationIndex());
+            }
+
+            @Override
+            public String describe(TypedEvent event) {
+                return "Process " + entityTypeName(event.getEntity()) + " at "
+                    + locationName(event.getLocationIndex());
+            }
+
+            @Override
+            public void footprint(TypedEvent event, EventFootprint footprint) {
+                footprint.addLocation(event.getLocationIndex());
+                routeFootprint(event.getLocationIndex(), footprint);
+                blockingFootprint(event.getLocationIndex(), footprint);
+                int[] destinations = routeDestinations[event.getLocationIndex()];
+                for (int destination : destinations) {
+                    blockingFootprint(destination, footprint);
+                }
+            }
+        });
+        this.moveCompleteHandler = scheduler.registerHandler("MOVE_COMPLETE", new EventHandler() {
+            @Override
+            public void handle(TypedEvent event) {
+                // El argumento es el reclamo que se devuelve
+                releaseClaim(event.getArgument());
+                // Sin destino local: la llegada se envió a otra partición
+                if (event.getLocationIndex() >= 0) {
+                    engine.getLocation(event.getLocationIndex()).cancelReservation();
+                    handleArrival(event.getEntity(), event.getLocationIndex());
+                }
+            }
+
+            @Override
+            public String describe(TypedEvent event) {
+                return "Move " + entityTypeName(event.getEntity()) + " to "
+                    + (event.getLocationIndex() >= 0 ? locationName(event.getLocationIndex()) : "partición remota");
+            }
+
+            @Override
+            public void footprint(TypedEvent event, EventFootprint footprint) {
+                for (int resourceIndex : allocator.getClaimResources(event.getArgument())) {
+                    footprint.addResource(resourceIndex);
+                    // Los pedidos que se atiendan pueden mover entidades de
+                    // cualquier locación hacia cualquier destino
+                    if (allocator.getWaitingCount(resourceIndex) > 0) {
+                        footprint.markGlobal();
+                    }
+                }
+                footprint.addLocation(event.getLocationIndex());
+                blockingFootprint(event.getLocationIndex(), footprint);
+            }
+        });
+        this.arrivalHandler = scheduler.registerHandler("ARRIVAL", new EventHandler() {
+            @Override
+            public void handle(TypedEvent event) {
+                handleArrival(event.getEntity(), event.getLocationIndex());
+            }
+
+            @Override
+            public String describe(TypedEvent event) {
+                return "Arrival of " + entityTypeName(event.getEntity()) + " at "
+                    + locationName(event.getLocationIndex());
+            }
+
+            @Override
+            public void footprint(TypedEvent event, EventFootprint footprint) {
+                footprint.addLocation(event.getLocationIndex());
+                blockingFootprint(event.getLocationIndex(), footprint);
+            }
+        });
+    }
+
+    // Programa la llegada de una entidad ya existente (p. ej. enviada desde otra partición)
+    public void scheduleArrival(int entity, int locationIndex, double time) {
+        engine.getScheduler().scheduleEvent(arrivalHandler, time, 0, entity, locationIndex, -1, 0);
+    }
+
+    // Llegada de otra partición programada allá en sentTime
+    public void scheduleRemoteArrival(int entity, int locationIndex, double time, int priority, double sentTime) {
+        engine.getScheduler().scheduleRemoteEvent(arrivalHandler, time, priority, entity, locationIndex, -1, 0,
+            sentTime);
     }
 
-    public void handleArrival(Entity entity, String locationName) {
-        Location location = engine.getLocation(locationName);
+    public void handleArrival(int entity, String locationName) {
+        handleArrival(entity, engine.getLocationIndex(locationName));
+    }
+
+    // La entidad llega sin ocupar otra locación (arribo, movimiento con recurso
+    // o mensaje de otra partición): entra si hay lugar o espera en la cola
+    public void handleArrival(int entity, int locationIndex) {
+        Location location = engine.getLocation(locationIndex);
         double currentTime = engine.getClock().getCurrentTime();
-        
-        entity.setEntryTime(currentTime);
-        location.enter(entity, currentTime);
-        
+
+        entities.setLocation(entity, locationIndex);
+        if (location.canAccept()) {
+            admit(entity, locationIndex);
+        } else {
+            entities.setUnit(entity, -1);
+            entities.setWaitStart(entity, currentTime);
+            location.addToQueue(entity);
+        }
+    }
+
+    // Entra a la locación, que debe tener lugar, y programa su procesamiento
+    private void admit(int entity, int locationIndex) {
+        Location location = engine.getLocation(locationIndex);
+        entities.setLocation(entity, locationIndex);
+        entities.setRoute(entity, -1);
+        entities.setUnit(entity, location.enter(entity, engine.getClock().getCurrentTime()));
+
         // Registrar entrada
-        engine.getStatistics().recordLocationEntry(locationName);
-        
+        engine.getStatistics().recordLocationEntry(location.getType().getName());
+
         // Programar procesamiento
-        scheduleProcessing(entity, locationName);
+        scheduleProcessing(entity, locationIndex);
+    }
+
+    public void scheduleProcessing(int entity, String locationName) {
+        scheduleProcessing(entity, engine.getLocationIndex(locationName));
     }
 
-    public void scheduleProcessing(Entity entity, String locationName) {
-        ProcessingRule rule = engine.getProcessingRule(locationName);
+    public void scheduleProcessing(int entity, int locationIndex) {
+        ProcessingRule rule = engine.getProcessingRule(locationIndex);
         if (rule != null) {
-            double processingTime = rule.getProcessingTime();
+            // Lógica de operación del modelo: lee y escribe atributos de la entidad.
+            // En la ejecución por lotes solo debe tocar la entidad y su locación
+            rule.process(entity, engine);
+            double processingTime = rule.getProcessingTime(entity, engine);
             double currentTime = engine.getClock().getCurrentTime();
-            
-            Event processingEvent = new Event(currentTime + processingTime, 0, 
-                "Process " + entity.getType().getName() + " at " + locationName) {
-                @Override
-                public void execute() {
-                    completeProcessing(entity, locationName);
-                }
-            };
-            
-            engine.getScheduler().scheduleEvent(processingEvent);
-            
+            // Fuera de turno de la locación el procesamiento queda en pausa
+            double completionTime = engine.getLocation(locationIndex).getCompletionTime(currentTime, processingTime);
+
+            engine.getScheduler().scheduleEvent(processCompleteHandler, completionTime, 0,
+                entity, locationIndex, -1, 0);
+
             // Registrar tiempo de procesamiento
-            entity.addValueAddedTime(processingTime);
-            engine.getStatistics().recordLocationProcessingTime(locationName, processingTime);
+            entities.addValueAddedTime(entity, processingTime);
+            engine.getStatistics().recordLocationProcessingTime(rule.getLocationName(), processingTime);
         }
     }
 
-    public void completeProcessing(Entity entity, String locationName) {
-        Location location = engine.getLocation(locationName);
-        double currentTime = engine.getClock().getCurrentTime();
-        
+    public void completeProcessing(int entity, String locationName) {
+        completeProcessing(entity, engine.getLocationIndex(locationName));
+    }
+
+    public void completeProcessing(int entity, int locationIndex) {
+        resolveRoute(locationIndex);
+        int route = chooseRoute(locationIndex);
+        entities.setRoute(entity, route);
+        depart(entity, locationIndex, route, false);
+    }
+
+    // La entidad sale de su locación por la ruta o espera conservando su lugar.
+    // Con el destino local lleno queda en la lista de espera del destino, que
+    // la llama cuando se libere lugar; con lugar pero sin los recursos de la
+    // ruta, en la cola de su reclamo. Al salir con recursos reserva su lugar en
+    // el destino, así que nunca llega a un destino lleno. granted: el
+    // asignador ya le dio el reclamo a la entidad
+    private void depart(int entity, int locationIndex, int route, boolean granted) {
+        // Tras restaurar un checkpoint la ruta puede no estar resuelta todavía
+        resolveRoute(locationIndex);
+        int destination = routeDestinations[locationIndex][route];
+        if (mustWaitForRoom(locationIndex, destination)) {
+            entities.setWaitStart(entity, engine.getClock().getCurrentTime());
+            engine.getLocation(locationIndex).block();
+            engine.getLocation(destination).addToQueue(entity);
+            return;
+        }
+        int claim = routeClaims[locationIndex][route];
+        if (destination >= 0 && claim >= 0 && !granted && !allocator.canGrant(claim)) {
+            entities.setWaitStart(entity, engine.getClock().getCurrentTime());
+            engine.getLocation(locationIndex).block();
+            allocator.enqueue(entity, claim, destination, routeMoveTimes[locationIndex][route]);
+            return;
+        }
+
         // Salir de la locación
-        location.exit(currentTime);
-        
-        // Determinar siguiente destino
-        routeEntity(entity, locationName);
-    }
-
-    public void routeEntity(Entity entity, String fromLocation) {
-        RoutingRule route = getRoutingRule(fromLocation);
-        
-        if (route != null) {
-            String destination = route.getDestinationLocation();
-            
-            if ("EXIT".equals(destination)) {
-                handleExit(entity);
+        leaveLocation(entity);
+        if (destination >= 0 && claim >= 0) {
+            startMove(entity, destination, claim, routeMoveTimes[locationIndex][route]);
+        } else {
+            moveAlong(entity, locationIndex, route);
+        }
+        wakeWaiting(locationIndex);
+    }
+
+    private boolean mustWaitForRoom(int locationIndex, int destination) {
+        return destination >= 0 && destination != locationIndex && engine.isLocalLocation(destination)
+            && !engine.getLocation(destination).canAccept();
+    }
+
+    private void leaveLocation(int entity) {
+        int locationIndex = entities.getLocation(entity);
+        engine.getLocation(locationIndex).leave(entity, entities.getUnit(entity),
+            engine.getClock().getCurrentTime());
+        entities.setUnit(entity, -1);
+    }
+
+    // Admite entidades de la lista de espera mientras haya lugar. Una entidad
+    // bloqueada libera su locación anterior, que a su vez llama a las suyas:
+    // solo se recorren las locaciones donde de verdad se liberó lugar. Si su
+    // ruta usa recursos, con el lugar asegurado pasa a pedirlos sin soltar el suyo
+    public void wakeWaiting(int locationIndex) {
+        Location location = engine.getLocation(locationIndex);
+        double currentTime = engine.getClock().getCurrentTime();
+        while (location.canAccept() && location.getQueueSize() > 0) {
+            int entity = location.removeFromQueue();
+            double waited = engine.getScheduledTime(entities.getWaitStart(entity), currentTime);
+            if (entities.getUnit(entity) < 0) {
+                entities.addWaitTime(entity, waited);
+                admit(entity, locationIndex);
+                continue;
+            }
+            int source = entities.getLocation(entity);
+            entities.addBlockedTime(entity, waited);
+            engine.getLocation(source).unblock();
+            int route = entities.getRoute(entity);
+            resolveRoute(source);
+            if (routeClaims[source][route] >= 0) {
+                depart(entity, source, route, false);
+                continue;
+            }
+            leaveLocation(entity);
+            admit(entity, locationIndex);
+            wakeWaiting(source);
+        }
+    }
+
+    public void routeEntity(int entity, String fromLocation) {
+        routeEntity(entity, engine.getLocationIndex(fromLocation));
+    }
+
+    // Mueve la entidad, que ya dejó su locación, por una de las rutas sin
+    // esperar lugar en el destino (sí espera los recursos de la ruta)
+    public void routeEntity(int entity, int fromLocationIndex) {
+        resolveRoute(fromLocationIndex);
+        moveAlong(entity, fromLocationIndex, chooseRoute(fromLocationIndex));
+    }
+
+    private void moveAlong(int entity, int fromLocationIndex, int route) {
+        int destination = routeDestinations[fromLocationIndex][route];
+
+        if (destination < 0) {
+            handleExit(entity);
+        } else {
+            // Verificar si necesita recursos para moverse
+            int claim = routeClaims[fromLocationIndex][route];
+            if (claim >= 0) {
+                moveWithResources(entity, destination, claim, routeMoveTimes[fromLocationIndex][route]);
+            } else if (engine.isLocalLocation(destination)) {
+                handleArrival(entity, destination);
             } else {
-                // Verificar si necesita recurso para moverse
-                if (route.getResourceName() != null && !route.getResourceName().isEmpty()) {
-                    moveWithResource(entity, destination, route.getResourceName());
-                } else {
-                    handleArrival(entity, destination);
-                }
+                // Sin tiempo de movimiento: el particionador no deja que estas rutas crucen particiones
+                sendRemote(entity, destination, engine.getClock().getCurrentTime(), 0, -1);
+            }
+        }
+    }
+
+    private int chooseRoute(int fromLocationIndex) {
+        double[] cumulative = routeCumulativeProbabilities[fromLocationIndex];
+        if (cumulative.length == 1) {
+            return 0;
+        }
+        double draw = engine.getRandom().nextDouble();
+        for (int i = 0; i < cumulative.length - 1; i++) {
+            if (draw < cumulative[i]) {
+                return i;
             }
+        }
+        return cumulative.length - 1;
+    }
+
+    // Se mueve si el reclamo completo está libre, y si no espera en la cola del
+    // reclamo sin tomar ningún recurso
+    private void moveWithResources(int entity, int destination, int claim, double moveTime) {
+        if (allocator.canGrant(claim)) {
+            startMove(entity, destination, claim, moveTime);
         } else {
-            handleExit(entity);
+            entities.setWaitStart(entity, engine.getClock().getCurrentTime());
+            allocator.enqueue(entity, claim, destination, moveTime);
         }
     }
 
-    private void moveWithResource(Entity entity, String destination, String resourceName) {
-        Resource resource = engine.getResource(resourceName);
+    private void startMove(int entity, int destination, int claim, double moveTime) {
         double currentTime = engine.getClock().getCurrentTime();
-        
-        if (resource != null && resource.isAvailable()) {
-            resource.acquire(currentTime);
-            
-            // Calcular tiempo de movimiento (simulado)
-            double moveTime = 2.0; // Tiempo base de movimiento
-            
-            Event moveEvent = new Event(currentTime + moveTime, 0, 
-                "Move " + entity.getType().getName() + " to " + destination) {
-                @Override
-                public void execute() {
-                    resource.release(engine.getClock().getCurrentTime());
-                    handleArrival(entity, destination);
-                }
-            };
-            
-            engine.getScheduler().scheduleEvent(moveEvent);
-            entity.addNonValueAddedTime(moveTime);
+        allocator.acquire(claim, currentTime);
+
+        // El movimiento avanza solo en turno de todos sus recursos; el
+        // calendario solo puede demorar la llegada, así que el lookahead sigue valiendo
+        double arrivalTime = currentTime + moveTime;
+        int[] claimed = allocator.getClaimResources(claim);
+        for (int resourceIndex : claimed) {
+            Resource resource = engine.getResource(resourceIndex);
+            engine.getStatistics().recordResourceTrip(resource.getType().getName(), moveTime);
+            arrivalTime = Math.max(arrivalTime, resource.getCompletionTime(currentTime, moveTime));
+        }
+        entities.addNonValueAddedTime(entity, moveTime);
+        entities.setRoute(entity, -1);
+
+        if (engine.isLocalLocation(destination)) {
+            engine.getLocation(destination).reserve();
+            engine.getScheduler().scheduleEvent(moveCompleteHandler, arrivalTime, 0,
+                entity, destination, claimed[0], claim);
         } else {
-            // Esperar por recurso
-            if (resource != null) {
-                resource.addToQueue(entity);
+            // Los recursos se liberan aquí; la llegada viaja como mensaje con el
+            // tiempo de movimiento como lookahead
+            TypedEvent moveComplete = engine.getScheduler().scheduleEvent(moveCompleteHandler, arrivalTime, 0,
+                EntityStore.NONE, -1, claimed[0], claim);
+            sendRemote(entity, destination, arrivalTime, moveComplete.getPriority(), moveComplete.getSequence());
+        }
+    }
+
+    // Devuelve los recursos del reclamo y atiende lo que esperaba cada uno
+    private void releaseClaim(int claim) {
+        allocator.release(claim, engine.getClock().getCurrentTime());
+        for (int resourceIndex : allocator.getClaimResources(claim)) {
+            serveWaiting(resourceIndex);
+        }
+    }
+
+    // Atiende a las entidades que esperaban el recurso mientras algún reclamo
+    // que lo incluye quede completo; el tiempo en la cola cuenta como espera.
+    // Una entidad que conserva su lugar sale recién ahora, y si mientras tanto
+    // se llenó su destino vuelve a la lista de espera del destino
+    public void serveWaiting(int resourceIndex) {
+        double currentTime = engine.getClock().getCurrentTime();
+        int entity;
+        while ((entity = allocator.nextGrant(resourceIndex)) != EntityStore.NONE) {
+            entities.addWaitTime(entity, engine.getScheduledTime(entities.getWaitStart(entity), currentTime));
+            if (entities.getUnit(entity) < 0) {
+                // Pedido de routeEntity: la entidad no ocupa ninguna locación
+                startMove(entity, allocator.getPendingDestination(entity), allocator.getPendingClaim(entity),
+                    allocator.getPendingMoveTime(entity));
+                continue;
             }
+            int source = entities.getLocation(entity);
+            engine.getLocation(source).unblock();
+            depart(entity, source, entities.getRoute(entity), true);
         }
     }
 
-    private void handleExit(Entity entity) {
+    private void handleExit(int entity) {
         double currentTime = engine.getClock().getCurrentTime();
-        entity.addSystemTime(currentTime - entity.getEntryTime());
-        engine.getStatistics().recordEntityExit(entity);
+        entities.addSystemTime(entity, engine.getScheduledTime(entities.getEntryTime(entity), currentTime));
+        entities.setLocation(entity, -1);
+        engine.getStatistics().recordEntityExit(engine.getEntityType(entities.getType(entity)).getName(),
+            entities, entity);
+        engine.destroyEntity(entity);
+    }
+
+    // La entidad pasa a otra partición: el sink copia su estado y el handle se libera
+    private void sendRemote(int entity, int destination, double arrivalTime, int priority, long sequence) {
+        entities.setLocation(entity, -1);
+        engine.getRemoteArrivalSink().sendArrival(entities, entity, destination, arrivalTime, priority, sequence);
+        engine.destroyEntity(entity);
+    }
+
+    private void resolveRoute(int locationIndex) {
+        if (locationIndex >= routes.length) {
+            int count = engine.getLocationCount();
+            routes = Arrays.copyOf(routes, count);
+            routeDestinations = Arrays.copyOf(routeDestinations, count);
+            routeResources = Arrays.copyOf(routeResources, count);
+            routeClaims = Arrays.copyOf(routeClaims, count);
+            routeMoveTimes = Arrays.copyOf(routeMoveTimes, count);
+            routeCumulativeProbabilities = Arrays.copyOf(routeCumulativeProbabilities, count);
+        }
+        if (routes[locationIndex] != null) {
+            return;
+        }
+
+        List<RoutingRule> rules = getRoutingRules(locationName(locationIndex));
+        int count = rules.size();
+        int[] destinations = new int[count];
+        int[] resourceIndices = new int[count];
+        int[] claims = new int[count];
+        double[] moveTimes = new double[count];
+        double[] cumulative = new double[count];
+        double totalProbability = 0.0;
+        for (int i = 0; i < count; i++) {
+            RoutingRule route = rules.get(i);
+            int destination = -1;
+            int claim = -1;
+            if (!"EXIT".equals(route.getDestinationLocation())) {
+                destination = engine.getLocationIndex(route.getDestinationLocation());
+                if (destination < 0) {
+                    System.err.println("Locación de destino no encontrada: " + route.getDestinationLocation());
+                }
+                claim = resolveClaim(route.getResourceName());
+            }
+            int resourceIndex = claim >= 0 ? allocator.getClaimResources(claim)[0] : -1;
+            destinations[i] = destination;
+            resourceIndices[i] = resourceIndex;
+            claims[i] = claim;
+            moveTimes[i] = resourceIndex >= 0 ? calculateMoveTime(locationIndex, destination, resourceIndex) : 0.0;
+            totalProbability += route.getProbability();
+            cumulative[i] = totalProbability;
+        }
+        if (count > 1) {
+            if (totalProbability <= 0) {
+                throw new IllegalArgumentException("Las rutas de " + locationName(locationIndex)
+                    + " no tienen probabilidad positiva");
+            }
+            for (int i = 0; i < count; i++) {
+                cumulative[i] /= totalProbability;
+            }
+        }
+        routes[locationIndex] = rules.toArray(new RoutingRule[0]);
+        routeDestinations[locationIndex] = destinations;
+        routeResources[locationIndex] = resourceIndices;
+        routeClaims[locationIndex] = claims;
+        routeMoveTimes[locationIndex] = moveTimes;
+        routeCumulativeProbabilities[locationIndex] = cumulative;
+    }
+
+    // Reclamo de los recursos de la ruta ("OPERADOR AND CAMION" toma ambos a la
+    // vez); -1 si el movimiento no usa recursos
+    private int resolveClaim(String resourceNames) {
+        if (resourceNames == null || resourceNames.isEmpty()) {
+            return -1;
+        }
+        List<Integer> found = new ArrayList<>();
+        for (String name : resourceNames.trim().split("\\s+AND\\s+")) {
+            int resourceIndex = engine.getResourceIndex(name);
+            if (resourceIndex < 0) {
+                System.err.println("Recurso no encontrado: " + name);
+            } else if (!found.contains(resourceIndex)) {
+                found.add(resourceIndex);
+            }
+        }
+        if (found.isEmpty()) {
+            return -1;
+        }
+        int[] resourceIndices = new int[found.size()];
+        for (int i = 0; i < resourceIndices.length; i++) {
+            resourceIndices[i] = found.get(i);
+        }
+        return allocator.claimFor(resourceIndices);
+    }
+
+    // Con una red de caminos el movimiento dura lo que tarda el recurso en
+    // recorrer el camino más corto; sin red (o sin nodos para las locaciones)
+    // se usa el tiempo base
+    private double calculateMoveTime(int fromLocationIndex, int toLocationIndex, int resourceIndex) {
+        PathNetwork network = engine.getPathNetwork();
+        if (network == null || toLocationIndex < 0) {
+            return DEFAULT_MOVE_TIME;
+        }
+        PathNode from = findNode(network, locationName(fromLocationIndex));
+        PathNode to = findNode(network, locationName(toLocationIndex));
+        List<PathNode> path = network.findShortestPath(from, to);
+        double speed = engine.getResource(resourceIndex).getType().getSpeedMetersPerMinute();
+        if (path.isEmpty() || speed <= 0) {
+            return DEFAULT_MOVE_TIME;
+        }
+        return network.calculatePathDistance(path) / speed;
+    }
+
+    // Por nombre, para que una red compartida sirva también a los motores bifurcados
+    private PathNode findNode(PathNetwork network, String locationName) {
+        for (PathNode node : network.getNodes().values()) {
+            Location location = node.getAssociatedLocation();
+            if (location != null && location.getType().getName().equals(locationName)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    // Estado que toca routeEntity al salir de la locación; también deja la ruta
+    // resuelta antes de que los hilos de un lote la lean
+    public void routeFootprint(int fromLocationIndex, EventFootprint footprint) {
+        resolveRoute(fromLocationIndex);
+        int count = routeDestinations[fromLocationIndex].length;
+        if (count > 1) {
+            // El sorteo del destino usa el generador compartido
+            footprint.addShared(EventFootprint.RANDOM);
+        }
+        for (int route = 0; route < count; route++) {
+            int destination = routeDestinations[fromLocationIndex][route];
+            int claim = routeClaims[fromLocationIndex][route];
+
+            // Salir del sistema o pasar a otra partición libera el handle de la entidad
+            if (destination < 0) {
+                footprint.addShared(EventFootprint.ENTITY_EXIT);
+                footprint.addShared(EventFootprint.ENTITY_STORE);
+            } else if (claim >= 0) {
+                // Un pedido que espera entra en las colas compartidas del asignador
+                for (int resourceIndex : allocator.getClaimResources(claim)) {
+                    footprint.addResource(resourceIndex);
+                }
+                footprint.addShared(EventFootprint.RESOURCE_REQUESTS);
+                if (engine.isLocalLocation(destination)) {
+                    // Se mira si hay lugar y se reserva
+                    footprint.addLocation(destination);
+                } else {
+                    footprint.addShared(EventFootprint.REMOTE_ARRIVALS);
+                    footprint.addShared(EventFootprint.ENTITY_STORE);
+                }
+            } else if (engine.isLocalLocation(destination)) {
+                footprint.addLocation(destination);
+            } else {
+                footprint.addShared(EventFootprint.REMOTE_ARRIVALS);
+                footprint.addShared(EventFootprint.ENTITY_STORE);
+            }
+        }
     }
 
-    private RoutingRule getRoutingRule(String locationName) {
-        // Esta implementación se puede extender con una tabla de rutas más compleja
-        // Por ahora, retornamos reglas basadas en la lógica del modelo ProModel
-        return createRoutingRuleForLocation(locationName);
+    // Si el evento toca una locación que participa de un bloqueo, la cadena de
+    // entidades que se liberan no se conoce de antemano: esos eventos se
+    // ejecutan de a uno. Una cadena solo pasa por locaciones que ya participan,
+    // así que los eventos que no tocan ninguna pueden seguir en paralelo. Con
+    // reclamos de recursos la cadena puede además tomar recursos y reservar
+    // lugar en cualquier destino, y el evento se ejecuta solo
+    public void blockingFootprint(int locationIndex, EventFootprint footprint) {
+        if (locationIndex >= 0 && engine.isLocalLocation(locationIndex)
+                && engine.getLocation(locationIndex).hasBlocking()) {
+            if (allocator.getClaimCount() > 0) {
+                footprint.markGlobal();
+            } else {
+                footprint.addShared(EventFootprint.BLOCKING);
+            }
+        }
+    }
+
+    // Tiempo que la entidad ocuparía la locación; 0 si no tiene procesamiento
+    public double getProcessingTime(int entity, int locationIndex) {
+        ProcessingRule rule = engine.getProcessingRule(locationIndex);
+        return rule != null ? rule.getProcessingTime(entity, engine) : 0.0;
+    }
+
+    // Tiempo que la entidad ocuparía el recurso: el de la primera ruta desde su
+    // locación que se mueve con él (o el tiempo base si no hay ninguna)
+    public double getMoveTime(int entity, int resourceIndex) {
+        int locationIndex = entities.getLocation(entity);
+        if (locationIndex >= 0) {
+            resolveRoute(locationIndex);
+            for (int route = 0; route < routeClaims[locationIndex].length; route++) {
+                for (int claimed : getRouteResources(locationIndex, route)) {
+                    if (claimed == resourceIndex) {
+                        return routeMoveTimes[locationIndex][route];
+                    }
+                }
+            }
+        }
+        return DEFAULT_MOVE_TIME;
+    }
+
+    // Resuelve ya las rutas de todas las locaciones, caminos en la red
+    // incluidos, en lugar de hacerlo al primer uso de cada una
+    public void resolveAllRoutes() {
+        for (int i = 0; i < engine.getLocationCount(); i++) {
+            resolveRoute(i);
+        }
+    }
+
+    // Cantidad de rutas alternativas desde una locación (al menos una)
+    public int getRouteCount(int locationIndex) {
+        resolveRoute(locationIndex);
+        return routeDestinations[locationIndex].length;
+    }
+
+    // Destino de la ruta desde una locación (-1 si la entidad sale del sistema)
+    public int getRouteDestination(int locationIndex) {
+        return getRouteDestination(locationIndex, 0);
+    }
+
+    public int getRouteDestination(int locationIndex, int route) {
+        resolveRoute(locationIndex);
+        return routeDestinations[locationIndex][route];
+    }
+
+    // Primer recurso requerido por la ruta (-1 si el movimiento no usa recurso)
+    public int getRouteResource(int locationIndex) {
+        return getRouteResource(locationIndex, 0);
+    }
+
+    public int getRouteResource(int locationIndex, int route) {
+        resolveRoute(locationIndex);
+        return routeResources[locationIndex][route];
+    }
+
+    // Todos los recursos que la ruta toma juntos (vacío si no usa recursos)
+    public int[] getRouteResources(int locationIndex, int route) {
+        resolveRoute(locationIndex);
+        int claim = routeClaims[locationIndex][route];
+        return claim >= 0 ? allocator.getClaimResources(claim) : new int[0];
+    }
+
+    public double getRouteMoveTime(int locationIndex) {
+        return getRouteMoveTime(locationIndex, 0);
+    }
+
+    public double getRouteMoveTime(int locationIndex, int route) {
+        resolveRoute(locationIndex);
+        return routeMoveTimes[locationIndex][route];
+    }
+
+    // Probabilidad acumulada hasta la ruta inclusive; la última ruta toma el resto
+    public double getRouteCumulativeProbability(int locationIndex, int route) {
+        resolveRoute(locationIndex);
+        return routeCumulativeProbabilities[locationIndex][route];
+    }
+
+    private String entityTypeName(int entity) {
+        return entity >= 0 ? engine.getEntityType(entities.getType(entity)).getName() : "entidad remota";
+    }
+
+    private String locationName(int locationIndex) {
+        return engine.getLocation(locationIndex).getType().getName();
+    }
+
+    private List<RoutingRule> getRoutingRules(String locationName) {
+        // Las rutas declaradas en el motor tienen precedencia; si no hay, se
+        // usan las reglas del modelo ProModel
+        List<RoutingRule> declared = engine.getRoutingRules(locationName);
+        if (declared != null && !declared.isEmpty()) {
+            return declared;
+        }
+        return List.of(createRoutingRuleForLocation(locationName));
     }
 
     private RoutingRule createRoutingRuleForLocation(String locationName) {
@@ -1,6 +1,5 @@
 package com.simulacion.processing;
 
-import com.simulacion.entities.Entity;
 import com.simulacion.core.SimulationEngine;
 
 public abstract class ProcessingRule {
@@ -14,7 +13,11 @@ public abstract class ProcessingRule {
         this.processingTime = processingTime;
     }
 
-    public abstract void process(Entity entity, SimulationEngine engine);
+    // Se llama al empezar el procesamiento; entity es el handle en
+    // engine.getEntityStore(). Por defecto no hace nada: las reglas que solo
+    // dan un tiempo fijo no lo redefinen
+    public void process(int entity, SimulationEngine engine) {
+    }
 
     public String getLocationName() {
         return locationName;
@@ -27,4 +30,11 @@ public abstract class ProcessingRule {
     public double getProcessingTime() {
         return processingTime;
     }
+
+    // Tiempo de procesamiento de una entidad en particular; las reglas que lo
+    // calculan con atributos lo redefinen. Lo usan el motor al programar la
+    // operación y la disciplina SHORTEST_PROCESSING_TIME al ordenar la cola
+    public double getProcessingTime(int entity, SimulationEngine engine) {
+        return processingTime;
+    }
 }
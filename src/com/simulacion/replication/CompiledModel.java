@@ -0,0 +1,188 @@
+package com.simulacion.replication;
+
+import com.simulacion.arrivals.ArrivalStream;
+import com.simulacion.calendar.ShiftCalendar;
+import com.simulacion.core.SimulationEngine;
+import com.simulacion.entities.QueueDiscipline;
+import com.simulacion.processing.OperationHandler;
+import com.simulacion.processing.ProcessingRule;
+
+import java.util.List;
+
+// Definición del modelo reducida a tablas primitivas, compartida por todas las
+// réplicas de un LockstepReplicationEngine
+final class CompiledModel {
+    final String[] entityTypeNames;
+    // Calendarios (null = siempre en turno); no guardan estado y se comparten
+    final ShiftCalendar plantCalendar;
+
+    final String[] locationNames;
+    final int[] locationCapacities;
+    final boolean[] hasProcessing;
+    final double[] processingTimes;
+    // Rutas de la locación i en [routeStarts[i], routeStarts[i + 1])
+    final int[] routeStarts;
+    final ShiftCalendar[] locationCalendars;
+
+    final int[] routeDestinations;
+    final int[] routeResources;
+    final double[] routeMoveTimes;
+    final double[] routeCumulativeProbabilities;
+
+    final String[] resourceNames;
+    final int[] resourceUnits;
+    final ShiftCalendar[] resourceCalendars;
+
+    final int[] streamEntityTypes;
+    final int[] streamLocations;
+    final double[] streamFirstTimes;
+    final int[] streamOccurrences;
+    final double[] streamFrequencies;
+    final ShiftCalendar[] streamCalendars;
+
+    CompiledModel(SimulationEngine engine) {
+        List<ArrivalStream> streams = engine.getArrivalGenerator().getStreams();
+        if (engine.getScheduler().getEventCount() != countPendingStreams(streams)) {
+            throw new IllegalArgumentException(
+                "El modelo programa eventos propios que el motor por réplicas en bloque no soporta");
+        }
+
+        // Las locaciones, recursos y flujos se empaquetan en 16 bits por evento
+        if (engine.getLocationCount() > 0xFFFF || engine.getResourceCount() >= 0xFFFF || streams.size() > 0xFFFF) {
+            throw new IllegalArgumentException("Modelo demasiado grande para el motor por réplicas en bloque");
+        }
+
+        plantCalendar = engine.getShiftCalendar();
+        int entityTypeCount = engine.getEntityTypeCount();
+        entityTypeNames = new String[entityTypeCount];
+        for (int i = 0; i < entityTypeCount; i++) {
+            entityTypeNames[i] = engine.getEntityType(i).getName();
+        }
+
+        OperationHandler operationHandler = engine.getOperationHandler();
+        int locationCount = engine.getLocationCount();
+        locationNames = new String[locationCount];
+        locationCapacities = new int[locationCount];
+        hasProcessing = new boolean[locationCount];
+        processingTimes = new double[locationCount];
+        routeStarts = new int[locationCount + 1];
+        locationCalendars = new ShiftCalendar[locationCount];
+        for (int i = 0; i < locationCount; i++) {
+            routeStarts[i + 1] = routeStarts[i] + operationHandler.getRouteCount(i);
+        }
+        routeDestinations = new int[routeStarts[locationCount]];
+        routeResources = new int[routeStarts[locationCount]];
+        routeMoveTimes = new double[routeStarts[locationCount]];
+        routeCumulativeProbabilities = new double[routeStarts[locationCount]];
+        for (int i = 0; i < locationCount; i++) {
+            if (!engine.isLocalLocation(i)) {
+                throw new IllegalArgumentException("El motor por réplicas en bloque no admite particiones");
+            }
+            locationNames[i] = engine.getLocation(i).getType().getName();
+            // Las colas son solo contadores: no hay entidades que ordenar
+            if (engine.getLocation(i).getQueueDiscipline() != QueueDiscipline.FIFO) {
+                throw new IllegalArgumentException("El motor por réplicas en bloque solo admite colas FIFO: "
+                    + locationNames[i]);
+            }
+            // Una entidad entra si alguna unidad tiene lugar: con contadores basta
+            // la capacidad total (no hay desglose por unidad)
+            locationCapacities[i] = engine.getLocation(i).getTotalCapacity();
+            ProcessingRule rule = engine.getProcessingRule(i);
+            if (rule != null && (overrides(rule, "process", int.class, SimulationEngine.class)
+                    || overrides(rule, "getProcessingTime", int.class, SimulationEngine.class))) {
+                throw new IllegalArgumentException("El motor por réplicas en bloque solo admite reglas con tiempo "
+                    + "fijo: " + locationNames[i]);
+            }
+            hasProcessing[i] = rule != null;
+            processingTimes[i] = rule != null ? rule.getProcessingTime() : 0.0;
+            for (int route = 0; route < operationHandler.getRouteCount(i); route++) {
+                int compiled = routeStarts[i] + route;
+                routeDestinations[compiled] = operationHandler.getRouteDestination(i, route);
+                if (operationHandler.getRouteResources(i, route).length > 1) {
+                    throw new IllegalArgumentException("El motor por réplicas en bloque no admite movimientos con "
+                        + "varios recursos: " + locationNames[i]);
+                }
+                routeResources[compiled] = operationHandler.getRouteResource(i, route);
+                routeMoveTimes[compiled] = operationHandler.getRouteMoveTime(i, route);
+                routeCumulativeProbabilities[compiled] = operationHandler.getRouteCumulativeProbability(i, route);
+            }
+            locationCalendars[i] = engine.getLocation(i).getCalendar();
+        }
+
+        int resourceCount = engine.getResourceCount();
+        resourceNames = new String[resourceCount];
+        resourceUnits = new int[resourceCount];
+        resourceCalendars = new ShiftCalendar[resourceCount];
+        for (int i = 0; i < resourceCount; i++) {
+            resourceNames[i] = engine.getResource(i).getType().getName();
+            if (engine.getResource(i).getQueueDiscipline() != QueueDiscipline.FIFO) {
+                throw new IllegalArgumentException("El motor por réplicas en bloque solo admite colas FIFO: "
+                    + resourceNames[i]);
+            }
+            resourceUnits[i] = engine.getResource(i).getType().getUnits();
+            resourceCalendars[i] = engine.getResource(i).getCalendar();
+        }
+
+        int streamCount = streams.size();
+        streamEntityTypes = new int[streamCount];
+        streamLocations = new int[streamCount];
+        streamFirstTimes = new double[streamCount];
+        streamOccurrences = new int[streamCount];
+        streamFrequencies = new double[streamCount];
+        streamCalendars = new ShiftCalendar[streamCount];
+        for (int i = 0; i < streamCount; i++) {
+            ArrivalStream stream = streams.get(i);
+            streamEntityTypes[i] = stream.getEntityTypeIndex();
+            streamLocations[i] = stream.getLocationIndex();
+            streamFirstTimes[i] = stream.getFirstTime();
+            streamOccurrences[i] = stream.getOccurrences();
+            streamFrequencies[i] = stream.getFrequency();
+            streamCalendars[i] = stream.getCalendar();
+        }
+    }
+
+    // La regla redefine el método: actúa sobre la entidad o calcula su tiempo
+    // por entidad, y el modelo compilado solo usa getProcessingTime()
+    private static boolean overrides(ProcessingRule rule, String name, Class<?>... parameterTypes) {
+        try {
+            return rule.getClass().getMethod(name, parameterTypes).getDeclaringClass() != ProcessingRule.class;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Método inexistente en ProcessingRule: " + name, e);
+        }
+    }
+
+    // Minutos de turno desde el minuto 0 hasta time según el calendario
+    static double scheduledTime(ShiftCalendar calendar, double time) {
+        return calendar == null ? time : calendar.getScheduledTime(time);
+    }
+
+    static double completionTime(ShiftCalendar calendar, double startTime, double duration) {
+        return calendar == null ? startTime + duration : calendar.advance(startTime, duration);
+    }
+
+    private static int countPendingStreams(List<ArrivalStream> streams) {
+        int count = 0;
+        for (ArrivalStream stream : streams) {
+            if (stream.hasNext()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    int getEntityTypeCount() {
+        return entityTypeNames.length;
+    }
+
+    int getLocationCount() {
+        return locationNames.length;
+    }
+
+    int getResourceCount() {
+        return resourceNames.length;
+    }
+
+    int getStreamCount() {
+        return streamLocations.length;
+    }
+}
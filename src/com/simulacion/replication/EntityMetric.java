@@ -0,0 +1,32 @@
+package com.simulacion.replication;
+
+import com.simulacion.entities.EntityStatistics;
+
+import java.util.function.ToDoubleFunction;
+
+public enum EntityMetric {
+    TOTAL_EXITS("Total Salida", EntityStatistics::getTotalExits),
+    AVERAGE_SYSTEM_TIME("Tiempo En Sistema Promedio (Min)", EntityStatistics::getAverageSystemTime),
+    AVERAGE_MOVE_TIME("Tiempo En lógica de movimiento Promedio (Min)", EntityStatistics::getAverageNonValueAddedTime),
+    AVERAGE_WAIT_TIME("Tiempo Espera Promedio (Min)", EntityStatistics::getAverageWaitTime),
+    AVERAGE_OPERATION_TIME("Tiempo En Operación Promedio (Min)", EntityStatistics::getAverageValueAddedTime),
+    AVERAGE_BLOCKED_TIME("Tiempo de Bloqueo Promedio (Min)", EntityStatistics::getAverageBlockedTime),
+    SYSTEM_TIME_P95("Tiempo En Sistema P95 (Min)", stats -> stats.getSystemTimePercentile(0.95));
+
+    private final String label;
+    private final ToDoubleFunction<EntityStatistics> extractor;
+
+    EntityMetric(String label, ToDoubleFunction<EntityStatistics> extractor) {
+        this.label = label;
+        this.extractor = extractor;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    // Una entidad sin salidas en la réplica no tiene estadísticas: se reporta 0
+    public double extract(EntityStatistics statistics) {
+        return statistics != null ? extractor.applyAsDouble(statistics) : 0;
+    }
+}
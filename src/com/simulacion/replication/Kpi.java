@@ -0,0 +1,49 @@
+package com.simulacion.replication;
+
+import com.simulacion.statistics.SampleStatistics;
+import com.simulacion.statistics.StatisticsCollector;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+// Indicador escalar que se obtiene de las estadísticas de una réplica
+public class Kpi {
+    private final String name;
+    private final ToDoubleFunction<StatisticsCollector> extractor;
+
+    public Kpi(String name, ToDoubleFunction<StatisticsCollector> extractor) {
+        this.name = name;
+        this.extractor = extractor;
+    }
+
+    public static Kpi entity(String entityName, EntityMetric metric) {
+        return new Kpi(entityName + " - " + metric.getLabel(),
+            statistics -> metric.extract(statistics.getEntityStats().get(entityName)));
+    }
+
+    public static Kpi location(String locationName, LocationMetric metric) {
+        return new Kpi(locationName + " - " + metric.getLabel(),
+            statistics -> metric.extract(statistics.getLocationStats().get(locationName)));
+    }
+
+    public double extract(StatisticsCollector statistics) {
+        return extractor.applyAsDouble(statistics);
+    }
+
+    public SampleStatistics sample(List<ReplicationResult> results) {
+        SampleStatistics sample = new SampleStatistics();
+        for (ReplicationResult result : results) {
+            sample.add(extract(result.getStatistics()));
+        }
+        return sample;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
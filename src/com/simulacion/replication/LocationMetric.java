@@ -0,0 +1,31 @@
+package com.simulacion.replication;
+
+import com.simulacion.locations.LocationStatistics;
+
+import java.util.function.ToDoubleFunction;
+
+public enum LocationMetric {
+    TOTAL_ENTRIES("Total Entradas", LocationStatistics::getTotalEntries),
+    AVERAGE_TIME_PER_ENTRY("Tiempo Por entrada Promedio (Min)", LocationStatistics::getAverageTimePerEntry),
+    TIME_PER_ENTRY_P95("Tiempo Por entrada P95 (Min)", stats -> stats.getTimePerEntryPercentile(0.95)),
+    AVERAGE_CONTENTS("Contenido Promedio", LocationStatistics::getAverageContents),
+    MAX_CONTENTS("Contenido Máximo", LocationStatistics::getMaxContents),
+    CURRENT_CONTENTS("Contenido Actual", LocationStatistics::getCurrentContents),
+    UTILIZATION_PERCENT("% Utilización", LocationStatistics::getUtilizationPercent);
+
+    private final String label;
+    private final ToDoubleFunction<LocationStatistics> extractor;
+
+    LocationMetric(String label, ToDoubleFunction<LocationStatistics> extractor) {
+        this.label = label;
+        this.extractor = extractor;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public double extract(LocationStatistics statistics) {
+        return statistics != null ? extractor.applyAsDouble(statistics) : 0;
+    }
+}
@@ -0,0 +1,805 @@
+package com.simulacion.replication;
+
+import com.simulacion.arrivals.ArrivalGenerator;
+import com.simulacion.calendar.ShiftCalendar;
+import com.simulacion.core.SimulationEngine;
+import com.simulacion.entities.EntityStatistics;
+import com.simulacion.locations.LocationStatistics;
+import com.simulacion.statistics.QuantileSketch;
+import com.simulacion.statistics.StatisticsCollector;
+import com.simulacion.statistics.TimeWeightedStatistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// Avanza K réplicas de un mismo modelo a la par, por ventanas de tiempo. El
+// estado de locaciones, recursos, entidades y listas de eventos vive en arreglos
+// primitivos indexados por [réplica * n + elemento] en lugar de un grafo de
+// objetos por motor. Cada réplica numera sus eventos igual que SimulationEngine,
+// así que el orden de ejecución y los resultados coinciden.
+//
+// Solo admite lo que el motor compila: arribos periódicos, procesamiento fijo y
+// rutas con o sin un recurso. Las listas de espera de las locaciones se
+// encadenan por entidad, igual que el bloqueo de OperationHandler, y los
+// calendarios de turnos se aplican igual que en SimulationEngine. Cada réplica
+// sortea las rutas probabilísticas con su propio generador, sembrado como el
+// de SimulationEngine, así que una réplica coincide con la ejecución
+// secuencial de la misma semilla.
+public class LockstepReplicationEngine {
+    private static final int ARRIVAL = 0;
+    private static final int PROCESS_COMPLETE = 1;
+    private static final int MOVE_COMPLETE = 2;
+
+    private static final int ARITY = 4;
+    private static final int MAX_REPLICATIONS = 1 << 16;
+    private static final double DEFAULT_WINDOW_LENGTH = 60.0;
+    // Con capacidad hasta este valor el histograma de contenido reserva
+    // capacity + 1 niveles de entrada; las más grandes (p. ej. Integer.MAX_VALUE)
+    // empiezan con estos niveles y crecen si el contenido los supera
+    private static final int PREALLOCATED_LEVELS = 1024;
+
+    // Carga del evento empaquetada: tipo (2 bits), entidad + 1 (30), destino (16), recurso + 1 (16)
+    private static final int ENTITY_SHIFT = 32;
+    private static final int TARGET_SHIFT = 16;
+    private static final long FIELD_MASK = 0xFFFFL;
+    private static final long ENTITY_MASK = (1L << 30) - 1;
+    private static final int KIND_SHIFT = 62;
+
+    private final CompiledModel model;
+    private final int replications;
+    private final int locationCount;
+    private final int resourceCount;
+    private final int streamCount;
+    private final int entityTypeCount;
+
+    // Locaciones: [réplica * locationCount + locación]
+    private final int[] occupancy;
+    // Lugares reservados por entidades que viajan hacia la locación con un recurso
+    private final int[] reserved;
+    // Lista de espera FIFO encadenada por entityNextWaiter; -1 si está vacía
+    private final int[] waiterHeads;
+    private final int[] waiterTails;
+    // Contenido en el tiempo, como TimeWeightedStatistics pero en arreglos
+    // planos; el objeto se arma solo para el reporte. El contenido empieza en 0
+    // y nunca es negativo, así que el mínimo es siempre 0.
+    private final double[] occupancyArea;
+    private final double[] occupancySquareArea;
+    private final double[] lastOccupancyUpdate;
+    private final int[] occupancyMax;
+    // Histograma por nivel: [réplica * levelStride + levelOffsets[locación] + nivel]
+    private double[] occupancyHistogram;
+    private final int[] levelOffsets;
+    private final int[] levelWidths;
+    private int levelStride;
+    private final int[] entries;
+    private final double[] processingTotals;
+
+    // Recursos: [réplica * resourceCount + recurso]
+    private final int[] availableUnits;
+    // Cola FIFO de pedidos encadenada por entityNextWaiter, como las de locaciones
+    private final int[] resourceWaiterHeads;
+    private final int[] resourceWaiterTails;
+    private final double[] busyTime;
+    private final double[] lastBusyUpdate;
+
+    // Generador de cada réplica para el sorteo de rutas
+    private final Random[] randoms;
+
+    // Flujos de arribo: [réplica * streamCount + flujo]
+    private final long[] generated;
+
+    // Salidas por tipo de entidad: [réplica * entityTypeCount + tipo]
+    private final int[] exits;
+    private final double[] exitSystemTime;
+    private final double[] exitValueAddedTime;
+    private final double[] exitNonValueAddedTime;
+    private final double[] exitWaitTime;
+    private final double[] exitBlockedTime;
+    private final double[] exitMinSystemTime;
+    private final double[] exitMaxSystemTime;
+    // Cubetas de QuantileSketch del tiempo en sistema, en un arreglo plano con
+    // el mismo rango de índices para todas las ranuras:
+    // [ranura * exitBucketWidth + (índice - exitBucketFirst)]
+    private final long[] exitZeroCounts;
+    private long[] exitBuckets;
+    private int exitBucketFirst;
+    private int exitBucketWidth;
+
+    // Entidades vivas de todas las réplicas, con lista de ranuras libres
+    private int[] entityTypes;
+    private double[] entityEntryTimes;
+    private double[] entityValueAdded;
+    private double[] entityNonValueAdded;
+    private double[] entityWait;
+    private double[] entityBlocked;
+    private double[] entityWaitStart;
+    // Locación que ocupa la entidad (-1 si ninguna); una bloqueada conserva la suya
+    private int[] entityHeldLocations;
+    // Ruta compilada elegida al terminar el procesamiento
+    private int[] entityRoutes;
+    private int[] entityNextWaiter;
+    private int[] freeEntities;
+    private int freeCount;
+    private int entitySlots;
+
+    // Un montículo 4-ario por réplica en [réplica * eventCapacity + i]:
+    // tiempo, secuencia de la réplica y carga empaquetada
+    private double[] eventTimes;
+    private long[] eventSequences;
+    private long[] eventPayloads;
+    private int eventCapacity;
+    private final int[] eventCounts;
+    private final long[] nextSequence;
+
+    private double windowLength;
+    private double currentTime;
+    private long executedEvents;
+
+    // Una réplica por semilla, en ese orden
+    public LockstepReplicationEngine(SimulationEngine definition, long[] seeds) {
+        int replications = seeds.length;
+        if (replications < 1 || replications > MAX_REPLICATIONS) {
+            throw new IllegalArgumentException("Cantidad de réplicas en bloque inválida: " + replications);
+        }
+        this.model = new CompiledModel(definition);
+        this.replications = replications;
+        this.locationCount = model.getLocationCount();
+        this.resourceCount = model.getResourceCount();
+        this.streamCount = model.getStreamCount();
+        this.entityTypeCount = model.getEntityTypeCount();
+
+        this.occupancy = new int[replications * locationCount];
+        this.reserved = new int[replications * locationCount];
+        this.waiterHeads = new int[replications * locationCount];
+        this.waiterTails = new int[replications * locationCount];
+        Arrays.fill(waiterHeads, -1);
+        Arrays.fill(waiterTails, -1);
+        this.occupancyArea = new double[replications * locationCount];
+        this.occupancySquareArea = new double[replications * locationCount];
+        this.lastOccupancyUpdate = new double[replications * locationCount];
+        this.occupancyMax = new int[replications * locationCount];
+        this.levelOffsets = new int[locationCount];
+        this.levelWidths = new int[locationCount];
+        int stride = 0;
+        for (int l = 0; l < locationCount; l++) {
+            int capacity = model.locationCapacities[l];
+            levelOffsets[l] = stride;
+            levelWidths[l] = capacity < PREALLOCATED_LEVELS ? capacity + 1 : PREALLOCATED_LEVELS;
+            stride += levelWidths[l];
+        }
+        this.levelStride = stride;
+        this.occupancyHistogram = new double[replications * levelStride];
+        this.entries = new int[replications * locationCount];
+        this.processingTotals = new double[replications * locationCount];
+
+        this.availableUnits = new int[replications * resourceCount];
+        this.resourceWaiterHeads = new int[replications * resourceCount];
+        this.resourceWaiterTails = new int[replications * resourceCount];
+        Arrays.fill(resourceWaiterHeads, -1);
+        Arrays.fill(resourceWaiterTails, -1);
+        this.busyTime = new double[replications * resourceCount];
+        this.lastBusyUpdate = new double[replications * resourceCount];
+        for (int r = 0; r < replications; r++) {
+            System.arraycopy(model.resourceUnits, 0, availableUnits, r * resourceCount, resourceCount);
+        }
+
+        this.randoms = new Random[replications];
+        for (int r = 0; r < replications; r++) {
+            randoms[r] = new Random(seeds[r]);
+        }
+
+        this.generated = new long[replications * streamCount];
+
+        this.exits = new int[replications * entityTypeCount];
+        this.exitSystemTime = new double[replications * entityTypeCount];
+        this.exitValueAddedTime = new double[replications * entityTypeCount];
+        this.exitNonValueAddedTime = new double[replications * entityTypeCount];
+        this.exitWaitTime = new double[replications * entityTypeCount];
+        this.exitBlockedTime = new double[replications * entityTypeCount];
+        this.exitMinSystemTime = new double[replications * entityTypeCount];
+        this.exitMaxSystemTime = new double[replications * entityTypeCount];
+        Arrays.fill(exitMinSystemTime, Double.MAX_VALUE);
+        this.exitZeroCounts = new long[replications * entityTypeCount];
+        this.exitBuckets = new long[0];
+        this.exitBucketFirst = 0;
+        this.exitBucketWidth = 0;
+
+        int initialEntities = Math.max(64, replications * 16);
+        this.entityTypes = new int[initialEntities];
+        this.entityEntryTimes = new double[initialEntities];
+        this.entityValueAdded = new double[initialEntities];
+        this.entityNonValueAdded = new double[initialEntities];
+        this.entityWait = new double[initialEntities];
+        this.entityBlocked = new double[initialEntities];
+        this.entityWaitStart = new double[initialEntities];
+        this.entityHeldLocations = new int[initialEntities];
+        this.entityRoutes = new int[initialEntities];
+        this.entityNextWaiter = new int[initialEntities];
+        this.freeEntities = new int[initialEntities];
+        this.freeCount = 0;
+        this.entitySlots = 0;
+
+        this.eventCapacity = Math.max(16, Integer.highestOneBit(streamCount) * 4);
+        this.eventTimes = new double[replications * eventCapacity];
+        this.eventSequences = new long[replications * eventCapacity];
+        this.eventPayloads = new long[replications * eventCapacity];
+        this.eventCounts = new int[replications];
+        this.nextSequence = new long[replications];
+
+        this.windowLength = DEFAULT_WINDOW_LENGTH;
+        this.currentTime = 0.0;
+        this.executedEvents = 0;
+
+        for (int r = 0; r < replications; r++) {
+            for (int s = 0; s < streamCount; s++) {
+                scheduleNextArrival(r, s);
+            }
+        }
+    }
+
+    // Ejecuta los eventos con tiempo <= endTime de todas las réplicas. Cada
+    // ventana recorre las réplicas en orden, de modo que ninguna se adelanta más
+    // de una ventana a las demás y el estado de cada una sigue caliente en caché.
+    public void run(double endTime) {
+        boolean last = false;
+        while (!last) {
+            double windowEnd = Math.min(currentTime + windowLength, endTime);
+            last = windowEnd >= endTime;
+            for (int r = 0; r < replications; r++) {
+                runReplication(r, windowEnd, last);
+            }
+            currentTime = Math.max(currentTime, windowEnd);
+        }
+    }
+
+    private void runReplication(int replication, double limit, boolean inclusive) {
+        int base = replication * eventCapacity;
+        while (eventCounts[replication] > 0) {
+            double time = eventTimes[base];
+            if (time > limit || (time == limit && !inclusive)) {
+                break;
+            }
+            long payload = eventPayloads[base];
+            removeFirst(replication);
+            executedEvents++;
+            currentTime = time;
+
+            int target = (int) ((payload >>> TARGET_SHIFT) & FIELD_MASK);
+            switch ((int) (payload >>> KIND_SHIFT)) {
+                case ARRIVAL:
+                    handleStreamArrival(replication, target);
+                    break;
+                case PROCESS_COMPLETE:
+                    completeProcessing(replication, entityOf(payload), target);
+                    break;
+                case MOVE_COMPLETE:
+                    releaseResource(replication, (int) (payload & FIELD_MASK) - 1);
+                    serveWaiting(replication, (int) (payload & FIELD_MASK) - 1);
+                    reserved[replication * locationCount + target]--;
+                    handleArrival(replication, entityOf(payload), target);
+                    break;
+                default:
+                    throw new IllegalStateException("Tipo de evento desconocido: " + (payload >>> KIND_SHIFT));
+            }
+        }
+    }
+
+    private void handleStreamArrival(int replication, int stream) {
+        generated[replication * streamCount + stream]++;
+        scheduleNextArrival(replication, stream);
+
+        int entity = allocateEntity(model.streamEntityTypes[stream]);
+        entityEntryTimes[entity] = currentTime;
+        handleArrival(replication, entity, model.streamLocations[stream]);
+    }
+
+    private void scheduleNextArrival(int replication, int stream) {
+        long count = generated[replication * streamCount + stream];
+        int occurrences = model.streamOccurrences[stream];
+        if (occurrences == ArrivalGenerator.INFINITE || count < occurrences) {
+            double time = model.streamFirstTimes[stream] + count * model.streamFrequencies[stream];
+            ShiftCalendar calendar = model.streamCalendars[stream];
+            if (calendar != null) {
+                time = calendar.getShiftTime(time);
+            }
+            schedule(replication, time, ARRIVAL, -1, stream, -1);
+        }
+    }
+
+    private void handleArrival(int replication, int entity, int location) {
+        int slot = replication * locationCount + location;
+        if (canAccept(slot, location)) {
+            admit(replication, entity, location);
+        } else {
+            entityHeldLocations[entity] = -1;
+            entityWaitStart[entity] = currentTime;
+            addWaiter(waiterHeads, waiterTails, slot, entity);
+        }
+    }
+
+    private void admit(int replication, int entity, int location) {
+        int slot = replication * locationCount + location;
+        advanceOccupancy(replication, location);
+        occupancy[slot]++;
+        occupancyMax[slot] = Math.max(occupancyMax[slot], occupancy[slot]);
+        entityHeldLocations[entity] = location;
+        entries[slot]++;
+
+        if (model.hasProcessing[location]) {
+            double processingTime = model.processingTimes[location];
+            ShiftCalendar calendar = model.locationCalendars[location];
+            schedule(replication, CompiledModel.completionTime(calendar, currentTime, processingTime),
+                PROCESS_COMPLETE, entity, location, -1);
+            entityValueAdded[entity] += processingTime;
+            processingTotals[slot] += processingTime;
+        }
+    }
+
+    private boolean canAccept(int slot, int location) {
+        return occupancy[slot] + reserved[slot] < model.locationCapacities[location];
+    }
+
+    private void completeProcessing(int replication, int entity, int location) {
+        entityRoutes[entity] = chooseRoute(replication, location);
+        depart(replication, entity, location);
+    }
+
+    // Mismo sorteo que OperationHandler.chooseRoute
+    private int chooseRoute(int replication, int location) {
+        int first = model.routeStarts[location];
+        int last = model.routeStarts[location + 1] - 1;
+        if (first == last) {
+            return first;
+        }
+        double draw = randoms[replication].nextDouble();
+        for (int route = first; route < last; route++) {
+            if (draw < model.routeCumulativeProbabilities[route]) {
+                return route;
+            }
+        }
+        return last;
+    }
+
+    // Mismo orden que OperationHandler.depart: la entidad conserva su lugar en
+    // la lista de espera del destino lleno o en la cola del recurso de la ruta
+    private void depart(int replication, int entity, int location) {
+        int route = entityRoutes[entity];
+        int destination = model.routeDestinations[route];
+        int resource = model.routeResources[route];
+
+        if (destination >= 0 && destination != location) {
+            int destinationSlot = replication * locationCount + destination;
+            if (!canAccept(destinationSlot, destination)) {
+                entityWaitStart[entity] = currentTime;
+                addWaiter(waiterHeads, waiterTails, destinationSlot, entity);
+                return;
+            }
+        }
+        if (destination >= 0 && resource >= 0) {
+            int resourceSlot = replication * resourceCount + resource;
+            if (availableUnits[resourceSlot] == 0) {
+                entityWaitStart[entity] = currentTime;
+                addWaiter(resourceWaiterHeads, resourceWaiterTails, resourceSlot, entity);
+                return;
+            }
+        }
+
+        leave(replication, entity);
+        if (destination < 0) {
+            recordExit(replication, entity);
+        } else if (resource < 0) {
+            handleArrival(replication, entity, destination);
+        } else {
+            startMove(replication, entity, route);
+        }
+        wakeWaiting(replication, location);
+    }
+
+    // Movimiento por la ruta, con su recurso libre; reserva el lugar en el destino
+    private void startMove(int replication, int entity, int route) {
+        int resource = model.routeResources[route];
+        int resourceSlot = replication * resourceCount + resource;
+        int destination = model.routeDestinations[route];
+        updateBusyTime(resourceSlot, resource);
+        availableUnits[resourceSlot]--;
+        reserved[replication * locationCount + destination]++;
+        double moveTime = model.routeMoveTimes[route];
+        ShiftCalendar calendar = model.resourceCalendars[resource];
+        schedule(replication, CompiledModel.completionTime(calendar, currentTime, moveTime),
+            MOVE_COMPLETE, entity, destination, resource);
+        entityNonValueAdded[entity] += moveTime;
+    }
+
+    // Mismo orden que OperationHandler.serveWaiting: cada reclamo es un solo
+    // recurso y quien lo espera conserva su locación hasta que se lo asignan
+    private void serveWaiting(int replication, int resource) {
+        int resourceSlot = replication * resourceCount + resource;
+        while (availableUnits[resourceSlot] > 0 && resourceWaiterHeads[resourceSlot] >= 0) {
+            int entity = pollWaiter(resourceWaiterHeads, resourceWaiterTails, resourceSlot);
+            entityWait[entity] += plantTime(currentTime) - plantTime(entityWaitStart[entity]);
+            depart(replication, entity, entityHeldLocations[entity]);
+        }
+    }
+
+    private void leave(int replication, int entity) {
+        int location = entityHeldLocations[entity];
+        int slot = replication * locationCount + location;
+        advanceOccupancy(replication, location);
+        occupancy[slot]--;
+        entityHeldLocations[entity] = -1;
+    }
+
+    // Acumula el contenido vigente hasta ahora, en tiempo de turno de la
+    // locación como Location; se llama antes de cambiarlo
+    private void advanceOccupancy(int replication, int location) {
+        int slot = replication * locationCount + location;
+        double time = CompiledModel.scheduledTime(model.locationCalendars[location], currentTime);
+        double delta = time - lastOccupancyUpdate[slot];
+        if (delta > 0) {
+            int level = occupancy[slot];
+            occupancyArea[slot] += level * delta;
+            occupancySquareArea[slot] += (double) level * level * delta;
+            if (level >= levelWidths[location]) {
+                growLevels(location, level);
+            }
+            occupancyHistogram[replication * levelStride + levelOffsets[location] + level] += delta;
+        }
+        lastOccupancyUpdate[slot] = time;
+    }
+
+    // Amplía los niveles de una locación en todas las réplicas, conservando el resto
+    private void growLevels(int location, int level) {
+        int[] widths = levelWidths.clone();
+        widths[location] = Math.max(level + 1, levelWidths[location] * 2);
+        int[] offsets = new int[locationCount];
+        int stride = 0;
+        for (int l = 0; l < locationCount; l++) {
+            offsets[l] = stride;
+            stride += widths[l];
+        }
+        double[] histogram = new double[replications * stride];
+        for (int r = 0; r < replications; r++) {
+            for (int l = 0; l < locationCount; l++) {
+                System.arraycopy(occupancyHistogram, r * levelStride + levelOffsets[l],
+                    histogram, r * stride + offsets[l], levelWidths[l]);
+            }
+        }
+        System.arraycopy(widths, 0, levelWidths, 0, locationCount);
+        System.arraycopy(offsets, 0, levelOffsets, 0, locationCount);
+        occupancyHistogram = histogram;
+        levelStride = stride;
+    }
+
+    // Mismo orden que OperationHandler.wakeWaiting
+    private void wakeWaiting(int replication, int location) {
+        int slot = replication * locationCount + location;
+        while (canAccept(slot, location) && waiterHeads[slot] >= 0) {
+            int entity = pollWaiter(waiterHeads, waiterTails, slot);
+            double waited = plantTime(currentTime) - plantTime(entityWaitStart[entity]);
+            int source = entityHeldLocations[entity];
+            if (source < 0) {
+                entityWait[entity] += waited;
+                admit(replication, entity, location);
+                continue;
+            }
+            entityBlocked[entity] += waited;
+            if (model.routeResources[entityRoutes[entity]] >= 0) {
+                depart(replication, entity, source);
+                continue;
+            }
+            leave(replication, entity);
+            admit(replication, entity, location);
+            wakeWaiting(replication, source);
+        }
+    }
+
+    // Listas de espera de locaciones (waiterHeads) o de recursos (resourceWaiterHeads)
+    private void addWaiter(int[] heads, int[] tails, int slot, int entity) {
+        entityNextWaiter[entity] = -1;
+        if (tails[slot] < 0) {
+            heads[slot] = entity;
+        } else {
+            entityNextWaiter[tails[slot]] = entity;
+        }
+        tails[slot] = entity;
+    }
+
+    private int pollWaiter(int[] heads, int[] tails, int slot) {
+        int entity = heads[slot];
+        heads[slot] = entityNextWaiter[entity];
+        if (heads[slot] < 0) {
+            tails[slot] = -1;
+        }
+        return entity;
+    }
+
+    private void releaseResource(int replication, int resource) {
+        int resourceSlot = replication * resourceCount + resource;
+        updateBusyTime(resourceSlot, resource);
+        availableUnits[resourceSlot]++;
+    }
+
+    private void recordExit(int replication, int entity) {
+        int slot = replication * entityTypeCount + entityTypes[entity];
+        double systemTime = plantTime(currentTime) - plantTime(entityEntryTimes[entity]);
+        exits[slot]++;
+        exitSystemTime[slot] += systemTime;
+        exitValueAddedTime[slot] += entityValueAdded[entity];
+        exitNonValueAddedTime[slot] += entityNonValueAdded[entity];
+        exitWaitTime[slot] += entityWait[entity];
+        exitBlockedTime[slot] += entityBlocked[entity];
+        exitMinSystemTime[slot] = Math.min(exitMinSystemTime[slot], systemTime);
+        exitMaxSystemTime[slot] = Math.max(exitMaxSystemTime[slot], systemTime);
+        int bucket = QuantileSketch.bucketIndex(systemTime);
+        if (bucket == QuantileSketch.ZERO_BUCKET) {
+            exitZeroCounts[slot]++;
+        } else {
+            // exitBucketPosition puede reemplazar el arreglo: se resuelve antes de indexar
+            int position = exitBucketPosition(bucket);
+            exitBuckets[slot * exitBucketWidth + position]++;
+        }
+        freeEntity(entity);
+    }
+
+    // Posición de la cubeta en el rango común, ampliándolo como QuantileSketch:
+    // al doble, y juntando las más bajas si supera MAX_BUCKETS
+    private int exitBucketPosition(int index) {
+        if (exitBucketWidth == 0) {
+            exitBucketFirst = index - 8;
+            exitBucketWidth = 16;
+            exitBuckets = new long[replications * entityTypeCount * exitBucketWidth];
+        }
+        int last = exitBucketFirst + exitBucketWidth - 1;
+        if (index >= exitBucketFirst && index <= last) {
+            return index - exitBucketFirst;
+        }
+
+        int low = Math.min(exitBucketFirst, index);
+        int high = Math.max(last, index);
+        if (high - low + 1 > QuantileSketch.MAX_BUCKETS) {
+            low = high - QuantileSketch.MAX_BUCKETS + 1;
+        }
+        int length = Math.min(QuantileSketch.MAX_BUCKETS, Math.max(high - low + 1, exitBucketWidth * 2));
+        int newFirst = index < exitBucketFirst ? high - length + 1 : low;
+        int slots = replications * entityTypeCount;
+        long[] grown = new long[slots * length];
+        for (int slot = 0; slot < slots; slot++) {
+            for (int k = 0; k < exitBucketWidth; k++) {
+                grown[slot * length + Math.max(exitBucketFirst + k, newFirst) - newFirst] +=
+                    exitBuckets[slot * exitBucketWidth + k];
+            }
+        }
+        exitBuckets = grown;
+        exitBucketFirst = newFirst;
+        exitBucketWidth = length;
+        return Math.max(index, newFirst) - newFirst;
+    }
+
+    private void updateBusyTime(int resourceSlot, int resource) {
+        int busyUnits = model.resourceUnits[resource] - availableUnits[resourceSlot];
+        double time = CompiledModel.scheduledTime(model.resourceCalendars[resource], currentTime);
+        busyTime[resourceSlot] += busyUnits * (time - lastBusyUpdate[resourceSlot]);
+        lastBusyUpdate[resourceSlot] = time;
+    }
+
+    // Base de los tiempos de las entidades, como SimulationEngine.getScheduledTime
+    private double plantTime(double time) {
+        return CompiledModel.scheduledTime(model.plantCalendar, time);
+    }
+
+    // Entidades
+
+    private int allocateEntity(int entityType) {
+        int entity;
+        if (freeCount > 0) {
+            entity = freeEntities[--freeCount];
+        } else {
+            if (entitySlots == entityTypes.length) {
+                if (entitySlots >= ENTITY_MASK - 1) {
+                    throw new IllegalStateException("Demasiadas entidades vivas en el bloque de réplicas");
+                }
+                int newCapacity = entitySlots * 2;
+                entityTypes = Arrays.copyOf(entityTypes, newCapacity);
+                entityEntryTimes = Arrays.copyOf(entityEntryTimes, newCapacity);
+                entityValueAdded = Arrays.copyOf(entityValueAdded, newCapacity);
+                entityNonValueAdded = Arrays.copyOf(entityNonValueAdded, newCapacity);
+                entityWait = Arrays.copyOf(entityWait, newCapacity);
+                entityBlocked = Arrays.copyOf(entityBlocked, newCapacity);
+                entityWaitStart = Arrays.copyOf(entityWaitStart, newCapacity);
+                entityHeldLocations = Arrays.copyOf(entityHeldLocations, newCapacity);
+                entityRoutes = Arrays.copyOf(entityRoutes, newCapacity);
+                entityNextWaiter = Arrays.copyOf(entityNextWaiter, newCapacity);
+                freeEntities = Arrays.copyOf(freeEntities, newCapacity);
+            }
+            entity = entitySlots++;
+        }
+        entityTypes[entity] = entityType;
+        entityEntryTimes[entity] = 0.0;
+        entityValueAdded[entity] = 0.0;
+        entityNonValueAdded[entity] = 0.0;
+        entityWait[entity] = 0.0;
+        entityBlocked[entity] = 0.0;
+        entityHeldLocations[entity] = -1;
+        return entity;
+    }
+
+    private void freeEntity(int entity) {
+        freeEntities[freeCount++] = entity;
+    }
+
+    // Lista de eventos
+
+    private void schedule(int replication, double time, int kind, int entity, int target, int resource) {
+        if (eventCounts[replication] == eventCapacity) {
+            growEventLists();
+        }
+        long sequence = nextSequence[replication]++;
+        long payload = ((long) kind << KIND_SHIFT) | (((long) entity + 1) << ENTITY_SHIFT)
+            | ((long) target << TARGET_SHIFT) | (resource + 1);
+
+        int base = replication * eventCapacity;
+        int index = eventCounts[replication]++;
+        while (index > 0) {
+            int parent = (index - 1) / ARITY;
+            if (!less(time, sequence, eventTimes[base + parent], eventSequences[base + parent])) {
+                break;
+            }
+            moveEvent(base + parent, base + index);
+            index = parent;
+        }
+        setEvent(base + index, time, sequence, payload);
+    }
+
+    private void removeFirst(int replication) {
+        int size = --eventCounts[replication];
+        if (size == 0) {
+            return;
+        }
+        int base = replication * eventCapacity;
+        double time = eventTimes[base + size];
+        long sequence = eventSequences[base + size];
+        long payload = eventPayloads[base + size];
+        int index = 0;
+        while (true) {
+            int firstChild = index * ARITY + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int lastChild = Math.min(firstChild + ARITY, size);
+            int best = firstChild;
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                if (less(eventTimes[base + child], eventSequences[base + child],
+                         eventTimes[base + best], eventSequences[base + best])) {
+                    best = child;
+                }
+            }
+            if (!less(eventTimes[base + best], eventSequences[base + best], time, sequence)) {
+                break;
+            }
+            moveEvent(base + best, base + index);
+            index = best;
+        }
+        setEvent(base + index, time, sequence, payload);
+    }
+
+    private static boolean less(double timeA, long sequenceA, double timeB, long sequenceB) {
+        return timeA < timeB || (timeA == timeB && sequenceA < sequenceB);
+    }
+
+    private void moveEvent(int from, int to) {
+        eventTimes[to] = eventTimes[from];
+        eventSequences[to] = eventSequences[from];
+        eventPayloads[to] = eventPayloads[from];
+    }
+
+    private void setEvent(int index, double time, long sequence, long payload) {
+        eventTimes[index] = time;
+        eventSequences[index] = sequence;
+        eventPayloads[index] = payload;
+    }
+
+    // Duplica la capacidad de todas las réplicas conservando cada bloque
+    private void growEventLists() {
+        int newCapacity = eventCapacity * 2;
+        double[] times = new double[replications * newCapacity];
+        long[] sequences = new long[replications * newCapacity];
+        long[] payloads = new long[replications * newCapacity];
+        for (int r = 0; r < replications; r++) {
+            System.arraycopy(eventTimes, r * eventCapacity, times, r * newCapacity, eventCounts[r]);
+            System.arraycopy(eventSequences, r * eventCapacity, sequences, r * newCapacity, eventCounts[r]);
+            System.arraycopy(eventPayloads, r * eventCapacity, payloads, r * newCapacity, eventCounts[r]);
+        }
+        eventTimes = times;
+        eventSequences = sequences;
+        eventPayloads = payloads;
+        eventCapacity = newCapacity;
+    }
+
+    private static int entityOf(long payload) {
+        return (int) ((payload >>> ENTITY_SHIFT) & ENTITY_MASK) - 1;
+    }
+
+    // Resultados
+
+    // Estadísticas de una réplica en el mismo formato que SimulationEngine
+    public StatisticsCollector getStatistics(int replication) {
+        StatisticsCollector statistics = new StatisticsCollector();
+        for (int t = 0; t < entityTypeCount; t++) {
+            int slot = replication * entityTypeCount + t;
+            if (exits[slot] > 0) {
+                EntityStatistics stats = new EntityStatistics(model.entityTypeNames[t]);
+                stats.recordExits(exits[slot], exitSystemTime[slot], exitValueAddedTime[slot],
+                    exitNonValueAddedTime[slot], exitWaitTime[slot], exitBlockedTime[slot],
+                    exitMinSystemTime[slot], exitMaxSystemTime[slot], systemTimeDistribution(slot));
+                statistics.addEntityStatistics(stats);
+            }
+        }
+        for (int l = 0; l < locationCount; l++) {
+            int slot = replication * locationCount + l;
+            LocationStatistics stats = new LocationStatistics(model.locationNames[l]);
+            double scheduledTime = CompiledModel.scheduledTime(model.locationCalendars[l], currentTime);
+            stats.calculate(model.locationCapacities[l], occupancy[slot], contentsStatistics(replication, l),
+                scheduledTime, entries[slot], processingTotals[slot]);
+            // Cada entrada suma el mismo tiempo fijo de procesamiento
+            QuantileSketch timePerEntry = new QuantileSketch();
+            if (model.hasProcessing[l]) {
+                timePerEntry.add(model.processingTimes[l], entries[slot]);
+            }
+            stats.setTimePerEntryDistribution(timePerEntry);
+            statistics.addLocationStatistics(stats);
+        }
+        return statistics;
+    }
+
+    private QuantileSketch systemTimeDistribution(int slot) {
+        QuantileSketch sketch = new QuantileSketch();
+        long[] counts = exitBucketWidth == 0 ? new long[0]
+            : Arrays.copyOfRange(exitBuckets, slot * exitBucketWidth, (slot + 1) * exitBucketWidth);
+        sketch.restore(exits[slot], Math.max(exitMinSystemTime[slot], 0), Math.max(exitMaxSystemTime[slot], 0),
+            exitZeroCounts[slot], exitBucketFirst, counts);
+        return sketch;
+    }
+
+    private TimeWeightedStatistics contentsStatistics(int replication, int location) {
+        int slot = replication * locationCount + location;
+        int start = replication * levelStride + levelOffsets[location];
+        TimeWeightedStatistics contents = new TimeWeightedStatistics();
+        contents.restore(occupancy[slot], 0.0, lastOccupancyUpdate[slot], occupancyArea[slot],
+            occupancySquareArea[slot], 0, occupancyMax[slot],
+            Arrays.copyOfRange(occupancyHistogram, start, start + levelWidths[location]));
+        return contents;
+    }
+
+    public List<StatisticsCollector> getAllStatistics() {
+        List<StatisticsCollector> all = new ArrayList<>();
+        for (int r = 0; r < replications; r++) {
+            all.add(getStatistics(r));
+        }
+        return all;
+    }
+
+    public void setWindowLength(double windowLength) {
+        if (windowLength <= 0) {
+            throw new IllegalArgumentException("La ventana debe ser positiva: " + windowLength);
+        }
+        this.windowLength = windowLength;
+    }
+
+    public int getReplicationCount() {
+        return replications;
+    }
+
+    public String[] getLocationNames() {
+        return model.locationNames.clone();
+    }
+
+    public double getCurrentTime() {
+        return currentTime;
+    }
+
+    public long getExecutedEvents() {
+        return executedEvents;
+    }
+}
@@ -0,0 +1,68 @@
+package com.simulacion.replication;
+
+import com.simulacion.statistics.SampleStatistics;
+
+// Precisión buscada para un KPI: semiancho absoluto o relativo a la media
+public class PrecisionTarget {
+    private final Kpi kpi;
+    private final double precision;
+    private final boolean relative;
+
+    private PrecisionTarget(Kpi kpi, double precision, boolean relative) {
+        if (precision <= 0) {
+            throw new IllegalArgumentException("La precisión debe ser positiva: " + precision);
+        }
+        this.kpi = kpi;
+        this.precision = precision;
+        this.relative = relative;
+    }
+
+    public static PrecisionTarget absolute(Kpi kpi, double halfWidth) {
+        return new PrecisionTarget(kpi, halfWidth, false);
+    }
+
+    public static PrecisionTarget relative(Kpi kpi, double fractionOfMean) {
+        return new PrecisionTarget(kpi, fractionOfMean, true);
+    }
+
+    // Semiancho absoluto, o semiancho / |media| si la precisión es relativa
+    public double achievedPrecision(SampleStatistics sample, double confidenceLevel) {
+        double halfWidth = sample.getHalfWidth(confidenceLevel);
+        if (!relative || halfWidth == 0) {
+            return halfWidth;
+        }
+        double mean = Math.abs(sample.getMean());
+        return mean > 0 ? halfWidth / mean : Double.POSITIVE_INFINITY;
+    }
+
+    public boolean isMet(SampleStatistics sample, double confidenceLevel) {
+        return achievedPrecision(sample, confidenceLevel) <= precision;
+    }
+
+    // Estimación clásica n * (h / h*)^2 del total de réplicas necesarias
+    public long estimateRequiredReplications(SampleStatistics sample, double confidenceLevel) {
+        double achieved = achievedPrecision(sample, confidenceLevel);
+        if (Double.isInfinite(achieved)) {
+            return Long.MAX_VALUE;
+        }
+        double ratio = achieved / precision;
+        return Math.max(sample.getCount(), (long) Math.ceil(sample.getCount() * ratio * ratio));
+    }
+
+    public Kpi getKpi() {
+        return kpi;
+    }
+
+    public double getPrecision() {
+        return precision;
+    }
+
+    public boolean isRelative() {
+        return relative;
+    }
+
+    @Override
+    public String toString() {
+        return kpi.getName() + (relative ? " ±" + (precision * 100.0) + "%" : " ±" + precision);
+    }
+}
@@ -0,0 +1,33 @@
+package com.simulacion.replication;
+
+import com.simulacion.statistics.StatisticsCollector;
+
+public class ReplicationResult {
+    private final int index;
+    private final long seed;
+    private final double simulationTime;
+    private final StatisticsCollector statistics;
+
+    public ReplicationResult(int index, long seed, double simulationTime, StatisticsCollector statistics) {
+        this.index = index;
+        this.seed = seed;
+        this.simulationTime = simulationTime;
+        this.statistics = statistics;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public double getSimulationTime() {
+        return simulationTime;
+    }
+
+    public StatisticsCollector getStatistics() {
+        return statistics;
+    }
+}
@@ -0,0 +1,198 @@
+package com.simulacion.replication;
+
+import com.simulacion.core.EventListType;
+import com.simulacion.core.SimulationEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+// Ejecuta réplicas independientes en paralelo. Cada réplica construye su propio
+// motor con una semilla derivada solo de (semilla base, índice), por lo que el
+// resultado no depende del orden en que los hilos las ejecuten.
+public class ReplicationRunner {
+    private final Consumer<SimulationEngine> modelBuilder;
+    private final double runLength;
+    private long baseSeed;
+    private int parallelism;
+    private ExecutorService executor;
+    private EventListType eventListType;
+    private double confidenceLevel;
+    // Réplicas que avanza juntas cada tarea (1 = un SimulationEngine por réplica)
+    private int lockstepWidth;
+
+    public ReplicationRunner(Consumer<SimulationEngine> modelBuilder, double runLength) {
+        this.modelBuilder = modelBuilder;
+        this.runLength = runLength;
+        this.baseSeed = 12345L;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+        this.executor = null;
+        this.eventListType = EventListType.BINARY_HEAP;
+        this.confidenceLevel = 0.95;
+        this.lockstepWidth = 1;
+    }
+
+    public ReplicationSummary run(int replications) {
+        return new ReplicationSummary(runBatch(0, replications), confidenceLevel);
+    }
+
+    // Lanza lotes de réplicas hasta que todos los KPI alcanzan la precisión pedida
+    // o hasta agotar maxReplications
+    public SequentialReplicationResult runUntilPrecision(List<PrecisionTarget> targets, int initialReplications,
+                                                         int batchSize, int maxReplications) {
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("Se requiere al menos un KPI objetivo");
+        }
+        if (initialReplications < 2 || batchSize < 1 || maxReplications < initialReplications) {
+            throw new IllegalArgumentException("Configuración de réplicas secuenciales inválida");
+        }
+
+        List<ReplicationResult> results = new ArrayList<>(runBatch(0, initialReplications));
+        while (results.size() < maxReplications && !allTargetsMet(targets, results)) {
+            int count = Math.min(batchSize, maxReplications - results.size());
+            results.addAll(runBatch(results.size(), count));
+        }
+
+        return new SequentialReplicationResult(new ReplicationSummary(results, confidenceLevel), targets);
+    }
+
+    public SequentialReplicationResult runUntilPrecision(List<PrecisionTarget> targets, int maxReplications) {
+        if (maxReplications < 2) {
+            throw new IllegalArgumentException("Se requieren al menos 2 réplicas para estimar la precisión: "
+                + maxReplications);
+        }
+        int batchSize = Math.max(2, parallelism);
+        return runUntilPrecision(targets, Math.min(batchSize, maxReplications), batchSize, maxReplications);
+    }
+
+    private boolean allTargetsMet(List<PrecisionTarget> targets, List<ReplicationResult> results) {
+        for (PrecisionTarget target : targets) {
+            if (!target.isMet(target.getKpi().sample(results), confidenceLevel)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Ejecuta las réplicas [firstIndex, firstIndex + count) y las devuelve en orden de índice
+    public List<ReplicationResult> runBatch(int firstIndex, int count) {
+        if (count <= 0) {
+            return new ArrayList<>();
+        }
+
+        ExecutorService pool = executor != null ? executor : Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<List<ReplicationResult>>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i += lockstepWidth) {
+                int first = firstIndex + i;
+                int width = Math.min(lockstepWidth, count - i);
+                futures.add(pool.submit(() -> runGroup(first, width)));
+            }
+
+            List<ReplicationResult> results = new ArrayList<>();
+            for (Future<List<ReplicationResult>> future : futures) {
+                results.addAll(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ejecución de réplicas interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló una réplica: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            if (executor == null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private List<ReplicationResult> runGroup(int firstIndex, int width) {
+        if (width == 1) {
+            List<ReplicationResult> single = new ArrayList<>();
+            single.add(runReplication(firstIndex));
+            return single;
+        }
+        return runLockstep(firstIndex, width);
+    }
+
+    // Ejecuta [firstIndex, firstIndex + width) en un único LockstepReplicationEngine,
+    // cada réplica con la semilla que le daría runReplication
+    public List<ReplicationResult> runLockstep(int firstIndex, int width) {
+        SimulationEngine definition = new SimulationEngine(eventListType);
+        modelBuilder.accept(definition);
+        long[] seeds = new long[width];
+        for (int r = 0; r < width; r++) {
+            seeds[r] = seedFor(firstIndex + r);
+        }
+        LockstepReplicationEngine engine = new LockstepReplicationEngine(definition, seeds);
+        engine.run(runLength);
+
+        List<ReplicationResult> results = new ArrayList<>();
+        for (int r = 0; r < width; r++) {
+            results.add(new ReplicationResult(firstIndex + r, seeds[r], engine.getCurrentTime(),
+                engine.getStatistics(r)));
+        }
+        return results;
+    }
+
+    public ReplicationResult runReplication(int index) {
+        long seed = seedFor(index);
+        SimulationEngine engine = new SimulationEngine(eventListType);
+        engine.setRandomSeed(seed);
+        modelBuilder.accept(engine);
+        engine.run(runLength);
+        return new ReplicationResult(index, seed, engine.getClock().getCurrentTime(), engine.getStatistics());
+    }
+
+    // Mezcla (semilla base, índice) para obtener flujos no correlacionados
+    public long seedFor(int index) {
+        return new SplittableRandom(baseSeed ^ (index * 0x9E3779B97F4A7C15L)).nextLong();
+    }
+
+    public void setBaseSeed(long baseSeed) {
+        this.baseSeed = baseSeed;
+    }
+
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("El paralelismo debe ser al menos 1");
+        }
+        this.parallelism = parallelism;
+    }
+
+    // Ejecutor externo opcional; el llamador es responsable de cerrarlo
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    public void setEventListType(EventListType eventListType) {
+        this.eventListType = eventListType;
+    }
+
+    public void setLockstepWidth(int lockstepWidth) {
+        if (lockstepWidth < 1) {
+            throw new IllegalArgumentException("El ancho del bloque de réplicas debe ser al menos 1");
+        }
+        this.lockstepWidth = lockstepWidth;
+    }
+
+    public void setConfidenceLevel(double confidenceLevel) {
+        if (confidenceLevel <= 0 || confidenceLevel >= 1) {
+            throw new IllegalArgumentException("Nivel de confianza inválido: " + confidenceLevel);
+        }
+        this.confidenceLevel = confidenceLevel;
+    }
+
+    public double getConfidenceLevel() {
+        return confidenceLevel;
+    }
+
+    public double getRunLength() {
+        return runLength;
+    }
+}
@@ -0,0 +1,123 @@
+package com.simulacion.replication;
+
+import com.simulacion.entities.EntityStatistics;
+import com.simulacion.locations.LocationStatistics;
+import com.simulacion.statistics.QuantileSketch;
+import com.simulacion.statistics.SampleStatistics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+// Estadísticas combinadas de varias réplicas: cada KPI de cada réplica es una observación
+public class ReplicationSummary {
+    private final List<ReplicationResult> results;
+    private final double confidenceLevel;
+    private final Map<String, Map<EntityMetric, SampleStatistics>> entityMetrics;
+    private final Map<String, Map<LocationMetric, SampleStatistics>> locationMetrics;
+    // Observaciones de todas las réplicas juntas, combinando los bosquejos
+    private final Map<String, QuantileSketch> pooledSystemTimes;
+    private final Map<String, QuantileSketch> pooledTimesPerEntry;
+
+    public ReplicationSummary(List<ReplicationResult> results, double confidenceLevel) {
+        this.results = Collections.unmodifiableList(results);
+        this.confidenceLevel = confidenceLevel;
+        this.entityMetrics = new TreeMap<>();
+        this.locationMetrics = new TreeMap<>();
+        this.pooledSystemTimes = new TreeMap<>();
+        this.pooledTimesPerEntry = new TreeMap<>();
+
+        Set<String> entityNames = new TreeSet<>();
+        Set<String> locationNames = new TreeSet<>();
+        for (ReplicationResult result : results) {
+            entityNames.addAll(result.getStatistics().getEntityStats().keySet());
+            locationNames.addAll(result.getStatistics().getLocationStats().keySet());
+        }
+
+        for (String name : entityNames) {
+            Map<EntityMetric, SampleStatistics> metrics = new EnumMap<>(EntityMetric.class);
+            for (EntityMetric metric : EntityMetric.values()) {
+                SampleStatistics sample = new SampleStatistics();
+                for (ReplicationResult result : results) {
+                    EntityStatistics stats = result.getStatistics().getEntityStats().get(name);
+                    sample.add(metric.extract(stats));
+                }
+                metrics.put(metric, sample);
+            }
+            entityMetrics.put(name, metrics);
+
+            QuantileSketch pooled = new QuantileSketch();
+            for (ReplicationResult result : results) {
+                EntityStatistics stats = result.getStatistics().getEntityStats().get(name);
+                if (stats != null) {
+                    pooled.merge(stats.getSystemTimeDistribution());
+                }
+            }
+            pooledSystemTimes.put(name, pooled);
+        }
+
+        for (String name : locationNames) {
+            Map<LocationMetric, SampleStatistics> metrics = new EnumMap<>(LocationMetric.class);
+            for (LocationMetric metric : LocationMetric.values()) {
+                SampleStatistics sample = new SampleStatistics();
+                for (ReplicationResult result : results) {
+                    LocationStatistics stats = result.getStatistics().getLocationStats().get(name);
+                    sample.add(metric.extract(stats));
+                }
+                metrics.put(metric, sample);
+            }
+            locationMetrics.put(name, metrics);
+
+            QuantileSketch pooled = new QuantileSketch();
+            for (ReplicationResult result : results) {
+                LocationStatistics stats = result.getStatistics().getLocationStats().get(name);
+                if (stats != null) {
+                    pooled.merge(stats.getTimePerEntryDistribution());
+                }
+            }
+            pooledTimesPerEntry.put(name, pooled);
+        }
+    }
+
+    public int getReplicationCount() {
+        return results.size();
+    }
+
+    public double getConfidenceLevel() {
+        return confidenceLevel;
+    }
+
+    public List<ReplicationResult> getResults() {
+        return results;
+    }
+
+    public Set<String> getEntityNames() {
+        return entityMetrics.keySet();
+    }
+
+    public Set<String> getLocationNames() {
+        return locationMetrics.keySet();
+    }
+
+    public SampleStatistics getEntityMetric(String entityName, EntityMetric metric) {
+        Map<EntityMetric, SampleStatistics> metrics = entityMetrics.get(entityName);
+        return metrics != null ? metrics.get(metric) : null;
+    }
+
+    public SampleStatistics getLocationMetric(String locationName, LocationMetric metric) {
+        Map<LocationMetric, SampleStatistics> metrics = locationMetrics.get(locationName);
+        return metrics != null ? metrics.get(metric) : null;
+    }
+
+    public QuantileSketch getPooledSystemTimeDistribution(String entityName) {
+        return pooledSystemTimes.get(entityName);
+    }
+
+    public QuantileSketch getPooledTimePerEntryDistribution(String locationName) {
+        return pooledTimesPerEntry.get(locationName);
+    }
+}
@@ -0,0 +1,55 @@
+package com.simulacion.replication;
+
+import com.simulacion.statistics.SampleStatistics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SequentialReplicationResult {
+    private final ReplicationSummary summary;
+    private final List<PrecisionTarget> targets;
+    private final List<SampleStatistics> samples;
+
+    public SequentialReplicationResult(ReplicationSummary summary, List<PrecisionTarget> targets) {
+        this.summary = summary;
+        this.targets = new ArrayList<>(targets);
+        this.samples = new ArrayList<>();
+        for (PrecisionTarget target : targets) {
+            samples.add(target.getKpi().sample(summary.getResults()));
+        }
+    }
+
+    public ReplicationSummary getSummary() {
+        return summary;
+    }
+
+    public int getReplicationsUsed() {
+        return summary.getReplicationCount();
+    }
+
+    public List<PrecisionTarget> getTargets() {
+        return targets;
+    }
+
+    public SampleStatistics getSample(int targetIndex) {
+        return samples.get(targetIndex);
+    }
+
+    public double getAchievedPrecision(int targetIndex) {
+        return targets.get(targetIndex).achievedPrecision(samples.get(targetIndex), summary.getConfidenceLevel());
+    }
+
+    public boolean isTargetMet(int targetIndex) {
+        return targets.get(targetIndex).isMet(samples.get(targetIndex), summary.getConfidenceLevel());
+    }
+
+    // Falso si se agotó el máximo de réplicas sin alcanzar alguna precisión
+    public boolean isPrecisionMet() {
+        for (int i = 0; i < targets.size(); i++) {
+            if (!isTargetMet(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,22 +1,31 @@
 package com.simulacion.resources;
 
-import com.simulacion.entities.Entity;
-import java.util.LinkedList;
-import java.util.Queue;
+import com.simulacion.calendar.ShiftCalendar;
+import com.simulacion.entities.EntityKey;
+import com.simulacion.entities.QueueDiscipline;
+import com.simulacion.statistics.TimeWeightedStatistics;
 
+// Recurso con unidades idénticas. Las entidades que esperan un recurso no
+// están acá sino en ResourceAllocator, que las atiende según la disciplina
+// del recurso cuando se liberan unidades.
 public class Resource {
-    private final ResourceType type;
+    private ResourceType type;
     private int availableUnits;
-    private final Queue<Entity> waitingQueue;
-    private double totalBusyTime;
-    private double lastUpdateTime;
+    private QueueDiscipline queueDiscipline;
+    // Clave de la disciplina enlazada por el motor; null en FIFO y LIFO
+    private EntityKey queueKey;
+    // null = siempre en turno; con calendario el tiempo ocupado se mide en tiempo de turno
+    private ShiftCalendar calendar;
+    // Unidades ocupadas en el tiempo: tiempo ocupado acumulado, extremos e histograma
+    private final TimeWeightedStatistics busyStatistics;
 
     public Resource(ResourceType type) {
         this.type = type;
         this.availableUnits = type.getUnits();
-        this.waitingQueue = new LinkedList<>();
-        this.totalBusyTime = 0;
-        this.lastUpdateTime = 0;
+        this.queueDiscipline = QueueDiscipline.FIFO;
+        this.queueKey = null;
+        this.calendar = null;
+        this.busyStatistics = new TimeWeightedStatistics();
     }
 
     public boolean isAvailable() {
@@ -25,29 +34,65 @@ public class Resource {
 
     public void acquire(double currentTime) {
         if (availableUnits > 0) {
-            updateBusyTime(currentTime);
             availableUnits--;
+            updateBusyUnits(currentTime);
         }
     }
 
     public void release(double currentTime) {
-        updateBusyTime(currentTime);
         availableUnits++;
+        updateBusyUnits(currentTime);
     }
 
-    public void addToQueue(Entity entity) {
-        waitingQueue.add(entity);
+    // Cambia la cantidad de unidades; las unidades quitadas mientras están ocupadas
+    // dejan availableUnits negativo hasta que se liberan
+    public void setUnits(int units, double currentTime) {
+        availableUnits += units - type.getUnits();
+        this.type = new ResourceType(type.getName(), units, type.getSpeedMetersPerMinute());
+        updateBusyUnits(currentTime);
     }
 
-    public Entity removeFromQueue() {
-        return waitingQueue.poll();
+    // Disciplina con la que se atienden los pedidos que esperan el recurso; el
+    // motor reordena después las colas de ResourceAllocator
+    public void setQueueDiscipline(QueueDiscipline discipline, EntityKey key) {
+        this.queueDiscipline = discipline;
+        this.queueKey = key;
     }
 
-    private void updateBusyTime(double currentTime) {
-        double timeDelta = currentTime - lastUpdateTime;
-        int busyUnits = type.getUnits() - availableUnits;
-        totalBusyTime += busyUnits * timeDelta;
-        lastUpdateTime = currentTime;
+    public QueueDiscipline getQueueDiscipline() {
+        return queueDiscipline;
+    }
+
+    public EntityKey getQueueKey() {
+        return queueKey;
+    }
+
+    private void updateBusyUnits(double currentTime) {
+        busyStatistics.update(scheduled(currentTime), type.getUnits() - availableUnits);
+    }
+
+    // Debe definirse antes de la corrida, como el de las locaciones
+    public void setCalendar(ShiftCalendar calendar) {
+        this.calendar = calendar;
+    }
+
+    public ShiftCalendar getCalendar() {
+        return calendar;
+    }
+
+    // Minutos de turno del recurso entre dos horas del reloj
+    public double getScheduledTime(double from, double to) {
+        return calendar == null ? to - from : calendar.getScheduledTime(from, to);
+    }
+
+    // Fin de un trabajo de duration minutos que empieza en startTime: fuera de
+    // turno del recurso el trabajo no avanza
+    public double getCompletionTime(double startTime, double duration) {
+        return calendar == null ? startTime + duration : calendar.advance(startTime, duration);
+    }
+
+    private double scheduled(double time) {
+        return calendar == null ? time : calendar.getScheduledTime(time);
     }
 
     public ResourceType getType() {
@@ -58,15 +103,36 @@ public class Resource {
         return availableUnits;
     }
 
-    public int getQueueSize() {
-        return waitingQueue.size();
+    public double getTotalBusyTime() {
+        return busyStatistics.getArea();
     }
 
-    public double getTotalBusyTime() {
-        return totalBusyTime;
+    // Tiempo ocupado acumulado hasta currentTime, no solo hasta el último cambio
+    public double getBusyTimeUntil(double currentTime) {
+        return busyStatistics.getArea() + (type.getUnits() - availableUnits)
+            * (scheduled(currentTime) - busyStatistics.getLastUpdateTime());
+    }
+
+    // Acumulado hasta el último cambio de unidades ocupadas, en tiempo de turno
+    public TimeWeightedStatistics getBusyStatistics() {
+        return busyStatistics;
+    }
+
+    // Reinicia el tiempo ocupado acumulado sin tocar las unidades tomadas
+    public void resetStatistics(double currentTime) {
+        double time = scheduled(currentTime);
+        busyStatistics.advance(time);
+        busyStatistics.reset(time);
+    }
+
+    // Reemplaza el estado dinámico por el guardado en un checkpoint (las
+    // estadísticas de ocupación se restauran aparte, con getBusyStatistics, y
+    // los pedidos en espera con ResourceAllocator)
+    public void restoreState(int availableUnits) {
+        this.availableUnits = availableUnits;
     }
 
     public double getUtilization(double totalTime) {
-        return (totalBusyTime / (totalTime * type.getUnits())) * 100.0;
+        return (busyStatistics.getArea() / (totalTime * type.getUnits())) * 100.0;
     }
 }
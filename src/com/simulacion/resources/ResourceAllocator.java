@@ -0,0 +1,356 @@
+package com.simulacion.resources;
+
+import com.simulacion.entities.EntityKey;
+import com.simulacion.entities.EntityQueue;
+import com.simulacion.entities.EntityStore;
+import com.simulacion.entities.QueueDiscipline;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Asignación de recursos a las entidades que se mueven con ellos. Cada pedido
+// reclama un conjunto de recursos (un reclamo, p. ej. "OPERADOR_EMPACADO AND
+// CAMION") que se toma entero o no se toma: una entidad nunca retiene un
+// recurso mientras espera otro, así que los reclamos que se cruzan no pueden
+// trabarse entre sí.
+//
+// Los pedidos que no pueden atenderse esperan en la cola de su reclamo,
+// ordenada con la disciplina del primer recurso del reclamo. Cada recurso
+// indexa los reclamos que lo incluyen: cuando se libera solo se miran las
+// cabezas de esas colas y se extrae una, así que cada asignación cuesta
+// O(reclamos del recurso + log n) y no recorre las entidades en espera. Como
+// en las colas de locaciones, la clave de cada pedido (una por recurso del
+// reclamo) se calcula al encolarlo.
+//
+// Un recurso con pedidos en espera queda reservado para el primero según su
+// disciplina: si ese pedido no puede tomar su reclamo completo, el recurso
+// espera libre en lugar de pasar a pedidos posteriores, y los pedidos nuevos
+// hacen cola aunque el recurso esté libre. Así una corriente de reclamos de un
+// recurso no posterga para siempre a un reclamo de varios ("OPERADOR_EMPACADO
+// AND CAMION"). La reserva es por recurso: un reclamo que es el primero en uno
+// de sus recursos toma también los demás si están libres, aunque otro pedido
+// vaya antes en ellos; de lo contrario dos reclamos cruzados se esperarían
+// entre sí. Con PRIORITY o SHORTEST_PROCESSING_TIME un pedido puede seguir
+// esperando mientras lleguen otros que van antes, como en cualquier cola con
+// prioridad.
+public class ResourceAllocator {
+    private static final int[] NO_CLAIMS = new int[0];
+
+    private final List<Resource> resources;
+    private final Map<String, Integer> claimIds;
+    private int[][] claims;
+    private EntityQueue[] claimQueues;
+    private int claimCount;
+    // Reclamos que incluyen cada recurso, y pedidos en espera que lo incluyen
+    private int[][] claimsByResource;
+    private int[] waitingByResource;
+
+    // Pedido pendiente por handle de entidad
+    private int[] pendingClaims;
+    private int[] pendingDestinations;
+    private double[] pendingMoveTimes;
+    private long[] pendingSequences;
+    // Clave del pedido para cada recurso del reclamo, en el orden del reclamo
+    private double[][] pendingKeys;
+    private long nextSequence;
+
+    // La lista es la del motor: los recursos declarados después también cuentan
+    public ResourceAllocator(List<Resource> resources) {
+        this.resources = resources;
+        this.claimIds = new HashMap<>();
+        this.claims = new int[4][];
+        this.claimQueues = new EntityQueue[4];
+        this.claimCount = 0;
+        this.claimsByResource = new int[0][];
+        this.waitingByResource = new int[0];
+        this.pendingClaims = new int[16];
+        this.pendingDestinations = new int[16];
+        this.pendingMoveTimes = new double[16];
+        this.pendingSequences = new long[16];
+        this.pendingKeys = new double[16][];
+        this.nextSequence = 0;
+    }
+
+    // Índice del reclamo de esos recursos, en ese orden; se registra la primera
+    // vez. El primer recurso decide el orden de la cola del reclamo
+    public int claimFor(int[] resourceIndices) {
+        String key = Arrays.toString(resourceIndices);
+        Integer existing = claimIds.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (resourceIndices.length == 0) {
+            throw new IllegalArgumentException("Un reclamo necesita al menos un recurso");
+        }
+        for (int i = 0; i < resourceIndices.length; i++) {
+            if (resourceIndices[i] < 0 || resourceIndices[i] >= resources.size()) {
+                throw new IllegalArgumentException("Recurso inválido en el reclamo: " + resourceIndices[i]);
+            }
+            for (int j = 0; j < i; j++) {
+                if (resourceIndices[i] == resourceIndices[j]) {
+                    throw new IllegalArgumentException("Recurso repetido en el reclamo: "
+                        + resources.get(resourceIndices[i]).getType().getName());
+                }
+            }
+        }
+
+        if (claimCount == claims.length) {
+            claims = Arrays.copyOf(claims, claimCount * 2);
+            claimQueues = Arrays.copyOf(claimQueues, claimCount * 2);
+        }
+        if (claimsByResource.length < resources.size()) {
+            int previous = claimsByResource.length;
+            claimsByResource = Arrays.copyOf(claimsByResource, resources.size());
+            Arrays.fill(claimsByResource, previous, claimsByResource.length, NO_CLAIMS);
+            waitingByResource = Arrays.copyOf(waitingByResource, resources.size());
+        }
+        int claim = claimCount++;
+        claims[claim] = resourceIndices.clone();
+        claimQueues[claim] = createQueue(resourceIndices[0]);
+        for (int resourceIndex : resourceIndices) {
+            int[] indexed = Arrays.copyOf(claimsByResource[resourceIndex], claimsByResource[resourceIndex].length + 1);
+            indexed[indexed.length - 1] = claim;
+            claimsByResource[resourceIndex] = indexed;
+        }
+        claimIds.put(key, claim);
+        return claim;
+    }
+
+    // La cola ordena por la clave que el pedido guardó para su primer recurso
+    private EntityQueue createQueue(int resourceIndex) {
+        Resource resource = resources.get(resourceIndex);
+        return resource.getQueueDiscipline().createQueue(entity -> pendingKeys[entity][0]);
+    }
+
+    public int getClaimCount() {
+        return claimCount;
+    }
+
+    public int[] getClaimResources(int claim) {
+        return claims[claim];
+    }
+
+    // Un pedido nuevo puede tomar el reclamo: todos sus recursos tienen una
+    // unidad libre y ninguno está reservado para un pedido en espera
+    public boolean canGrant(int claim) {
+        for (int resourceIndex : claims[claim]) {
+            if (getWaitingCount(resourceIndex) > 0) {
+                return false;
+            }
+        }
+        return isFree(claim);
+    }
+
+    // Todos los recursos del reclamo tienen una unidad libre
+    private boolean isFree(int claim) {
+        for (int resourceIndex : claims[claim]) {
+            if (!resources.get(resourceIndex).isAvailable()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void acquire(int claim, double currentTime) {
+        for (int resourceIndex : claims[claim]) {
+            resources.get(resourceIndex).acquire(currentTime);
+        }
+    }
+
+    // Devuelve las unidades; los pedidos en espera se atienden con nextGrant
+    public void release(int claim, double currentTime) {
+        for (int resourceIndex : claims[claim]) {
+            resources.get(resourceIndex).release(currentTime);
+        }
+    }
+
+    // La entidad espera hasta que el reclamo completo esté libre
+    public void enqueue(int entity, int claim, int destination, double moveTime) {
+        ensureCapacity(entity);
+        int[] claimed = claims[claim];
+        double[] keys = keysFor(entity, claimed.length);
+        for (int i = 0; i < claimed.length; i++) {
+            keys[i] = keyOf(claimed[i], entity);
+        }
+        enqueue(entity, claim, destination, moveTime, nextSequence++);
+    }
+
+    private void enqueue(int entity, int claim, int destination, double moveTime, long sequence) {
+        pendingClaims[entity] = claim;
+        pendingDestinations[entity] = destination;
+        pendingMoveTimes[entity] = moveTime;
+        pendingSequences[entity] = sequence;
+        claimQueues[claim].add(entity);
+        for (int resourceIndex : claims[claim]) {
+            waitingByResource[resourceIndex]++;
+        }
+    }
+
+    private void ensureCapacity(int entity) {
+        if (entity >= pendingClaims.length) {
+            int capacity = Math.max(entity + 1, pendingClaims.length * 2);
+            pendingClaims = Arrays.copyOf(pendingClaims, capacity);
+            pendingDestinations = Arrays.copyOf(pendingDestinations, capacity);
+            pendingMoveTimes = Arrays.copyOf(pendingMoveTimes, capacity);
+            pendingSequences = Arrays.copyOf(pendingSequences, capacity);
+            pendingKeys = Arrays.copyOf(pendingKeys, capacity);
+        }
+    }
+
+    // Arreglo de claves del handle, reusado mientras el largo del reclamo coincida
+    private double[] keysFor(int entity, int length) {
+        double[] keys = pendingKeys[entity];
+        if (keys == null || keys.length != length) {
+            keys = new double[length];
+            pendingKeys[entity] = keys;
+        }
+        return keys;
+    }
+
+    // Clave actual de la entidad para la disciplina del recurso; 0 sin clave
+    private double keyOf(int resourceIndex, int entity) {
+        EntityKey key = resources.get(resourceIndex).getQueueKey();
+        return key != null ? key.keyOf(entity) : 0.0;
+    }
+
+    // Primer pedido en espera para resourceIndex, ya fuera de su cola, si
+    // puede tomar su reclamo completo; EntityStore.NONE si no hay o si no
+    // puede (el recurso queda reservado para él). Entre cabezas de reclamos
+    // distintos decide la disciplina del recurso liberado. El pedido sigue
+    // disponible con getPendingClaim y compañía hasta que se tome
+    public int nextGrant(int resourceIndex) {
+        if (resourceIndex >= waitingByResource.length || waitingByResource[resourceIndex] == 0
+                || !resources.get(resourceIndex).isAvailable()) {
+            return EntityStore.NONE;
+        }
+        int best = EntityStore.NONE;
+        int bestClaim = -1;
+        for (int claim : claimsByResource[resourceIndex]) {
+            EntityQueue queue = claimQueues[claim];
+            if (queue.isEmpty()) {
+                continue;
+            }
+            int head = queue.peek();
+            if (best == EntityStore.NONE || before(resourceIndex, head, claim, best, bestClaim)) {
+                best = head;
+                bestClaim = claim;
+            }
+        }
+        if (!isFree(bestClaim)) {
+            return EntityStore.NONE;
+        }
+        claimQueues[bestClaim].poll();
+        for (int claimed : claims[bestClaim]) {
+            waitingByResource[claimed]--;
+        }
+        return best;
+    }
+
+    // Orden de la disciplina del recurso con las claves guardadas al encolar;
+    // empates por orden de pedido
+    private boolean before(int resourceIndex, int entity, int claim, int other, int otherClaim) {
+        QueueDiscipline.Kind kind = resources.get(resourceIndex).getQueueDiscipline().getKind();
+        if (kind == QueueDiscipline.Kind.PRIORITY || kind == QueueDiscipline.Kind.SHORTEST_PROCESSING_TIME) {
+            double entityKey = pendingKeys[entity][positionOf(claim, resourceIndex)];
+            double otherKey = pendingKeys[other][positionOf(otherClaim, resourceIndex)];
+            if (entityKey != otherKey) {
+                return kind == QueueDiscipline.Kind.PRIORITY ? entityKey > otherKey : entityKey < otherKey;
+            }
+        } else if (kind == QueueDiscipline.Kind.LIFO) {
+            return pendingSequences[entity] > pendingSequences[other];
+        }
+        return pendingSequences[entity] < pendingSequences[other];
+    }
+
+    // Posición del recurso en el reclamo, o -1 si no lo incluye
+    private int positionOf(int claim, int resourceIndex) {
+        int[] claimed = claims[claim];
+        for (int i = 0; i < claimed.length; i++) {
+            if (claimed[i] == resourceIndex) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int getPendingClaim(int entity) {
+        return pendingClaims[entity];
+    }
+
+    public int getPendingDestination(int entity) {
+        return pendingDestinations[entity];
+    }
+
+    public double getPendingMoveTime(int entity) {
+        return pendingMoveTimes[entity];
+    }
+
+    // Pedidos en espera cuyo reclamo incluye el recurso
+    public int getWaitingCount(int resourceIndex) {
+        return resourceIndex < waitingByResource.length ? waitingByResource[resourceIndex] : 0;
+    }
+
+    // El recurso cambió de disciplina: las claves de los pedidos para él se
+    // recalculan y se reordenan las colas que ordena él
+    public void reorder(int resourceIndex) {
+        for (int claim = 0; claim < claimCount; claim++) {
+            int position = positionOf(claim, resourceIndex);
+            if (position < 0) {
+                continue;
+            }
+            for (int entity : claimQueues[claim].toArray()) {
+                pendingKeys[entity][position] = keyOf(resourceIndex, entity);
+            }
+            if (position == 0) {
+                EntityQueue replacement = createQueue(resourceIndex);
+                replacement.addAll(claimQueues[claim].toArray());
+                claimQueues[claim] = replacement;
+            }
+        }
+    }
+
+    // Checkpoints: cada cola en un orden que restoreRequest reproduce, con la
+    // numeración de los pedidos para el orden entre reclamos
+
+    public int[] getWaitingEntities(int claim) {
+        return claimQueues[claim].toArray();
+    }
+
+    public long getPendingSequence(int entity) {
+        return pendingSequences[entity];
+    }
+
+    public double[] getPendingKeys(int entity) {
+        return pendingKeys[entity];
+    }
+
+    public long getNextSequence() {
+        return nextSequence;
+    }
+
+    public void setNextSequence(long nextSequence) {
+        this.nextSequence = nextSequence;
+    }
+
+    // Vacía las colas; los reclamos registrados se conservan
+    public void clearWaiting() {
+        for (int claim = 0; claim < claimCount; claim++) {
+            claimQueues[claim].clear();
+        }
+        Arrays.fill(waitingByResource, 0);
+    }
+
+    // Con las claves guardadas: la cola queda en el mismo orden aunque los
+    // atributos hayan cambiado desde que la entidad pidió
+    public void restoreRequest(int entity, int claim, int destination, double moveTime, long sequence,
+                               double[] keys) {
+        if (keys.length != claims[claim].length) {
+            throw new IllegalArgumentException("Cantidad de claves distinta del reclamo " + claim + ": " + keys.length);
+        }
+        ensureCapacity(entity);
+        System.arraycopy(keys, 0, keysFor(entity, keys.length), 0, keys.length);
+        enqueue(entity, claim, destination, moveTime, sequence);
+    }
+}
@@ -1,19 +1,28 @@
 package com.simulacion.resources;
 
+import com.simulacion.statistics.TimeWeightedStatistics;
+
 public class ResourceStatistics {
     private final String resourceName;
     private int units;
     private double utilizationPercent;
     private double averageMinutesPerTrip;
     private int totalTrips;
+    private TimeWeightedStatistics busyDistribution;
 
     public ResourceStatistics(String resourceName) {
         this.resourceName = resourceName;
+        this.busyDistribution = new TimeWeightedStatistics();
     }
 
     public void calculate(Resource resource, double totalTime, int trips, double totalTripTime) {
         this.units = resource.getType().getUnits();
-        this.utilizationPercent = resource.getUtilization(totalTime);
+        // Cerrado al final de la corrida, incluido el tramo desde el último cambio
+        TimeWeightedStatistics busy = resource.getBusyStatistics();
+        this.busyDistribution = busy.copyUntil(busy.getStartTime() + totalTime);
+        this.utilizationPercent = totalTime > 0 && units > 0
+            ? busyDistribution.getArea() / (totalTime * units) * 100.0
+            : 0.0;
         this.totalTrips = trips;
         
         if (trips > 0) {
@@ -27,4 +36,10 @@ public class ResourceStatistics {
     public double getUtilizationPercent() { return utilizationPercent; }
     public double getAverageMinutesPerTrip() { return averageMinutesPerTrip; }
     public int getTotalTrips() { return totalTrips; }
+    public int getMaxBusyUnits() { return busyDistribution.getMax(); }
+    public int getMinBusyUnits() { return busyDistribution.getMin(); }
+    public double getAverageBusyUnits() { return busyDistribution.getMean(); }
+    public double getBusyUnitsStandardDeviation() { return busyDistribution.getStandardDeviation(); }
+    // Tiempo con cada cantidad de unidades ocupadas durante el período medido
+    public TimeWeightedStatistics getBusyDistribution() { return busyDistribution; }
 }
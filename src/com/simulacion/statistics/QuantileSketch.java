@@ -0,0 +1,185 @@
+package com.simulacion.statistics;
+
+// Histograma de cubetas logarítmicas para percentiles con memoria acotada
+// (estilo DDSketch): la cubeta i cubre (gamma^(i-1), gamma^i], así que el valor
+// devuelto para un percentil tiene error relativo menor a RELATIVE_ACCURACY.
+// Dos bosquejos se combinan sumando cubetas, sin perder precisión.
+public class QuantileSketch {
+    public static final double RELATIVE_ACCURACY = 0.01;
+    // Con 1% de error, 2048 cubetas cubren más de 17 órdenes de magnitud
+    public static final int MAX_BUCKETS = 2048;
+    // Por debajo de este valor las observaciones cuentan como cero
+    private static final double MIN_INDEXABLE = 1e-9;
+    // Índice de bucketIndex para las observaciones que cuentan como cero
+    public static final int ZERO_BUCKET = Integer.MIN_VALUE;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    private long zeroCount;
+    private long count;
+    private double min;
+    private double max;
+    // counts[k] es la cubeta de índice firstIndex + k
+    private long[] counts;
+    private int firstIndex;
+
+    public QuantileSketch() {
+        this.zeroCount = 0;
+        this.count = 0;
+        this.min = Double.MAX_VALUE;
+        this.max = 0;
+        this.counts = new long[0];
+        this.firstIndex = 0;
+    }
+
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    public void add(double value, long times) {
+        if (Double.isNaN(value) || times <= 0) {
+            return;
+        }
+        count += times;
+        // Tiempos de simulación: un negativo solo puede ser redondeo
+        double clamped = Math.max(value, 0);
+        min = Math.min(min, clamped);
+        max = Math.max(max, clamped);
+        int index = bucketIndex(clamped);
+        if (index == ZERO_BUCKET) {
+            zeroCount += times;
+            return;
+        }
+        // slotFor puede reemplazar el arreglo: se resuelve antes de indexar
+        int slot = slotFor(index);
+        counts[slot] += times;
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        count += other.count;
+        zeroCount += other.zeroCount;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        for (int k = 0; k < other.counts.length; k++) {
+            if (other.counts[k] != 0) {
+                int slot = slotFor(other.firstIndex + k);
+                counts[slot] += other.counts[k];
+            }
+        }
+    }
+
+    public QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch();
+        copy.merge(this);
+        return copy;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return count > 0 ? min : 0;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    // Percentil q en [0, 1]; 0 si no hay observaciones
+    public double getQuantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("El percentil debe estar entre 0 y 1: " + q);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.floor(q * (count - 1));
+        // Los extremos se conocen exactos, aunque se hayan juntado cubetas
+        if (rank == 0 || rank < zeroCount) {
+            return getMin();
+        }
+        if (rank == count - 1) {
+            return max;
+        }
+        long seen = zeroCount;
+        for (int k = 0; k < counts.length; k++) {
+            seen += counts[k];
+            if (seen > rank) {
+                // Punto medio relativo de la cubeta, acotado por los extremos exactos
+                double value = 2 * Math.pow(GAMMA, firstIndex + k) / (GAMMA + 1);
+                return Math.max(min, Math.min(max, value));
+            }
+        }
+        return max;
+    }
+
+    // Estado interno, para checkpoints
+    public long getZeroCount() {
+        return zeroCount;
+    }
+
+    public int getFirstIndex() {
+        return firstIndex;
+    }
+
+    public long[] getBucketCounts() {
+        return counts.clone();
+    }
+
+    public void restore(long count, double min, double max, long zeroCount, int firstIndex, long[] bucketCounts) {
+        if (bucketCounts.length > MAX_BUCKETS) {
+            throw new IllegalArgumentException("Demasiadas cubetas: " + bucketCounts.length);
+        }
+        this.count = count;
+        this.min = min;
+        this.max = max;
+        this.zeroCount = zeroCount;
+        this.firstIndex = firstIndex;
+        this.counts = bucketCounts.clone();
+    }
+
+    // Cubeta de un valor, para quien lleva las cuentas en sus propios arreglos
+    // y arma el bosquejo con restore
+    public static int bucketIndex(double value) {
+        double clamped = Math.max(value, 0);
+        if (clamped < MIN_INDEXABLE) {
+            return ZERO_BUCKET;
+        }
+        return (int) Math.ceil(Math.log(clamped) / LOG_GAMMA);
+    }
+
+    // Posición de la cubeta en el arreglo, ampliándolo si hace falta. Si el rango
+    // supera MAX_BUCKETS se juntan las cubetas más bajas: los percentiles altos,
+    // que son los que importan en tiempos de espera, conservan su precisión.
+    private int slotFor(int index) {
+        if (counts.length == 0) {
+            counts = new long[16];
+            firstIndex = index - 8;
+        }
+        int last = firstIndex + counts.length - 1;
+        if (index >= firstIndex && index <= last) {
+            return index - firstIndex;
+        }
+
+        int low = Math.min(firstIndex, index);
+        int high = Math.max(last, index);
+        if (high - low + 1 > MAX_BUCKETS) {
+            low = high - MAX_BUCKETS + 1;
+        }
+        // Crece al doble para amortizar, dejando el espacio libre del lado que creció
+        int length = Math.min(MAX_BUCKETS, Math.max(high - low + 1, counts.length * 2));
+        int newFirst = index < firstIndex ? high - length + 1 : low;
+        long[] grown = new long[length];
+        for (int k = 0; k < counts.length; k++) {
+            grown[Math.max(firstIndex + k, newFirst) - newFirst] += counts[k];
+        }
+        counts = grown;
+        firstIndex = newFirst;
+        return Math.max(index, newFirst) - newFirst;
+    }
+}
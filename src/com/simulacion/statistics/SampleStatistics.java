@@ -0,0 +1,92 @@
+package com.simulacion.statistics;
+
+import org.apache.commons.math3.distribution.TDistribution;
+
+// Media y varianza por el método de Welford, con intervalo de confianza t de Student
+public class SampleStatistics {
+    private long count;
+    private double mean;
+    private double sumSquaredDeviations;
+    private double min;
+    private double max;
+
+    public SampleStatistics() {
+        this.count = 0;
+        this.mean = 0;
+        this.sumSquaredDeviations = 0;
+        this.min = Double.MAX_VALUE;
+        this.max = -Double.MAX_VALUE;
+    }
+
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        sumSquaredDeviations += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public void merge(SampleStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            sumSquaredDeviations = other.sumSquaredDeviations;
+            min = other.min;
+            max = other.max;
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        sumSquaredDeviations += other.sumSquaredDeviations + delta * delta * count * other.count / total;
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getVariance() {
+        return count > 1 ? sumSquaredDeviations / (count - 1) : 0;
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    public double getMin() {
+        return count > 0 ? min : 0;
+    }
+
+    public double getMax() {
+        return count > 0 ? max : 0;
+    }
+
+    // Semiancho del intervalo; infinito mientras no haya al menos dos observaciones
+    public double getHalfWidth(double confidenceLevel) {
+        if (count < 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double alpha = 1.0 - confidenceLevel;
+        double t = new TDistribution(count - 1).inverseCumulativeProbability(1.0 - alpha / 2.0);
+        return t * getStandardDeviation() / Math.sqrt(count);
+    }
+
+    public double getLowerBound(double confidenceLevel) {
+        return mean - getHalfWidth(confidenceLevel);
+    }
+
+    public double getUpperBound(double confidenceLevel) {
+        return mean + getHalfWidth(confidenceLevel);
+    }
+}
@@ -1,41 +1,65 @@
 package com.simulacion.statistics;
 
-import com.simulacion.entities.Entity;
+import com.simulacion.entities.EntityStore;
 import com.simulacion.entities.EntityStatistics;
 import com.simulacion.locations.Location;
 import com.simulacion.locations.LocationStatistics;
+import com.simulacion.resources.Resource;
+import com.simulacion.resources.ResourceStatistics;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class StatisticsCollector {
     private final Map<String, EntityStatistics> entityStats;
     private final Map<String, LocationStatistics> locationStats;
     private final Map<String, Integer> locationEntries;
     private final Map<String, Double> locationTotalTime;
+    private final Map<String, QuantileSketch> locationTimeDistributions;
+    private final Map<String, ResourceStatistics> resourceStats;
+    private final Map<String, Integer> resourceTrips;
+    private final Map<String, Double> resourceTripTime;
 
     public StatisticsCollector() {
         this.entityStats = new HashMap<>();
-        this.locationStats = new HashMap<>();
-        this.locationEntries = new HashMap<>();
-        this.locationTotalTime = new HashMap<>();
+        // Las filas del reporte salen en el orden en que se calculan
+        this.locationStats = new LinkedHashMap<>();
+        // Eventos simultáneos de locaciones distintas pueden registrar en paralelo
+        this.locationEntries = new ConcurrentHashMap<>();
+        this.locationTotalTime = new ConcurrentHashMap<>();
+        // Cada bosquejo lo actualizan solo los eventos de su locación, que no corren en paralelo
+        this.locationTimeDistributions = new ConcurrentHashMap<>();
+        this.resourceStats = new HashMap<>();
+        this.resourceTrips = new ConcurrentHashMap<>();
+        this.resourceTripTime = new ConcurrentHashMap<>();
     }
 
-    public void recordEntityExit(Entity entity) {
-        String entityName = entity.getType().getName();
+    public void recordEntityExit(String entityName, EntityStore entities, int entity) {
         entityStats.putIfAbsent(entityName, new EntityStatistics(entityName));
-        entityStats.get(entityName).recordExit(entity);
+        entityStats.get(entityName).recordExit(entities, entity);
     }
 
     public void recordLocationEntry(String locationName) {
-        locationEntries.put(locationName, locationEntries.getOrDefault(locationName, 0) + 1);
+        locationEntries.merge(locationName, 1, Integer::sum);
     }
 
     public void recordLocationProcessingTime(String locationName, double time) {
-        locationTotalTime.put(locationName, locationTotalTime.getOrDefault(locationName, 0.0) + time);
+        locationTotalTime.merge(locationName, time, Double::sum);
+        locationTimeDistributions.computeIfAbsent(locationName, name -> new QuantileSketch()).add(time);
     }
 
-    public void calculateLocationStatistics(Map<String, Location> locations, double totalSimulationTime) {
+    public void recordResourceTrip(String resourceName, double moveTime) {
+        resourceTrips.merge(resourceName, 1, Integer::sum);
+        resourceTripTime.merge(resourceName, moveTime, Double::sum);
+    }
+
+    // Cada locación se mide sobre su tiempo de turno entre startTime y endTime
+    public void calculateLocationStatistics(Map<String, Location> locations, double startTime, double endTime) {
         for (Map.Entry<String, Location> entry : locations.entrySet()) {
             String name = entry.getKey();
             Location location = entry.getValue();
@@ -44,11 +68,119 @@ public class StatisticsCollector {
             int entries = locationEntries.getOrDefault(name, 0);
             double totalTime = locationTotalTime.getOrDefault(name, 0.0);
             
-            stats.calculate(location, totalSimulationTime, entries, totalTime);
+            stats.calculate(location, location.getScheduledTime(startTime, endTime), entries, totalTime);
+            QuantileSketch distribution = locationTimeDistributions.get(name);
+            if (distribution != null) {
+                stats.setTimePerEntryDistribution(distribution.copy());
+            }
             locationStats.put(name, stats);
         }
     }
 
+    public void calculateResourceStatistics(Map<String, Resource> resources, double startTime, double endTime) {
+        for (Map.Entry<String, Resource> entry : resources.entrySet()) {
+            String name = entry.getKey();
+            Resource resource = entry.getValue();
+            ResourceStatistics stats = new ResourceStatistics(name);
+            stats.calculate(resource, resource.getScheduledTime(startTime, endTime),
+                resourceTrips.getOrDefault(name, 0), resourceTripTime.getOrDefault(name, 0.0));
+            resourceStats.put(name, stats);
+        }
+    }
+
+    // Incorpora las entidades de otro colector y las locaciones indicadas, que
+    // deben ser propiedad exclusiva de ese colector
+    public void mergeFrom(StatisticsCollector other, Collection<String> ownedLocations) {
+        for (EntityStatistics stats : other.entityStats.values()) {
+            String entityName = stats.getEntityName();
+            entityStats.putIfAbsent(entityName, new EntityStatistics(entityName));
+            entityStats.get(entityName).merge(stats);
+        }
+        for (String name : ownedLocations) {
+            if (other.locationStats.containsKey(name)) {
+                locationStats.put(name, other.locationStats.get(name));
+            }
+            if (other.locationEntries.containsKey(name)) {
+                locationEntries.put(name, other.locationEntries.get(name));
+            }
+            if (other.locationTotalTime.containsKey(name)) {
+                locationTotalTime.put(name, other.locationTotalTime.get(name));
+            }
+            if (other.locationTimeDistributions.containsKey(name)) {
+                locationTimeDistributions.put(name, other.locationTimeDistributions.get(name));
+            }
+        }
+        // Cada recurso lo usa una sola partición; en las demás queda ocioso
+        for (ResourceStatistics stats : other.resourceStats.values()) {
+            String name = stats.getResourceName();
+            if (stats.getTotalTrips() > 0 || !resourceStats.containsKey(name)) {
+                resourceStats.put(name, stats);
+            }
+        }
+        for (Map.Entry<String, Integer> entry : other.resourceTrips.entrySet()) {
+            resourceTrips.put(entry.getKey(), entry.getValue());
+            resourceTripTime.put(entry.getKey(), other.resourceTripTime.getOrDefault(entry.getKey(), 0.0));
+        }
+    }
+
+    // Reordena las filas de locaciones; las que no figuran en names quedan al final
+    public void orderLocations(List<String> names) {
+        Map<String, LocationStatistics> ordered = new LinkedHashMap<>();
+        for (String name : names) {
+            LocationStatistics stats = locationStats.get(name);
+            if (stats != null) {
+                ordered.put(name, stats);
+            }
+        }
+        for (Map.Entry<String, LocationStatistics> entry : locationStats.entrySet()) {
+            ordered.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+        locationStats.clear();
+        locationStats.putAll(ordered);
+    }
+
+    // Contadores por locación acumulados durante la corrida
+    public Map<String, Integer> getLocationEntryCounts() {
+        return Collections.unmodifiableMap(locationEntries);
+    }
+
+    public Map<String, Double> getLocationProcessingTimes() {
+        return Collections.unmodifiableMap(locationTotalTime);
+    }
+
+    public Map<String, QuantileSketch> getLocationTimeDistributions() {
+        return Collections.unmodifiableMap(locationTimeDistributions);
+    }
+
+    public Map<String, Integer> getResourceTripCounts() {
+        return Collections.unmodifiableMap(resourceTrips);
+    }
+
+    public Map<String, Double> getResourceTripTimes() {
+        return Collections.unmodifiableMap(resourceTripTime);
+    }
+
+    public void restoreResourceCounters(String resourceName, int trips, double totalTripTime) {
+        resourceTrips.put(resourceName, trips);
+        resourceTripTime.put(resourceName, totalTripTime);
+    }
+
+    public void restoreLocationCounters(String locationName, int entries, double totalProcessingTime,
+                                        QuantileSketch timeDistribution) {
+        locationEntries.put(locationName, entries);
+        locationTotalTime.put(locationName, totalProcessingTime);
+        locationTimeDistributions.put(locationName, timeDistribution);
+    }
+
+    // Registro directo de estadísticas ya calculadas fuera del colector
+    public void addEntityStatistics(EntityStatistics stats) {
+        entityStats.put(stats.getEntityName(), stats);
+    }
+
+    public void addLocationStatistics(LocationStatistics stats) {
+        locationStats.put(stats.getLocationName(), stats);
+    }
+
     public EntityReport generateEntityReport(double simulationTime) {
         return new EntityReport(entityStats, simulationTime);
     }
@@ -65,10 +197,18 @@ public class StatisticsCollector {
         return locationStats;
     }
 
+    public Map<String, ResourceStatistics> getResourceStats() {
+        return resourceStats;
+    }
+
     public void reset() {
         entityStats.clear();
         locationStats.clear();
         locationEntries.clear();
         locationTotalTime.clear();
+        locationTimeDistributions.clear();
+        resourceStats.clear();
+        resourceTrips.clear();
+        resourceTripTime.clear();
     }
 }
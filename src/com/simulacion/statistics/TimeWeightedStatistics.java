@@ -0,0 +1,154 @@
+package com.simulacion.statistics;
+
+import java.util.Arrays;
+
+// Estadísticas ponderadas por tiempo de un nivel entero (contenido de una
+// locación, unidades ocupadas de un recurso). Cada cambio cuesta O(1): el nivel
+// anterior se acumula por lo que duró, sin guardar nada por evento. El
+// histograma tiene una celda por nivel hasta el máximo observado.
+public class TimeWeightedStatistics {
+    private int level;
+    private double startTime;
+    private double lastUpdateTime;
+    // Integrales del nivel y de su cuadrado desde startTime hasta lastUpdateTime
+    private double area;
+    private double squareArea;
+    private int min;
+    private int max;
+    private double[] timeAtLevel;
+
+    public TimeWeightedStatistics() {
+        this.level = 0;
+        this.startTime = 0;
+        this.lastUpdateTime = 0;
+        this.area = 0;
+        this.squareArea = 0;
+        this.min = 0;
+        this.max = 0;
+        this.timeAtLevel = new double[4];
+    }
+
+    // El nivel pasa a newLevel en time
+    public void update(double time, int newLevel) {
+        advance(time);
+        level = newLevel;
+        min = Math.min(min, newLevel);
+        max = Math.max(max, newLevel);
+    }
+
+    // Acumula el nivel vigente hasta time sin cambiarlo
+    public void advance(double time) {
+        double delta = time - lastUpdateTime;
+        if (delta > 0) {
+            area += level * delta;
+            squareArea += (double) level * level * delta;
+            int cell = Math.max(level, 0);
+            if (cell >= timeAtLevel.length) {
+                timeAtLevel = Arrays.copyOf(timeAtLevel, Math.max(cell + 1, timeAtLevel.length * 2));
+            }
+            timeAtLevel[cell] += delta;
+        }
+        lastUpdateTime = time;
+    }
+
+    // Descarta lo acumulado; el período medido empieza en time con el nivel actual
+    public void reset(double time) {
+        startTime = time;
+        lastUpdateTime = time;
+        area = 0;
+        squareArea = 0;
+        min = level;
+        max = level;
+        Arrays.fill(timeAtLevel, 0);
+    }
+
+    // Copia acumulada hasta time, sin tocar esta (p. ej. para cerrar un reporte)
+    public TimeWeightedStatistics copyUntil(double time) {
+        TimeWeightedStatistics copy = new TimeWeightedStatistics();
+        copy.restore(level, startTime, lastUpdateTime, area, squareArea, min, max, timeAtLevel);
+        copy.advance(Math.max(time, lastUpdateTime));
+        return copy;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public double getStartTime() {
+        return startTime;
+    }
+
+    public double getLastUpdateTime() {
+        return lastUpdateTime;
+    }
+
+    // Integral del nivel en el tiempo (p. ej. minutos-entidad de ocupación)
+    public double getArea() {
+        return area;
+    }
+
+    public double getSquareArea() {
+        return squareArea;
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    public double getElapsedTime() {
+        return lastUpdateTime - startTime;
+    }
+
+    public double getMean() {
+        double elapsed = getElapsedTime();
+        return elapsed > 0 ? area / elapsed : level;
+    }
+
+    public double getVariance() {
+        double elapsed = getElapsedTime();
+        if (elapsed <= 0) {
+            return 0;
+        }
+        double mean = area / elapsed;
+        return Math.max(0, squareArea / elapsed - mean * mean);
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    // Cantidad de celdas del histograma: niveles 0 a getLevelCount() - 1
+    public int getLevelCount() {
+        int count = timeAtLevel.length;
+        while (count > 0 && timeAtLevel[count - 1] == 0) {
+            count--;
+        }
+        return count;
+    }
+
+    public double getTimeAtLevel(int level) {
+        return level >= 0 && level < timeAtLevel.length ? timeAtLevel[level] : 0;
+    }
+
+    public double getFractionAtLevel(int level) {
+        double elapsed = getElapsedTime();
+        return elapsed > 0 ? getTimeAtLevel(level) / elapsed : 0;
+    }
+
+    // Reemplaza el estado, para checkpoints
+    public void restore(int level, double startTime, double lastUpdateTime, double area, double squareArea,
+                        int min, int max, double[] timeAtLevel) {
+        this.level = level;
+        this.startTime = startTime;
+        this.lastUpdateTime = lastUpdateTime;
+        this.area = area;
+        this.squareArea = squareArea;
+        this.min = min;
+        this.max = max;
+        this.timeAtLevel = Arrays.copyOf(timeAtLevel, Math.max(4, timeAtLevel.length));
+    }
+}
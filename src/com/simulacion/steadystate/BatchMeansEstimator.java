@@ -0,0 +1,103 @@
+package com.simulacion.steadystate;
+
+import com.simulacion.statistics.SampleStatistics;
+
+// Medias por lotes con tamaño de lote creciente: cuando se completan el doble
+// de los lotes buscados, se unen de a pares y el tamaño se duplica. Así la
+// cantidad de lotes queda entre batchCount y 2 * batchCount y los lotes se
+// alargan hasta que sus medias son casi independientes. Cada lote guarda suma
+// y peso, y su media es el cociente, igual que la serie observada.
+public class BatchMeansEstimator {
+    private final int batchCount;
+    private final double[] batchSums;
+    private final double[] batchWeights;
+    private int completedBatches;
+    private long batchSize;
+    private double partialSum;
+    private double partialWeight;
+    private long partialCount;
+    private double totalSum;
+    private double totalWeight;
+
+    public BatchMeansEstimator(int batchCount) {
+        if (batchCount < 2) {
+            throw new IllegalArgumentException("Se requieren al menos dos lotes");
+        }
+        this.batchCount = batchCount;
+        this.batchSums = new double[batchCount * 2];
+        this.batchWeights = new double[batchCount * 2];
+        this.completedBatches = 0;
+        this.batchSize = 1;
+        this.partialSum = 0;
+        this.partialWeight = 0;
+        this.partialCount = 0;
+    }
+
+    public void add(double sum, double weight) {
+        totalSum += sum;
+        totalWeight += weight;
+        partialSum += sum;
+        partialWeight += weight;
+        if (++partialCount < batchSize) {
+            return;
+        }
+
+        batchSums[completedBatches] = partialSum;
+        batchWeights[completedBatches] = partialWeight;
+        completedBatches++;
+        partialSum = 0;
+        partialWeight = 0;
+        partialCount = 0;
+
+        if (completedBatches == batchSums.length) {
+            for (int i = 0; i < batchCount; i++) {
+                batchSums[i] = batchSums[2 * i] + batchSums[2 * i + 1];
+                batchWeights[i] = batchWeights[2 * i] + batchWeights[2 * i + 1];
+            }
+            completedBatches = batchCount;
+            batchSize *= 2;
+        }
+    }
+
+    // Medias de los lotes completos; el lote en curso no entra en el intervalo
+    public SampleStatistics getBatchMeans() {
+        SampleStatistics sample = new SampleStatistics();
+        for (int i = 0; i < completedBatches; i++) {
+            if (batchWeights[i] > 0) {
+                sample.add(batchSums[i] / batchWeights[i]);
+            }
+        }
+        return sample;
+    }
+
+    // Media de todas las observaciones, incluido el lote en curso
+    public double getMean() {
+        return totalWeight > 0 ? totalSum / totalWeight : 0;
+    }
+
+    // Infinito mientras no haya batchCount lotes completos
+    public double getHalfWidth(double confidenceLevel) {
+        if (completedBatches < batchCount) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return getBatchMeans().getHalfWidth(confidenceLevel);
+    }
+
+    public boolean isMet(double relativePrecision, double confidenceLevel) {
+        double halfWidth = getHalfWidth(confidenceLevel);
+        if (halfWidth == 0) {
+            return true;
+        }
+        double mean = Math.abs(getMean());
+        return mean > 0 && halfWidth / mean <= relativePrecision;
+    }
+
+    public int getCompletedBatches() {
+        return completedBatches;
+    }
+
+    // Observaciones por lote
+    public long getBatchSize() {
+        return batchSize;
+    }
+}
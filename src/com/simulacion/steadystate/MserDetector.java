@@ -0,0 +1,99 @@
+package com.simulacion.steadystate;
+
+import java.util.Arrays;
+
+// Regla MSER-5 de truncamiento del calentamiento: las observaciones se agrupan
+// de a BATCH_SIZE y se elige el punto d que minimiza la varianza de la media de
+// los lotes restantes dividida por su cantidad. El punto solo se acepta si cae
+// en la primera mitad de la serie; si no, la serie todavía es corta.
+public class MserDetector {
+    public static final int BATCH_SIZE = 5;
+
+    private final int minimumBatches;
+    private double[] batchMeans;
+    private double[] batchStartTimes;
+    private int batchCount;
+    private double partialSum;
+    private int partialCount;
+    private double partialStartTime;
+    private int truncationBatch;
+
+    public MserDetector(int minimumBatches) {
+        if (minimumBatches < 2) {
+            throw new IllegalArgumentException("MSER necesita al menos dos lotes");
+        }
+        this.minimumBatches = minimumBatches;
+        this.batchMeans = new double[64];
+        this.batchStartTimes = new double[64];
+        this.batchCount = 0;
+        this.partialSum = 0;
+        this.partialCount = 0;
+        this.truncationBatch = -1;
+    }
+
+    // startTime es el comienzo del intervalo de la observación
+    public void add(double value, double startTime) {
+        if (partialCount == 0) {
+            partialStartTime = startTime;
+        }
+        partialSum += value;
+        if (++partialCount < BATCH_SIZE) {
+            return;
+        }
+
+        if (batchCount == batchMeans.length) {
+            batchMeans = Arrays.copyOf(batchMeans, batchCount * 2);
+            batchStartTimes = Arrays.copyOf(batchStartTimes, batchCount * 2);
+        }
+        batchMeans[batchCount] = partialSum / BATCH_SIZE;
+        batchStartTimes[batchCount] = partialStartTime;
+        batchCount++;
+        partialSum = 0;
+        partialCount = 0;
+        if (batchCount >= minimumBatches) {
+            evaluate();
+        }
+    }
+
+    // Recorre los puntos de corte desde el final con sumas de sufijos: O(lotes)
+    private void evaluate() {
+        double sum = 0;
+        double sumSquares = 0;
+        double best = Double.POSITIVE_INFINITY;
+        int bestBatch = -1;
+        for (int d = batchCount - 1; d >= 0; d--) {
+            double z = batchMeans[d];
+            sum += z;
+            sumSquares += z * z;
+            int remaining = batchCount - d;
+            if (remaining < 2) {
+                continue;
+            }
+            double statistic = Math.max(0, sumSquares - sum * sum / remaining) / ((double) remaining * remaining);
+            // Ante empates gana el corte más temprano
+            if (statistic <= best) {
+                best = statistic;
+                bestBatch = d;
+            }
+        }
+        truncationBatch = bestBatch >= 0 && bestBatch <= batchCount / 2 ? bestBatch : -1;
+    }
+
+    public boolean isDetected() {
+        return truncationBatch >= 0;
+    }
+
+    // Cantidad de observaciones a descartar; -1 mientras no se detectó
+    public int getTruncationObservations() {
+        return truncationBatch >= 0 ? truncationBatch * BATCH_SIZE : -1;
+    }
+
+    // Comienzo del primer intervalo que se conserva; NaN mientras no se detectó
+    public double getTruncationTime() {
+        return truncationBatch >= 0 ? batchStartTimes[truncationBatch] : Double.NaN;
+    }
+
+    public int getBatchCount() {
+        return batchCount;
+    }
+}
@@ -0,0 +1,90 @@
+package com.simulacion.steadystate;
+
+import com.simulacion.core.SimulationEngine;
+import com.simulacion.entities.EntityStatistics;
+
+// Serie de salida que se observa por intervalos de la corrida. Cada serie lee
+// dos acumulados del motor (suma y peso) y la observación de un intervalo es
+// el cociente de sus incrementos, así que la media de todos los intervalos
+// coincide con la que reportan las estadísticas del mismo período.
+public abstract class OutputSeries {
+    private final String name;
+    private double lastSum;
+    private double lastWeight;
+    private double intervalSum;
+    private double intervalWeight;
+
+    protected OutputSeries(String name) {
+        this.name = name;
+    }
+
+    // Tiempo en sistema promedio de las entidades del tipo que salen en el intervalo
+    public static OutputSeries entitySystemTime(String entityName) {
+        return new OutputSeries(entityName + " - Tiempo En Sistema") {
+            @Override
+            protected double cumulativeSum(SimulationEngine engine) {
+                EntityStatistics stats = engine.getStatistics().getEntityStats().get(entityName);
+                return stats != null ? stats.getTotalSystemTime() : 0;
+            }
+
+            @Override
+            protected double cumulativeWeight(SimulationEngine engine) {
+                EntityStatistics stats = engine.getStatistics().getEntityStats().get(entityName);
+                return stats != null ? stats.getTotalExits() : 0;
+            }
+        };
+    }
+
+    // Contenido promedio de la locación en el intervalo, ponderado por su tiempo de turno
+    public static OutputSeries locationContents(String locationName) {
+        return new OutputSeries(locationName + " - Contenido") {
+            @Override
+            protected double cumulativeSum(SimulationEngine engine) {
+                return engine.getLocation(locationName).getOccupancyTimeUntil(engine.getClock().getCurrentTime());
+            }
+
+            @Override
+            protected double cumulativeWeight(SimulationEngine engine) {
+                return engine.getLocation(locationName).getScheduledTime(0, engine.getClock().getCurrentTime());
+            }
+        };
+    }
+
+    protected abstract double cumulativeSum(SimulationEngine engine);
+
+    protected abstract double cumulativeWeight(SimulationEngine engine);
+
+    // Toma los acumulados actuales como origen (al empezar o después de reiniciar estadísticas)
+    void restart(SimulationEngine engine) {
+        lastSum = cumulativeSum(engine);
+        lastWeight = cumulativeWeight(engine);
+    }
+
+    // Cierra el intervalo en el tiempo actual; false si no tuvo observaciones
+    boolean advance(SimulationEngine engine) {
+        double sum = cumulativeSum(engine);
+        double weight = cumulativeWeight(engine);
+        intervalSum = sum - lastSum;
+        intervalWeight = weight - lastWeight;
+        lastSum = sum;
+        lastWeight = weight;
+        return intervalWeight > 0;
+    }
+
+    double getIntervalSum() {
+        return intervalSum;
+    }
+
+    double getIntervalWeight() {
+        return intervalWeight;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
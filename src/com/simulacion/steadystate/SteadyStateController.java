@@ -0,0 +1,137 @@
+package com.simulacion.steadystate;
+
+import com.simulacion.core.SimulationEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Corrida de estado estable: avanza el motor de a samplingInterval minutos y
+// observa las series elegidas. Primero busca el fin del calentamiento con
+// MSER-5 en todas las series; al detectarlo reinicia las estadísticas del motor
+// y desde ahí acumula medias por lotes hasta que todos los intervalos de
+// confianza alcanzan su precisión relativa o se llega a maxTime. El reinicio
+// ocurre en el instante de la detección, así que el reporte del motor y los
+// intervalos cubren el mismo período.
+public class SteadyStateController {
+    private final SimulationEngine engine;
+    private final double samplingInterval;
+    private final double maxTime;
+    private final List<OutputSeries> series;
+    private final List<Double> relativePrecisions;
+    private double confidenceLevel;
+    private int batchCount;
+    private int minimumWarmupBatches;
+
+    public SteadyStateController(SimulationEngine engine, double samplingInterval, double maxTime) {
+        if (samplingInterval <= 0) {
+            throw new IllegalArgumentException("El intervalo de muestreo debe ser positivo");
+        }
+        if (maxTime <= engine.getClock().getCurrentTime()) {
+            throw new IllegalArgumentException("El tiempo máximo debe ser posterior al reloj actual");
+        }
+        this.engine = engine;
+        this.samplingInterval = samplingInterval;
+        this.maxTime = maxTime;
+        this.series = new ArrayList<>();
+        this.relativePrecisions = new ArrayList<>();
+        this.confidenceLevel = 0.95;
+        this.batchCount = 20;
+        this.minimumWarmupBatches = 20;
+    }
+
+    // relativePrecision: semiancho buscado como fracción de la media (p. ej. 0.05)
+    public void addSeries(OutputSeries outputSeries, double relativePrecision) {
+        if (relativePrecision <= 0) {
+            throw new IllegalArgumentException("La precisión debe ser positiva: " + relativePrecision);
+        }
+        series.add(outputSeries);
+        relativePrecisions.add(relativePrecision);
+    }
+
+    public void setConfidenceLevel(double confidenceLevel) {
+        if (confidenceLevel <= 0 || confidenceLevel >= 1) {
+            throw new IllegalArgumentException("El nivel de confianza debe estar entre 0 y 1");
+        }
+        this.confidenceLevel = confidenceLevel;
+    }
+
+    // Lotes mínimos del intervalo de confianza (se usan entre este valor y el doble)
+    public void setBatchCount(int batchCount) {
+        if (batchCount < 2) {
+            throw new IllegalArgumentException("Se requieren al menos dos lotes");
+        }
+        this.batchCount = batchCount;
+    }
+
+    // Lotes de MSER-5 antes de aceptar un punto de truncamiento
+    public void setMinimumWarmupBatches(int minimumWarmupBatches) {
+        if (minimumWarmupBatches < 2) {
+            throw new IllegalArgumentException("MSER necesita al menos dos lotes");
+        }
+        this.minimumWarmupBatches = minimumWarmupBatches;
+    }
+
+    public SteadyStateResult run() {
+        if (series.isEmpty()) {
+            throw new IllegalStateException("No hay series de salida para observar");
+        }
+        int count = series.size();
+        MserDetector[] detectors = new MserDetector[count];
+        BatchMeansEstimator[] estimators = new BatchMeansEstimator[count];
+        for (int i = 0; i < count; i++) {
+            detectors[i] = new MserDetector(minimumWarmupBatches);
+            estimators[i] = new BatchMeansEstimator(batchCount);
+            series.get(i).restart(engine);
+        }
+
+        double time = engine.getClock().getCurrentTime();
+        double detectionTime = Double.NaN;
+        boolean precisionMet = false;
+        while (time < maxTime) {
+            double start = time;
+            double end = Math.min(start + samplingInterval, maxTime);
+            engine.executeEvents(end, true);
+            if (engine.isStopped()) {
+                break;
+            }
+            // Sin eventos pendientes hasta end: el reloj puede avanzar hasta ahí
+            engine.getClock().advanceTo(end);
+            time = end;
+
+            if (Double.isNaN(detectionTime)) {
+                boolean detected = true;
+                for (int i = 0; i < count; i++) {
+                    OutputSeries outputSeries = series.get(i);
+                    if (outputSeries.advance(engine)) {
+                        detectors[i].add(outputSeries.getIntervalSum() / outputSeries.getIntervalWeight(), start);
+                    }
+                    detected &= detectors[i].isDetected();
+                }
+                if (detected) {
+                    detectionTime = time;
+                    engine.resetStatistics();
+                    for (OutputSeries outputSeries : series) {
+                        outputSeries.restart(engine);
+                    }
+                }
+                continue;
+            }
+
+            precisionMet = true;
+            for (int i = 0; i < count; i++) {
+                OutputSeries outputSeries = series.get(i);
+                if (outputSeries.advance(engine)) {
+                    estimators[i].add(outputSeries.getIntervalSum(), outputSeries.getIntervalWeight());
+                }
+                precisionMet &= estimators[i].isMet(relativePrecisions.get(i), confidenceLevel);
+            }
+            if (precisionMet) {
+                break;
+            }
+        }
+
+        engine.finish(engine.getClock().getCurrentTime());
+        return new SteadyStateResult(series, relativePrecisions, detectors, estimators, confidenceLevel,
+            detectionTime, engine.getClock().getCurrentTime(), precisionMet);
+    }
+}
@@ -0,0 +1,113 @@
+package com.simulacion.steadystate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SteadyStateResult {
+    private final List<OutputSeries> series;
+    private final List<Double> relativePrecisions;
+    private final double[] truncationTimes;
+    private final double[] means;
+    private final double[] halfWidths;
+    private final int[] batches;
+    private final long[] batchSizes;
+    private final double confidenceLevel;
+    private final double detectionTime;
+    private final double endTime;
+    private final boolean precisionMet;
+
+    SteadyStateResult(List<OutputSeries> series, List<Double> relativePrecisions, MserDetector[] detectors,
+                      BatchMeansEstimator[] estimators, double confidenceLevel, double detectionTime,
+                      double endTime, boolean precisionMet) {
+        this.series = new ArrayList<>(series);
+        this.relativePrecisions = new ArrayList<>(relativePrecisions);
+        int count = series.size();
+        this.truncationTimes = new double[count];
+        this.means = new double[count];
+        this.halfWidths = new double[count];
+        this.batches = new int[count];
+        this.batchSizes = new long[count];
+        for (int i = 0; i < count; i++) {
+            truncationTimes[i] = detectors[i].getTruncationTime();
+            means[i] = estimators[i].getMean();
+            halfWidths[i] = estimators[i].getHalfWidth(confidenceLevel);
+            batches[i] = estimators[i].getCompletedBatches();
+            batchSizes[i] = estimators[i].getBatchSize();
+        }
+        this.confidenceLevel = confidenceLevel;
+        this.detectionTime = detectionTime;
+        this.endTime = endTime;
+        this.precisionMet = precisionMet;
+    }
+
+    public int getSeriesCount() {
+        return series.size();
+    }
+
+    public OutputSeries getSeries(int index) {
+        return series.get(index);
+    }
+
+    public double getRelativePrecision(int index) {
+        return relativePrecisions.get(index);
+    }
+
+    // Punto de truncamiento que MSER-5 eligió para la serie
+    public double getTruncationTime(int index) {
+        return truncationTimes[index];
+    }
+
+    public double getMean(int index) {
+        return means[index];
+    }
+
+    public double getHalfWidth(int index) {
+        return halfWidths[index];
+    }
+
+    public int getBatches(int index) {
+        return batches[index];
+    }
+
+    public long getBatchSize(int index) {
+        return batchSizes[index];
+    }
+
+    public double getConfidenceLevel() {
+        return confidenceLevel;
+    }
+
+    public boolean isWarmupDetected() {
+        return !Double.isNaN(detectionTime);
+    }
+
+    // Instante en que se reiniciaron las estadísticas; NaN si no se detectó el calentamiento
+    public double getDetectionTime() {
+        return detectionTime;
+    }
+
+    // Mayor punto de truncamiento entre las series
+    public double getWarmupTime() {
+        double warmup = Double.NaN;
+        for (double time : truncationTimes) {
+            if (!Double.isNaN(time) && (Double.isNaN(warmup) || time > warmup)) {
+                warmup = time;
+            }
+        }
+        return warmup;
+    }
+
+    public double getEndTime() {
+        return endTime;
+    }
+
+    // Duración del período medido; NaN si no se detectó el calentamiento
+    public double getMeasuredTime() {
+        return isWarmupDetected() ? endTime - detectionTime : Double.NaN;
+    }
+
+    // Falso si se llegó al tiempo máximo (o se detuvo la corrida) antes de la precisión buscada
+    public boolean isPrecisionMet() {
+        return precisionMet;
+    }
+}
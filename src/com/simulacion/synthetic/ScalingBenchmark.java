@@ -0,0 +1,212 @@
+package com.simulacion.synthetic;
+
+import com.simulacion.core.SimulationEngine;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Macro-benchmark: corre modelos sintéticos de tamaño creciente y muestra
+// eventos por segundo, pico de heap y tiempo de GC de cada corrida. La
+// construcción incluye resolver todas las rutas (con --network, los caminos
+// más cortos), así la corrida mide solo eventos:
+// ScalingBenchmark [--sizes 100,1000,10000] [--time minutos] [--fanout n]
+//                  [--network] [--seed s] [--warmup n] [--out archivo.csv]
+public class ScalingBenchmark {
+    public static void main(String[] args) {
+        List<Integer> sizes = List.of(100, 1000, 10000);
+        double simulationTime = 2000.0;
+        int fanOut = 2;
+        boolean network = false;
+        long seed = 1L;
+        int warmupRuns = 1;
+        String out = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if ("--network".equals(args[i])) {
+                    network = true;
+                    continue;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Falta el valor de la opción: " + args[i]);
+                }
+                String value = args[++i];
+                switch (args[i - 1]) {
+                    case "--sizes":
+                        List<Integer> parsed = new ArrayList<>();
+                        for (String size : value.split(",")) {
+                            parsed.add(Integer.parseInt(size.trim()));
+                        }
+                        sizes = parsed;
+                        break;
+                    case "--time":
+                        simulationTime = Double.parseDouble(value);
+                        break;
+                    case "--fanout":
+                        fanOut = Integer.parseInt(value);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    case "--warmup":
+                        warmupRuns = Integer.parseInt(value);
+                        break;
+                    case "--out":
+                        out = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Opción desconocida: " + args[i - 1]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+
+        // Calentamiento con el modelo más chico para no medir la compilación JIT
+        for (int i = 0; i < warmupRuns; i++) {
+            measure(generator(sizes.get(0), fanOut, network, seed), simulationTime, seed);
+        }
+
+        List<Measurement> results = new ArrayList<>();
+        for (int size : sizes) {
+            results.add(measure(generator(size, fanOut, network, seed), simulationTime, seed));
+        }
+
+        System.out.println(formatTable(results, simulationTime));
+        if (out != null) {
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Paths.get(out), StandardCharsets.UTF_8))) {
+                writer.println("Locaciones,Nodos,Eventos,ConstruccionMs,CorridaMs,EventosPorSegundo,PicoHeapMB,GcMs,GcCantidad");
+                for (Measurement result : results) {
+                    writer.println(String.format(Locale.ROOT, "%d,%d,%d,%.1f,%.1f,%.0f,%.1f,%d,%d",
+                        result.locations, result.networkNodes, result.events, result.buildMillis,
+                        result.runMillis, result.getEventsPerSecond(), result.peakHeapMegabytes,
+                        result.gcMillis, result.gcCount));
+                }
+            } catch (IOException e) {
+                System.err.println("Error al escribir resultados: " + e.getMessage());
+            }
+        }
+    }
+
+    private static SyntheticModelGenerator generator(int size, int fanOut, boolean network, long seed) {
+        SyntheticModelGenerator generator = new SyntheticModelGenerator();
+        generator.setLocationCount(size);
+        generator.setFanOut(fanOut);
+        generator.setNetworkNodeCount(network ? size : 0);
+        generator.setSeed(seed);
+        return generator;
+    }
+
+    public static Measurement measure(SyntheticModelGenerator generator, double simulationTime, long seed) {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+        long gcMillisBefore = gcMillis();
+        long gcCountBefore = gcCount();
+
+        long start = System.nanoTime();
+        SimulationEngine engine = new SimulationEngine();
+        engine.setRandomSeed(seed);
+        generator.configure(engine);
+        engine.getOperationHandler().resolveAllRoutes();
+        long built = System.nanoTime();
+        engine.run(simulationTime);
+        long finished = System.nanoTime();
+
+        // Suma de picos por pool: cota superior del pico real del heap
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peakHeap += pool.getPeakUsage().getUsed();
+            }
+        }
+
+        Measurement result = new Measurement();
+        result.locations = generator.getLocationCount();
+        result.networkNodes = generator.getNetworkNodeCount();
+        result.events = engine.getExecutedEventCount();
+        result.buildMillis = (built - start) / 1e6;
+        result.runMillis = (finished - built) / 1e6;
+        result.peakHeapMegabytes = peakHeap / (1024.0 * 1024.0);
+        result.gcMillis = gcMillis() - gcMillisBefore;
+        result.gcCount = gcCount() - gcCountBefore;
+        return result;
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, collector.getCollectionTime());
+        }
+        return total;
+    }
+
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, collector.getCollectionCount());
+        }
+        return total;
+    }
+
+    private static String formatTable(List<Measurement> results, double simulationTime) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n=== ESCALABILIDAD (" + simulationTime + " minutos simulados) ===\n\n");
+        sb.append(String.format("%12s %10s %14s %16s %14s %18s %16s %10s %10s\n",
+            "Locaciones", "Nodos", "Eventos", "Construcción (ms)", "Corrida (ms)",
+            "Eventos/seg", "Pico heap (MB)", "GC (ms)", "GC (n)"));
+        sb.append("-".repeat(130)).append("\n");
+        for (Measurement result : results) {
+            sb.append(String.format("%12d %10d %14d %16.1f %14.1f %18.0f %16.1f %10d %10d\n",
+                result.locations, result.networkNodes, result.events, result.buildMillis,
+                result.runMillis, result.getEventsPerSecond(), result.peakHeapMegabytes,
+                result.gcMillis, result.gcCount));
+        }
+        return sb.toString();
+    }
+
+    public static class Measurement {
+        private int locations;
+        private int networkNodes;
+        private long events;
+        private double buildMillis;
+        private double runMillis;
+        private double peakHeapMegabytes;
+        private long gcMillis;
+        private long gcCount;
+
+        public double getEventsPerSecond() {
+            return runMillis > 0 ? events / (runMillis / 1000.0) : 0.0;
+        }
+
+        public long getEvents() {
+            return events;
+        }
+
+        public double getRunMillis() {
+            return runMillis;
+        }
+
+        public double getPeakHeapMegabytes() {
+            return peakHeapMegabytes;
+        }
+
+        public long getGcMillis() {
+            return gcMillis;
+        }
+    }
+}
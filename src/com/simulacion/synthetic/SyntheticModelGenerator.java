@@ -0,0 +1,238 @@
+package com.simulacion.synthetic;
+
+import com.simulacion.arrivals.ArrivalGenerator;
+import com.simulacion.core.SimulationEngine;
+import com.simulacion.processing.ProcessingRule;
+import com.simulacion.processing.RoutingRule;
+import com.simulacion.routing.PathNetwork;
+import com.simulacion.routing.PathNode;
+import com.simulacion.routing.PathSegment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+// Modelos sintéticos de tamaño configurable para pruebas de escala. Las
+// locaciones se ordenan en etapas: los arribos llegan a la primera etapa, cada
+// locación enruta con igual probabilidad a fanOut locaciones de la etapa
+// siguiente y la última etapa sale del sistema. Toda la estructura sale de la
+// semilla, así que configure produce el mismo modelo en cualquier motor; los
+// sorteos de ruta durante la corrida usan el generador del motor.
+public class SyntheticModelGenerator {
+    private int locationCount;
+    private int stageCount;
+    private int entityTypeCount;
+    private int resourceCount;
+    private double meanInterarrivalTime;
+    private double meanProcessingTime;
+    private int fanOut;
+    private double resourceRouteFraction;
+    private int networkNodeCount;
+    private int unitsPerLocation;
+    private long seed;
+
+    public SyntheticModelGenerator() {
+        this.locationCount = 100;
+        this.stageCount = 10;
+        this.entityTypeCount = 4;
+        this.resourceCount = 4;
+        this.meanInterarrivalTime = 10.0;
+        this.meanProcessingTime = 5.0;
+        this.fanOut = 2;
+        this.resourceRouteFraction = 0.25;
+        this.networkNodeCount = 0;
+        this.unitsPerLocation = 1;
+        this.seed = 1L;
+    }
+
+    public void configure(SimulationEngine engine) {
+        Random random = new Random(seed);
+        int stages = Math.min(stageCount, locationCount);
+
+        for (int i = 0; i < entityTypeCount; i++) {
+            engine.addEntityType(entityTypeName(i), 50.0);
+        }
+
+        // Etapas de tamaño parejo; las primeras absorben el resto de la división
+        int[] stageStart = new int[stages + 1];
+        for (int s = 0; s < stages; s++) {
+            stageStart[s + 1] = stageStart[s] + locationCount / stages + (s < locationCount % stages ? 1 : 0);
+        }
+        for (int i = 0; i < locationCount; i++) {
+            engine.addLocation(locationName(i), 1 + random.nextInt(4), unitsPerLocation);
+            double processingTime = meanProcessingTime * (0.5 + random.nextDouble());
+            engine.addProcessingRule(new SyntheticProcessingRule(locationName(i), processingTime));
+        }
+        for (int i = 0; i < resourceCount; i++) {
+            engine.addResource(resourceName(i), 1 + random.nextInt(3), 50.0);
+        }
+
+        for (int s = 0; s < stages; s++) {
+            for (int i = stageStart[s]; i < stageStart[s + 1]; i++) {
+                if (s == stages - 1) {
+                    engine.addRoutingRule(locationName(i), new RoutingRule("EXIT", 1.0, 1, "FIRST", null));
+                    continue;
+                }
+                for (int destination : pickDestinations(random, stageStart[s + 1], stageStart[s + 2])) {
+                    String resource = resourceCount > 0 && random.nextDouble() < resourceRouteFraction
+                        ? resourceName(random.nextInt(resourceCount))
+                        : null;
+                    engine.addRoutingRule(locationName(i),
+                        new RoutingRule(locationName(destination), 1.0, 1, "FIRST", resource));
+                }
+            }
+        }
+
+        for (int i = stageStart[0]; i < stageStart[1]; i++) {
+            double frequency = meanInterarrivalTime * (0.5 + random.nextDouble());
+            engine.scheduleArrival(entityTypeName(random.nextInt(entityTypeCount)), locationName(i),
+                random.nextDouble() * frequency, ArrivalGenerator.INFINITE, frequency);
+        }
+
+        if (networkNodeCount > 0) {
+            engine.setPathNetwork(buildNetwork(engine, random));
+        }
+    }
+
+    private List<Integer> pickDestinations(Random random, int from, int to) {
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            candidates.add(i);
+        }
+        Collections.shuffle(candidates, random);
+        return candidates.subList(0, Math.min(fanOut, candidates.size()));
+    }
+
+    // Anillo de nodos al azar en un cuadrado más un atajo por nodo; las primeras
+    // locaciones quedan asociadas a los primeros nodos
+    private PathNetwork buildNetwork(SimulationEngine engine, Random random) {
+        double side = 10.0 * Math.sqrt(networkNodeCount);
+        PathNode[] nodes = new PathNode[networkNodeCount];
+        for (int i = 0; i < networkNodeCount; i++) {
+            nodes[i] = new PathNode(String.format("N_%05d", i),
+                i < locationCount ? engine.getLocation(i) : null,
+                random.nextDouble() * side, random.nextDouble() * side);
+        }
+
+        PathNetwork network = new PathNetwork("RED_SINTETICA", "Sobrepasar", nodes[0]);
+        for (PathNode node : nodes) {
+            network.addNode(node);
+        }
+        for (int i = 1; i < networkNodeCount; i++) {
+            network.addSegment(new PathSegment(nodes[i - 1], nodes[i], true));
+            int shortcut = random.nextInt(networkNodeCount);
+            if (shortcut != i) {
+                network.addSegment(new PathSegment(nodes[i], nodes[shortcut], true));
+            }
+        }
+        if (networkNodeCount > 2) {
+            network.addSegment(new PathSegment(nodes[networkNodeCount - 1], nodes[0], true));
+        }
+        return network;
+    }
+
+    public static String locationName(int index) {
+        return String.format("LOC_%05d", index);
+    }
+
+    public static String entityTypeName(int index) {
+        return "TIPO_" + index;
+    }
+
+    public static String resourceName(int index) {
+        return "REC_" + index;
+    }
+
+    public void setLocationCount(int locationCount) {
+        if (locationCount < 1) {
+            throw new IllegalArgumentException("Se requiere al menos una locación");
+        }
+        this.locationCount = locationCount;
+    }
+
+    public void setStageCount(int stageCount) {
+        if (stageCount < 1) {
+            throw new IllegalArgumentException("Se requiere al menos una etapa");
+        }
+        this.stageCount = stageCount;
+    }
+
+    public void setEntityTypeCount(int entityTypeCount) {
+        if (entityTypeCount < 1) {
+            throw new IllegalArgumentException("Se requiere al menos un tipo de entidad");
+        }
+        this.entityTypeCount = entityTypeCount;
+    }
+
+    public void setResourceCount(int resourceCount) {
+        if (resourceCount < 0) {
+            throw new IllegalArgumentException("La cantidad de recursos no puede ser negativa");
+        }
+        this.resourceCount = resourceCount;
+    }
+
+    // Tiempo medio entre arribos de cada locación de la primera etapa
+    public void setMeanInterarrivalTime(double meanInterarrivalTime) {
+        if (meanInterarrivalTime <= 0) {
+            throw new IllegalArgumentException("El tiempo entre arribos debe ser positivo");
+        }
+        this.meanInterarrivalTime = meanInterarrivalTime;
+    }
+
+    public void setMeanProcessingTime(double meanProcessingTime) {
+        if (meanProcessingTime < 0) {
+            throw new IllegalArgumentException("El tiempo de procesamiento no puede ser negativo");
+        }
+        this.meanProcessingTime = meanProcessingTime;
+    }
+
+    public void setFanOut(int fanOut) {
+        if (fanOut < 1) {
+            throw new IllegalArgumentException("Cada locación necesita al menos una ruta");
+        }
+        this.fanOut = fanOut;
+    }
+
+    // Fracción de rutas que mueven la entidad con un recurso
+    public void setResourceRouteFraction(double resourceRouteFraction) {
+        if (resourceRouteFraction < 0 || resourceRouteFraction > 1) {
+            throw new IllegalArgumentException("La fracción de rutas con recurso debe estar entre 0 y 1");
+        }
+        this.resourceRouteFraction = resourceRouteFraction;
+    }
+
+    // 0 = sin red de caminos (los movimientos con recurso usan el tiempo base)
+    public void setNetworkNodeCount(int networkNodeCount) {
+        if (networkNodeCount < 0) {
+            throw new IllegalArgumentException("La cantidad de nodos no puede ser negativa");
+        }
+        this.networkNodeCount = networkNodeCount;
+    }
+
+    // Unidades idénticas por locación; la capacidad sorteada es por unidad
+    public void setUnitsPerLocation(int unitsPerLocation) {
+        if (unitsPerLocation < 1) {
+            throw new IllegalArgumentException("Cada locación necesita al menos una unidad");
+        }
+        this.unitsPerLocation = unitsPerLocation;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public int getLocationCount() {
+        return locationCount;
+    }
+
+    public int getNetworkNodeCount() {
+        return networkNodeCount;
+    }
+
+    private static class SyntheticProcessingRule extends ProcessingRule {
+        SyntheticProcessingRule(String locationName, double processingTime) {
+            super(locationName, null, processingTime);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.simulacion.trace;
+
+import com.simulacion.core.Event;
+import com.simulacion.core.EventTraceSink;
+
+import java.io.PrintStream;
+
+// Traza de texto: una línea por evento con su tiempo y su descripción. Es la
+// que activa SimulationEngine.setTraceEnabled
+public class ConsoleTraceSink implements EventTraceSink {
+    private final PrintStream out;
+
+    public ConsoleTraceSink() {
+        this(System.out);
+    }
+
+    public ConsoleTraceSink(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void record(Event event) {
+        out.printf("[%.2f] %s%n", event.getScheduledTime(), event.getDescription());
+    }
+}
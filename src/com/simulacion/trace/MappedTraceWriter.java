@@ -0,0 +1,203 @@
+package com.simulacion.trace;
+
+import com.simulacion.core.Event;
+import com.simulacion.core.EventScheduler;
+import com.simulacion.core.EventTraceSink;
+import com.simulacion.core.SimulationEngine;
+import com.simulacion.core.TypedEvent;
+import com.simulacion.entities.EntityStore;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Traza binaria de eventos en segmentos mapeados en memoria. Cada evento es un
+// registro de ancho fijo; escribirlo son unas pocas escrituras en memoria y el
+// sistema operativo vuelca las páginas al archivo. El contador de registros del
+// encabezado se actualiza con cada evento, así que una corrida interrumpida deja
+// una traza legible. Con maxSegments > 0 se conservan solo los últimos segmentos.
+public class MappedTraceWriter implements EventTraceSink, AutoCloseable {
+    static final int MAGIC = 0x54524345; // "TRCE"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 24;
+    static final int COUNT_OFFSET = 16;
+    // tiempo (8) + secuencia (8) + tipo (4) + entidad (4) + locación (4) + recurso (4)
+    static final int RECORD_SIZE = 32;
+    static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 20;
+    // Un segmento se mapea de una vez y se indexa con int: no puede pasar de 2 GB
+    static final int MAX_RECORDS_PER_SEGMENT = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+
+    private final Path base;
+    private final EntityStore entityStore;
+    private final int recordsPerSegment;
+    private final int maxSegments;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int segmentIndex;
+    private long segmentRecords;
+    private long totalRecords;
+
+    public MappedTraceWriter(Path base, SimulationEngine engine) throws IOException {
+        this(base, engine, DEFAULT_RECORDS_PER_SEGMENT, 0);
+    }
+
+    public MappedTraceWriter(Path base, SimulationEngine engine, int recordsPerSegment, int maxSegments)
+            throws IOException {
+        if (recordsPerSegment < 1) {
+            throw new IllegalArgumentException("Un segmento debe admitir al menos un registro");
+        }
+        if (recordsPerSegment > MAX_RECORDS_PER_SEGMENT) {
+            throw new IllegalArgumentException("Un segmento admite a lo sumo " + MAX_RECORDS_PER_SEGMENT
+                + " registros: " + recordsPerSegment);
+        }
+        this.base = base;
+        this.entityStore = engine.getEntityStore();
+        this.recordsPerSegment = recordsPerSegment;
+        this.maxSegments = maxSegments;
+        this.segmentIndex = -1;
+        this.totalRecords = 0;
+
+        Path parent = base.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        deleteSegments();
+        writeMetadata(engine);
+        openSegment(0);
+    }
+
+    @Override
+    public void record(Event event) {
+        if (segmentRecords == recordsPerSegment) {
+            try {
+                openSegment(segmentIndex + 1);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo abrir el siguiente segmento de traza", e);
+            }
+        }
+
+        int position = HEADER_SIZE + (int) segmentRecords * RECORD_SIZE;
+        buffer.putDouble(position, event.getScheduledTime());
+        buffer.putLong(position + 8, event.getSequence());
+        if (event instanceof TypedEvent) {
+            TypedEvent typed = (TypedEvent) event;
+            buffer.putInt(position + 16, typed.getHandlerId());
+            buffer.putInt(position + 20, typed.getEntity() >= 0 ? entityStore.getId(typed.getEntity()) : -1);
+            buffer.putInt(position + 24, typed.getLocationIndex());
+            buffer.putInt(position + 28, typed.getResourceIndex());
+        } else {
+            buffer.putInt(position + 16, -1);
+            buffer.putInt(position + 20, -1);
+            buffer.putInt(position + 24, -1);
+            buffer.putInt(position + 28, -1);
+        }
+        segmentRecords++;
+        totalRecords++;
+        buffer.putLong(COUNT_OFFSET, segmentRecords);
+    }
+
+    public long getRecordCount() {
+        return totalRecords;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeSegment();
+    }
+
+    private void openSegment(int index) throws IOException {
+        closeSegment();
+        segmentIndex = index;
+        segmentRecords = 0;
+        channel = FileChannel.open(segmentPath(base, index), StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) recordsPerSegment * RECORD_SIZE);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, RECORD_SIZE);
+        buffer.putInt(12, index);
+        buffer.putLong(COUNT_OFFSET, 0);
+
+        if (maxSegments > 0 && index >= maxSegments) {
+            Files.deleteIfExists(segmentPath(base, index - maxSegments));
+        }
+    }
+
+    private void closeSegment() throws IOException {
+        if (channel != null) {
+            buffer.force();
+            // Se recorta el espacio no usado del segmento
+            channel.truncate(HEADER_SIZE + segmentRecords * RECORD_SIZE);
+            channel.close();
+            channel = null;
+            buffer = null;
+        }
+    }
+
+    // Nombres para decodificar los índices de los registros
+    private void writeMetadata(SimulationEngine engine) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(metadataPath(base))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            EventScheduler scheduler = engine.getScheduler();
+            out.writeInt(scheduler.getHandlerCount());
+            for (int i = 0; i < scheduler.getHandlerCount(); i++) {
+                out.writeUTF(scheduler.getHandlerName(i));
+            }
+            out.writeInt(engine.getLocationCount());
+            for (int i = 0; i < engine.getLocationCount(); i++) {
+                out.writeUTF(engine.getLocation(i).getType().getName());
+            }
+            out.writeInt(engine.getResourceCount());
+            for (int i = 0; i < engine.getResourceCount(); i++) {
+                out.writeUTF(engine.getResource(i).getType().getName());
+            }
+        }
+    }
+
+    // Segmentos de una traza anterior con la misma base
+    private void deleteSegments() throws IOException {
+        for (int index : segmentIndices(base)) {
+            Files.delete(segmentPath(base, index));
+        }
+    }
+
+    // Índices de los segmentos presentes, en orden (con anillo pueden no empezar en 0)
+    static List<Integer> segmentIndices(Path base) throws IOException {
+        Path directory = base.toAbsolutePath().getParent();
+        String prefix = base.getFileName() + ".";
+        List<Integer> indices = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*.trc")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String number = name.substring(prefix.length(), name.length() - ".trc".length());
+                try {
+                    indices.add(Integer.parseInt(number));
+                } catch (NumberFormatException e) {
+                    // Otro archivo que comparte el prefijo
+                }
+            }
+        }
+        Collections.sort(indices);
+        return indices;
+    }
+
+    static Path metadataPath(Path base) {
+        return base.resolveSibling(base.getFileName() + ".meta");
+    }
+
+    static Path segmentPath(Path base, int index) {
+        return base.resolveSibling(base.getFileName() + "." + index + ".trc");
+    }
+}
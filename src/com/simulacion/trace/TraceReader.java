@@ -0,0 +1,115 @@
+package com.simulacion.trace;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+// Lectura fuera de línea de una traza escrita por MappedTraceWriter
+public class TraceReader {
+    private final Path base;
+    private final String[] kindNames;
+    private final String[] locationNames;
+    private final String[] resourceNames;
+
+    public TraceReader(Path base) throws IOException {
+        this.base = base;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(MappedTraceWriter.metadataPath(base))))) {
+            checkHeader(in.readInt(), in.readInt());
+            this.kindNames = readNames(in);
+            this.locationNames = readNames(in);
+            this.resourceNames = readNames(in);
+        }
+    }
+
+    // Recorre los registros de todos los segmentos en orden de ejecución
+    public long scan(Predicate<TraceRecord> filter, Consumer<TraceRecord> consumer) throws IOException {
+        long matched = 0;
+        for (int index : MappedTraceWriter.segmentIndices(base)) {
+            try (FileChannel channel = FileChannel.open(MappedTraceWriter.segmentPath(base, index),
+                    StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                checkHeader(buffer.getInt(0), buffer.getInt(4));
+                long count = buffer.getLong(MappedTraceWriter.COUNT_OFFSET);
+                for (long i = 0; i < count; i++) {
+                    int position = MappedTraceWriter.HEADER_SIZE + (int) i * MappedTraceWriter.RECORD_SIZE;
+                    TraceRecord record = new TraceRecord(
+                        buffer.getDouble(position),
+                        buffer.getLong(position + 8),
+                        buffer.getInt(position + 16),
+                        buffer.getInt(position + 20),
+                        buffer.getInt(position + 24),
+                        buffer.getInt(position + 28));
+                    if (filter.test(record)) {
+                        consumer.accept(record);
+                        matched++;
+                    }
+                }
+            }
+        }
+        return matched;
+    }
+
+    public long exportCsv(Predicate<TraceRecord> filter, PrintWriter writer) throws IOException {
+        writer.println("Tiempo,Secuencia,Evento,Entidad,Locacion,Recurso");
+        return scan(filter, record -> writer.println(String.format(Locale.ROOT, "%.4f,%d,%s,%d,%s,%s",
+            record.getTime(),
+            record.getSequence(),
+            getKindName(record.getKind()),
+            record.getEntityId(),
+            getLocationName(record.getLocationIndex()),
+            getResourceName(record.getResourceIndex()))));
+    }
+
+    public String getKindName(int kind) {
+        return kind >= 0 && kind < kindNames.length ? kindNames[kind] : "";
+    }
+
+    public String getLocationName(int locationIndex) {
+        return locationIndex >= 0 && locationIndex < locationNames.length ? locationNames[locationIndex] : "";
+    }
+
+    public String getResourceName(int resourceIndex) {
+        return resourceIndex >= 0 && resourceIndex < resourceNames.length ? resourceNames[resourceIndex] : "";
+    }
+
+    // Índices por nombre para armar filtros (-1 si no existe)
+    public int findKind(String name) {
+        return List.of(kindNames).indexOf(name);
+    }
+
+    public int findLocation(String name) {
+        return List.of(locationNames).indexOf(name);
+    }
+
+    public int findResource(String name) {
+        return List.of(resourceNames).indexOf(name);
+    }
+
+    private static void checkHeader(int magic, int version) throws IOException {
+        if (magic != MappedTraceWriter.MAGIC) {
+            throw new IOException("El archivo no es una traza de simulación");
+        }
+        if (version != MappedTraceWriter.VERSION) {
+            throw new IOException("Versión de traza no soportada: " + version);
+        }
+    }
+
+    private static String[] readNames(DataInputStream in) throws IOException {
+        String[] names = new String[in.readInt()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = in.readUTF();
+        }
+        return names;
+    }
+}
@@ -0,0 +1,46 @@
+package com.simulacion.trace;
+
+// Registro de traza decodificado; los índices se traducen con TraceReader
+public final class TraceRecord {
+    private final double time;
+    private final long sequence;
+    private final int kind;
+    private final int entityId;
+    private final int locationIndex;
+    private final int resourceIndex;
+
+    public TraceRecord(double time, long sequence, int kind, int entityId, int locationIndex, int resourceIndex) {
+        this.time = time;
+        this.sequence = sequence;
+        this.kind = kind;
+        this.entityId = entityId;
+        this.locationIndex = locationIndex;
+        this.resourceIndex = resourceIndex;
+    }
+
+    public double getTime() {
+        return time;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    // Índice del manejador del evento (-1 para eventos no tipados)
+    public int getKind() {
+        return kind;
+    }
+
+    // -1 si el evento no lleva entidad
+    public int getEntityId() {
+        return entityId;
+    }
+
+    public int getLocationIndex() {
+        return locationIndex;
+    }
+
+    public int getResourceIndex() {
+        return resourceIndex;
+    }
+}
@@ -0,0 +1,92 @@
+package com.simulacion.trace;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.function.Predicate;
+
+// Filtra y exporta a CSV una traza binaria:
+// TraceTool <base> [--kind K] [--location L] [--resource R] [--entity ID] [--from T] [--to T] [--out archivo.csv]
+public class TraceTool {
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Uso: TraceTool <base> [--kind K] [--location L] [--resource R] "
+                + "[--entity ID] [--from T] [--to T] [--out archivo.csv]");
+            return;
+        }
+
+        try {
+            TraceReader reader = new TraceReader(Paths.get(args[0]));
+            Predicate<TraceRecord> filter = record -> true;
+            String out = null;
+            for (int i = 1; i < args.length; i++) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Falta el valor de la opción: " + args[i]);
+                }
+                String value = args[++i];
+                switch (args[i - 1]) {
+                    case "--kind":
+                        int kind = find(reader.findKind(value), "tipo de evento", value);
+                        filter = filter.and(record -> record.getKind() == kind);
+                        break;
+                    case "--location":
+                        int location = find(reader.findLocation(value), "locación", value);
+                        filter = filter.and(record -> record.getLocationIndex() == location);
+                        break;
+                    case "--resource":
+                        int resource = find(reader.findResource(value), "recurso", value);
+                        filter = filter.and(record -> record.getResourceIndex() == resource);
+                        break;
+                    case "--entity":
+                        int entityId = Integer.parseInt(value);
+                        filter = filter.and(record -> record.getEntityId() == entityId);
+                        break;
+                    case "--from":
+                        double from = Double.parseDouble(value);
+                        filter = filter.and(record -> record.getTime() >= from);
+                        break;
+                    case "--to":
+                        double to = Double.parseDouble(value);
+                        filter = filter.and(record -> record.getTime() <= to);
+                        break;
+                    case "--out":
+                        out = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Opción desconocida: " + args[i - 1]);
+                }
+            }
+
+            PrintWriter writer = out != null
+                ? new PrintWriter(Files.newBufferedWriter(Paths.get(out), StandardCharsets.UTF_8))
+                : new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+            long matched;
+            try {
+                matched = reader.exportCsv(filter, writer);
+            } finally {
+                writer.flush();
+                if (out != null) {
+                    writer.close();
+                }
+            }
+            if (out != null) {
+                System.out.println(matched + " eventos exportados a: " + out);
+            }
+        } catch (IOException e) {
+            System.err.println("Error al leer la traza: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    private static int find(int index, String what, String name) {
+        if (index < 0) {
+            throw new IllegalArgumentException("No existe " + what + " en la traza: " + name);
+        }
+        return index;
+    }
+}
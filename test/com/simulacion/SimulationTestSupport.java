@@ -0,0 +1,25 @@
+package com.simulacion;
+
+import com.simulacion.core.SimulationEngine;
+import com.simulacion.output.TableFormatter;
+import com.simulacion.statistics.StatisticsCollector;
+
+// Piezas comunes de las pruebas que comparan corridas del modelo de la cervecería
+public final class SimulationTestSupport {
+
+    private SimulationTestSupport() {
+    }
+
+    // Motor nuevo con el modelo completo de Main, listo para correr
+    public static SimulationEngine brewery() {
+        SimulationEngine engine = new SimulationEngine();
+        Main.configureModel(engine);
+        return engine;
+    }
+
+    // Tablas de entidades y locaciones: dos corridas equivalentes dan el mismo texto
+    public static String report(StatisticsCollector statistics) {
+        return TableFormatter.formatEntityTable(statistics.getEntityStats())
+            + TableFormatter.formatLocationTable(statistics.getLocationStats());
+    }
+}
@@ -0,0 +1,73 @@
+package com.simulacion.arrivals;
+
+import com.simulacion.calendar.ShiftCalendar;
+import com.simulacion.core.SimulationEngine;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+// Flujos de arribo perezosos: cada flujo tiene a lo sumo un evento pendiente
+// y programa el siguiente al dispararse
+class ArrivalGeneratorTest {
+
+    @Test
+    void eachStreamKeepsOnlyItsNextArrivalPending() {
+        SimulationEngine engine = model();
+        engine.scheduleArrival("PIEZA", "DEPOSITO", 0, 1000, 1.0);
+        engine.scheduleArrival("PIEZA", "DEPOSITO", 5, ArrivalGenerator.INFINITE, 3.0);
+        Assertions.assertEquals(2, engine.getScheduler().getEventCount());
+
+        engine.executeEvents(500, true);
+        Assertions.assertEquals(2, engine.getScheduler().getEventCount());
+        Assertions.assertEquals(501 + 166, arrived(engine));
+    }
+
+    @Test
+    void finiteStreamStopsAfterItsOccurrences() {
+        SimulationEngine engine = model();
+        engine.scheduleArrival("PIEZA", "DEPOSITO", 2, 5, 4.0);
+        engine.run(1000);
+
+        Assertions.assertEquals(5, arrived(engine));
+        Assertions.assertFalse(engine.getScheduler().hasEvents());
+        ArrivalStream stream = engine.getArrivalGenerator().getStreams().get(0);
+        Assertions.assertFalse(stream.hasNext());
+        Assertions.assertEquals(5, stream.getGenerated());
+    }
+
+    // Un turno de 0 a 50 en un período de 100: la frecuencia se cuenta en
+    // tiempo de turno y los arribos siguen al empezar el próximo turno
+    @Test
+    void calendarStreamPausesOffShift() {
+        SimulationEngine engine = model();
+        ShiftCalendar calendar = new ShiftCalendar(100).addShift(0, 50);
+        engine.scheduleArrival("PIEZA", "DEPOSITO", 0, ArrivalGenerator.INFINITE, 10.0, calendar);
+
+        engine.executeEvents(45, true);
+        Assertions.assertEquals(5, arrived(engine));
+        Assertions.assertEquals(100.0, engine.getNextEventTime());
+        engine.run(200);
+        Assertions.assertEquals(11, arrived(engine));
+    }
+
+    @Test
+    void infiniteStreamRequiresAPositiveFrequency() {
+        SimulationEngine engine = model();
+        engine.scheduleArrival("PIEZA", "DEPOSITO", 0, ArrivalGenerator.INFINITE, 0);
+        Assertions.assertTrue(engine.getArrivalGenerator().getStreams().isEmpty());
+        Assertions.assertFalse(engine.getScheduler().hasEvents());
+    }
+
+    // Sin regla de procesamiento las piezas se quedan en el depósito y los
+    // únicos eventos son los de los flujos
+    private static SimulationEngine model() {
+        SimulationEngine engine = new SimulationEngine();
+        engine.addEntityType("PIEZA", 100);
+        engine.addLocation("DEPOSITO", 100000, 1);
+        return engine;
+    }
+
+    private static int arrived(SimulationEngine engine) {
+        return engine.getLocation("DEPOSITO").getCurrentOccupancy();
+    }
+}
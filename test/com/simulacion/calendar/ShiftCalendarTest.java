@@ -0,0 +1,102 @@
+package com.simulacion.calendar;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+class ShiftCalendarTest {
+    private static final double EPSILON = 1e-6;
+
+    @Test
+    void dailyShiftWithBreak() {
+        ShiftCalendar calendar = ShiftCalendar.weekly()
+            .addDailyShift(8 * 60, 17 * 60)
+            .addDailyBreak(12 * 60, 13 * 60);
+
+        Assertions.assertEquals(7 * 8 * 60, calendar.getScheduledTimePerPeriod(), EPSILON);
+        Assertions.assertTrue(calendar.isOnShift(9 * 60));
+        Assertions.assertFalse(calendar.isOnShift(12 * 60 + 30));
+        Assertions.assertFalse(calendar.isOnShift(20 * 60));
+        // Cuatro horas de la mañana y el trabajo sigue después del descanso
+        Assertions.assertEquals(14 * 60, calendar.advance(9 * 60, 4 * 60), EPSILON);
+        Assertions.assertEquals(8 * 60, calendar.nextShiftStart(0), EPSILON);
+        Assertions.assertEquals(ShiftCalendar.MINUTES_PER_DAY + 8 * 60, calendar.nextShiftStart(17 * 60), EPSILON);
+    }
+
+    @Test
+    void workInsideOneShiftEndsExactly() {
+        ShiftCalendar calendar = ShiftCalendar.weekly().addDailyShift(6 * 60, 14 * 60);
+        double start = 3 * ShiftCalendar.MINUTES_PER_DAY + 7 * 60 + 0.1;
+        Assertions.assertEquals(start + 61.7, calendar.advance(start, 61.7));
+    }
+
+    @Test
+    void overnightDailyShiftWrapsPastMidnightAndThePeriodEnd() {
+        ShiftCalendar calendar = ShiftCalendar.weekly().addDailyShift(22 * 60, 6 * 60);
+
+        Assertions.assertEquals(7 * 8 * 60, calendar.getScheduledTimePerPeriod(), EPSILON);
+        Assertions.assertTrue(calendar.isOnShift(23 * 60));
+        Assertions.assertTrue(calendar.isOnShift(ShiftCalendar.MINUTES_PER_DAY + 5 * 60));
+        Assertions.assertFalse(calendar.isOnShift(12 * 60));
+        // El turno del último día sigue al comienzo del período
+        Assertions.assertTrue(calendar.isOnShift(0));
+        Assertions.assertTrue(calendar.isOnShift(ShiftCalendar.MINUTES_PER_WEEK - 1));
+        Assertions.assertEquals(6 * 60, calendar.getScheduledTime(0, 22 * 60), EPSILON);
+        // Una hora antes del fin del período, tres horas de trabajo terminan a las 2 del lunes
+        double lastHour = ShiftCalendar.MINUTES_PER_WEEK - 60;
+        Assertions.assertEquals(ShiftCalendar.MINUTES_PER_WEEK + 2 * 60, calendar.advance(lastHour, 3 * 60), EPSILON);
+    }
+
+    @Test
+    void shiftAcrossThePeriodEndIsSplit() {
+        ShiftCalendar calendar = ShiftCalendar.weekly()
+            .addShift(ShiftCalendar.MINUTES_PER_WEEK - 120, 240);
+
+        Assertions.assertEquals(360, calendar.getScheduledTimePerPeriod(), EPSILON);
+        Assertions.assertTrue(calendar.isOnShift(10));
+        Assertions.assertFalse(calendar.isOnShift(300));
+        Assertions.assertTrue(calendar.isOnShift(ShiftCalendar.MINUTES_PER_WEEK - 60));
+    }
+
+    @Test
+    void rejectsEmptyAndOutOfRangeIntervals() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ShiftCalendar.weekly().addShift(60, 60));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ShiftCalendar.weekly().addShift(-1, 60));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> ShiftCalendar.weekly().addShift(0, ShiftCalendar.MINUTES_PER_WEEK + 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ShiftCalendar.weekly().addDailyShift(60, 60));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> ShiftCalendar.weekly().addDailyShift(0, ShiftCalendar.MINUTES_PER_DAY + 1));
+        Assertions.assertThrows(IllegalStateException.class, () -> ShiftCalendar.weekly().advance(0, 10));
+    }
+
+    // Propiedades: getShiftTime invierte getScheduledTime y advance suma
+    // exactamente duration minutos de turno, sobre varios períodos
+    @Test
+    void scheduledTimeArithmeticIsConsistent() {
+        ShiftCalendar[] calendars = {
+            ShiftCalendar.weekly().addShift(18 * 60, 4 * ShiftCalendar.MINUTES_PER_DAY + 22 * 60),
+            ShiftCalendar.weekly().addDailyShift(6 * 60, 14 * 60).addDailyShift(14 * 60, 22 * 60)
+                .addDailyBreak(11 * 60, 11 * 60 + 30),
+            ShiftCalendar.weekly().addDailyShift(22 * 60, 6 * 60).addDailyBreak(23 * 60 + 30, 30)
+        };
+        Random random = new Random(7);
+        for (ShiftCalendar calendar : calendars) {
+            for (int i = 0; i < 2000; i++) {
+                double time = random.nextDouble() * 5 * calendar.getPeriod();
+                double duration = random.nextDouble() * 2 * calendar.getScheduledTimePerPeriod();
+
+                double scheduled = calendar.getScheduledTime(time);
+                double shiftTime = calendar.getShiftTime(scheduled);
+                Assertions.assertEquals(scheduled, calendar.getScheduledTime(shiftTime), EPSILON);
+                Assertions.assertTrue(shiftTime >= time - EPSILON);
+                Assertions.assertTrue(calendar.isOnShift(shiftTime), "getShiftTime fuera de turno: " + shiftTime);
+
+                double end = calendar.advance(time, duration);
+                Assertions.assertTrue(end >= time);
+                Assertions.assertEquals(duration, calendar.getScheduledTime(time, end), 1e-5);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.simulacion.checkpoint;
+
+import com.simulacion.SimulationTestSupport;
+import com.simulacion.calendar.ShiftCalendar;
+import com.simulacion.core.SimulationEngine;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Un motor restaurado debe terminar con el mismo estado, byte a byte, que la
+// corrida sin interrumpir
+class EngineCheckpointTest {
+    private static final double SPLIT_TIME = ShiftCalendar.MINUTES_PER_WEEK + 1234.5;
+    private static final double END_TIME = 2 * ShiftCalendar.MINUTES_PER_WEEK;
+
+    @Test
+    void resumedRunIsBitIdentical() throws IOException {
+        SimulationEngine original = SimulationTestSupport.brewery();
+        original.executeEvents(SPLIT_TIME, true);
+        byte[] checkpoint = snapshot(original);
+        original.executeEvents(END_TIME, true);
+
+        SimulationEngine resumed = SimulationTestSupport.brewery();
+        EngineCheckpoint.read(resumed, new ByteArrayInputStream(checkpoint));
+        Assertions.assertArrayEquals(checkpoint, snapshot(resumed));
+        resumed.executeEvents(END_TIME, true);
+
+        Assertions.assertArrayEquals(snapshot(original), snapshot(resumed));
+    }
+
+    @Test
+    void rejectsForeignFiles() {
+        SimulationEngine engine = SimulationTestSupport.brewery();
+        byte[] garbage = ByteBuffer.allocate(8).putInt(0xCAFEBABE).putInt(1).array();
+        Assertions.assertThrows(IOException.class,
+            () -> EngineCheckpoint.read(engine, new ByteArrayInputStream(garbage)));
+    }
+
+    // El generador viaja serializado: otra clase en su lugar se rechaza sin instanciarla
+    @Test
+    void rejectsSerializedObjectsOtherThanRandom() throws IOException {
+        SimulationEngine original = SimulationTestSupport.brewery();
+        original.executeEvents(1000, true);
+        byte[] checkpoint = snapshot(original);
+
+        // Largo del generador serializado y luego el flujo de serialización
+        int stream = indexOf(checkpoint, new byte[] { (byte) 0xAC, (byte) 0xED, 0x00, 0x05 });
+        Assertions.assertTrue(stream >= 4);
+        int length = ByteBuffer.wrap(checkpoint, stream - 4, 4).getInt();
+        byte[] foreign = serialize(new ArrayList<String>());
+        ByteBuffer tampered = ByteBuffer.allocate(checkpoint.length - length + foreign.length);
+        tampered.put(checkpoint, 0, stream - 4);
+        tampered.putInt(foreign.length);
+        tampered.put(foreign);
+        tampered.put(checkpoint, stream + length, checkpoint.length - stream - length);
+
+        Assertions.assertThrows(InvalidClassException.class,
+            () -> EngineCheckpoint.read(SimulationTestSupport.brewery(),
+                new ByteArrayInputStream(tampered.array())));
+    }
+
+    // Con un intervalo fraccionario cada checkpoint tiene su propio archivo
+    @Test
+    void fractionalIntervalsWriteDistinctFiles(@TempDir Path directory) throws IOException {
+        List<Path> written =
+            EngineCheckpoint.runWithCheckpoints(SimulationTestSupport.brewery(), 2.5, 0.5, directory);
+
+        Assertions.assertEquals(4, written.size());
+        Assertions.assertEquals(4, new HashSet<>(written).size());
+        try (Stream<Path> files = Files.list(directory)) {
+            Assertions.assertEquals(4, files.count());
+        }
+        for (Path file : written) {
+            EngineCheckpoint.restore(SimulationTestSupport.brewery(), file);
+        }
+    }
+
+    private static byte[] snapshot(SimulationEngine engine) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        EngineCheckpoint.write(engine, bytes);
+        return bytes.toByteArray();
+    }
+
+    private static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static int indexOf(byte[] data, byte[] pattern) {
+        for (int i = 0; i + pattern.length <= data.length; i++) {
+            boolean match = true;
+            for (int j = 0; j < pattern.length && match; j++) {
+                match = data[i + j] == pattern[j];
+            }
+            if (match) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
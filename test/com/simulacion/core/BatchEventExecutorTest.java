@@ -0,0 +1,61 @@
+package com.simulacion.core;
+
+import com.simulacion.SimulationTestSupport;
+import com.simulacion.calendar.ShiftCalendar;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// La ejecución por lotes concurrentes debe reproducir la corrida de a un evento
+class BatchEventExecutorTest {
+    private static final double END_TIME = 2 * ShiftCalendar.MINUTES_PER_WEEK;
+
+    @Test
+    void batchRunMatchesSequentialRun() {
+        SimulationEngine sequential = SimulationTestSupport.brewery();
+        List<String> sequentialTrace = new ArrayList<>();
+        sequential.setTraceSink(event -> sequentialTrace.add(event.getScheduledTime() + " " + event.getDescription()));
+        sequential.run(END_TIME);
+
+        for (int parallelism = 1; parallelism <= 4; parallelism *= 2) {
+            SimulationEngine batched = SimulationTestSupport.brewery();
+            batched.setBatchParallelism(parallelism);
+            List<String> batchedTrace = new ArrayList<>();
+            batched.setTraceSink(event -> batchedTrace.add(event.getScheduledTime() + " " + event.getDescription()));
+            batched.run(END_TIME);
+
+            Assertions.assertEquals(SimulationTestSupport.report(sequential.getStatistics()),
+                SimulationTestSupport.report(batched.getStatistics()), parallelism + " hilos");
+            Assertions.assertEquals(sequentialTrace, batchedTrace, parallelism + " hilos");
+            Assertions.assertEquals(sequential.getExecutedEventCount(), batched.getExecutedEventCount());
+            Assertions.assertTrue(batched.getBatchExecutor().getBatchCount() > 0);
+        }
+    }
+
+    // Con métricas los eventos del lote se cuentan sin medir su tiempo
+    @Test
+    void batchMetricsCountEveryEvent() {
+        SimulationEngine batched = SimulationTestSupport.brewery();
+        batched.setBatchParallelism(2);
+        batched.setMetricsEnabled(true);
+        batched.run(END_TIME);
+
+        Assertions.assertEquals(batched.getExecutedEventCount(), batched.getMetrics().getTotalUntimedEventCount());
+    }
+
+    // Detener la corrida desde el aviso de progreso corta entre lotes
+    @Test
+    void progressListenerStopsBatchRun() {
+        SimulationEngine batched = SimulationTestSupport.brewery();
+        batched.setBatchParallelism(2);
+        batched.setProgressListener(engine -> false, 1000);
+        batched.run(END_TIME);
+
+        Assertions.assertTrue(batched.isStopped());
+        Assertions.assertTrue(batched.getExecutedEventCount() >= 1000);
+        Assertions.assertTrue(batched.getClock().getCurrentTime() < END_TIME);
+    }
+}
@@ -0,0 +1,88 @@
+package com.simulacion.core;
+
+import com.simulacion.SimulationTestSupport;
+import com.simulacion.calendar.ShiftCalendar;
+import com.simulacion.processing.ProcessingRule;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+// Métricas del ciclo de eventos contra lo que ve una traza de la misma corrida
+class EngineMetricsTest {
+    private static final double END_TIME = ShiftCalendar.MINUTES_PER_WEEK;
+
+    @Test
+    void countsPerKindMatchTheTrace() {
+        SimulationEngine engine = SimulationTestSupport.brewery();
+        EventScheduler scheduler = engine.getScheduler();
+        long[] traced = new long[scheduler.getHandlerCount() + 1];
+        int[] largestList = new int[1];
+        engine.setTraceSink(event -> {
+            traced[((TypedEvent) event).getHandlerId() + 1]++;
+            largestList[0] = Math.max(largestList[0], scheduler.getEventCount());
+        });
+        engine.setMetricsEnabled(true);
+        engine.run(END_TIME);
+
+        EngineMetrics metrics = engine.getMetrics();
+        Assertions.assertEquals(traced.length, metrics.getKindCount());
+        Assertions.assertEquals("SIN_TIPO", metrics.getKindName(0));
+        long nanos = 0;
+        for (int kind = 0; kind < traced.length; kind++) {
+            Assertions.assertEquals(traced[kind], metrics.getEventCount(kind), metrics.getKindName(kind));
+            nanos += metrics.getEventNanos(kind);
+        }
+        Assertions.assertTrue(nanos > 0);
+        Assertions.assertEquals(engine.getExecutedEventCount(), metrics.getTotalEventCount());
+        Assertions.assertEquals(0, metrics.getTotalUntimedEventCount());
+        Assertions.assertTrue(metrics.getEventListHighWater() >= largestList[0]);
+        Assertions.assertTrue(metrics.getSimulatedTime() > 0 && metrics.getSimulatedTime() <= END_TIME);
+        Assertions.assertTrue(metrics.getSimulatedTimePerWallSecond() > 0);
+    }
+
+    // Cinco llegadas, una por minuto, a una locación de capacidad uno que tarda diez:
+    // la cola llega a cuatro
+    @Test
+    void locationQueueMaximaAreReported() {
+        SimulationEngine engine = new SimulationEngine();
+        engine.addEntityType("PIEZA", 100);
+        engine.addLocation("PRENSA", 1, 1);
+        engine.addProcessingRule(new ProcessingRule("PRENSA", "PIEZA", 10) {
+        });
+        engine.scheduleArrival("PIEZA", "PRENSA", 0, 5, 1.0);
+        engine.setMetricsEnabled(true);
+        engine.run(100);
+
+        Assertions.assertEquals(4, engine.getMetrics().getLocationQueueMaxima().get("PRENSA"));
+    }
+
+    // Sin activarlas no hay métricas; activadas a mitad de corrida cuentan desde ahí
+    @Test
+    void metricsStartWhenEnabled() {
+        SimulationEngine engine = SimulationTestSupport.brewery();
+        Assertions.assertNull(engine.getMetrics());
+        engine.executeEvents(END_TIME / 2, true);
+        long before = engine.getExecutedEventCount();
+        engine.setMetricsEnabled(true);
+        engine.run(END_TIME);
+
+        Assertions.assertEquals(engine.getExecutedEventCount() - before, engine.getMetrics().getTotalEventCount());
+        engine.setMetricsEnabled(false);
+        Assertions.assertNull(engine.getMetrics());
+    }
+
+    // La medición no cambia la corrida
+    @Test
+    void instrumentedRunMatchesThePlainRun() {
+        SimulationEngine plain = SimulationTestSupport.brewery();
+        plain.run(END_TIME);
+        SimulationEngine instrumented = SimulationTestSupport.brewery();
+        instrumented.setMetricsEnabled(true);
+        instrumented.setFlightRecorderEvents(true);
+        instrumented.run(END_TIME);
+
+        Assertions.assertEquals(plain.getExecutedEventCount(), instrumented.getExecutedEventCount());
+        Assertions.assertEquals(SimulationTestSupport.report(plain.getStatistics()),
+            SimulationTestSupport.report(instrumented.getStatistics()));
+    }
+}
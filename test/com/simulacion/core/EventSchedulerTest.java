@@ -0,0 +1,96 @@
+package com.simulacion.core;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Eventos tipados: despacho por tabla de manejadores, carga primitiva,
+// reutilización desde el pool y descripciones solo a pedido
+class EventSchedulerTest {
+
+    @Test
+    void dispatchesToTheRegisteredHandlerWithItsPayload() {
+        EventScheduler scheduler = new EventScheduler(new SimulationClock());
+        List<String> seen = new ArrayList<>();
+        int llegada = scheduler.registerHandler("LLEGADA",
+            event -> seen.add("llegada " + event.getEntity() + "@" + event.getLocationIndex()));
+        int movimiento = scheduler.registerHandler("MOVIMIENTO",
+            event -> seen.add("movimiento " + event.getResourceIndex() + "/" + event.getArgument()));
+
+        scheduler.scheduleEvent(movimiento, 2.0, 0, 7, 1, 3, 9);
+        scheduler.scheduleEvent(llegada, 1.0, 0, 5, 2, -1, 0);
+        while (scheduler.hasEvents()) {
+            scheduler.getNextEvent().execute();
+        }
+
+        Assertions.assertEquals(List.of("llegada 5@2", "movimiento 3/9"), seen);
+        Assertions.assertEquals("MOVIMIENTO", scheduler.getHandlerName(movimiento));
+        Assertions.assertEquals(2, scheduler.getHandlerCount());
+    }
+
+    // Mismo tiempo: primero la prioridad menor y después el orden de programación
+    @Test
+    void tiesAreBrokenByPriorityThenSequence() {
+        EventScheduler scheduler = new EventScheduler(new SimulationClock());
+        int handler = scheduler.registerHandler(event -> {
+        });
+        scheduler.scheduleEvent(handler, 1.0, 1, 0, -1, -1, 0);
+        scheduler.scheduleEvent(handler, 1.0, 0, 1, -1, -1, 0);
+        scheduler.scheduleEvent(handler, 1.0, 0, 2, -1, -1, 0);
+        scheduler.scheduleEvent(handler, 0.5, 5, 3, -1, -1, 0);
+
+        int[] order = new int[4];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = ((TypedEvent) scheduler.getNextEvent()).getEntity();
+        }
+        Assertions.assertArrayEquals(new int[] { 3, 1, 2, 0 }, order);
+    }
+
+    @Test
+    void recycledEventsAreReused() {
+        EventScheduler scheduler = new EventScheduler(new SimulationClock());
+        int handler = scheduler.registerHandler(event -> {
+        });
+        TypedEvent first = scheduler.scheduleEvent(handler, 1.0, 0, 4, 0, -1, 0);
+        Event executed = scheduler.getNextEvent();
+        executed.execute();
+        scheduler.recycle(executed);
+
+        TypedEvent second = scheduler.scheduleEvent(handler, 3.0, 0, 8, 1, -1, 0);
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(3.0, second.getScheduledTime());
+        Assertions.assertEquals(8, second.getEntity());
+        Assertions.assertEquals(1, second.getLocationIndex());
+    }
+
+    @Test
+    void descriptionsAreBuiltOnlyWhenRequested() {
+        EventScheduler scheduler = new EventScheduler(new SimulationClock());
+        int[] described = new int[1];
+        int handler = scheduler.registerHandler(new EventHandler() {
+            @Override
+            public void handle(TypedEvent event) {
+            }
+
+            @Override
+            public String describe(TypedEvent event) {
+                described[0]++;
+                return "Procesar " + event.getEntity();
+            }
+        });
+        for (int i = 0; i < 100; i++) {
+            scheduler.scheduleEvent(handler, i, 0, i, 0, -1, 0);
+        }
+        Event last = null;
+        while (scheduler.hasEvents()) {
+            last = scheduler.getNextEvent();
+            last.execute();
+        }
+
+        Assertions.assertEquals(0, described[0]);
+        Assertions.assertEquals("Procesar 99", last.getDescription());
+        Assertions.assertEquals(1, described[0]);
+    }
+}
@@ -0,0 +1,131 @@
+package com.simulacion.core;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Cada lista de eventos futuros contra el montículo binario con la misma carga:
+// altas y extracciones intercaladas, tiempos que avanzan como en una corrida
+// y muchos empates de tiempo y prioridad que se resuelven por secuencia
+class FutureEventListTest {
+
+    @Test
+    void everyListPollsInTheBinaryHeapOrder() {
+        for (EventListType type : EventListType.values()) {
+            if (type != EventListType.BINARY_HEAP) {
+                for (long seed = 1; seed <= 5; seed++) {
+                    Assertions.assertEquals(pollOrder(EventListType.BINARY_HEAP, seed), pollOrder(type, seed),
+                        type + " con semilla " + seed);
+                }
+            }
+        }
+    }
+
+    @Test
+    void emptyListReturnsNull() {
+        for (EventListType type : EventListType.values()) {
+            FutureEventList list = type.create();
+            Assertions.assertTrue(list.isEmpty(), type.name());
+            Assertions.assertNull(list.peek(), type.name());
+            Assertions.assertNull(list.poll(), type.name());
+        }
+    }
+
+    @Test
+    void clearEmptiesTheList() {
+        for (EventListType type : EventListType.values()) {
+            FutureEventList list = type.create();
+            for (int i = 0; i < 100; i++) {
+                list.add(event(i * 0.5, 0, i));
+            }
+            list.clear();
+            Assertions.assertEquals(0, list.size(), type.name());
+            list.add(event(3.0, 0, 100));
+            Assertions.assertEquals(100, list.poll().getSequence(), type.name());
+        }
+    }
+
+    // Con 100 eventos entre 0 y 1 el ancho es 0.01: 0.35 cae en la cubeta 35,
+    // pero 0 + 35 * 0.01 se redondea a 0.35000000000000003, así que el peldaño
+    // hijo de esa cubeta empieza apenas después de sus propios eventos
+    @Test
+    void denseTimesAtARoundedBucketBoundary() {
+        for (EventListType type : EventListType.values()) {
+            FutureEventList list = type.create();
+            list.add(event(0.0, 0, 0));
+            list.add(event(1.0, 0, 1));
+            for (int i = 2; i < 100; i++) {
+                list.add(event(i % 2 == 0 ? 0.35 : 0.35 + Math.ulp(0.35) * i, 0, i));
+            }
+
+            double previous = Double.NEGATIVE_INFINITY;
+            int polled = 0;
+            while (!list.isEmpty()) {
+                double time = list.poll().getScheduledTime();
+                Assertions.assertTrue(time >= previous, type.name());
+                previous = time;
+                polled++;
+            }
+            Assertions.assertEquals(100, polled, type.name());
+        }
+    }
+
+    // Secuencias en el orden de extracción; también comprueba peek y size en cada paso
+    private static List<Long> pollOrder(EventListType type, long seed) {
+        FutureEventList list = type.create();
+        Random random = new Random(seed);
+        List<Long> order = new ArrayList<>();
+        double now = 0.0;
+        long sequence = 0;
+        int size = 0;
+
+        for (int step = 0; step < 50000; step++) {
+            // Al principio crece, después se mantiene y al final se vacía
+            boolean add = step < 40000 && (size < 200 || random.nextInt(2) == 0);
+            if (add) {
+                double delay;
+                switch (random.nextInt(4)) {
+                    case 0:
+                        delay = 0.0;
+                        break;
+                    case 1:
+                        delay = random.nextInt(5);
+                        break;
+                    case 2:
+                        delay = -Math.log(1.0 - random.nextDouble()) * 10.0;
+                        break;
+                    default:
+                        delay = random.nextInt(1000) * 0.25;
+                        break;
+                }
+                list.add(event(now + delay, random.nextInt(3) - 1, sequence++));
+                size++;
+            } else if (size > 0) {
+                Event peeked = list.peek();
+                Event polled = list.poll();
+                Assertions.assertSame(peeked, polled);
+                now = polled.getScheduledTime();
+                order.add(polled.getSequence());
+                size--;
+            }
+            Assertions.assertEquals(size, list.size());
+        }
+        while (!list.isEmpty()) {
+            order.add(list.poll().getSequence());
+        }
+        return order;
+    }
+
+    private static Event event(double time, int priority, long sequence) {
+        Event event = new Event(time, priority, "prueba") {
+            @Override
+            public void execute() {
+            }
+        };
+        event.sequence = sequence;
+        return event;
+    }
+}
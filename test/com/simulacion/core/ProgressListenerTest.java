@@ -0,0 +1,60 @@
+package com.simulacion.core;
+
+import com.simulacion.SimulationTestSupport;
+import com.simulacion.calendar.ShiftCalendar;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+// El aviso de progreso llega cada intervalo de eventos y puede detener la
+// corrida; la detención vale para esa llamada y la siguiente retoma
+class ProgressListenerTest {
+    private static final double END_TIME = 2 * ShiftCalendar.MINUTES_PER_WEEK;
+
+    @Test
+    void listenerIsCalledEveryInterval() {
+        SimulationEngine engine = SimulationTestSupport.brewery();
+        long[] calls = new long[1];
+        engine.setProgressListener(e -> {
+            calls[0]++;
+            return true;
+        }, 500);
+        engine.run(END_TIME);
+
+        Assertions.assertFalse(engine.isStopped());
+        Assertions.assertEquals(engine.getExecutedEventCount() / 500, calls[0]);
+    }
+
+    @Test
+    void stoppedRunResumesOnTheNextCall() {
+        SimulationEngine uninterrupted = SimulationTestSupport.brewery();
+        uninterrupted.run(END_TIME);
+
+        SimulationEngine engine = SimulationTestSupport.brewery();
+        engine.setProgressListener(e -> false, 10000);
+        engine.executeEvents(END_TIME, true);
+        Assertions.assertTrue(engine.isStopped());
+        Assertions.assertEquals(10000, engine.getExecutedEventCount());
+        Assertions.assertTrue(engine.getClock().getCurrentTime() < END_TIME);
+
+        engine.setProgressListener(null, 0);
+        engine.run(END_TIME);
+        Assertions.assertFalse(engine.isStopped());
+        Assertions.assertEquals(uninterrupted.getExecutedEventCount(), engine.getExecutedEventCount());
+        Assertions.assertEquals(SimulationTestSupport.report(uninterrupted.getStatistics()),
+            SimulationTestSupport.report(engine.getStatistics()));
+    }
+
+    @Test
+    void forkOfAStoppedEngineRuns() {
+        SimulationEngine engine = SimulationTestSupport.brewery();
+        engine.setProgressListener(e -> false, 10000);
+        engine.executeEvents(END_TIME, true);
+        Assertions.assertTrue(engine.isStopped());
+
+        SimulationEngine branch = engine.fork();
+        branch.run(END_TIME);
+        Assertions.assertFalse(branch.isStopped());
+        Assertions.assertEquals(END_TIME, branch.getClock().getCurrentTime());
+    }
+}
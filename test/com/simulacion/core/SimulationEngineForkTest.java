@@ -0,0 +1,88 @@
+package com.simulacion.core;
+
+import com.simulacion.SimulationTestSupport;
+import com.simulacion.calendar.ShiftCalendar;
+import com.simulacion.checkpoint.EngineCheckpoint;
+import com.simulacion.locations.LocationStatistics;
+import com.simulacion.processing.ProcessingRule;
+import com.simulacion.processing.RoutingRule;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+// Una rama bifurcada sin cambios debe terminar con el mismo estado, byte a
+// byte, que el motor original; un cambio de parámetros solo afecta a la rama
+class SimulationEngineForkTest {
+    private static final double SPLIT_TIME = ShiftCalendar.MINUTES_PER_WEEK + 1234.5;
+    private static final double END_TIME = 2 * ShiftCalendar.MINUTES_PER_WEEK;
+
+    @Test
+    void forkedRunIsBitIdentical() throws IOException {
+        SimulationEngine original = SimulationTestSupport.brewery();
+        original.executeEvents(SPLIT_TIME, true);
+        SimulationEngine branch = original.fork();
+        Assertions.assertArrayEquals(snapshot(original), snapshot(branch));
+
+        original.executeEvents(END_TIME, true);
+        branch.executeEvents(END_TIME, true);
+        Assertions.assertArrayEquals(snapshot(original), snapshot(branch));
+    }
+
+    @Test
+    void branchChangesDoNotLeakIntoTheOriginal() throws IOException {
+        SimulationEngine original = SimulationTestSupport.brewery();
+        original.executeEvents(SPLIT_TIME, true);
+        SimulationEngine unchanged = original.fork();
+        SimulationEngine changed = original.fork();
+        changed.setResourceUnits("OPERADOR_EMPACADO", 2);
+        changed.setLocationCapacity("EMPACADO", 2);
+
+        original.run(END_TIME);
+        unchanged.run(END_TIME);
+        changed.run(END_TIME);
+
+        Assertions.assertArrayEquals(snapshot(original), snapshot(unchanged));
+        Assertions.assertEquals(1, original.getStatistics().getLocationStats().get("EMPACADO").getCapacity());
+        Assertions.assertEquals(2, changed.getStatistics().getLocationStats().get("EMPACADO").getCapacity());
+        Assertions.assertFalse(Arrays.equals(snapshot(original), snapshot(changed)));
+    }
+
+    // La prensa está siempre llena: con capacidad 2 desde la bifurcación y las
+    // estadísticas reiniciadas ahí, la rama reporta 100 % y no el 75 % que
+    // resultaría de dividir todo el contenido por la capacidad final
+    @Test
+    void branchUtilizationCoversOnlyTheWhatIfPeriod() {
+        SimulationEngine original = new SimulationEngine();
+        original.addEntityType("PIEZA", 100);
+        original.addLocation("PRENSA", 1, 1);
+        original.addProcessingRule(new ProcessingRule("PRENSA", "PIEZA", 10) {
+        });
+        original.addRoutingRule("PRENSA", new RoutingRule("EXIT", 1.0, 1, "FIRST", null));
+        original.scheduleArrival("PIEZA", "PRENSA", 0, 100, 1.0);
+        original.executeEvents(100, true);
+
+        SimulationEngine branch = original.fork();
+        branch.resetStatistics();
+        branch.setLocationCapacity("PRENSA", 2);
+        branch.run(200);
+        original.run(200);
+
+        LocationStatistics press = branch.getStatistics().getLocationStats().get("PRENSA");
+        Assertions.assertEquals(2, press.getCapacity());
+        Assertions.assertEquals(100.0, press.getScheduledTime(), 1e-9);
+        Assertions.assertEquals(2.0, press.getAverageContents(), 1e-9);
+        Assertions.assertEquals(100.0, press.getUtilizationPercent(), 1e-9);
+        Assertions.assertEquals(100.0,
+            original.getStatistics().getLocationStats().get("PRENSA").getUtilizationPercent(), 1e-9);
+    }
+
+    private static byte[] snapshot(SimulationEngine engine) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        EngineCheckpoint.write(engine, bytes);
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,138 @@
+package com.simulacion.entities;
+
+import com.simulacion.core.SimulationEngine;
+import com.simulacion.processing.ProcessingRule;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+// Alta, baja y reuso de handles del EntityStore: un handle liberado vuelve
+// limpio y el motor recicla los handles de las entidades que salen
+class EntityStoreTest {
+
+    @Test
+    void freedHandleIsReusedWithResetFields() {
+        EntityStore store = new EntityStore();
+        int first = store.allocate(0, 10);
+        int second = store.allocate(1, 11);
+        store.setLocation(second, 3);
+        store.setUnit(second, 2);
+        store.setRoute(second, 1);
+        store.setEntryTime(second, 5.0);
+        store.addWaitTime(second, 7.0);
+        store.addBlockedTime(second, 1.5);
+        store.free(second);
+
+        Assertions.assertFalse(store.isLive(second));
+        Assertions.assertEquals(1, store.getLiveCount());
+        int reused = store.allocate(0, 12);
+        Assertions.assertEquals(second, reused);
+        Assertions.assertTrue(store.isLive(first));
+        Assertions.assertEquals(12, store.getId(reused));
+        Assertions.assertEquals(0, store.getType(reused));
+        Assertions.assertEquals(-1, store.getLocation(reused));
+        Assertions.assertEquals(-1, store.getUnit(reused));
+        Assertions.assertEquals(-1, store.getRoute(reused));
+        Assertions.assertEquals(0.0, store.getEntryTime(reused));
+        Assertions.assertEquals(0.0, store.getTotalWaitTime(reused));
+        Assertions.assertEquals(0.0, store.getTotalBlockedTime(reused));
+        Assertions.assertEquals(2, store.getHandleLimit());
+        Assertions.assertEquals(2, store.getLiveCount());
+    }
+
+    // El último handle liberado es el primero en volver
+    @Test
+    void freeListIsLastInFirstOut() {
+        EntityStore store = new EntityStore();
+        int a = store.allocate(0, 1);
+        int b = store.allocate(0, 2);
+        int c = store.allocate(0, 3);
+        store.free(a);
+        store.free(c);
+        store.free(b);
+
+        Assertions.assertEquals(b, store.allocate(0, 4));
+        Assertions.assertEquals(c, store.allocate(0, 5));
+        Assertions.assertEquals(a, store.allocate(0, 6));
+        Assertions.assertEquals(3, store.allocate(0, 7));
+    }
+
+    @Test
+    void freeingADeadHandleFails() {
+        EntityStore store = new EntityStore();
+        int handle = store.allocate(0, 1);
+        store.free(handle);
+        Assertions.assertThrows(IllegalStateException.class, () -> store.free(handle));
+        Assertions.assertThrows(IllegalStateException.class, () -> store.free(5));
+        Assertions.assertThrows(IllegalStateException.class, () -> store.copy(handle, 2));
+        Assertions.assertEquals(0, store.getLiveCount());
+    }
+
+    // La copia hereda los acumulados, no el id ni la locación: no ocupa lugar
+    // en ninguna unidad ni cola hasta que la ubiquen
+    @Test
+    void copyKeepsAccumulatedTimes() {
+        EntityStore store = new EntityStore();
+        int source = store.allocate(2, 1);
+        store.setLocation(source, 4);
+        store.setEntryTime(source, 3.0);
+        store.addSystemTime(source, 8.0);
+        store.addValueAddedTime(source, 6.0);
+        store.addNonValueAddedTime(source, 2.0);
+        store.addWaitTime(source, 1.0);
+
+        int copy = store.copy(source, 9);
+        Assertions.assertNotEquals(source, copy);
+        Assertions.assertEquals(9, store.getId(copy));
+        Assertions.assertEquals(2, store.getType(copy));
+        Assertions.assertEquals(-1, store.getLocation(copy));
+        Assertions.assertEquals(-1, store.getUnit(copy));
+        Assertions.assertEquals(4, store.getLocation(source));
+        Assertions.assertEquals(3.0, store.getEntryTime(copy));
+        Assertions.assertEquals(8.0, store.getTotalSystemTime(copy));
+        Assertions.assertEquals(6.0, store.getTotalValueAddedTime(copy));
+        Assertions.assertEquals(2.0, store.getTotalNonValueAddedTime(copy));
+        Assertions.assertEquals(1.0, store.getTotalWaitTime(copy));
+    }
+
+    // Más de un bloque de 4096: los valores del primer bloque no se pierden al crecer
+    @Test
+    void growsPastOneChunk() {
+        EntityStore store = new EntityStore();
+        int count = 10000;
+        for (int i = 0; i < count; i++) {
+            int handle = store.allocate(0, i);
+            store.setEntryTime(handle, i * 0.5);
+        }
+        for (int handle = 0; handle < count; handle++) {
+            Assertions.assertEquals(handle, store.getId(handle));
+            Assertions.assertEquals(handle * 0.5, store.getEntryTime(handle));
+        }
+        for (int handle = 0; handle < count; handle++) {
+            store.free(handle);
+        }
+        for (int i = 0; i < count; i++) {
+            store.allocate(0, count + i);
+        }
+        Assertions.assertEquals(count, store.getHandleLimit());
+        Assertions.assertEquals(count, store.getLiveCount());
+    }
+
+    // Mil piezas pasan de a una por una prensa: el motor nunca necesita más
+    // handles que piezas presentes a la vez y todas salen con id distinto
+    @Test
+    void engineRecyclesHandlesOfExitedEntities() {
+        SimulationEngine engine = new SimulationEngine();
+        engine.addEntityType("PIEZA", 100);
+        engine.addLocation("PRENSA", 1, 1);
+        engine.addProcessingRule(new ProcessingRule("PRENSA", "PIEZA", 0.5) {
+        });
+        engine.scheduleArrival("PIEZA", "PRENSA", 0, 1000, 1.0);
+        engine.run(2000);
+
+        EntityStore store = engine.getEntityStore();
+        Assertions.assertEquals(1000, engine.getStatistics().getEntityStats().get("PIEZA").getTotalExits());
+        Assertions.assertEquals(0, store.getLiveCount());
+        Assertions.assertTrue(store.getHandleLimit() <= 2, "handles: " + store.getHandleLimit());
+    }
+}
@@ -0,0 +1,143 @@
+package com.simulacion.entities;
+
+import com.simulacion.core.SimulationEngine;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+// Atributos tipados declarados por tipo de entidad: lugares en los carriles
+// del almacén, copia al dividir y limpieza al reusar el handle
+class EntityTypeTest {
+
+    @Test
+    void typedAttributesKeepTheirValues() {
+        SimulationEngine engine = new SimulationEngine();
+        engine.addEntityType("BARRIL", 50);
+        IntAttribute batch = engine.addIntAttribute("BARRIL", "LOTE");
+        BooleanAttribute approved = engine.addBooleanAttribute("BARRIL", "APROBADO");
+        LongAttribute serial = engine.addLongAttribute("BARRIL", "SERIE");
+        DoubleAttribute volume = engine.addDoubleAttribute("BARRIL", "VOLUMEN");
+        BooleanAttribute sealed = engine.addBooleanAttribute("BARRIL", "SELLADO");
+        EntityStore store = engine.getEntityStore();
+
+        int entity = engine.createEntity(engine.getEntityTypeIndex("BARRIL"));
+        store.setInt(entity, batch, -7);
+        store.setLong(entity, serial, Long.MAX_VALUE);
+        store.setDouble(entity, volume, 42.5);
+        store.setBoolean(entity, sealed, true);
+
+        Assertions.assertEquals(-7, store.getInt(entity, batch));
+        Assertions.assertEquals(Long.MAX_VALUE, store.getLong(entity, serial));
+        Assertions.assertEquals(42.5, store.getDouble(entity, volume));
+        Assertions.assertTrue(store.getBoolean(entity, sealed));
+        Assertions.assertFalse(store.getBoolean(entity, approved));
+        Assertions.assertEquals(-7.0, store.getValue(entity, batch));
+        Assertions.assertEquals(1.0, store.getValue(entity, sealed));
+        Assertions.assertEquals(0.0, store.getValue(entity, approved));
+        Assertions.assertEquals(42.5, store.getValue(entity, volume));
+
+        store.setBoolean(entity, sealed, false);
+        Assertions.assertFalse(store.getBoolean(entity, sealed));
+        Assertions.assertEquals(Long.MAX_VALUE, store.getLong(entity, serial));
+    }
+
+    // Setenta booleanos ocupan dos palabras; el long declarado en medio no se pisa
+    @Test
+    void booleansSpillIntoANewWord() {
+        SimulationEngine engine = new SimulationEngine();
+        engine.addEntityType("BOTELLA", 50);
+        BooleanAttribute[] flags = new BooleanAttribute[70];
+        LongAttribute serial = null;
+        for (int i = 0; i < flags.length; i++) {
+            flags[i] = engine.addBooleanAttribute("BOTELLA", "FLAG_" + i);
+            if (i == 10) {
+                serial = engine.addLongAttribute("BOTELLA", "SERIE");
+            }
+        }
+        Assertions.assertEquals(3, engine.getEntityType("BOTELLA").getLongSlotCount());
+        EntityStore store = engine.getEntityStore();
+
+        int entity = engine.createEntity(engine.getEntityTypeIndex("BOTELLA"));
+        store.setLong(entity, serial, -1L);
+        for (int i = 0; i < flags.length; i += 3) {
+            store.setBoolean(entity, flags[i], true);
+        }
+        store.setLong(entity, serial, 5L);
+        for (int i = 0; i < flags.length; i++) {
+            Assertions.assertEquals(i % 3 == 0, store.getBoolean(entity, flags[i]), flags[i].getName());
+        }
+        Assertions.assertEquals(5L, store.getLong(entity, serial));
+    }
+
+    // Al dividir, la nueva entidad lleva una copia independiente de los atributos
+    @Test
+    void splitCopiesAttributes() {
+        SimulationEngine engine = new SimulationEngine();
+        engine.addEntityType("BARRIL", 50);
+        IntAttribute batch = engine.addIntAttribute("BARRIL", "LOTE");
+        DoubleAttribute volume = engine.addDoubleAttribute("BARRIL", "VOLUMEN");
+        BooleanAttribute sealed = engine.addBooleanAttribute("BARRIL", "SELLADO");
+        EntityStore store = engine.getEntityStore();
+
+        int source = engine.createEntity(engine.getEntityTypeIndex("BARRIL"));
+        store.setInt(source, batch, 3);
+        store.setDouble(source, volume, 20.0);
+        store.setBoolean(source, sealed, true);
+        int copy = engine.splitEntity(source);
+
+        Assertions.assertNotEquals(store.getId(source), store.getId(copy));
+        Assertions.assertEquals(3, store.getInt(copy, batch));
+        Assertions.assertEquals(20.0, store.getDouble(copy, volume));
+        Assertions.assertTrue(store.getBoolean(copy, sealed));
+
+        store.setDouble(copy, volume, 10.0);
+        Assertions.assertEquals(20.0, store.getDouble(source, volume));
+    }
+
+    @Test
+    void reusedHandleStartsWithClearedAttributes() {
+        SimulationEngine engine = new SimulationEngine();
+        engine.addEntityType("BARRIL", 50);
+        IntAttribute batch = engine.addIntAttribute("BARRIL", "LOTE");
+        BooleanAttribute sealed = engine.addBooleanAttribute("BARRIL", "SELLADO");
+        EntityStore store = engine.getEntityStore();
+
+        int entity = engine.createEntity(engine.getEntityTypeIndex("BARRIL"));
+        store.setInt(entity, batch, 9);
+        store.setBoolean(entity, sealed, true);
+        engine.destroyEntity(entity);
+        int reused = engine.createEntity(engine.getEntityTypeIndex("BARRIL"));
+
+        Assertions.assertEquals(entity, reused);
+        Assertions.assertEquals(0, store.getInt(reused, batch));
+        Assertions.assertFalse(store.getBoolean(reused, sealed));
+    }
+
+    // Los carriles no se ensanchan con entidades vivas; un atributo que entra
+    // en el ancho ya reservado sí se acepta
+    @Test
+    void attributesMustBeDeclaredBeforeEntities() {
+        SimulationEngine engine = new SimulationEngine();
+        engine.addEntityType("BARRIL", 50);
+        engine.addEntityType("TAPA", 50);
+        engine.addIntAttribute("BARRIL", "LOTE");
+        engine.createEntity(engine.getEntityTypeIndex("BARRIL"));
+
+        Assertions.assertThrows(IllegalStateException.class,
+            () -> engine.addDoubleAttribute("BARRIL", "VOLUMEN"));
+        Assertions.assertNotNull(engine.addIntAttribute("TAPA", "COLOR"));
+    }
+
+    @Test
+    void attributeNamesAreUniquePerType() {
+        SimulationEngine engine = new SimulationEngine();
+        engine.addEntityType("BARRIL", 50);
+        engine.addIntAttribute("BARRIL", "LOTE");
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> engine.addDoubleAttribute("BARRIL", "LOTE"));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> engine.addIntAttribute("CAJA", "LOTE"));
+        Assertions.assertTrue(engine.getEntityType("BARRIL").getAttribute("LOTE") instanceof IntAttribute);
+    }
+}
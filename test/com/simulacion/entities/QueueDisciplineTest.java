@@ -0,0 +1,187 @@
+package com.simulacion.entities;
+
+import com.simulacion.core.SimulationEngine;
+import com.simulacion.locations.Location;
+import com.simulacion.processing.ProcessingRule;
+import com.simulacion.processing.RoutingRule;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+// Colas de espera sobre arreglos contra colecciones de java.util, y el orden
+// de atención de cada disciplina en una locación
+class QueueDisciplineTest {
+
+    // Altas y bajas intercaladas para que el arreglo circular dé la vuelta y crezca
+    @Test
+    void fifoMatchesArrayDeque() {
+        FifoEntityQueue queue = new FifoEntityQueue();
+        ArrayDeque<Integer> expected = new ArrayDeque<>();
+        Random random = new Random(7);
+        for (int step = 0; step < 5000; step++) {
+            if (random.nextInt(3) > 0) {
+                queue.add(step);
+                expected.addLast(step);
+            } else {
+                Integer head = expected.pollFirst();
+                Assertions.assertEquals(head == null ? EntityStore.NONE : head, queue.poll());
+            }
+            Assertions.assertEquals(expected.size(), queue.size());
+        }
+        int[] copy = queue.toArray();
+        Assertions.assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), copy);
+    }
+
+    @Test
+    void fifoRemoveKeepsTheOrderOfTheRest() {
+        FifoEntityQueue queue = new FifoEntityQueue();
+        queue.addAll(new int[] { 4, 8, 15, 16, 23 });
+        Assertions.assertTrue(queue.remove(15));
+        Assertions.assertTrue(queue.remove(4));
+        Assertions.assertFalse(queue.remove(42));
+        Assertions.assertArrayEquals(new int[] { 8, 16, 23 }, queue.toArray());
+    }
+
+    // toArray va desde el fondo de la pila: addAll rearma la misma pila
+    @Test
+    void lifoServesTheLastArrivalAndCopiesFromTheBottom() {
+        LifoEntityQueue queue = new LifoEntityQueue();
+        queue.addAll(new int[] { 1, 2, 3 });
+        Assertions.assertEquals(3, queue.peek());
+
+        LifoEntityQueue copy = new LifoEntityQueue();
+        copy.addAll(queue.toArray());
+        Assertions.assertEquals(3, copy.poll());
+        Assertions.assertEquals(2, copy.poll());
+        Assertions.assertEquals(1, copy.poll());
+        Assertions.assertEquals(EntityStore.NONE, copy.poll());
+    }
+
+    // Menor clave primero y, entre claves iguales, orden de llegada
+    @Test
+    void priorityMatchesAStableSort() {
+        Random random = new Random(11);
+        double[] keyOf = new double[3000];
+        for (int i = 0; i < keyOf.length; i++) {
+            keyOf[i] = random.nextInt(20);
+        }
+        PriorityEntityQueue queue = new PriorityEntityQueue(entity -> keyOf[entity]);
+        List<Integer> waiting = new ArrayList<>();
+        for (int entity = 0; entity < keyOf.length; entity++) {
+            queue.add(entity);
+            waiting.add(entity);
+            if (entity % 3 == 2) {
+                waiting.sort(Comparator.comparingDouble(e -> keyOf[e]));
+                Assertions.assertEquals((int) waiting.remove(0), queue.poll());
+            }
+        }
+        waiting.sort(Comparator.comparingDouble(e -> keyOf[e]));
+        int[] expected = waiting.stream().mapToInt(Integer::intValue).toArray();
+        Assertions.assertArrayEquals(expected, queue.toArray());
+        for (int entity : expected) {
+            Assertions.assertEquals(entity, queue.poll());
+        }
+        Assertions.assertTrue(queue.isEmpty());
+    }
+
+    // Las claves guardadas mandan sobre las actuales al copiar la cola
+    @Test
+    void priorityCopyKeepsTheKeysTakenAtEnqueue() {
+        double[] keyOf = { 3, 1, 2 };
+        PriorityEntityQueue queue = new PriorityEntityQueue(entity -> keyOf[entity]);
+        queue.addAll(new int[] { 0, 1, 2 });
+        keyOf[0] = 0;
+
+        PriorityEntityQueue copy = new PriorityEntityQueue(entity -> keyOf[entity]);
+        copy.addAll(queue.toArray(), queue.keysToArray());
+        Assertions.assertArrayEquals(new int[] { 1, 2, 0 }, copy.toArray());
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> copy.addAll(new int[] { 0 }, new double[0]));
+    }
+
+    @Test
+    void keyedDisciplinesNeedAKey() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> QueueDiscipline.SHORTEST_PROCESSING_TIME.createQueue(null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> QueueDiscipline.priority(null));
+        Assertions.assertTrue(QueueDiscipline.LIFO.createQueue(null) instanceof LifoEntityQueue);
+        Assertions.assertTrue(QueueDiscipline.FIFO.createQueue(null) instanceof FifoEntityQueue);
+    }
+
+    // Cinco piezas con valores 5, 1, 4, 2, 3 llegan a una prensa de a una; la
+    // primera entra enseguida y las demás esperan según la disciplina
+    @Test
+    void locationServesInDisciplineOrder() {
+        Assertions.assertEquals(Arrays.asList(5, 1, 4, 2, 3), pressOrder(value -> QueueDiscipline.FIFO));
+        Assertions.assertEquals(Arrays.asList(5, 3, 2, 4, 1), pressOrder(value -> QueueDiscipline.LIFO));
+        Assertions.assertEquals(Arrays.asList(5, 1, 2, 3, 4),
+            pressOrder(value -> QueueDiscipline.SHORTEST_PROCESSING_TIME));
+        Assertions.assertEquals(Arrays.asList(5, 4, 3, 2, 1), pressOrder(QueueDiscipline::priority));
+    }
+
+    private static List<Integer> pressOrder(Function<IntAttribute, QueueDiscipline> discipline) {
+        int[] values = { 5, 1, 4, 2, 3 };
+        int[] next = new int[1];
+        List<Integer> order = new ArrayList<>();
+        SimulationEngine engine = new SimulationEngine();
+        engine.addEntityType("PIEZA", 100);
+        IntAttribute value = engine.addIntAttribute("PIEZA", "VALOR");
+        engine.addLocation("ENTRADA", 10, 1);
+        engine.addLocation("PRENSA", 1, 1);
+        engine.addProcessingRule(new ProcessingRule("ENTRADA", "PIEZA", 0) {
+            @Override
+            public void process(int entity, SimulationEngine engine) {
+                engine.getEntityStore().setInt(entity, value, values[next[0]++]);
+            }
+        });
+        // El tiempo en la prensa es el valor de la pieza
+        engine.addProcessingRule(new ProcessingRule("PRENSA", "PIEZA", 0) {
+            @Override
+            public void process(int entity, SimulationEngine engine) {
+                order.add(engine.getEntityStore().getInt(entity, value));
+            }
+
+            @Override
+            public double getProcessingTime(int entity, SimulationEngine engine) {
+                return engine.getEntityStore().getInt(entity, value);
+            }
+        });
+        engine.addRoutingRule("ENTRADA", new RoutingRule("PRENSA", 1.0, 1, "FIRST", null));
+        engine.addRoutingRule("PRENSA", new RoutingRule("EXIT", 1.0, 1, "FIRST", null));
+        engine.setLocationQueueDiscipline("PRENSA", discipline.apply(value));
+        engine.scheduleArrival("PIEZA", "ENTRADA", 0, values.length, 0.1);
+        engine.run(100);
+        return order;
+    }
+
+    // Cambiar la disciplina con piezas en cola las reordena
+    @Test
+    void changingTheDisciplineReordersTheWaitingEntities() {
+        SimulationEngine engine = new SimulationEngine();
+        engine.addEntityType("PIEZA", 100);
+        IntAttribute value = engine.addIntAttribute("PIEZA", "VALOR");
+        engine.addLocation("PRENSA", 1, 1);
+        EntityStore store = engine.getEntityStore();
+        int[] values = { 2, 7, 4 };
+        for (int v : values) {
+            int entity = engine.createEntity(engine.getEntityTypeIndex("PIEZA"));
+            store.setInt(entity, value, v);
+            engine.getLocation("PRENSA").addToQueue(entity);
+        }
+
+        engine.setLocationQueueDiscipline("PRENSA", QueueDiscipline.priority(value));
+        Location press = engine.getLocation("PRENSA");
+        Assertions.assertEquals(3, press.getQueueSize());
+        Assertions.assertEquals(7, store.getInt(press.removeFromQueue(), value));
+        Assertions.assertEquals(4, store.getInt(press.removeFromQueue(), value));
+        Assertions.assertEquals(2, store.getInt(press.removeFromQueue(), value));
+    }
+}
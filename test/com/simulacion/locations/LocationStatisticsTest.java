@@ -0,0 +1,81 @@
+package com.simulacion.locations;
+
+import com.simulacion.core.SimulationEngine;
+import com.simulacion.processing.ProcessingRule;
+import com.simulacion.processing.RoutingRule;
+import com.simulacion.resources.ResourceStatistics;
+import com.simulacion.statistics.TimeWeightedStatistics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+// Contenido observado de locaciones y recursos al final de una corrida determinista
+class LocationStatisticsTest {
+
+    // Cinco piezas llegan una por minuto a una prensa de capacidad diez y cada
+    // una tarda diez: el contenido sube de 1 a 5 y vuelve a bajar hasta 0
+    @Test
+    void contentsHistogramFollowsTheObservedLevels() {
+        SimulationEngine engine = new SimulationEngine();
+        engine.addEntityType("PIEZA", 100);
+        engine.addLocation("PRENSA", 10, 1);
+        engine.addProcessingRule(new ProcessingRule("PRENSA", "PIEZA", 10) {
+        });
+        engine.addRoutingRule("PRENSA", new RoutingRule("EXIT", 1.0, 1, "FIRST", null));
+        engine.scheduleArrival("PIEZA", "PRENSA", 0, 5, 1.0);
+        engine.run(100);
+
+        LocationStatistics press = engine.getStatistics().getLocationStats().get("PRENSA");
+        TimeWeightedStatistics contents = press.getContentsDistribution();
+        Assertions.assertEquals(10, press.getCapacity());
+        Assertions.assertEquals(5.0, press.getMaxContents());
+        Assertions.assertEquals(0.0, press.getMinContents());
+        Assertions.assertEquals(6, contents.getLevelCount());
+        Assertions.assertEquals(86.0, contents.getTimeAtLevel(0), 1e-9);
+        for (int level = 1; level <= 4; level++) {
+            Assertions.assertEquals(2.0, contents.getTimeAtLevel(level), 1e-9, "nivel " + level);
+        }
+        Assertions.assertEquals(6.0, contents.getTimeAtLevel(5), 1e-9);
+        Assertions.assertEquals(0.5, press.getAverageContents(), 1e-9);
+
+        // La varianza coincide con la del histograma
+        double secondMoment = 0;
+        for (int level = 0; level < contents.getLevelCount(); level++) {
+            secondMoment += level * level * contents.getFractionAtLevel(level);
+        }
+        Assertions.assertEquals(secondMoment - 0.25, contents.getVariance(), 1e-9);
+        Assertions.assertEquals(Math.sqrt(secondMoment - 0.25), press.getContentsStandardDeviation(), 1e-9);
+    }
+
+    // Con más piezas que unidades, el recurso llega a tener todas ocupadas y el
+    // histograma cubre toda la corrida
+    @Test
+    void busyUnitsNeverExceedTheResource() {
+        SimulationEngine engine = new SimulationEngine();
+        engine.addEntityType("PIEZA", 100);
+        engine.addLocation("MUELLE", 100, 1);
+        engine.addLocation("BODEGA", 100, 1);
+        engine.addResource("MONTACARGAS", 2, 50);
+        engine.addProcessingRule(new ProcessingRule("MUELLE", "PIEZA", 0) {
+        });
+        engine.addProcessingRule(new ProcessingRule("BODEGA", "PIEZA", 0) {
+        });
+        engine.addRoutingRule("MUELLE", new RoutingRule("BODEGA", 1.0, 1, "FIRST", "MONTACARGAS"));
+        engine.addRoutingRule("BODEGA", new RoutingRule("EXIT", 1.0, 1, "FIRST", null));
+        engine.scheduleArrival("PIEZA", "MUELLE", 0, 6, 0.5);
+        engine.run(200);
+
+        ResourceStatistics truck = engine.getStatistics().getResourceStats().get("MONTACARGAS");
+        TimeWeightedStatistics busy = truck.getBusyDistribution();
+        Assertions.assertEquals(2, truck.getMaxBusyUnits());
+        Assertions.assertEquals(0, truck.getMinBusyUnits());
+        Assertions.assertEquals(3, busy.getLevelCount());
+        double total = 0;
+        for (int level = 0; level < busy.getLevelCount(); level++) {
+            total += busy.getTimeAtLevel(level);
+        }
+        Assertions.assertEquals(busy.getElapsedTime(), total, 1e-9);
+        Assertions.assertEquals(200.0, busy.getElapsedTime(), 1e-9);
+        Assertions.assertTrue(busy.getTimeAtLevel(2) > 0);
+    }
+}
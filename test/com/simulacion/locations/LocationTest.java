@@ -0,0 +1,68 @@
+package com.simulacion.locations;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Lugar libre de una locación con varias unidades: entradas, salidas,
+// reservas y cambios de capacidad al azar contra la cuenta unidad por unidad
+class LocationTest {
+
+    @Test
+    void canAcceptMatchesTheFreeSpaceOfEveryUnit() {
+        Location location = new Location(new LocationType("HORNO", 3, 5));
+        List<int[]> inside = new ArrayList<>();
+        Random random = new Random(7);
+        int nextEntity = 0;
+        double time = 0;
+
+        for (int step = 0; step < 5000; step++) {
+            time += 1;
+            int action = random.nextInt(5);
+            if (action == 0 && location.canAccept()) {
+                int entity = nextEntity++;
+                inside.add(new int[] {entity, location.enter(entity, time)});
+            } else if (action == 1 && !inside.isEmpty()) {
+                int[] leaving = inside.remove(random.nextInt(inside.size()));
+                location.leave(leaving[0], leaving[1], time);
+            } else if (action == 2) {
+                location.reserve();
+            } else if (action == 3 && location.getReservedCount() > 0) {
+                location.cancelReservation();
+            } else if (action == 4 && random.nextInt(10) == 0) {
+                location.setCapacity(random.nextInt(5), time);
+            }
+
+            long free = 0;
+            for (int unit = 0; unit < location.getUnitCount(); unit++) {
+                free += Math.max(0, location.getType().getCapacity() - location.getUnitOccupancy(unit));
+            }
+            Assertions.assertEquals(location.getReservedCount() < free, location.canAccept(), "paso " + step);
+        }
+    }
+
+    // Las reservas de las entidades en camino ocupan lugar aunque la unidad
+    // todavía tenga espacio
+    @Test
+    void reservationsHoldTheLastPlaces() {
+        Location location = new Location(new LocationType("MESA", 2, 2));
+        location.reserve();
+        location.reserve();
+        location.reserve();
+        Assertions.assertTrue(location.canAccept());
+
+        int unit = location.enter(0, 1.0);
+        Assertions.assertFalse(location.canAccept());
+        Assertions.assertEquals(3, location.getReservedCount());
+
+        location.cancelReservation();
+        Assertions.assertTrue(location.canAccept());
+        location.leave(0, unit, 2.0);
+        location.setCapacity(1, 2.0);
+        location.reserve();
+        Assertions.assertFalse(location.canAccept());
+    }
+}
@@ -0,0 +1,61 @@
+package com.simulacion.locations;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+// UnitSet contra java.util.BitSet con altas y bajas al azar, con más de un
+// grupo de summary para cubrir el salto entre niveles
+class UnitSetTest {
+
+    @Test
+    void nextMatchesBitSet() {
+        int capacity = 64 * 64 * 3 + 17;
+        UnitSet units = new UnitSet(capacity);
+        BitSet expected = new BitSet(capacity);
+        Random random = new Random(42);
+
+        for (int step = 0; step < 20000; step++) {
+            // Pocas unidades presentes, así next tiene que saltar palabras vacías
+            int unit = random.nextInt(capacity);
+            if (random.nextInt(4) == 0) {
+                units.add(unit);
+                expected.set(unit);
+            } else {
+                units.remove(unit);
+                expected.clear(unit);
+            }
+
+            int from = random.nextInt(capacity);
+            Assertions.assertEquals(expected.nextSetBit(from), units.next(from), "next desde " + from);
+            Assertions.assertEquals(expected.get(unit), units.contains(unit));
+            Assertions.assertEquals(expected.isEmpty(), units.isEmpty());
+        }
+    }
+
+    @Test
+    void nextCyclicWrapsToTheStart() {
+        UnitSet units = new UnitSet(200);
+        units.add(3);
+        units.add(130);
+
+        Assertions.assertEquals(130, units.nextCyclic(4));
+        Assertions.assertEquals(3, units.nextCyclic(131));
+        Assertions.assertEquals(-1, units.next(131));
+        Assertions.assertEquals(-1, units.next(200));
+    }
+
+    @Test
+    void addAndRemoveAreIdempotent() {
+        UnitSet units = new UnitSet(10);
+        units.add(5);
+        units.add(5);
+        units.remove(5);
+        Assertions.assertTrue(units.isEmpty());
+        units.remove(5);
+        Assertions.assertTrue(units.isEmpty());
+        Assertions.assertEquals(-1, units.nextCyclic(0));
+    }
+}
@@ -0,0 +1,101 @@
+package com.simulacion.monitor;
+
+import com.simulacion.SimulationTestSupport;
+import com.simulacion.calendar.ShiftCalendar;
+import com.simulacion.core.SimulationEngine;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+// Comandos del endpoint local contra una corrida real de la cervecería
+class SimulationMonitorTest {
+    private static final double END_TIME = 2 * ShiftCalendar.MINUTES_PER_WEEK;
+
+    @Test
+    void stopEndsTheRunAtTheNextNotice() throws IOException {
+        SimulationEngine engine = SimulationTestSupport.brewery();
+        try (SimulationMonitor monitor = new SimulationMonitor(engine, 0, 1000)) {
+            Assertions.assertEquals(200, request(monitor, "POST", "/stop").status);
+            engine.run(END_TIME);
+            monitor.finished();
+
+            Assertions.assertTrue(engine.isStopped());
+            Assertions.assertEquals(SimulationMonitor.EVENT_INTERVAL, engine.getExecutedEventCount());
+            Assertions.assertEquals("STOPPED", monitor.getSnapshot().getState());
+        }
+    }
+
+    @Test
+    void pausedRunWaitsUntilResumed() throws Exception {
+        SimulationEngine engine = SimulationTestSupport.brewery();
+        try (SimulationMonitor monitor = new SimulationMonitor(engine, 0, 1000)) {
+            request(monitor, "POST", "/pause");
+            Thread runner = new Thread(() -> engine.run(END_TIME));
+            runner.start();
+
+            // El hilo de la simulación se queda en el primer aviso
+            while (!"PAUSED".equals(monitor.getSnapshot().getState())) {
+                Thread.sleep(5);
+            }
+            Response paused = request(monitor, "GET", "/metrics");
+            Assertions.assertTrue(paused.body.contains("simulacion_paused 1"), paused.body);
+            Assertions.assertTrue(paused.body.contains("simulacion_events_total " + SimulationMonitor.EVENT_INTERVAL),
+                paused.body);
+            Assertions.assertTrue(runner.isAlive());
+
+            request(monitor, "POST", "/resume");
+            runner.join();
+            monitor.finished();
+            Assertions.assertFalse(engine.isStopped());
+            Assertions.assertEquals("FINISHED", monitor.getSnapshot().getState());
+            Assertions.assertEquals(END_TIME, monitor.getSnapshot().getClockTime());
+        }
+    }
+
+    @Test
+    void commandsRequirePost() throws IOException {
+        SimulationEngine engine = SimulationTestSupport.brewery();
+        try (SimulationMonitor monitor = new SimulationMonitor(engine, 0, 1000)) {
+            Assertions.assertEquals(405, request(monitor, "GET", "/stop").status);
+            Assertions.assertEquals(405, request(monitor, "POST", "/metrics").status);
+            engine.run(END_TIME);
+            Assertions.assertFalse(engine.isStopped());
+        }
+    }
+
+    private static Response request(SimulationMonitor monitor, String method, String path) throws IOException {
+        URL url = new URL("http://127.0.0.1:" + monitor.getPort() + path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        try {
+            int status = connection.getResponseCode();
+            InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            if (in != null) {
+                try (InputStream stream = in) {
+                    stream.transferTo(body);
+                }
+            }
+            return new Response(status, body.toString(StandardCharsets.UTF_8));
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static final class Response {
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.simulacion.processing;
+
+import com.simulacion.arrivals.ArrivalGenerator;
+import com.simulacion.core.SimulationEngine;
+import com.simulacion.entities.EntityStatistics;
+import com.simulacion.entities.EntityStore;
+import com.simulacion.entities.IntAttribute;
+import com.simulacion.resources.ResourceStatistics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+// Rutas, bloqueo y recursos del manejador de operaciones sobre modelos chicos
+class OperationHandlerTest {
+
+    // Una entidad dividida sale sin locación; la copia se ubica como una llegada
+    // (aquí en la misma locación llena, así que espera en la cola) y recorre el
+    // modelo como cualquier otra
+    @Test
+    void splitEntityIsPlacedAsAnArrival() {
+        SimulationEngine engine = new SimulationEngine();
+        engine.addEntityType("BARRIL", 100);
+        IntAttribute part = engine.addIntAttribute("BARRIL", "PARTE");
+        engine.addLocation("CORTE", 1, 1);
+        engine.addLocation("BODEGA", 10, 1);
+        EntityStore store = engine.getEntityStore();
+        int corte = engine.getLocationIndex("CORTE");
+        engine.addProcessingRule(new ProcessingRule("CORTE", "BARRIL", 5) {
+            @Override
+            public void process(int entity, SimulationEngine engine) {
+                if (store.getInt(entity, part) == 0) {
+                    int copy = engine.splitEntity(entity);
+                    store.setInt(copy, part, 1);
+                    Assertions.assertEquals(-1, store.getLocation(copy));
+                    Assertions.assertEquals(-1, store.getUnit(copy));
+                    Assertions.assertEquals(corte, store.getLocation(entity));
+                    engine.getOperationHandler().handleArrival(copy, corte);
+                }
+            }
+        });
+        engine.addProcessingRule(new ProcessingRule("BODEGA", "BARRIL", 1) {
+        });
+        engine.addRoutingRule("CORTE", new RoutingRule("BODEGA", 1.0, 1, "FIRST", null));
+        engine.addRoutingRule("BODEGA", new RoutingRule("EXIT", 1.0, 1, "FIRST", null));
+        engine.scheduleArrival("BARRIL", "CORTE", 0, 3, 20.0);
+        engine.run(200);
+
+        Assertions.assertEquals(6, engine.getStatistics().getEntityStats().get("BARRIL").getTotalExits());
+        Assertions.assertEquals(6, engine.getStatistics().getLocationStats().get("CORTE").getTotalEntries());
+        Assertions.assertEquals(0, engine.getLocation(corte).getCurrentOccupancy());
+        Assertions.assertEquals(0, engine.getLocation(corte).getQueueSize());
+        Assertions.assertEquals(0, store.getLiveCount());
+    }
+
+    // "A AND B" se resuelve como un único reclamo con los recursos en ese orden;
+    // los repetidos y los desconocidos se descartan, y la salida no usa recursos
+    @Test
+    void andRoutesClaimEveryResource() {
+        SimulationEngine engine = new SimulationEngine();
+        engine.addEntityType("CAJA", 100);
+        engine.addLocation("ORIGEN", 10, 1);
+        engine.addLocation("DESTINO", 10, 1);
+        engine.addLocation("FINAL", 10, 1);
+        engine.addResource("OPERADOR", 1, 50);
+        engine.addResource("CAMION", 1, 100);
+        engine.addRoutingRule("ORIGEN", new RoutingRule("DESTINO", 1.0, 1, "FIRST", " CAMION  AND OPERADOR AND CAMION "));
+        engine.addRoutingRule("DESTINO", new RoutingRule("FINAL", 1.0, 1, "FIRST", "OPERADOR AND GRUA"));
+        engine.addRoutingRule("FINAL", new RoutingRule("EXIT", 1.0, 1, "FIRST", "CAMION"));
+
+        OperationHandler handler = engine.getOperationHandler();
+        handler.resolveAllRoutes();
+        int origen = engine.getLocationIndex("ORIGEN");
+        int destino = engine.getLocationIndex("DESTINO");
+        int operador = engine.getResourceIndex("OPERADOR");
+        int camion = engine.getResourceIndex("CAMION");
+        Assertions.assertArrayEquals(new int[] { camion, operador }, handler.getRouteResources(origen, 0));
+        Assertions.assertArrayEquals(new int[] { operador }, handler.getRouteResources(destino, 0));
+        Assertions.assertArrayEquals(new int[0], handler.getRouteResources(engine.getLocationIndex("FINAL"), 0));
+        Assertions.assertEquals(camion, handler.getRouteResource(origen));
+        Assertions.assertEquals(engine.getResourceAllocator().claimFor(new int[] { camion, operador }),
+            engine.getResourceAllocator().claimFor(handler.getRouteResources(origen, 0)));
+    }
+
+    // Dos corrientes comparten el camión y una también necesita al operador: el
+    // reclamo doble se toma entero y nadie queda olvidado en la espera
+    @Test
+    void sharedResourcesServeEveryWaiter() {
+        SimulationEngine engine = new SimulationEngine();
+        engine.addEntityType("CAJA", 100);
+        engine.addEntityType("BARRIL", 100);
+        engine.addLocation("MUELLE", 1000, 1);
+        engine.addLocation("BODEGA", 1000, 1);
+        engine.addLocation("DESTINO", 1000, 1);
+        engine.addResource("OPERADOR", 1, 50);
+        engine.addResource("CAMION", 2, 100);
+        engine.addProcessingRule(new ProcessingRule("MUELLE", "CAJA", 0) {
+        });
+        engine.addProcessingRule(new ProcessingRule("BODEGA", "BARRIL", 0) {
+        });
+        engine.addProcessingRule(new ProcessingRule("DESTINO", "CAJA", 0) {
+        });
+        engine.addProcessingRule(new ProcessingRule("DESTINO", "BARRIL", 0) {
+        });
+        engine.addRoutingRule("MUELLE", new RoutingRule("DESTINO", 1.0, 1, "FIRST", "OPERADOR AND CAMION"));
+        engine.addRoutingRule("BODEGA", new RoutingRule("DESTINO", 1.0, 1, "FIRST", "CAMION"));
+        engine.addRoutingRule("DESTINO", new RoutingRule("EXIT", 1.0, 1, "FIRST", null));
+        // Un pedido por minuto de cada tipo contra viajes de dos minutos: siempre hay espera
+        engine.scheduleArrival("CAJA", "MUELLE", 0, 300, 1.0);
+        engine.scheduleArrival("BARRIL", "BODEGA", 0, 300, 1.0);
+        engine.run(10000);
+
+        Assertions.assertEquals(300, engine.getStatistics().getEntityStats().get("CAJA").getTotalExits());
+        Assertions.assertEquals(300, engine.getStatistics().getEntityStats().get("BARRIL").getTotalExits());
+        Map<String, ResourceStatistics> resources = engine.getStatistics().getResourceStats();
+        Assertions.assertEquals(300, resources.get("OPERADOR").getTotalTrips());
+        Assertions.assertEquals(600, resources.get("CAMION").getTotalTrips());
+        Assertions.assertEquals(1, resources.get("OPERADOR").getMaxBusyUnits());
+        Assertions.assertEquals(2, resources.get("CAMION").getMaxBusyUnits());
+    }
+
+    // ENTRADA -> MAQUINA -> salida con lugar para una entidad en cada una y
+    // llegadas a 0, 2 y 4. La segunda termina en ENTRADA a los 3 y queda
+    // bloqueada hasta que la primera sale de MAQUINA a los 11; la tercera espera
+    // en la cola de ENTRADA hasta ese mismo instante y se bloquea de 12 a 21
+    @Test
+    void blockedEntityResumesWhenTheDestinationFrees() {
+        SimulationEngine engine = new SimulationEngine();
+        engine.addEntityType("PIEZA", 100);
+        engine.addLocation("ENTRADA", 1, 1);
+        engine.addLocation("MAQUINA", 1, 1);
+        engine.addProcessingRule(new ProcessingRule("ENTRADA", "PIEZA", 1) {
+        });
+        engine.addProcessingRule(new ProcessingRule("MAQUINA", "PIEZA", 10) {
+        });
+        engine.addRoutingRule("ENTRADA", new RoutingRule("MAQUINA", 1.0, 1, "FIRST", null));
+        engine.addRoutingRule("MAQUINA", new RoutingRule("EXIT", 1.0, 1, "FIRST", null));
+        engine.scheduleArrival("PIEZA", "ENTRADA", 0, 3, 2.0);
+        engine.run(100);
+
+        EntityStatistics piezas = engine.getStatistics().getEntityStats().get("PIEZA");
+        Assertions.assertEquals(3, piezas.getTotalExits());
+        Assertions.assertEquals(8 + 9, piezas.getTotalBlockedTime(), 1e-9);
+        Assertions.assertEquals(7, piezas.getTotalWaitTime(), 1e-9);
+        Assertions.assertEquals(11 + 19 + 27, piezas.getTotalSystemTime(), 1e-9);
+        Assertions.assertEquals(3, engine.getStatistics().getLocationStats().get("MAQUINA").getTotalEntries());
+    }
+
+    // Cientos de entidades bloqueadas en la misma locación llena pasan de a una
+    // y en el orden en que se bloquearon
+    @Test
+    void manyWaitersPassInBlockingOrder() {
+        SimulationEngine engine = new SimulationEngine();
+        engine.addEntityType("PIEZA", 100);
+        engine.addLocation("ACOPIO", 1000, 1);
+        engine.addLocation("CUELLO", 1, 1);
+        engine.addProcessingRule(new ProcessingRule("ACOPIO", "PIEZA", 0) {
+        });
+        engine.addProcessingRule(new ProcessingRule("CUELLO", "PIEZA", 1) {
+        });
+        engine.addRoutingRule("ACOPIO", new RoutingRule("CUELLO", 1.0, 1, "FIRST", null));
+        engine.addRoutingRule("CUELLO", new RoutingRule("EXIT", 1.0, 1, "FIRST", null));
+        engine.scheduleArrival("PIEZA", "ACOPIO", 0, 500, 0.001);
+        engine.run(1000);
+
+        EntityStatistics piezas = engine.getStatistics().getEntityStats().get("PIEZA");
+        Assertions.assertEquals(500, piezas.getTotalExits());
+        Assertions.assertEquals(0, piezas.getTotalWaitTime(), 1e-9);
+        // La k-ésima llega a 0.001 k y entra a CUELLO en el minuto k
+        double expectedBlocked = 0;
+        for (int k = 1; k < 500; k++) {
+            expectedBlocked += k - 0.001 * k;
+        }
+        Assertions.assertEquals(expectedBlocked, piezas.getTotalBlockedTime(), 1e-6);
+        Assertions.assertEquals(500, piezas.getMaxSystemTime() + 0.001 * 499, 1e-6);
+        Assertions.assertEquals(0, engine.getStatistics().getLocationStats().get("ACOPIO").getCurrentContents());
+    }
+
+    // Un movimiento con recurso reserva su lugar en el destino al salir: la
+    // segunda pieza espera en ENTRADA a que MAQUINA se vacíe y recién ahí toma
+    // al operador, sin llegar nunca a un destino lleno
+    @Test
+    void moveWithResourceWaitsForRoomBeforeLeaving() {
+        SimulationEngine engine = new SimulationEngine();
+        engine.addEntityType("PIEZA", 100);
+        engine.addLocation("ENTRADA", 1, 1);
+        engine.addLocation("MAQUINA", 1, 1);
+        engine.addResource("OPERADOR", 1, 50);
+        engine.addProcessingRule(new ProcessingRule("ENTRADA", "PIEZA", 0) {
+        });
+        engine.addProcessingRule(new ProcessingRule("MAQUINA", "PIEZA", 10) {
+        });
+        engine.addRoutingRule("ENTRADA", new RoutingRule("MAQUINA", 1.0, 1, "FIRST", "OPERADOR"));
+        engine.addRoutingRule("MAQUINA", new RoutingRule("EXIT", 1.0, 1, "FIRST", null));
+        engine.scheduleArrival("PIEZA", "ENTRADA", 0, 2, 0.5);
+        engine.run(100);
+
+        // Viajes de DEFAULT_MOVE_TIME: la primera ocupa MAQUINA de 2 a 12, la
+        // segunda viaja de 12 a 14 y sale a los 24
+        double move = OperationHandler.DEFAULT_MOVE_TIME;
+        EntityStatistics piezas = engine.getStatistics().getEntityStats().get("PIEZA");
+        Assertions.assertEquals(2, piezas.getTotalExits());
+        Assertions.assertEquals(move + 10 - 0.5, piezas.getTotalBlockedTime(), 1e-9);
+        Assertions.assertEquals((move + 10) + (2 * move + 20 - 0.5), piezas.getTotalSystemTime(), 1e-9);
+        Assertions.assertEquals(1, engine.getStatistics().getLocationStats().get("MAQUINA").getMaxContents());
+        Assertions.assertEquals(2, engine.getStatistics().getResourceStats().get("OPERADOR").getTotalTrips());
+    }
+}
@@ -0,0 +1,140 @@
+package com.simulacion.replication;
+
+import com.simulacion.Main;
+import com.simulacion.SimulationTestSupport;
+import com.simulacion.arrivals.ArrivalGenerator;
+import com.simulacion.calendar.ShiftCalendar;
+import com.simulacion.core.SimulationEngine;
+import com.simulacion.locations.LocationStatistics;
+import com.simulacion.output.TableFormatter;
+import com.simulacion.processing.ProcessingRule;
+import com.simulacion.processing.RoutingRule;
+import com.simulacion.statistics.StatisticsCollector;
+import com.simulacion.statistics.TimeWeightedStatistics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Cada réplica del motor en bloque debe coincidir con la corrida de
+// SimulationEngine con la misma semilla
+class LockstepReplicationEngineTest {
+
+    @Test
+    void breweryReplicationsMatchEngineRuns() {
+        ReplicationRunner runner = new ReplicationRunner(Main::configureModel, 2 * ShiftCalendar.MINUTES_PER_WEEK);
+        assertLockstepMatches(runner, 3);
+    }
+
+    // Rutas probabilísticas y movimientos con recurso: cada réplica sortea con
+    // su propio generador, así que las réplicas difieren entre sí
+    @Test
+    void probabilisticRoutesUseOneRandomStreamPerReplication() {
+        ReplicationRunner runner = new ReplicationRunner(LockstepReplicationEngineTest::buildRoutedModel, 20000);
+        runner.setBaseSeed(7);
+        List<String> reports = assertLockstepMatches(runner, 4);
+        Set<String> distinct = new HashSet<>(reports);
+        Assertions.assertEquals(4, distinct.size());
+    }
+
+    // Una locación sin tope de capacidad llega a más niveles de los reservados
+    // de entrada y el histograma de contenido crece sin perder lo acumulado
+    @Test
+    void contentsHistogramGrowsPastThePreallocatedLevels() {
+        ReplicationRunner runner = new ReplicationRunner(engine -> {
+            engine.addEntityType("MOSTO", 100);
+            engine.addLocation("A", 1, 1);
+            engine.addLocation("TANQUE", Integer.MAX_VALUE, 1);
+            engine.addProcessingRule(rule("A", 0.5));
+            engine.addProcessingRule(rule("TANQUE", 5000));
+            engine.addRoutingRule("A", new RoutingRule("TANQUE", 1.0, 1, "FIRST", null));
+            engine.addRoutingRule("TANQUE", new RoutingRule("EXIT", 1.0, 1, "FIRST", null));
+            engine.scheduleArrival("MOSTO", "A", 0, ArrivalGenerator.INFINITE, 1.0);
+        }, 3000);
+        assertLockstepMatches(runner, 2);
+        StatisticsCollector statistics = runner.runLockstep(0, 1).get(0).getStatistics();
+        Assertions.assertTrue(statistics.getLocationStats().get("TANQUE").getMaxContents() > 2000);
+    }
+
+    @Test
+    void rejectsRulesThatOverrideProcessing() {
+        SimulationEngine definition = new SimulationEngine();
+        buildRoutedModel(definition);
+        definition.addProcessingRule(new ProcessingRule("A", "MOSTO", 10) {
+            @Override
+            public double getProcessingTime(int entity, SimulationEngine engine) {
+                return 5;
+            }
+        });
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> new LockstepReplicationEngine(definition, new long[] { 1L }));
+    }
+
+    private static List<String> assertLockstepMatches(ReplicationRunner runner, int width) {
+        List<ReplicationResult> lockstep = runner.runLockstep(0, width);
+        List<String> reports = new ArrayList<>();
+        for (int i = 0; i < width; i++) {
+            ReplicationResult single = runner.runReplication(i);
+            Assertions.assertEquals(single.getSeed(), lockstep.get(i).getSeed());
+            String expected = SimulationTestSupport.report(single.getStatistics());
+            Assertions.assertEquals(expected,
+                SimulationTestSupport.report(lockstep.get(i).getStatistics()), "réplica " + i);
+            assertSameContents(single.getStatistics(), lockstep.get(i).getStatistics());
+            Assertions.assertEquals(percentiles(single.getStatistics()),
+                percentiles(lockstep.get(i).getStatistics()), "réplica " + i);
+            reports.add(expected);
+        }
+        return reports;
+    }
+
+    private static String percentiles(StatisticsCollector statistics) {
+        return TableFormatter.formatPercentileTable(statistics.getEntityStats(), statistics.getLocationStats());
+    }
+
+    // Histograma y momentos del contenido, que las tablas no muestran completos
+    private static void assertSameContents(StatisticsCollector expected, StatisticsCollector actual) {
+        for (LocationStatistics location : expected.getLocationStats().values()) {
+            TimeWeightedStatistics want = location.getContentsDistribution();
+            TimeWeightedStatistics got = actual.getLocationStats().get(location.getLocationName())
+                .getContentsDistribution();
+            String name = location.getLocationName();
+            Assertions.assertEquals(want.getLevelCount(), got.getLevelCount(), name);
+            for (int level = 0; level < want.getLevelCount(); level++) {
+                Assertions.assertEquals(want.getTimeAtLevel(level), got.getTimeAtLevel(level), 1e-6,
+                    name + " nivel " + level);
+            }
+            Assertions.assertEquals(want.getArea(), got.getArea(), 1e-6, name);
+            Assertions.assertEquals(want.getVariance(), got.getVariance(), 1e-9, name);
+            Assertions.assertEquals(want.getMin(), got.getMin(), name);
+            Assertions.assertEquals(want.getMax(), got.getMax(), name);
+        }
+    }
+
+    static void buildRoutedModel(SimulationEngine engine) {
+        engine.addEntityType("MOSTO", 100);
+        engine.addLocation("A", 1, 1);
+        engine.addLocation("B", 2, 1);
+        engine.addLocation("C", 1, 1);
+        engine.addLocation("D", 1, 1);
+        engine.addResource("CAMION", 1, 100);
+        engine.addProcessingRule(rule("A", 10));
+        engine.addProcessingRule(rule("B", 45));
+        engine.addProcessingRule(rule("C", 40));
+        engine.addProcessingRule(rule("D", 25));
+        engine.addRoutingRule("A", new RoutingRule("B", 0.6, 1, "FIRST", null));
+        engine.addRoutingRule("A", new RoutingRule("D", 0.4, 1, "FIRST", "CAMION"));
+        engine.addRoutingRule("B", new RoutingRule("C", 1.0, 1, "FIRST", "CAMION"));
+        engine.addRoutingRule("C", new RoutingRule("EXIT", 1.0, 1, "FIRST", null));
+        engine.addRoutingRule("D", new RoutingRule("EXIT", 1.0, 1, "FIRST", null));
+        engine.scheduleArrival("MOSTO", "A", 0, ArrivalGenerator.INFINITE, 20.0);
+    }
+
+    private static ProcessingRule rule(String location, double time) {
+        return new ProcessingRule(location, "MOSTO", time) {
+        };
+    }
+}
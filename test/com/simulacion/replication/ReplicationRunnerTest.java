@@ -0,0 +1,108 @@
+package com.simulacion.replication;
+
+import com.simulacion.Main;
+import com.simulacion.SimulationTestSupport;
+import com.simulacion.statistics.SampleStatistics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Réplicas independientes en paralelo y réplicas secuenciales hasta la precisión pedida
+class ReplicationRunnerTest {
+
+    // Cada réplica depende solo de (semilla base, índice): ni la cantidad de
+    // hilos ni el lote en que corre cambian su resultado
+    @Test
+    void replicationsDoNotDependOnParallelism() {
+        ReplicationRunner sequential = new ReplicationRunner(LockstepReplicationEngineTest::buildRoutedModel, 20000);
+        sequential.setParallelism(1);
+        ReplicationRunner parallel = new ReplicationRunner(LockstepReplicationEngineTest::buildRoutedModel, 20000);
+        parallel.setParallelism(4);
+
+        List<ReplicationResult> expected = sequential.run(6).getResults();
+        List<ReplicationResult> actual = parallel.run(6).getResults();
+        List<ReplicationResult> tail = parallel.runBatch(3, 3);
+        Set<String> distinct = new HashSet<>();
+        for (int i = 0; i < 6; i++) {
+            Assertions.assertEquals(i, actual.get(i).getIndex());
+            Assertions.assertEquals(sequential.seedFor(i), actual.get(i).getSeed());
+            String report = SimulationTestSupport.report(expected.get(i).getStatistics());
+            Assertions.assertEquals(report,
+                SimulationTestSupport.report(actual.get(i).getStatistics()), "réplica " + i);
+            if (i >= 3) {
+                Assertions.assertEquals(report,
+                    SimulationTestSupport.report(tail.get(i - 3).getStatistics()), "réplica " + i);
+            }
+            distinct.add(report);
+        }
+        Assertions.assertEquals(6, distinct.size());
+    }
+
+    @Test
+    void baseSeedChangesEveryReplication() {
+        ReplicationRunner runner = new ReplicationRunner(Main::configureModel, 2000);
+        long[] seeds = new long[4];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = runner.seedFor(i);
+        }
+        runner.setBaseSeed(99);
+        for (int i = 0; i < seeds.length; i++) {
+            Assertions.assertNotEquals(seeds[i], runner.seedFor(i));
+        }
+    }
+
+    // Los KPI mezclan una muestra por réplica
+    @Test
+    void summaryHasOneSamplePerReplication() {
+        ReplicationRunner runner = new ReplicationRunner(LockstepReplicationEngineTest::buildRoutedModel, 20000);
+        ReplicationSummary summary = runner.run(5);
+        SampleStatistics systemTime = summary.getEntityMetric("MOSTO", EntityMetric.AVERAGE_SYSTEM_TIME);
+
+        Assertions.assertEquals(5, summary.getReplicationCount());
+        Assertions.assertEquals(5, systemTime.getCount());
+        double sum = 0;
+        for (ReplicationResult result : summary.getResults()) {
+            sum += result.getStatistics().getEntityStats().get("MOSTO").getAverageSystemTime();
+        }
+        Assertions.assertEquals(sum / 5, systemTime.getMean(), 1e-9);
+        Assertions.assertTrue(systemTime.getHalfWidth(0.95) > 0);
+    }
+
+    // Con una sola réplica no hay intervalo de confianza: se rechaza antes de correr
+    @Test
+    void precisionRejectsFewerThanTwoReplications() {
+        ReplicationRunner runner = new ReplicationRunner(Main::configureModel, 2000);
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> runner.runUntilPrecision(targets("GRANOS_DE_CEBADA"), 1));
+    }
+
+    @Test
+    void precisionStopsAtTheMaximum() {
+        ReplicationRunner runner = new ReplicationRunner(Main::configureModel, 2000);
+        runner.setParallelism(4);
+        SequentialReplicationResult result = runner.runUntilPrecision(targets("GRANOS_DE_CEBADA"), 2);
+        Assertions.assertEquals(2, result.getReplicationsUsed());
+    }
+
+    @Test
+    void lastBatchIsTrimmedToTheMaximum() {
+        // Rutas probabilísticas: las réplicas difieren y el semiancho no llega a cero
+        ReplicationRunner runner = new ReplicationRunner(LockstepReplicationEngineTest::buildRoutedModel, 20000);
+        runner.setParallelism(4);
+        SequentialReplicationResult result = runner.runUntilPrecision(targets("MOSTO"), 5);
+        Assertions.assertEquals(5, result.getReplicationsUsed());
+        Assertions.assertFalse(result.isPrecisionMet());
+    }
+
+    // Una precisión inalcanzable agota las réplicas en lotes sin pasarse del máximo
+    private static List<PrecisionTarget> targets(String entityType) {
+        List<PrecisionTarget> targets = new ArrayList<>();
+        targets.add(PrecisionTarget.absolute(Kpi.entity(entityType, EntityMetric.AVERAGE_SYSTEM_TIME), 1e-9));
+        return targets;
+    }
+}
@@ -0,0 +1,145 @@
+package com.simulacion.resources;
+
+import com.simulacion.core.SimulationEngine;
+import com.simulacion.entities.EntityStore;
+import com.simulacion.entities.IntAttribute;
+import com.simulacion.entities.QueueDiscipline;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Reclamos de varios recursos: todo o nada, reserva del recurso para el
+// primero en espera y atención de los pedidos al liberar
+class ResourceAllocatorTest {
+    private static final int OPERADOR = 0;
+    private static final int CAMION = 1;
+
+    private final List<Resource> resources = new ArrayList<>();
+    private final ResourceAllocator allocator;
+    private final int operador;
+    private final int camion;
+    private final int ambos;
+
+    ResourceAllocatorTest() {
+        resources.add(new Resource(new ResourceType("OPERADOR", 1, 50)));
+        resources.add(new Resource(new ResourceType("CAMION", 1, 100)));
+        allocator = new ResourceAllocator(resources);
+        operador = allocator.claimFor(new int[] { OPERADOR });
+        camion = allocator.claimFor(new int[] { CAMION });
+        ambos = allocator.claimFor(new int[] { OPERADOR, CAMION });
+    }
+
+    @Test
+    void claimsAreRegisteredOnce() {
+        Assertions.assertEquals(ambos, allocator.claimFor(new int[] { OPERADOR, CAMION }));
+        Assertions.assertNotEquals(ambos, allocator.claimFor(new int[] { CAMION, OPERADOR }));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> allocator.claimFor(new int[] { CAMION, CAMION }));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> allocator.claimFor(new int[] { 7 }));
+    }
+
+    // Con el operador ocupado el pedido de ambos espera sin tomar el camión
+    @Test
+    void partialClaimNeverHoldsAUnit() {
+        allocator.acquire(operador, 0);
+        Assertions.assertFalse(allocator.canGrant(ambos));
+        allocator.enqueue(1, ambos, 3, 2.0);
+        Assertions.assertEquals(1, resources.get(CAMION).getAvailableUnits());
+        Assertions.assertEquals(EntityStore.NONE, allocator.nextGrant(CAMION));
+        Assertions.assertEquals(1, resources.get(CAMION).getAvailableUnits());
+
+        allocator.release(operador, 1);
+        Assertions.assertEquals(1, allocator.nextGrant(OPERADOR));
+        Assertions.assertEquals(ambos, allocator.getPendingClaim(1));
+        Assertions.assertEquals(3, allocator.getPendingDestination(1));
+        Assertions.assertEquals(2.0, allocator.getPendingMoveTime(1));
+        allocator.acquire(ambos, 1);
+        Assertions.assertEquals(0, resources.get(OPERADOR).getAvailableUnits());
+        Assertions.assertEquals(0, resources.get(CAMION).getAvailableUnits());
+    }
+
+    // El camión queda libre pero reservado: un pedido solo del camión no se adelanta
+    @Test
+    void singleResourceRequestDoesNotOvertakeAQueuedClaim() {
+        allocator.acquire(operador, 0);
+        allocator.enqueue(1, ambos, 0, 1.0);
+        Assertions.assertFalse(allocator.canGrant(camion));
+        allocator.enqueue(2, camion, 0, 1.0);
+        Assertions.assertEquals(2, allocator.getWaitingCount(CAMION));
+        Assertions.assertEquals(EntityStore.NONE, allocator.nextGrant(CAMION));
+
+        allocator.release(operador, 1);
+        Assertions.assertEquals(1, allocator.nextGrant(OPERADOR));
+        allocator.acquire(ambos, 1);
+        Assertions.assertEquals(EntityStore.NONE, allocator.nextGrant(CAMION));
+
+        allocator.release(ambos, 2);
+        Assertions.assertEquals(EntityStore.NONE, allocator.nextGrant(OPERADOR));
+        Assertions.assertEquals(2, allocator.nextGrant(CAMION));
+        Assertions.assertEquals(0, allocator.getWaitingCount(CAMION));
+    }
+
+    // Al liberar el operador se atiende al primero que lo espera, no al primero en general
+    @Test
+    void releaseWakesTheWaiterOfThatResource() {
+        allocator.acquire(operador, 0);
+        allocator.acquire(camion, 0);
+        allocator.enqueue(1, camion, 0, 1.0);
+        allocator.enqueue(2, operador, 0, 1.0);
+        allocator.enqueue(3, operador, 0, 1.0);
+
+        allocator.release(operador, 1);
+        Assertions.assertEquals(2, allocator.nextGrant(OPERADOR));
+        allocator.acquire(operador, 1);
+        Assertions.assertEquals(EntityStore.NONE, allocator.nextGrant(OPERADOR));
+
+        allocator.release(camion, 2);
+        Assertions.assertEquals(1, allocator.nextGrant(CAMION));
+        allocator.acquire(camion, 2);
+
+        allocator.release(operador, 3);
+        Assertions.assertEquals(3, allocator.nextGrant(OPERADOR));
+        Assertions.assertEquals(0, allocator.getWaitingCount(OPERADOR));
+    }
+
+    // Entre reclamos distintos que esperan el mismo recurso decide el orden de pedido
+    @Test
+    void headsOfDifferentClaimsAreServedInRequestOrder() {
+        allocator.acquire(operador, 0);
+        allocator.enqueue(1, ambos, 0, 1.0);
+        allocator.enqueue(2, operador, 0, 1.0);
+
+        allocator.release(operador, 1);
+        Assertions.assertEquals(1, allocator.nextGrant(OPERADOR));
+        allocator.acquire(ambos, 1);
+        allocator.release(ambos, 2);
+        Assertions.assertEquals(2, allocator.nextGrant(OPERADOR));
+    }
+
+    @Test
+    void priorityDisciplineServesTheHighestKeyFirst() {
+        SimulationEngine engine = new SimulationEngine();
+        engine.addEntityType("PEDIDO", 10);
+        IntAttribute prioridad = engine.addIntAttribute("PEDIDO", "PRIORIDAD");
+        double[] keys = { 0, 1, 5, 3 };
+        resources.get(OPERADOR).setQueueDiscipline(QueueDiscipline.priority(prioridad), entity -> keys[entity]);
+        allocator.reorder(OPERADOR);
+
+        allocator.acquire(operador, 0);
+        allocator.enqueue(1, operador, 0, 1.0);
+        allocator.enqueue(2, operador, 0, 1.0);
+        allocator.enqueue(3, operador, 0, 1.0);
+        // La clave cuenta al encolar: cambiarla después no reordena
+        keys[1] = 10;
+
+        int[] served = new int[3];
+        for (int i = 0; i < served.length; i++) {
+            allocator.release(operador, i + 1);
+            served[i] = allocator.nextGrant(OPERADOR);
+            allocator.acquire(operador, i + 1);
+        }
+        Assertions.assertArrayEquals(new int[] { 2, 3, 1 }, served);
+    }
+}
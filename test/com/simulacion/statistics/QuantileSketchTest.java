@@ -0,0 +1,86 @@
+package com.simulacion.statistics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.DoubleSupplier;
+
+class QuantileSketchTest {
+    private static final double[] QUANTILES = { 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999 };
+
+    @Test
+    void exponentialQuantilesWithinRelativeAccuracy() {
+        Random random = new Random(1);
+        assertRelativeError(() -> -Math.log(1.0 - random.nextDouble()) * 30.0, 100000, QUANTILES);
+    }
+
+    @Test
+    void lognormalQuantilesWithinRelativeAccuracy() {
+        Random random = new Random(2);
+        assertRelativeError(() -> Math.exp(random.nextGaussian() * 3.0), 100000, QUANTILES);
+    }
+
+    // Más de MAX_BUCKETS cubetas: se juntan las bajas y los percentiles altos conservan la precisión
+    @Test
+    void highQuantilesSurviveCollapsedBuckets() {
+        Random random = new Random(3);
+        assertRelativeError(() -> Math.pow(10, -12 + 30 * random.nextDouble()), 50000,
+            new double[] { 0.5, 0.9, 0.99 });
+    }
+
+    @Test
+    void mergeEqualsSingleSketch() {
+        Random random = new Random(4);
+        QuantileSketch whole = new QuantileSketch();
+        QuantileSketch left = new QuantileSketch();
+        QuantileSketch right = new QuantileSketch();
+        for (int i = 0; i < 20000; i++) {
+            double value = random.nextDouble() * 1000.0;
+            whole.add(value);
+            (i % 3 == 0 ? left : right).add(value);
+        }
+        left.merge(right);
+
+        Assertions.assertEquals(whole.getCount(), left.getCount());
+        Assertions.assertEquals(whole.getMin(), left.getMin());
+        Assertions.assertEquals(whole.getMax(), left.getMax());
+        for (double q : QUANTILES) {
+            Assertions.assertEquals(whole.getQuantile(q), left.getQuantile(q), "q=" + q);
+        }
+    }
+
+    @Test
+    void extremesAndZerosAreExact() {
+        QuantileSketch sketch = new QuantileSketch();
+        Assertions.assertEquals(0, sketch.getQuantile(0.5));
+        sketch.add(0.0, 10);
+        sketch.add(-1e-9);
+        sketch.add(7.25);
+        sketch.add(3.5);
+
+        Assertions.assertEquals(13, sketch.getCount());
+        Assertions.assertEquals(0.0, sketch.getMin());
+        Assertions.assertEquals(0.0, sketch.getQuantile(0.5));
+        Assertions.assertEquals(7.25, sketch.getQuantile(1.0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sketch.getQuantile(1.5));
+    }
+
+    private static void assertRelativeError(DoubleSupplier source, int count, double[] quantiles) {
+        QuantileSketch sketch = new QuantileSketch();
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = source.getAsDouble();
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double q : quantiles) {
+            double exact = values[(int) Math.floor(q * (count - 1))];
+            double estimate = sketch.getQuantile(q);
+            Assertions.assertTrue(Math.abs(estimate - exact) <= QuantileSketch.RELATIVE_ACCURACY * exact,
+                "q=" + q + " exacto " + exact + " estimado " + estimate);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.simulacion.statistics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+// Acumulados ponderados por tiempo sobre un recorrido escalonado conocido
+class TimeWeightedStatisticsTest {
+
+    // Nivel 2 en [0, 4), 5 en [4, 6), 0 en [6, 10): media 1.8, E[x²] = 6.6
+    @Test
+    void stepPathHasTheExpectedMoments() {
+        TimeWeightedStatistics contents = new TimeWeightedStatistics();
+        contents.update(0, 2);
+        contents.update(4, 5);
+        contents.update(6, 0);
+        contents.advance(10);
+
+        Assertions.assertEquals(18.0, contents.getArea(), 1e-12);
+        Assertions.assertEquals(66.0, contents.getSquareArea(), 1e-12);
+        Assertions.assertEquals(1.8, contents.getMean(), 1e-12);
+        Assertions.assertEquals(6.6 - 1.8 * 1.8, contents.getVariance(), 1e-12);
+        Assertions.assertEquals(0, contents.getMin());
+        Assertions.assertEquals(5, contents.getMax());
+        Assertions.assertEquals(6, contents.getLevelCount());
+        Assertions.assertEquals(4.0, contents.getTimeAtLevel(0), 1e-12);
+        Assertions.assertEquals(4.0, contents.getTimeAtLevel(2), 1e-12);
+        Assertions.assertEquals(2.0, contents.getTimeAtLevel(5), 1e-12);
+        Assertions.assertEquals(0.0, contents.getTimeAtLevel(3));
+        Assertions.assertEquals(0.2, contents.getFractionAtLevel(5), 1e-12);
+        Assertions.assertEquals(0.0, contents.getTimeAtLevel(-1));
+        Assertions.assertEquals(0.0, contents.getTimeAtLevel(99));
+    }
+
+    // Varios cambios en el mismo instante no suman tiempo a los niveles intermedios
+    @Test
+    void simultaneousChangesOnlyCountForMinAndMax() {
+        TimeWeightedStatistics contents = new TimeWeightedStatistics();
+        contents.update(1, 3);
+        contents.update(1, 9);
+        contents.update(1, 1);
+        contents.advance(3);
+
+        Assertions.assertEquals(9, contents.getMax());
+        Assertions.assertEquals(0.0, contents.getTimeAtLevel(9));
+        Assertions.assertEquals(0.0, contents.getTimeAtLevel(3));
+        Assertions.assertEquals(2.0, contents.getTimeAtLevel(1), 1e-12);
+        Assertions.assertEquals(2, contents.getLevelCount());
+    }
+
+    // El reinicio arranca el período medido con el nivel vigente
+    @Test
+    void resetStartsFromTheCurrentLevel() {
+        TimeWeightedStatistics contents = new TimeWeightedStatistics();
+        contents.update(0, 7);
+        contents.update(5, 3);
+        contents.reset(8);
+        contents.advance(10);
+
+        Assertions.assertEquals(8.0, contents.getStartTime());
+        Assertions.assertEquals(2.0, contents.getElapsedTime(), 1e-12);
+        Assertions.assertEquals(3, contents.getMin());
+        Assertions.assertEquals(3, contents.getMax());
+        Assertions.assertEquals(3.0, contents.getMean(), 1e-12);
+        Assertions.assertEquals(0.0, contents.getVariance(), 1e-12);
+        Assertions.assertEquals(0.0, contents.getTimeAtLevel(7));
+        Assertions.assertEquals(1.0, contents.getFractionAtLevel(3), 1e-12);
+    }
+
+    @Test
+    void copyUntilLeavesTheOriginalUntouched() {
+        TimeWeightedStatistics contents = new TimeWeightedStatistics();
+        contents.update(0, 1);
+        contents.update(2, 12);
+
+        TimeWeightedStatistics closed = contents.copyUntil(4);
+        Assertions.assertEquals(2.0, contents.getLastUpdateTime());
+        Assertions.assertEquals(2.0, contents.getArea(), 1e-12);
+        Assertions.assertEquals(26.0, closed.getArea(), 1e-12);
+        Assertions.assertEquals(2.0, closed.getTimeAtLevel(12), 1e-12);
+        Assertions.assertEquals(12, closed.getLevel());
+
+        closed.update(5, 0);
+        Assertions.assertEquals(12, contents.getLevel());
+        Assertions.assertEquals(0.0, contents.getTimeAtLevel(12));
+    }
+}
@@ -0,0 +1,57 @@
+package com.simulacion.steadystate;
+
+import com.simulacion.SimulationTestSupport;
+import com.simulacion.arrivals.ArrivalGenerator;
+import com.simulacion.core.SimulationEngine;
+import com.simulacion.output.TableFormatter;
+import com.simulacion.processing.ProcessingRule;
+import com.simulacion.processing.RoutingRule;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+// Detección del calentamiento con MSER-5 y corte por medias por lotes
+class SteadyStateControllerTest {
+
+    // Un pedido cada 20 minutos, atendido en 10: cada hora es igual a la anterior
+    @Test
+    void stationaryModelResetsStatisticsAtDetection() {
+        SimulationEngine engine = new SimulationEngine();
+        engine.addEntityType("PEDIDO", 100);
+        engine.addLocation("MOSTRADOR", 1, 1);
+        engine.addProcessingRule(new ProcessingRule("MOSTRADOR", "PEDIDO", 10) {
+        });
+        engine.addRoutingRule("MOSTRADOR", new RoutingRule("EXIT", 1.0, 1, "FIRST", null));
+        engine.scheduleArrival("PEDIDO", "MOSTRADOR", 0, ArrivalGenerator.INFINITE, 20.0);
+
+        SteadyStateController controller = new SteadyStateController(engine, 60.0, 100000);
+        controller.addSeries(OutputSeries.locationContents("MOSTRADOR"), 0.05);
+        SteadyStateResult result = controller.run();
+
+        Assertions.assertTrue(result.isWarmupDetected());
+        Assertions.assertTrue(result.isPrecisionMet());
+        Assertions.assertEquals(result.getDetectionTime(), engine.getStatisticsStartTime());
+        Assertions.assertEquals(result.getEndTime() - result.getDetectionTime(), result.getMeasuredTime());
+        Assertions.assertEquals(0.5, result.getMean(0), 1e-9);
+        Assertions.assertTrue(TableFormatter.formatSteadyStateResult(result).contains("Período medido"));
+    }
+
+    // Sin punto de truncamiento el reporte lo dice y no muestra un período medido vacío
+    @Test
+    void undetectedWarmupIsReportedAsSuch() {
+        SimulationEngine engine = SimulationTestSupport.brewery();
+        SteadyStateController controller = new SteadyStateController(engine, 60.0, 600);
+        controller.addSeries(OutputSeries.locationContents("EMPACADO"), 0.05);
+        SteadyStateResult result = controller.run();
+
+        Assertions.assertFalse(result.isWarmupDetected());
+        Assertions.assertTrue(Double.isNaN(result.getMeasuredTime()));
+        Assertions.assertEquals(0.0, engine.getStatisticsStartTime());
+        Assertions.assertEquals(600.0, result.getEndTime());
+
+        String report = TableFormatter.formatSteadyStateResult(result);
+        Assertions.assertTrue(report.contains("ESTADO ESTABLE: no detectado"), report);
+        Assertions.assertFalse(report.contains("Período medido"), report);
+        Assertions.assertFalse(report.contains("Semiancho"), report);
+    }
+}
@@ -0,0 +1,101 @@
+package com.simulacion.synthetic;
+
+import com.simulacion.core.SimulationEngine;
+import com.simulacion.output.TableFormatter;
+import com.simulacion.processing.OperationHandler;
+import com.simulacion.statistics.StatisticsCollector;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+// La estructura del modelo sintético sale solo de la semilla y respeta las etapas
+class SyntheticModelGeneratorTest {
+
+    @Test
+    void sameSeedBuildsTheSameModel() {
+        SyntheticModelGenerator generator = generator(37, 5, 7L);
+        Assertions.assertEquals(run(generator), run(generator));
+        Assertions.assertNotEquals(run(generator), run(generator(37, 5, 8L)));
+    }
+
+    // 37 locaciones en 5 etapas: 8, 8, 7, 7 y 7. Cada locación enruta a fanOut
+    // locaciones distintas de la etapa siguiente y la última sale del sistema
+    @Test
+    void routesFollowTheStages() {
+        SimulationEngine engine = new SimulationEngine();
+        generator(37, 5, 7L).configure(engine);
+        OperationHandler handler = engine.getOperationHandler();
+        handler.resolveAllRoutes();
+
+        int[] stageStart = { 0, 8, 16, 23, 30, 37 };
+        Assertions.assertEquals(37, engine.getLocationCount());
+        Assertions.assertEquals(3, engine.getResourceCount());
+        Assertions.assertEquals(8, engine.getArrivalGenerator().getStreams().size());
+        for (int s = 0; s < 5; s++) {
+            for (int i = stageStart[s]; i < stageStart[s + 1]; i++) {
+                int location = engine.getLocationIndex(SyntheticModelGenerator.locationName(i));
+                if (s == 4) {
+                    Assertions.assertEquals(1, handler.getRouteCount(location));
+                    Assertions.assertEquals(-1, handler.getRouteDestination(location));
+                    continue;
+                }
+                Assertions.assertEquals(2, handler.getRouteCount(location));
+                int first = handler.getRouteDestination(location, 0);
+                int second = handler.getRouteDestination(location, 1);
+                Assertions.assertNotEquals(first, second);
+                for (int destination : new int[] { first, second }) {
+                    Assertions.assertTrue(destination >= stageStart[s + 1] && destination < stageStart[s + 2],
+                        SyntheticModelGenerator.locationName(i) + " -> " + destination);
+                }
+            }
+        }
+    }
+
+    @Test
+    void networkModelRunsToCompletion() {
+        SyntheticModelGenerator generator = generator(40, 4, 3L);
+        generator.setNetworkNodeCount(60);
+        SimulationEngine engine = new SimulationEngine();
+        generator.configure(engine);
+        engine.run(3000);
+
+        Assertions.assertNotNull(engine.getPathNetwork());
+        int exits = 0;
+        for (int i = 0; i < 2; i++) {
+            exits += engine.getStatistics().getEntityStats().get(SyntheticModelGenerator.entityTypeName(i))
+                .getTotalExits();
+        }
+        Assertions.assertTrue(exits > 0);
+    }
+
+    @Test
+    void measurementCountsTheRunEvents() {
+        ScalingBenchmark.Measurement measurement = ScalingBenchmark.measure(generator(20, 4, 5L), 2000, 11L);
+        Assertions.assertTrue(measurement.getEvents() > 0);
+        Assertions.assertTrue(measurement.getEventsPerSecond() > 0);
+        Assertions.assertTrue(measurement.getPeakHeapMegabytes() > 0);
+    }
+
+    private static SyntheticModelGenerator generator(int locations, int stages, long seed) {
+        SyntheticModelGenerator generator = new SyntheticModelGenerator();
+        generator.setLocationCount(locations);
+        generator.setStageCount(stages);
+        generator.setEntityTypeCount(2);
+        generator.setResourceCount(3);
+        generator.setFanOut(2);
+        generator.setResourceRouteFraction(0.5);
+        generator.setSeed(seed);
+        return generator;
+    }
+
+    // Misma semilla del motor en todas las corridas: solo cambia el modelo
+    private static String run(SyntheticModelGenerator generator) {
+        SimulationEngine engine = new SimulationEngine();
+        engine.setRandomSeed(1L);
+        generator.configure(engine);
+        engine.run(3000);
+        StatisticsCollector statistics = engine.getStatistics();
+        return TableFormatter.formatEntityTable(statistics.getEntityStats())
+            + TableFormatter.formatLocationTable(statistics.getLocationStats());
+    }
+}
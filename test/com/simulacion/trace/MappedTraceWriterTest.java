@@ -0,0 +1,125 @@
+package com.simulacion.trace;
+
+import com.simulacion.SimulationTestSupport;
+import com.simulacion.core.SimulationEngine;
+import com.simulacion.core.TypedEvent;
+import com.simulacion.entities.EntityStore;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// La traza leída de los segmentos debe repetir, registro por registro, los
+// eventos que el motor le pasó al escritor
+class MappedTraceWriterTest {
+    private static final double END_TIME = 3000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readerReturnsEveryRecordedEvent() throws IOException {
+        Path base = directory.resolve("corrida");
+        List<String> expected = new ArrayList<>();
+        long written = traceBrewery(base, 100000, 0, expected);
+
+        List<String> actual = new ArrayList<>();
+        TraceReader reader = new TraceReader(base);
+        long matched = reader.scan(record -> true, record -> actual.add(format(record)));
+
+        Assertions.assertEquals(expected.size(), written);
+        Assertions.assertEquals(written, matched);
+        Assertions.assertEquals(expected, actual);
+    }
+
+    // Con segmentos chicos y un anillo de tres quedan los últimos registros
+    @Test
+    void ringKeepsTheLastSegments() throws IOException {
+        Path base = directory.resolve("anillo");
+        List<String> expected = new ArrayList<>();
+        long written = traceBrewery(base, 100, 3, expected);
+        Assertions.assertTrue(written > 300);
+
+        List<String> actual = new ArrayList<>();
+        new TraceReader(base).scan(record -> true, record -> actual.add(format(record)));
+        int kept = (int) (200 + (written - 1) % 100 + 1);
+        Assertions.assertEquals(expected.subList(expected.size() - kept, expected.size()), actual);
+    }
+
+    // Un segmento de más de 2 GB no se puede mapear: se rechaza antes de crear archivos
+    @Test
+    void rejectsSegmentsLargerThanOneMapping() {
+        SimulationEngine engine = new SimulationEngine();
+        Path base = directory.resolve("enorme");
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> new MappedTraceWriter(base, engine, MappedTraceWriter.MAX_RECORDS_PER_SEGMENT + 1, 0));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> new MappedTraceWriter(base, engine, 0, 0));
+    }
+
+    // Un segundo escritor con la misma base borra los segmentos anteriores
+    @Test
+    void newTraceReplacesTheOldSegments() throws IOException {
+        Path base = directory.resolve("repetida");
+        traceBrewery(base, 100, 0, new ArrayList<>());
+        List<String> expected = new ArrayList<>();
+        traceBrewery(base, 100000, 0, expected);
+
+        List<String> actual = new ArrayList<>();
+        new TraceReader(base).scan(record -> true, record -> actual.add(format(record)));
+        Assertions.assertEquals(expected, actual);
+    }
+
+    @Test
+    void csvExportDecodesNamesAndFilters() throws IOException {
+        Path base = directory.resolve("csv");
+        traceBrewery(base, 100000, 0, new ArrayList<>());
+        TraceReader reader = new TraceReader(base);
+        int empacado = reader.findLocation("EMPACADO");
+        Assertions.assertTrue(empacado >= 0);
+        Assertions.assertEquals(-1, reader.findLocation("NO_EXISTE"));
+
+        StringWriter text = new StringWriter();
+        long rows;
+        try (PrintWriter writer = new PrintWriter(text)) {
+            rows = reader.exportCsv(record -> record.getLocationIndex() == empacado, writer);
+        }
+        String[] lines = text.toString().split("\\R");
+        Assertions.assertTrue(rows > 0);
+        Assertions.assertEquals(rows + 1, lines.length);
+        Assertions.assertEquals("Tiempo,Secuencia,Evento,Entidad,Locacion,Recurso", lines[0]);
+        for (int i = 1; i < lines.length; i++) {
+            Assertions.assertEquals("EMPACADO", lines[i].split(",")[4], lines[i]);
+        }
+    }
+
+    // Corre la cervecería con el escritor y anota cada evento como lo vería el lector
+    private static long traceBrewery(Path base, int recordsPerSegment, int maxSegments, List<String> expected)
+            throws IOException {
+        SimulationEngine engine = SimulationTestSupport.brewery();
+        EntityStore store = engine.getEntityStore();
+        try (MappedTraceWriter writer = new MappedTraceWriter(base, engine, recordsPerSegment, maxSegments)) {
+            engine.setTraceSink(event -> {
+                TypedEvent typed = (TypedEvent) event;
+                int entityId = typed.getEntity() >= 0 ? store.getId(typed.getEntity()) : -1;
+                expected.add(format(new TraceRecord(typed.getScheduledTime(), typed.getSequence(),
+                    typed.getHandlerId(), entityId, typed.getLocationIndex(), typed.getResourceIndex())));
+                writer.record(event);
+            });
+            engine.run(END_TIME);
+            return writer.getRecordCount();
+        }
+    }
+
+    private static String format(TraceRecord record) {
+        return record.getTime() + " " + record.getSequence() + " " + record.getKind() + " " + record.getEntityId()
+            + " " + record.getLocationIndex() + " " + record.getResourceIndex();
+    }
+}